@@ -23,6 +23,16 @@ repositories {
 
 var springBootVersion = "3.5.7"
 var springAIVersion = "1.1.0"
+var jmhVersion = "1.37"
+
+// JMH benchmarks live in src/jmh/java and see the main classes and their dependencies
+val jmh: SourceSet by sourceSets.creating {
+    compileClasspath += sourceSets.main.get().output
+    runtimeClasspath += sourceSets.main.get().output
+}
+
+configurations[jmh.implementationConfigurationName].extendsFrom(configurations.implementation.get())
+configurations[jmh.runtimeOnlyConfigurationName].extendsFrom(configurations.runtimeOnly.get())
 
 dependencies {
 
@@ -46,11 +56,15 @@ dependencies {
     }
     testImplementation("org.springframework.boot:spring-boot-starter-test")
     testRuntimeOnly("org.junit.platform:junit-platform-launcher")
-    testRuntimeOnly("com.h2database:h2")
+    testImplementation("com.h2database:h2")
     testImplementation("org.apache.commons:commons-csv:1.10.0")
     implementation("com.github.jsqlparser:jsqlparser:4.9")
 
-    testImplementation("org.javai:punit:0.1.0")}
+    testImplementation("org.javai:punit:0.1.0")
+
+    "jmhImplementation"("org.openjdk.jmh:jmh-core:$jmhVersion")
+    "jmhAnnotationProcessor"("org.openjdk.jmh:jmh-generator-annprocess:$jmhVersion")
+}
 
 // Exclude Spring Boot's default Logback starter to avoid conflicts with Log4j2
 configurations.all {
@@ -67,6 +81,23 @@ tasks.withType<Test> {
     useJUnitPlatform()
 }
 
+// Run with: ./gradlew jmh [-Pjmh.includes=<regex>] [-Pjmh.args="<extra JMH options>"]
+tasks.register<JavaExec>("jmh") {
+    group = "verification"
+    description = "Runs the JMH benchmarks and writes JSON results to build/reports/jmh."
+    classpath = jmh.runtimeClasspath
+    mainClass = "org.openjdk.jmh.Main"
+    val resultFile = layout.buildDirectory.file("reports/jmh/results.json")
+    outputs.file(resultFile)
+    outputs.upToDateWhen { false }
+    doFirst {
+        resultFile.get().asFile.parentFile.mkdirs()
+        args(listOfNotNull(project.findProperty("jmh.includes")?.toString()))
+        args(project.findProperty("jmh.args")?.toString()?.split(" ")?.filter { it.isNotBlank() } ?: listOf<String>())
+        args("-rf", "json", "-rff", resultFile.get().asFile.absolutePath)
+    }
+}
+
 // Configure Spring Boot to not create a bootJar by default.
 // Instead, use the plain JAR as the main artifact for library consumption.
 tasks {
@@ -0,0 +1,268 @@
+package org.javai.springai.actions.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.javai.springai.actions.api.Action;
+import org.javai.springai.actions.api.Mutability;
+import org.javai.springai.actions.internal.bind.ActionRegistry;
+import org.javai.springai.actions.sql.InMemorySqlCatalog;
+
+/**
+ * Synthetic catalogs, action beans and plans shared by the benchmarks.
+ * <p>
+ * Action registries are built from fixed groups of {@value #ACTIONS_PER_GROUP} actions, as action
+ * ids are method names; sizes are therefore multiples of the group size up to
+ * {@value #MAX_ACTIONS}. Catalog tables are named {@code t_0000}, {@code t_0001}, ... with the
+ * model-facing synonym {@code entity0000}, ... and the same four columns each.
+ */
+final class BenchmarkFixtures {
+
+	static final int ACTIONS_PER_GROUP = 8;
+	static final int MAX_ACTIONS = 32;
+
+	private BenchmarkFixtures() {
+	}
+
+	/**
+	 * Action beans exposing the given number of actions.
+	 *
+	 * @param actionCount a multiple of {@value #ACTIONS_PER_GROUP}, at most {@value #MAX_ACTIONS}
+	 */
+	static Object[] actionBeans(int actionCount) {
+		if (actionCount % ACTIONS_PER_GROUP != 0 || actionCount > MAX_ACTIONS) {
+			throw new IllegalArgumentException("actionCount must be a multiple of " + ACTIONS_PER_GROUP
+					+ " up to " + MAX_ACTIONS);
+		}
+		Object[] all = { new ActionGroup0(), new ActionGroup1(), new ActionGroup2(), new ActionGroup3() };
+		Object[] beans = new Object[actionCount / ACTIONS_PER_GROUP];
+		System.arraycopy(all, 0, beans, 0, beans.length);
+		return beans;
+	}
+
+	static ActionRegistry actionRegistry(int actionCount) {
+		ActionRegistry registry = new ActionRegistry();
+		for (Object bean : actionBeans(actionCount)) {
+			registry.registerActions(bean);
+		}
+		return registry;
+	}
+
+	/**
+	 * JSON plan invoking the first {@code stepCount} actions of the registry, cycling if needed.
+	 */
+	static String planJson(int stepCount, int actionCount) {
+		List<String> steps = new ArrayList<>(stepCount);
+		for (int i = 0; i < stepCount; i++) {
+			int action = i % actionCount;
+			steps.add("""
+					{"actionId": "%s", "description": "Step %d", "parameters": {"input": "value-%d", "amount": %d}}"""
+					.formatted(actionId(action), i, i, i));
+		}
+		return """
+				{"message": "Synthetic plan", "steps": [%s]}""".formatted(String.join(",", steps));
+	}
+
+	static String actionId(int index) {
+		return "group" + index / ACTIONS_PER_GROUP + "Action" + index % ACTIONS_PER_GROUP;
+	}
+
+	/**
+	 * Catalog with the given number of tables, model names enabled.
+	 */
+	static InMemorySqlCatalog catalog(int tableCount) {
+		InMemorySqlCatalog catalog = new InMemorySqlCatalog().withModelNames(true);
+		for (int i = 0; i < tableCount; i++) {
+			String table = tableName(i);
+			catalog.addTable(table, "Synthetic table " + i, i % 2 == 0 ? "fact" : "dim")
+					.withSynonyms(table, modelTableName(i))
+					.addColumn(table, "id", "Primary key", "bigint", new String[] { "pk" }, null)
+					.addColumn(table, "parent_id", "Parent row", "bigint",
+							new String[] { "fk:" + tableName(Math.max(0, i - 1)) + ".id" }, null)
+					.addColumn(table, "label", "Display label", "varchar", null, null)
+					.addColumn(table, "amount", "Amount", "decimal", null, null)
+					.withColumnSynonyms(table, "label", "title")
+					.withColumnSynonyms(table, "amount", "total");
+		}
+		return catalog;
+	}
+
+	static String tableName(int index) {
+		return "t_%04d".formatted(index);
+	}
+
+	static String modelTableName(int index) {
+		return "entity%04d".formatted(index);
+	}
+
+	public static final class ActionGroup0 {
+
+		@Action(description = "Synthetic action 0 of group 0", mutability = Mutability.READ_ONLY)
+		public int group0Action0(String input, int amount) {
+			return input.length() + amount;
+		}
+
+		@Action(description = "Synthetic action 1 of group 0", mutability = Mutability.READ_ONLY)
+		public int group0Action1(String input, int amount) {
+			return input.length() + amount;
+		}
+
+		@Action(description = "Synthetic action 2 of group 0", mutability = Mutability.READ_ONLY)
+		public int group0Action2(String input, int amount) {
+			return input.length() + amount;
+		}
+
+		@Action(description = "Synthetic action 3 of group 0", mutability = Mutability.READ_ONLY)
+		public int group0Action3(String input, int amount) {
+			return input.length() + amount;
+		}
+
+		@Action(description = "Synthetic action 4 of group 0", mutability = Mutability.READ_ONLY)
+		public int group0Action4(String input, int amount) {
+			return input.length() + amount;
+		}
+
+		@Action(description = "Synthetic action 5 of group 0", mutability = Mutability.READ_ONLY)
+		public int group0Action5(String input, int amount) {
+			return input.length() + amount;
+		}
+
+		@Action(description = "Synthetic action 6 of group 0", mutability = Mutability.READ_ONLY)
+		public int group0Action6(String input, int amount) {
+			return input.length() + amount;
+		}
+
+		@Action(description = "Synthetic action 7 of group 0", mutability = Mutability.READ_ONLY)
+		public int group0Action7(String input, int amount) {
+			return input.length() + amount;
+		}
+	}
+
+	public static final class ActionGroup1 {
+
+		@Action(description = "Synthetic action 0 of group 1", mutability = Mutability.READ_ONLY)
+		public int group1Action0(String input, int amount) {
+			return input.length() + amount;
+		}
+
+		@Action(description = "Synthetic action 1 of group 1", mutability = Mutability.READ_ONLY)
+		public int group1Action1(String input, int amount) {
+			return input.length() + amount;
+		}
+
+		@Action(description = "Synthetic action 2 of group 1", mutability = Mutability.READ_ONLY)
+		public int group1Action2(String input, int amount) {
+			return input.length() + amount;
+		}
+
+		@Action(description = "Synthetic action 3 of group 1", mutability = Mutability.READ_ONLY)
+		public int group1Action3(String input, int amount) {
+			return input.length() + amount;
+		}
+
+		@Action(description = "Synthetic action 4 of group 1", mutability = Mutability.READ_ONLY)
+		public int group1Action4(String input, int amount) {
+			return input.length() + amount;
+		}
+
+		@Action(description = "Synthetic action 5 of group 1", mutability = Mutability.READ_ONLY)
+		public int group1Action5(String input, int amount) {
+			return input.length() + amount;
+		}
+
+		@Action(description = "Synthetic action 6 of group 1", mutability = Mutability.READ_ONLY)
+		public int group1Action6(String input, int amount) {
+			return input.length() + amount;
+		}
+
+		@Action(description = "Synthetic action 7 of group 1", mutability = Mutability.READ_ONLY)
+		public int group1Action7(String input, int amount) {
+			return input.length() + amount;
+		}
+	}
+
+	public static final class ActionGroup2 {
+
+		@Action(description = "Synthetic action 0 of group 2", mutability = Mutability.READ_ONLY)
+		public int group2Action0(String input, int amount) {
+			return input.length() + amount;
+		}
+
+		@Action(description = "Synthetic action 1 of group 2", mutability = Mutability.READ_ONLY)
+		public int group2Action1(String input, int amount) {
+			return input.length() + amount;
+		}
+
+		@Action(description = "Synthetic action 2 of group 2", mutability = Mutability.READ_ONLY)
+		public int group2Action2(String input, int amount) {
+			return input.length() + amount;
+		}
+
+		@Action(description = "Synthetic action 3 of group 2", mutability = Mutability.READ_ONLY)
+		public int group2Action3(String input, int amount) {
+			return input.length() + amount;
+		}
+
+		@Action(description = "Synthetic action 4 of group 2", mutability = Mutability.READ_ONLY)
+		public int group2Action4(String input, int amount) {
+			return input.length() + amount;
+		}
+
+		@Action(description = "Synthetic action 5 of group 2", mutability = Mutability.READ_ONLY)
+		public int group2Action5(String input, int amount) {
+			return input.length() + amount;
+		}
+
+		@Action(description = "Synthetic action 6 of group 2", mutability = Mutability.READ_ONLY)
+		public int group2Action6(String input, int amount) {
+			return input.length() + amount;
+		}
+
+		@Action(description = "Synthetic action 7 of group 2", mutability = Mutability.READ_ONLY)
+		public int group2Action7(String input, int amount) {
+			return input.length() + amount;
+		}
+	}
+
+	public static final class ActionGroup3 {
+
+		@Action(description = "Synthetic action 0 of group 3", mutability = Mutability.READ_ONLY)
+		public int group3Action0(String input, int amount) {
+			return input.length() + amount;
+		}
+
+		@Action(description = "Synthetic action 1 of group 3", mutability = Mutability.READ_ONLY)
+		public int group3Action1(String input, int amount) {
+			return input.length() + amount;
+		}
+
+		@Action(description = "Synthetic action 2 of group 3", mutability = Mutability.READ_ONLY)
+		public int group3Action2(String input, int amount) {
+			return input.length() + amount;
+		}
+
+		@Action(description = "Synthetic action 3 of group 3", mutability = Mutability.READ_ONLY)
+		public int group3Action3(String input, int amount) {
+			return input.length() + amount;
+		}
+
+		@Action(description = "Synthetic action 4 of group 3", mutability = Mutability.READ_ONLY)
+		public int group3Action4(String input, int amount) {
+			return input.length() + amount;
+		}
+
+		@Action(description = "Synthetic action 5 of group 3", mutability = Mutability.READ_ONLY)
+		public int group3Action5(String input, int amount) {
+			return input.length() + amount;
+		}
+
+		@Action(description = "Synthetic action 6 of group 3", mutability = Mutability.READ_ONLY)
+		public int group3Action6(String input, int amount) {
+			return input.length() + amount;
+		}
+
+		@Action(description = "Synthetic action 7 of group 3", mutability = Mutability.READ_ONLY)
+		public int group3Action7(String input, int amount) {
+			return input.length() + amount;
+		}
+	}
+}
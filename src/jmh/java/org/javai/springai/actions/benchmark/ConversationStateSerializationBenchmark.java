@@ -0,0 +1,85 @@
+package org.javai.springai.actions.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.javai.springai.actions.PlanStep.PendingParam;
+import org.javai.springai.actions.conversation.ConversationState;
+import org.javai.springai.actions.conversation.JsonConversationStateSerializer;
+import org.javai.springai.actions.conversation.PayloadTypeRegistry;
+import org.javai.springai.actions.conversation.WorkingContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Serializing and restoring a {@link ConversationState} with
+ * {@link JsonConversationStateSerializer}, as done once per conversation turn.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConversationStateSerializationBenchmark {
+
+	private static final String CONTEXT_TYPE = "benchmark.query";
+
+	@Param({ "0", "10" })
+	int historySize;
+
+	private final JsonConversationStateSerializer serializer = new JsonConversationStateSerializer();
+	private final PayloadTypeRegistry typeRegistry = new PayloadTypeRegistry();
+	private ConversationState state;
+	private byte[] blob;
+
+	@Setup
+	public void setUp() {
+		typeRegistry.register(CONTEXT_TYPE, QueryDraft.class);
+		ConversationState current = ConversationState.initial("Show totals by title for entity0001")
+				.withPendingParams(List.of(new PendingParam("period", "Which period?")))
+				.withProvidedParams(Map.of("region", "EMEA", "currency", "EUR"))
+				.withLatestUserMessage("Only for last month");
+		for (int turn = 0; turn <= historySize; turn++) {
+			current = current.withWorkingContext(WorkingContext.of(CONTEXT_TYPE, draft(turn)), historySize);
+		}
+		state = current;
+		blob = serializer.serialize(state, typeRegistry);
+	}
+
+	@Benchmark
+	public byte[] serialize() {
+		return serializer.serialize(state, typeRegistry);
+	}
+
+	@Benchmark
+	public ConversationState deserialize() {
+		return serializer.deserialize(blob, typeRegistry);
+	}
+
+	@Benchmark
+	public ConversationState roundTrip() {
+		return serializer.deserialize(serializer.serialize(state, typeRegistry), typeRegistry);
+	}
+
+	private static QueryDraft draft(int turn) {
+		List<String> columns = new ArrayList<>();
+		for (int i = 0; i <= turn % 5; i++) {
+			columns.add("column_" + i);
+		}
+		return new QueryDraft("SELECT e.title, e.total FROM entity%04d e".formatted(turn), columns, turn * 10);
+	}
+
+	public record QueryDraft(String sql, List<String> columns, int rowLimit) {
+	}
+}
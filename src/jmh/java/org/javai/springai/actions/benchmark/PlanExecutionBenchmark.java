@@ -0,0 +1,60 @@
+package org.javai.springai.actions.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import java.util.concurrent.TimeUnit;
+import org.javai.springai.actions.DefaultPlanExecutor;
+import org.javai.springai.actions.Plan;
+import org.javai.springai.actions.PlanExecutionResult;
+import org.javai.springai.actions.PlanStatus;
+import org.javai.springai.actions.api.ActionContext;
+import org.javai.springai.actions.internal.parse.RawPlan;
+import org.javai.springai.actions.internal.resolve.DefaultPlanResolver;
+import org.javai.springai.actions.internal.resolve.ResolutionContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Executing a resolved plan of synthetic actions with {@link DefaultPlanExecutor}. The actions do
+ * almost no work, so this measures the executor's per-step overhead.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlanExecutionBenchmark {
+
+	@Param({ "8", "32" })
+	int actionCount;
+
+	@Param({ "1", "10" })
+	int stepCount;
+
+	private final DefaultPlanExecutor executor = new DefaultPlanExecutor();
+	private Plan plan;
+
+	@Setup
+	public void setUp() throws JsonProcessingException {
+		ResolutionContext context = ResolutionContext.of(BenchmarkFixtures.actionRegistry(actionCount));
+		plan = new DefaultPlanResolver().resolve(
+				RawPlan.fromJson(BenchmarkFixtures.planJson(stepCount, actionCount)), context);
+		if (plan.status() != PlanStatus.READY) {
+			throw new IllegalStateException("Benchmark plan did not resolve: " + plan);
+		}
+	}
+
+	@Benchmark
+	public PlanExecutionResult execute() {
+		return executor.execute(plan, new ActionContext());
+	}
+}
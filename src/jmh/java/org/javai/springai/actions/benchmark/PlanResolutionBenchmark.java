@@ -0,0 +1,65 @@
+package org.javai.springai.actions.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import java.util.concurrent.TimeUnit;
+import org.javai.springai.actions.Plan;
+import org.javai.springai.actions.internal.parse.RawPlan;
+import org.javai.springai.actions.internal.resolve.DefaultPlanResolver;
+import org.javai.springai.actions.internal.resolve.ResolutionContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Parsing a model response with {@link RawPlan#fromJson(String)} and binding it to the action
+ * registry with {@link DefaultPlanResolver}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlanResolutionBenchmark {
+
+	@Param({ "8", "32" })
+	int actionCount;
+
+	@Param({ "1", "10" })
+	int stepCount;
+
+	private final DefaultPlanResolver resolver = new DefaultPlanResolver();
+	private ResolutionContext context;
+	private String json;
+	private RawPlan rawPlan;
+
+	@Setup
+	public void setUp() throws JsonProcessingException {
+		context = ResolutionContext.of(BenchmarkFixtures.actionRegistry(actionCount));
+		json = BenchmarkFixtures.planJson(stepCount, actionCount);
+		rawPlan = RawPlan.fromJson(json);
+	}
+
+	@Benchmark
+	public RawPlan parse() throws JsonProcessingException {
+		return RawPlan.fromJson(json);
+	}
+
+	@Benchmark
+	public Plan resolve() {
+		return resolver.resolve(rawPlan, context);
+	}
+
+	@Benchmark
+	public Plan parseAndResolve() throws JsonProcessingException {
+		return resolver.resolve(RawPlan.fromJson(json), context);
+	}
+}
@@ -0,0 +1,66 @@
+package org.javai.springai.actions.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import org.javai.springai.actions.Planner;
+import org.javai.springai.actions.conversation.ConversationState;
+import org.javai.springai.actions.internal.plan.PlanFormulationResult;
+import org.javai.springai.actions.sql.SqlCatalogContextContributor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Prompt assembly cost of a dry-run {@link Planner}: no chat client is configured, so
+ * {@code formulatePlan} stops after building the prompt preview.
+ * <p>
+ * {@link #warmPrompt()} is the steady state, where static segments come from the planner's
+ * prompt cache; {@link #coldPrompt()} invalidates that cache first and so includes rendering the
+ * action and catalog segments.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlannerPromptBenchmark {
+
+	private static final String REQUEST = "Show the total of entity0001 by title for last month";
+
+	@Param({ "8", "32" })
+	int actionCount;
+
+	@Param({ "10", "100", "1000" })
+	int tableCount;
+
+	private Planner planner;
+	private ConversationState state;
+
+	@Setup
+	public void setUp() {
+		planner = Planner.builder()
+				.actions(BenchmarkFixtures.actionBeans(actionCount))
+				.promptContributor(new SqlCatalogContextContributor(BenchmarkFixtures.catalog(tableCount)))
+				.build();
+		state = ConversationState.initial(REQUEST);
+	}
+
+	@Benchmark
+	public PlanFormulationResult warmPrompt() {
+		return planner.formulatePlan(REQUEST, state);
+	}
+
+	@Benchmark
+	public PlanFormulationResult coldPrompt() {
+		planner.invalidatePromptCache();
+		return planner.formulatePlan(REQUEST, state);
+	}
+}
@@ -0,0 +1,67 @@
+package org.javai.springai.actions.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import org.javai.springai.actions.sql.InMemorySqlCatalog;
+import org.javai.springai.actions.sql.Query;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Parsing model-generated SQL with {@link Query#fromSql(String, org.javai.springai.actions.sql.SqlCatalog)}:
+ * model-name resolution, synonym substitution and schema validation against catalogs of
+ * increasing size. The query references the catalog's last tables, the worst case for linear
+ * lookups.
+ *
+ * <p>With a {@code queryCacheSize} of 0 every invocation parses and validates; with the default
+ * cache size every invocation after the first is a cache hit, which copies the cached tree.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QueryParsingBenchmark {
+
+	@Param({ "10", "100", "1000" })
+	int tableCount;
+
+	@Param({ "0", "512" })
+	int queryCacheSize;
+
+	private InMemorySqlCatalog catalog;
+	private String singleTableSql;
+	private String joinSql;
+
+	@Setup
+	public void setUp() {
+		catalog = BenchmarkFixtures.catalog(tableCount).withQueryCacheSize(queryCacheSize);
+		String last = BenchmarkFixtures.modelTableName(tableCount - 1);
+		String previous = BenchmarkFixtures.modelTableName(Math.max(0, tableCount - 2));
+		singleTableSql = "SELECT e.title, e.total FROM %s e WHERE e.total > 10 ORDER BY e.title".formatted(last);
+		joinSql = """
+				SELECT e.title, p.title, SUM(e.total) FROM %s e JOIN %s p ON e.title = p.title
+				WHERE p.total > 10 GROUP BY e.title, p.title""".formatted(last, previous);
+		// Build the lazily generated model-name mappings outside the measurement
+		Query.fromSql(singleTableSql, catalog);
+	}
+
+	@Benchmark
+	public Query singleTable() {
+		return Query.fromSql(singleTableSql, catalog);
+	}
+
+	@Benchmark
+	public Query join() {
+		return Query.fromSql(joinSql, catalog);
+	}
+}
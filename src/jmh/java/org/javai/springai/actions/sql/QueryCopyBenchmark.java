@@ -0,0 +1,67 @@
+package org.javai.springai.actions.sql;
+
+import java.util.concurrent.TimeUnit;
+import net.sf.jsqlparser.JSQLParserException;
+import net.sf.jsqlparser.parser.CCJSqlParserUtil;
+import net.sf.jsqlparser.statement.select.Select;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Copying a statement tree as the query cache does. A cache hit parses the stored canonical
+ * SQL; {@link QueryCache#copy(Select)}, used for {@code modelSql()} and dialect rendering, also
+ * prints the statement and checks that the copy has the same names. Lives in the {@code sql}
+ * package to reach the package-private cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QueryCopyBenchmark {
+
+	@Param({ "simple", "complex" })
+	String shape;
+
+	private Select select;
+	private String canonicalSql;
+
+	@Setup
+	public void setUp() throws JSQLParserException {
+		String sql = "simple".equals(shape)
+				? "SELECT id, amount FROM orders WHERE status = 'OPEN' ORDER BY amount DESC"
+				: """
+						WITH recent AS (
+						  SELECT customer_id, SUM(amount) AS total FROM orders
+						  WHERE order_date > DATE '2024-01-01' GROUP BY customer_id)
+						SELECT c.name, r.total FROM customers c JOIN recent r ON r.customer_id = c.id
+						WHERE c.id IN (SELECT customer_id FROM orders WHERE status = 'OPEN')
+						  AND EXISTS (SELECT 1 FROM orders o WHERE o.customer_id = c.id)
+						UNION ALL
+						SELECT name, 0 FROM customers WHERE id > 10
+						ORDER BY 2 DESC LIMIT 10""";
+		select = (Select) CCJSqlParserUtil.parse(sql);
+		canonicalSql = select.toString();
+	}
+
+	@Benchmark
+	public Select cacheHit() {
+		return QueryCache.reparse(canonicalSql, null);
+	}
+
+	@Benchmark
+	public Select copy() {
+		return QueryCache.copy(select);
+	}
+
+}
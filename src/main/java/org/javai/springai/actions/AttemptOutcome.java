@@ -25,6 +25,11 @@ public enum AttemptOutcome {
     /**
      * Network or API error prevented LLM invocation.
      */
-    NETWORK_ERROR
+    NETWORK_ERROR,
+
+    /**
+     * Attempt was abandoned because a concurrent hedged attempt produced a plan first.
+     */
+    CANCELLED
 }
 
@@ -12,11 +12,17 @@ import org.springframework.ai.chat.client.ChatClient;
  * @param chatClient the Spring AI ChatClient
  * @param maxAttempts maximum attempts before moving to next tier (≥1)
  * @param modelId optional identifier for observability (e.g., "gpt-4.1-mini")
+ * @param circuitBreaker optional breaker that lets the planner skip this tier while it is
+ *        unhealthy; {@code null} to always try the tier
+ * @param promptBudget optional system prompt budget for this tier, applied in addition to the
+ *        planner's budget; {@code null} for none
  */
 public record ChatClientTier(
         ChatClient chatClient,
         int maxAttempts,
-        String modelId
+        String modelId,
+        TierCircuitBreaker circuitBreaker,
+        PromptBudget promptBudget
 ) {
     /**
      * Canonical constructor with validation.
@@ -30,6 +36,30 @@ public record ChatClientTier(
         }
     }
 
+    /**
+     * Constructor without a prompt budget.
+     *
+     * @param chatClient the Spring AI ChatClient
+     * @param maxAttempts maximum attempts before moving to next tier (≥1)
+     * @param modelId optional identifier for observability
+     * @param circuitBreaker optional circuit breaker
+     */
+    public ChatClientTier(ChatClient chatClient, int maxAttempts, String modelId,
+            TierCircuitBreaker circuitBreaker) {
+        this(chatClient, maxAttempts, modelId, circuitBreaker, null);
+    }
+
+    /**
+     * Constructor without a circuit breaker.
+     *
+     * @param chatClient the Spring AI ChatClient
+     * @param maxAttempts maximum attempts before moving to next tier (≥1)
+     * @param modelId optional identifier for observability
+     */
+    public ChatClientTier(ChatClient chatClient, int maxAttempts, String modelId) {
+        this(chatClient, maxAttempts, modelId, null);
+    }
+
     /**
      * Convenience constructor with default maxAttempts=1.
      *
@@ -48,5 +78,35 @@ public record ChatClientTier(
     public ChatClientTier(ChatClient chatClient) {
         this(chatClient, 1, null);
     }
+
+    /**
+     * Copy of this tier guarded by the given circuit breaker.
+     *
+     * @param breaker the breaker, or {@code null} for none
+     * @return a new tier
+     */
+    public ChatClientTier withCircuitBreaker(TierCircuitBreaker breaker) {
+        return new ChatClientTier(chatClient, maxAttempts, modelId, breaker, promptBudget);
+    }
+
+    /**
+     * Copy of this tier with its own system prompt budget, e.g. a smaller one for a model
+     * with a short context window.
+     *
+     * @param budget the budget, or {@code null} for none
+     * @return a new tier
+     */
+    public ChatClientTier withPromptBudget(PromptBudget budget) {
+        return new ChatClientTier(chatClient, maxAttempts, modelId, circuitBreaker, budget);
+    }
+
+    /**
+     * Ask the circuit breaker, if any, whether this tier may be called now.
+     *
+     * @return {@code true} if there is no breaker or it admits the call
+     */
+    public boolean tryAcquirePermission() {
+        return circuitBreaker == null || circuitBreaker.tryAcquirePermission();
+    }
 }
 
@@ -0,0 +1,105 @@
+package org.javai.springai.actions;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Configuration of the per-tier {@link TierCircuitBreaker}.
+ *
+ * <p>Each tier keeps a rolling window of its most recent {@code windowSize} calls. Once at
+ * least {@code minimumCalls} have been recorded, the circuit opens when the share of failed
+ * calls reaches {@code failureRateThreshold} or the share of calls slower than
+ * {@code slowCallDuration} reaches {@code slowCallRateThreshold}. An open tier is skipped by
+ * the planner for {@code openDuration}; after that, up to {@code halfOpenProbes} calls are let
+ * through, and the circuit closes again only if all of them succeed.</p>
+ *
+ * @param windowSize number of recent calls considered (≥1)
+ * @param minimumCalls calls required before rates are evaluated (1..windowSize)
+ * @param failureRateThreshold failure share in (0, 1] that opens the circuit
+ * @param slowCallDuration duration from which a call counts as slow
+ * @param slowCallRateThreshold slow-call share in (0, 1] that opens the circuit
+ * @param openDuration time an open circuit rejects calls before probing
+ * @param halfOpenProbes number of probe calls allowed while half-open (≥1)
+ */
+public record CircuitBreakerPolicy(
+        int windowSize,
+        int minimumCalls,
+        double failureRateThreshold,
+        Duration slowCallDuration,
+        double slowCallRateThreshold,
+        Duration openDuration,
+        int halfOpenProbes
+) {
+    /**
+     * Canonical constructor with validation.
+     */
+    public CircuitBreakerPolicy {
+        Objects.requireNonNull(slowCallDuration, "slowCallDuration must not be null");
+        Objects.requireNonNull(openDuration, "openDuration must not be null");
+        if (windowSize < 1) {
+            throw new IllegalArgumentException("windowSize must be >= 1");
+        }
+        if (minimumCalls < 1 || minimumCalls > windowSize) {
+            throw new IllegalArgumentException("minimumCalls must be between 1 and windowSize");
+        }
+        if (failureRateThreshold <= 0 || failureRateThreshold > 1) {
+            throw new IllegalArgumentException("failureRateThreshold must be in (0, 1]");
+        }
+        if (slowCallRateThreshold <= 0 || slowCallRateThreshold > 1) {
+            throw new IllegalArgumentException("slowCallRateThreshold must be in (0, 1]");
+        }
+        if (slowCallDuration.isNegative() || openDuration.isNegative()) {
+            throw new IllegalArgumentException("durations must not be negative");
+        }
+        if (halfOpenProbes < 1) {
+            throw new IllegalArgumentException("halfOpenProbes must be >= 1");
+        }
+    }
+
+    /**
+     * Defaults: window of 20 calls, evaluated from 10, opening at 50% failures or 80% of
+     * calls slower than 30 seconds, open for 30 seconds, one probe.
+     *
+     * @return the default policy
+     */
+    public static CircuitBreakerPolicy defaults() {
+        return new CircuitBreakerPolicy(20, 10, 0.5, Duration.ofSeconds(30), 0.8,
+                Duration.ofSeconds(30), 1);
+    }
+
+    /**
+     * Copy of this policy with a different failure-rate threshold and window.
+     *
+     * @param failureRateThreshold failure share in (0, 1] that opens the circuit
+     * @param windowSize number of recent calls considered
+     * @param minimumCalls calls required before rates are evaluated
+     * @return a new policy
+     */
+    public CircuitBreakerPolicy withFailureRate(double failureRateThreshold, int windowSize, int minimumCalls) {
+        return new CircuitBreakerPolicy(windowSize, minimumCalls, failureRateThreshold, slowCallDuration,
+                slowCallRateThreshold, openDuration, halfOpenProbes);
+    }
+
+    /**
+     * Copy of this policy with a different open duration.
+     *
+     * @param openDuration time an open circuit rejects calls before probing
+     * @return a new policy
+     */
+    public CircuitBreakerPolicy withOpenDuration(Duration openDuration) {
+        return new CircuitBreakerPolicy(windowSize, minimumCalls, failureRateThreshold, slowCallDuration,
+                slowCallRateThreshold, openDuration, halfOpenProbes);
+    }
+
+    /**
+     * Copy of this policy with a different slow-call definition.
+     *
+     * @param slowCallDuration duration from which a call counts as slow
+     * @param slowCallRateThreshold slow-call share in (0, 1] that opens the circuit
+     * @return a new policy
+     */
+    public CircuitBreakerPolicy withSlowCalls(Duration slowCallDuration, double slowCallRateThreshold) {
+        return new CircuitBreakerPolicy(windowSize, minimumCalls, failureRateThreshold, slowCallDuration,
+                slowCallRateThreshold, openDuration, halfOpenProbes);
+    }
+}
@@ -1,15 +1,19 @@
 package org.javai.springai.actions;
 
-import java.lang.reflect.Method;
-import java.lang.reflect.Parameter;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import org.javai.springai.actions.api.ActionContext;
-import org.javai.springai.actions.api.FromContext;
 import org.javai.springai.actions.internal.bind.ActionBinding;
+import org.javai.springai.actions.internal.bind.ActionInvoker;
+import org.javai.springai.actions.internal.exec.AffinityConcurrencyLimiter;
+import org.javai.springai.actions.internal.exec.StepDependencyGraph;
 import org.javai.springai.actions.internal.exec.StepExecutionResult;
+import org.javai.springai.actions.internal.exec.VirtualThreadExecutor;
 import org.javai.springai.actions.internal.instrument.InvocationEmitter;
 import org.javai.springai.actions.internal.instrument.InvocationEventType;
 import org.javai.springai.actions.internal.instrument.InvocationKind;
@@ -17,7 +21,8 @@ import org.javai.springai.actions.internal.instrument.InvocationKind;
 /**
  * Default sequential executor for plans.
  *
- * <p>Executes {@link PlanStep.ActionStep} steps via reflection and fails fast
+ * <p>Executes {@link PlanStep.ActionStep} steps through each binding's precompiled
+ * {@link ActionInvoker} and fails fast
  * on the first error step or invocation failure.</p>
  *
  * <h2>Plan State Handling</h2>
@@ -42,9 +47,23 @@ import org.javai.springai.actions.internal.instrument.InvocationKind;
  *     .build();
  * }</pre>
  *
+ * <h2>Asynchronous Execution</h2>
+ * <p>{@link #executeAsync(Plan, ActionContext)} runs the whole plan off the calling thread,
+ * by default on a fresh virtual thread, so plans whose actions block on JDBC or HTTP do not
+ * pin a platform thread per conversation. Per-affinity concurrency caps bound how many
+ * actions may hit the same backend at once across all plans sharing this executor:</p>
+ *
+ * <pre>{@code
+ * DefaultPlanExecutor executor = DefaultPlanExecutor.builder()
+ *     .withAffinityConcurrencyLimit("warehouse", 16)
+ *     .build();
+ * CompletableFuture<PlanExecutionResult> result = executor.executeAsync(plan, context);
+ * }</pre>
+ *
  * @see PendingPlanHandler
  * @see ErrorPlanHandler
  * @see NoActionPlanHandler
+ * @see ParallelPlanExecutor
  */
 public class DefaultPlanExecutor implements PlanExecutor {
 
@@ -55,6 +74,8 @@ public class DefaultPlanExecutor implements PlanExecutor {
 	private final PendingPlanHandler pendingHandler;
 	private final ErrorPlanHandler errorHandler;
 	private final NoActionPlanHandler noActionHandler;
+	private final Executor asyncExecutor;
+	private final AffinityConcurrencyLimiter limiter;
 
 	/**
 	 * Create an executor with default behavior (no handlers).
@@ -80,6 +101,8 @@ public class DefaultPlanExecutor implements PlanExecutor {
 		this.pendingHandler = pendingHandler;
 		this.errorHandler = errorHandler;
 		this.noActionHandler = noActionHandler;
+		this.asyncExecutor = VirtualThreadExecutor.INSTANCE;
+		this.limiter = AffinityConcurrencyLimiter.none();
 	}
 
 	private DefaultPlanExecutor(Builder builder) {
@@ -87,6 +110,8 @@ public class DefaultPlanExecutor implements PlanExecutor {
 		this.pendingHandler = builder.pendingHandler;
 		this.errorHandler = builder.errorHandler;
 		this.noActionHandler = builder.noActionHandler;
+		this.asyncExecutor = builder.asyncExecutor;
+		this.limiter = AffinityConcurrencyLimiter.of(builder.affinityLimits);
 	}
 
 	/**
@@ -103,6 +128,19 @@ public class DefaultPlanExecutor implements PlanExecutor {
 		return execute(plan, new ActionContext());
 	}
 
+	/**
+	 * Execute a plan on this executor's asynchronous executor (virtual threads by default).
+	 *
+	 * @param plan the bound plan to execute
+	 * @param context the action context to execute against
+	 * @return a future completing with the execution result, or exceptionally where
+	 *         {@link #execute(Plan, ActionContext)} would throw
+	 */
+	public CompletableFuture<PlanExecutionResult> executeAsync(Plan plan, ActionContext context) {
+		Objects.requireNonNull(plan);
+		return CompletableFuture.supplyAsync(() -> execute(plan, context), asyncExecutor);
+	}
+
 	public PlanExecutionResult execute(Plan plan, ActionContext context) {
 		Objects.requireNonNull(plan);
 
@@ -185,14 +223,20 @@ public class DefaultPlanExecutor implements PlanExecutor {
 		return DEFAULT_NO_ACTION_MESSAGE;
 	}
 
-	private StepExecutionResult executeActionStep(PlanStep.ActionStep step, ActionContext context) {
+	/**
+	 * Invoke a single action step against the given context.
+	 * Shared with {@link ParallelPlanExecutor}, which schedules the same invocations concurrently.
+	 */
+	StepExecutionResult executeActionStep(PlanStep.ActionStep step, ActionContext context) {
 		ActionBinding binding = step.binding();
 		if (binding == null) {
 			return new StepExecutionResult(null, false, null, null, "Action binding is incomplete");
 		}
 		String actionId = binding.id();
-		Method method = binding.method();
-		Object target = binding.bean();
+		ActionInvoker invoker = binding.invoker();
+		if (invoker == null) {
+			return new StepExecutionResult(actionId, false, null, null, "Action binding is incomplete");
+		}
 		String invocationId = emitter != null ? emitter.nextInvocationId() : null;
 		long start = System.nanoTime();
 		try {
@@ -202,38 +246,21 @@ public class DefaultPlanExecutor implements PlanExecutor {
 				emitter.emit(InvocationKind.ACTION, InvocationEventType.STARTED, actionId, invocationId, null, null,
 						Map.of("actionId", actionId));
 			}
-			method.setAccessible(true);
-			Parameter[] params = method.getParameters();
-			Object[] invokeArgs = new Object[params.length];
-			int argIdx = 0;
-			for (int i = 0; i < params.length; i++) {
-				Parameter param = params[i];
-				if (param.getType() == ActionContext.class) {
-					// Inject the ActionContext directly
-					invokeArgs[i] = context;
-				} else if (param.isAnnotationPresent(FromContext.class)) {
-					// Inject value from context using the annotation's key
-					FromContext fromContext = param.getAnnotation(FromContext.class);
-					String contextKey = fromContext.value();
-					if (!context.contains(contextKey)) {
-						return new StepExecutionResult(actionId, false, null, null,
-								"Missing context value for @FromContext key: " + contextKey);
-					}
-					invokeArgs[i] = context.get(contextKey);
-				} else {
-					// Regular plan argument
-					if (argIdx >= step.arguments().size()) {
-						return new StepExecutionResult(actionId, false, null, null,
-								"Argument count mismatch for action " + actionId);
-					}
-					invokeArgs[i] = step.arguments().get(argIdx++).value();
-				}
+			// Injected parameters (ActionContext, @FromContext) were resolved into the invoker's
+			// slot plan at registration; only presence and arity are checked per call
+			String missingKey = invoker.missingContextKey(context);
+			if (missingKey != null) {
+				return new StepExecutionResult(actionId, false, null, null,
+						"Missing context value for @FromContext key: " + missingKey);
 			}
-			if (argIdx != step.arguments().size()) {
+			if (invoker.argumentCount() != step.arguments().size()) {
 				return new StepExecutionResult(actionId, false, null, null,
 						"Argument count mismatch for action " + actionId);
 			}
-			Object returnValue = method.invoke(target, invokeArgs);
+			Object returnValue;
+			try (AffinityConcurrencyLimiter.Permit ignored = acquirePermit(step)) {
+				returnValue = invoker.invoke(context, step.arguments());
+			}
 			if (!binding.contextKey().isBlank()) {
 				context.put(binding.contextKey(), returnValue);
 			}
@@ -244,7 +271,14 @@ public class DefaultPlanExecutor implements PlanExecutor {
 						Map.of("actionId", actionId, "contextKey", contextKeyValue));
 			}
 			return new StepExecutionResult(actionId, true, returnValue, null, null);
-		} catch (Exception ex) {
+		} catch (VirtualMachineError ex) {
+			// The JVM cannot be trusted to continue; everything else an action throws fails its step
+			throw ex;
+		} catch (Throwable ex) {
+			if (ex instanceof InterruptedException) {
+				// Failing the step handles the interrupt; the caller still needs to see it
+				Thread.currentThread().interrupt();
+			}
 			if (emitter != null) {
 				long durationMs = (System.nanoTime() - start) / 1_000_000;
 				String errorMessage = ex.getMessage() != null ? ex.getMessage() : "Unknown error";
@@ -255,6 +289,13 @@ public class DefaultPlanExecutor implements PlanExecutor {
 		}
 	}
 
+	private AffinityConcurrencyLimiter.Permit acquirePermit(PlanStep.ActionStep step) throws InterruptedException {
+		if (limiter.isEmpty()) {
+			return AffinityConcurrencyLimiter.Permit.NONE;
+		}
+		return limiter.acquire(StepDependencyGraph.resolveAffinities(step));
+	}
+
 	/**
 	 * Builder for configuring a {@link DefaultPlanExecutor}.
 	 *
@@ -273,10 +314,40 @@ public class DefaultPlanExecutor implements PlanExecutor {
 		private PendingPlanHandler pendingHandler;
 		private ErrorPlanHandler errorHandler;
 		private NoActionPlanHandler noActionHandler;
+		private Executor asyncExecutor = VirtualThreadExecutor.INSTANCE;
+		private final Map<String, Integer> affinityLimits = new LinkedHashMap<>();
 
 		private Builder() {
 		}
 
+		/**
+		 * Set the executor used by {@link DefaultPlanExecutor#executeAsync(Plan, ActionContext)}.
+		 * Defaults to one virtual thread per plan.
+		 *
+		 * @param executor the executor on which asynchronous plans run
+		 * @return this builder
+		 */
+		public Builder withExecutor(Executor executor) {
+			this.asyncExecutor = Objects.requireNonNull(executor, "executor must not be null");
+			return this;
+		}
+
+		/**
+		 * Cap the number of actions running concurrently against an affinity.
+		 *
+		 * <p>The cap covers every step whose resolved affinity equals {@code affinity} or is
+		 * nested beneath it (e.g. {@code "warehouse"} covers {@code "warehouse:eu"}), and is
+		 * shared by all plans executed through the built executor.</p>
+		 *
+		 * @param affinity the affinity (or affinity prefix) to limit
+		 * @param maxConcurrent the maximum number of concurrently running steps, at least 1
+		 * @return this builder
+		 */
+		public Builder withAffinityConcurrencyLimit(String affinity, int maxConcurrent) {
+			this.affinityLimits.put(affinity, maxConcurrent);
+			return this;
+		}
+
 		/**
 		 * Set the invocation emitter for instrumentation.
 		 *
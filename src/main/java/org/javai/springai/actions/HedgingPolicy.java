@@ -0,0 +1,107 @@
+package org.javai.springai.actions;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import org.javai.springai.actions.internal.exec.VirtualThreadExecutor;
+
+/**
+ * Policy for hedging the primary chat client tier with the first fallback tier.
+ *
+ * <p>When configured on a {@link Planner} with at least two tiers, the first attempt on the
+ * primary tier is started as usual. If it has not completed after the hedge delay, the first
+ * attempt on the fallback tier is started concurrently. The first attempt to produce a valid
+ * plan wins; the other is cancelled and recorded with {@link AttemptOutcome#CANCELLED}. If
+ * neither succeeds, the remaining attempts proceed in the usual tier order.</p>
+ *
+ * <p>The hedge delay is the given percentile of recently observed primary-tier latencies, so
+ * only the slow tail is hedged. Until {@code minSamples} latencies have been observed (or when
+ * {@code percentile} is 0), {@code initialDelay} is used.</p>
+ *
+ * <pre>{@code
+ * Planner planner = Planner.builder()
+ *     .defaultChatClient(primaryClient, 2, "gpt-4.1")
+ *     .fallbackChatClient(fallbackClient, 1, "gpt-4.1-mini")
+ *     .hedging(HedgingPolicy.atPercentile(95, Duration.ofSeconds(4)))
+ *     .build();
+ * }</pre>
+ *
+ * @param initialDelay hedge delay used until enough latencies are observed (≥0)
+ * @param percentile latency percentile in (0, 100] used as hedge delay, or 0 for a fixed delay
+ * @param windowSize number of recent primary-tier latencies considered (≥1)
+ * @param minSamples samples required before the percentile replaces the initial delay (≥1)
+ * @param executor executor running the hedged attempts; each attempt blocks its thread
+ */
+public record HedgingPolicy(
+        Duration initialDelay,
+        double percentile,
+        int windowSize,
+        int minSamples,
+        Executor executor
+) {
+    private static final int DEFAULT_WINDOW_SIZE = 200;
+    private static final int DEFAULT_MIN_SAMPLES = 20;
+
+    /**
+     * Canonical constructor with validation.
+     */
+    public HedgingPolicy {
+        Objects.requireNonNull(initialDelay, "initialDelay must not be null");
+        Objects.requireNonNull(executor, "executor must not be null");
+        if (initialDelay.isNegative()) {
+            throw new IllegalArgumentException("initialDelay must not be negative");
+        }
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("percentile must be 0 or in (0, 100]");
+        }
+        if (windowSize < 1) {
+            throw new IllegalArgumentException("windowSize must be >= 1");
+        }
+        if (minSamples < 1 || minSamples > windowSize) {
+            throw new IllegalArgumentException("minSamples must be between 1 and windowSize");
+        }
+    }
+
+    /**
+     * Hedge after a fixed delay.
+     *
+     * @param delay time to wait for the primary tier before starting the fallback
+     * @return a fixed-delay policy running attempts on virtual threads
+     */
+    public static HedgingPolicy afterDelay(Duration delay) {
+        return new HedgingPolicy(delay, 0, DEFAULT_WINDOW_SIZE, DEFAULT_MIN_SAMPLES,
+                VirtualThreadExecutor.INSTANCE);
+    }
+
+    /**
+     * Hedge after the given percentile of observed primary-tier latency.
+     *
+     * @param percentile latency percentile, e.g. {@code 95}
+     * @param initialDelay delay used until enough latencies are observed
+     * @return a percentile policy running attempts on virtual threads
+     */
+    public static HedgingPolicy atPercentile(double percentile, Duration initialDelay) {
+        if (percentile == 0) {
+            throw new IllegalArgumentException("percentile must be in (0, 100]");
+        }
+        return new HedgingPolicy(initialDelay, percentile, DEFAULT_WINDOW_SIZE, DEFAULT_MIN_SAMPLES,
+                VirtualThreadExecutor.INSTANCE);
+    }
+
+    /**
+     * Copy of this policy running hedged attempts on the given executor.
+     *
+     * @param executor the executor for attempts
+     * @return a new policy
+     */
+    public HedgingPolicy withExecutor(Executor executor) {
+        return new HedgingPolicy(initialDelay, percentile, windowSize, minSamples, executor);
+    }
+
+    /**
+     * Whether the hedge delay adapts to observed latency.
+     */
+    public boolean isAdaptive() {
+        return percentile > 0;
+    }
+}
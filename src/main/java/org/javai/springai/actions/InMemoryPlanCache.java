@@ -0,0 +1,168 @@
+package org.javai.springai.actions;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded in-memory {@link PlanCache} with least-recently-used eviction and an optional
+ * time-to-live.
+ *
+ * <p>Hit, miss and eviction counts are kept for the lifetime of the cache; per-request
+ * outcomes are also reported in {@link PlanningMetrics#cacheOutcome()}.</p>
+ */
+public final class InMemoryPlanCache implements PlanCache {
+
+	private final int maxEntries;
+	private final Duration timeToLive;
+	private final Clock clock;
+	private final LinkedHashMap<PlanCacheKey, Entry> entries;
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+
+	private InMemoryPlanCache(Builder builder) {
+		this.maxEntries = builder.maxEntries;
+		this.timeToLive = builder.timeToLive;
+		this.clock = builder.clock;
+		this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<PlanCacheKey, Entry> eldest) {
+				if (size() > InMemoryPlanCache.this.maxEntries) {
+					evictions.increment();
+					return true;
+				}
+				return false;
+			}
+		};
+	}
+
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	@Override
+	public Optional<String> get(PlanCacheKey key) {
+		Objects.requireNonNull(key, "key must not be null");
+		synchronized (entries) {
+			Entry entry = entries.get(key);
+			if (entry != null && isExpired(entry)) {
+				entries.remove(key);
+				evictions.increment();
+				entry = null;
+			}
+			if (entry == null) {
+				misses.increment();
+				return Optional.empty();
+			}
+			hits.increment();
+			return Optional.of(entry.rawPlanJson());
+		}
+	}
+
+	@Override
+	public void put(PlanCacheKey key, String rawPlanJson) {
+		Objects.requireNonNull(key, "key must not be null");
+		Objects.requireNonNull(rawPlanJson, "rawPlanJson must not be null");
+		synchronized (entries) {
+			entries.put(key, new Entry(rawPlanJson, clock.millis()));
+		}
+	}
+
+	@Override
+	public void evict(PlanCacheKey key) {
+		synchronized (entries) {
+			if (entries.remove(key) != null) {
+				evictions.increment();
+			}
+		}
+	}
+
+	@Override
+	public void clear() {
+		synchronized (entries) {
+			entries.clear();
+		}
+	}
+
+	public int size() {
+		synchronized (entries) {
+			return entries.size();
+		}
+	}
+
+	public long hitCount() {
+		return hits.sum();
+	}
+
+	public long missCount() {
+		return misses.sum();
+	}
+
+	/**
+	 * Entries removed for capacity, expiry or explicit eviction ({@link #clear()} excluded).
+	 */
+	public long evictionCount() {
+		return evictions.sum();
+	}
+
+	private boolean isExpired(Entry entry) {
+		return !timeToLive.isZero() && clock.millis() - entry.storedAtMillis() >= timeToLive.toMillis();
+	}
+
+	private record Entry(String rawPlanJson, long storedAtMillis) {
+	}
+
+	/**
+	 * Builder for {@link InMemoryPlanCache}.
+	 */
+	public static final class Builder {
+		private int maxEntries = 1_000;
+		private Duration timeToLive = Duration.ZERO;
+		private Clock clock = Clock.systemUTC();
+
+		private Builder() {
+		}
+
+		/**
+		 * Maximum number of cached plans; the least recently used entry is evicted beyond it.
+		 * Defaults to 1000.
+		 */
+		public Builder withMaxEntries(int maxEntries) {
+			if (maxEntries < 1) {
+				throw new IllegalArgumentException("maxEntries must be >= 1");
+			}
+			this.maxEntries = maxEntries;
+			return this;
+		}
+
+		/**
+		 * Time after which an entry is no longer served. {@link Duration#ZERO} (the default)
+		 * keeps entries until they are evicted for capacity.
+		 */
+		public Builder withTimeToLive(Duration timeToLive) {
+			Objects.requireNonNull(timeToLive, "timeToLive must not be null");
+			if (timeToLive.isNegative()) {
+				throw new IllegalArgumentException("timeToLive must not be negative");
+			}
+			this.timeToLive = timeToLive;
+			return this;
+		}
+
+		/**
+		 * Clock used for expiry; intended for tests.
+		 */
+		public Builder withClock(Clock clock) {
+			this.clock = Objects.requireNonNull(clock, "clock must not be null");
+			return this;
+		}
+
+		public InMemoryPlanCache build() {
+			return new InMemoryPlanCache(this);
+		}
+	}
+}
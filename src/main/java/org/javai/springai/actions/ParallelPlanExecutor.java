@@ -0,0 +1,286 @@
+package org.javai.springai.actions;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.javai.springai.actions.api.ActionContext;
+import org.javai.springai.actions.internal.exec.StepDependencyGraph;
+import org.javai.springai.actions.internal.exec.StepExecutionResult;
+import org.javai.springai.actions.internal.exec.VirtualThreadExecutor;
+import org.javai.springai.actions.internal.instrument.InvocationEmitter;
+
+/**
+ * Plan executor that runs independent action steps concurrently.
+ *
+ * <p>Before execution the plan's {@link PlanStep.ActionStep}s are arranged in a
+ * {@link StepDependencyGraph} derived from the {@link org.javai.springai.actions.api.Action}
+ * metadata of each step:</p>
+ * <ul>
+ *   <li>steps reading a context key ({@code @FromContext}) wait for the steps producing it
+ *       ({@code contextKey}/{@code additionalContextKeys});</li>
+ *   <li>{@link org.javai.springai.actions.api.Mutability#READ_ONLY} steps run concurrently with
+ *       each other;</li>
+ *   <li>{@code MUTATE} and {@code CREATE} steps are serialized, in plan order, against every
+ *       other step sharing one of their resolved affinities.</li>
+ * </ul>
+ *
+ * <p>Plans that are not READY, contain no action steps, or offer no concurrency are handed to
+ * a {@link DefaultPlanExecutor} configured with the same handlers, so observable behavior only
+ * differs in timing. On the first failed step no further steps are started; steps already in
+ * flight are allowed to finish. The returned step results are in plan order and omit steps
+ * that never started.</p>
+ *
+ * <p>Actions and invocation listeners used with this executor must tolerate being called from
+ * multiple threads. Blocking actions should run on virtual threads
+ * ({@link Builder#withVirtualThreads()}) or a dedicated executor
+ * ({@link Builder#withExecutor(Executor)}); the default is the common fork-join pool.
+ * {@link #executeAsync(Plan, ActionContext)} never blocks a thread while waiting for steps, so
+ * it is safe with bounded pools as well.</p>
+ *
+ * <pre>{@code
+ * ParallelPlanExecutor executor = ParallelPlanExecutor.builder()
+ *     .withVirtualThreads()
+ *     .withAffinityConcurrencyLimit("warehouse", 16)
+ *     .onPending((plan, ctx) -> PlanExecutionResult.notExecuted(plan, ctx, "Awaiting input"))
+ *     .build();
+ * }</pre>
+ *
+ * @see DefaultPlanExecutor
+ */
+public class ParallelPlanExecutor implements PlanExecutor {
+
+	private final DefaultPlanExecutor sequential;
+	private final Executor executor;
+
+	private ParallelPlanExecutor(Builder builder) {
+		this.sequential = builder.delegate.build();
+		this.executor = builder.executor;
+	}
+
+	/**
+	 * Create a new builder for configuring the executor.
+	 *
+	 * @return a new builder instance
+	 */
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	@Override
+	public PlanExecutionResult execute(Plan plan) {
+		return execute(plan, new ActionContext());
+	}
+
+	public PlanExecutionResult execute(Plan plan, ActionContext context) {
+		Objects.requireNonNull(plan);
+
+		StepDependencyGraph graph = concurrentGraphOf(plan);
+		if (graph == null) {
+			return sequential.execute(plan, context);
+		}
+		try {
+			return executeGraph(graph, context).join();
+		} catch (CompletionException ex) {
+			if (ex.getCause() instanceof RuntimeException runtime) {
+				throw runtime;
+			}
+			if (ex.getCause() instanceof Error error) {
+				throw error;
+			}
+			throw ex;
+		}
+	}
+
+	/**
+	 * Execute a plan without blocking the calling thread.
+	 *
+	 * @param plan the bound plan to execute
+	 * @param context the action context to execute against
+	 * @return a future completing with the execution result
+	 */
+	public CompletableFuture<PlanExecutionResult> executeAsync(Plan plan, ActionContext context) {
+		Objects.requireNonNull(plan);
+
+		StepDependencyGraph graph = concurrentGraphOf(plan);
+		if (graph == null) {
+			return sequential.executeAsync(plan, context);
+		}
+		return executeGraph(graph, context);
+	}
+
+	/**
+	 * Returns the dependency graph of a plan worth running concurrently, or {@code null} when the
+	 * plan should go through the sequential executor.
+	 */
+	private static StepDependencyGraph concurrentGraphOf(Plan plan) {
+		List<PlanStep.ActionStep> actionSteps = actionStepsOf(plan);
+		if (actionSteps == null || actionSteps.size() < 2) {
+			return null;
+		}
+		StepDependencyGraph graph = StepDependencyGraph.of(actionSteps);
+		return graph.hasConcurrency() ? graph : null;
+	}
+
+	private CompletableFuture<PlanExecutionResult> executeGraph(StepDependencyGraph graph, ActionContext context) {
+		int size = graph.size();
+		StepExecutionResult[] results = new StepExecutionResult[size];
+		List<CompletableFuture<Void>> futures = new ArrayList<>(size);
+		AtomicBoolean failed = new AtomicBoolean(false);
+
+		for (int i = 0; i < size; i++) {
+			final int index = i;
+			CompletableFuture<?>[] prerequisites = graph.dependenciesOf(index).stream()
+					.map(futures::get)
+					.toArray(CompletableFuture[]::new);
+			CompletableFuture<Void> future = CompletableFuture.allOf(prerequisites)
+					.thenRunAsync(() -> {
+						if (failed.get()) {
+							return;
+						}
+						StepExecutionResult result = sequential.executeActionStep(graph.step(index), context);
+						results[index] = result;
+						if (!result.success()) {
+							failed.set(true);
+						}
+					}, executor);
+			futures.add(future);
+		}
+
+		return CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).thenApply(ignored -> {
+			List<StepExecutionResult> ordered = new ArrayList<>(size);
+			for (StepExecutionResult result : results) {
+				if (result != null) {
+					ordered.add(result);
+				}
+			}
+			return new PlanExecutionResult(!failed.get() && ordered.size() == size, ordered, context);
+		});
+	}
+
+	/**
+	 * Returns the action steps of a READY plan, or {@code null} when the plan contains any other
+	 * kind of step and must go through the sequential executor's state handling.
+	 */
+	private static List<PlanStep.ActionStep> actionStepsOf(Plan plan) {
+		if (plan.status() != PlanStatus.READY) {
+			return null;
+		}
+		List<PlanStep.ActionStep> actionSteps = new ArrayList<>(plan.planSteps().size());
+		for (PlanStep step : plan.planSteps()) {
+			if (!(step instanceof PlanStep.ActionStep actionStep)) {
+				return null;
+			}
+			actionSteps.add(actionStep);
+		}
+		return actionSteps;
+	}
+
+	/**
+	 * Builder for configuring a {@link ParallelPlanExecutor}.
+	 *
+	 * <p>Handlers for non-READY plans behave exactly as in {@link DefaultPlanExecutor.Builder}.</p>
+	 */
+	public static final class Builder {
+		private final DefaultPlanExecutor.Builder delegate = DefaultPlanExecutor.builder();
+		private Executor executor = ForkJoinPool.commonPool();
+
+		private Builder() {
+		}
+
+		/**
+		 * Set the executor on which action steps (and asynchronously executed sequential plans)
+		 * are run.
+		 *
+		 * @param executor the executor for step invocations
+		 * @return this builder
+		 */
+		public Builder withExecutor(Executor executor) {
+			this.executor = Objects.requireNonNull(executor, "executor must not be null");
+			delegate.withExecutor(executor);
+			return this;
+		}
+
+		/**
+		 * Run every action step on its own virtual thread.
+		 *
+		 * @return this builder
+		 */
+		public Builder withVirtualThreads() {
+			return withExecutor(VirtualThreadExecutor.INSTANCE);
+		}
+
+		/**
+		 * Cap the number of actions running concurrently against an affinity.
+		 *
+		 * @param affinity the affinity (or affinity prefix) to limit
+		 * @param maxConcurrent the maximum number of concurrently running steps, at least 1
+		 * @return this builder
+		 * @see DefaultPlanExecutor.Builder#withAffinityConcurrencyLimit(String, int)
+		 */
+		public Builder withAffinityConcurrencyLimit(String affinity, int maxConcurrent) {
+			delegate.withAffinityConcurrencyLimit(affinity, maxConcurrent);
+			return this;
+		}
+
+		/**
+		 * Set the invocation emitter for instrumentation.
+		 *
+		 * @param emitter the emitter for action invocation events
+		 * @return this builder
+		 */
+		public Builder withEmitter(InvocationEmitter emitter) {
+			delegate.withEmitter(emitter);
+			return this;
+		}
+
+		/**
+		 * Register a handler for {@link PlanStatus#PENDING} plans.
+		 *
+		 * @param handler the pending plan handler
+		 * @return this builder
+		 * @see DefaultPlanExecutor.Builder#onPending(PendingPlanHandler)
+		 */
+		public Builder onPending(PendingPlanHandler handler) {
+			delegate.onPending(handler);
+			return this;
+		}
+
+		/**
+		 * Register a handler for {@link PlanStatus#ERROR} plans.
+		 *
+		 * @param handler the error plan handler
+		 * @return this builder
+		 * @see DefaultPlanExecutor.Builder#onError(ErrorPlanHandler)
+		 */
+		public Builder onError(ErrorPlanHandler handler) {
+			delegate.onError(handler);
+			return this;
+		}
+
+		/**
+		 * Register a handler for plans with no executable actions.
+		 *
+		 * @param handler the no-action plan handler
+		 * @return this builder
+		 * @see DefaultPlanExecutor.Builder#onNoAction(NoActionPlanHandler)
+		 */
+		public Builder onNoAction(NoActionPlanHandler handler) {
+			delegate.onNoAction(handler);
+			return this;
+		}
+
+		/**
+		 * Build the configured executor.
+		 *
+		 * @return a new {@link ParallelPlanExecutor} instance
+		 */
+		public ParallelPlanExecutor build() {
+			return new ParallelPlanExecutor(this);
+		}
+	}
+}
@@ -0,0 +1,58 @@
+package org.javai.springai.actions;
+
+import java.util.Optional;
+
+/**
+ * Cache of plans previously produced by the model, consulted by the {@link Planner} before
+ * invoking any chat client.
+ *
+ * <p>Entries hold the raw plan JSON returned by the model rather than the bound {@link Plan}.
+ * On a hit the planner resolves the JSON again against the current action registry, so
+ * cached plans are validated exactly like fresh ones and never share mutable state between
+ * requests. A cached plan that no longer resolves is evicted and the model is invoked.</p>
+ *
+ * <p>Implementations must be thread-safe.</p>
+ *
+ * <pre>{@code
+ * Planner planner = Planner.builder()
+ *     .defaultChatClient(chatClient)
+ *     .actions(new SqlActions())
+ *     .planCache(InMemoryPlanCache.builder()
+ *         .withMaxEntries(1_000)
+ *         .withTimeToLive(Duration.ofMinutes(30))
+ *         .build())
+ *     .build();
+ * }</pre>
+ *
+ * @see InMemoryPlanCache
+ */
+public interface PlanCache {
+
+	/**
+	 * Look up the plan JSON stored for a key.
+	 *
+	 * @param key the cache key
+	 * @return the raw plan JSON, or empty if absent or expired
+	 */
+	Optional<String> get(PlanCacheKey key);
+
+	/**
+	 * Store the raw plan JSON for a key, replacing any previous entry.
+	 *
+	 * @param key the cache key
+	 * @param rawPlanJson the plan JSON as returned by the model
+	 */
+	void put(PlanCacheKey key, String rawPlanJson);
+
+	/**
+	 * Remove the entry for a key, if present.
+	 *
+	 * @param key the cache key
+	 */
+	void evict(PlanCacheKey key);
+
+	/**
+	 * Remove all entries.
+	 */
+	void clear();
+}
@@ -0,0 +1,93 @@
+package org.javai.springai.actions;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+import org.javai.springai.actions.PlanStep.PendingParam;
+import org.javai.springai.actions.conversation.ConversationState;
+import org.javai.springai.actions.conversation.WorkingContext;
+import org.javai.springai.actions.internal.plan.PromptPreview;
+import org.javai.springai.actions.internal.plan.PromptSegment;
+
+/**
+ * Key under which a plan is stored in a {@link PlanCache}.
+ *
+ * <p>Two requests share a key when their normalized text is equal, the complete system prompt
+ * is identical (so the same actions, catalog, persona and per-turn contributions were shown to
+ * the model) and the conversation state relevant to planning matches.</p>
+ *
+ * @param normalizedRequest the request text after {@link #normalizeRequest(String)}
+ * @param systemFingerprint hash of the rendered system prompt
+ * @param stateFingerprint hash of the planning-relevant conversation state
+ */
+public record PlanCacheKey(
+		String normalizedRequest,
+		String systemFingerprint,
+		String stateFingerprint
+) {
+
+	private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+	private static final Pattern TRAILING_PUNCTUATION = Pattern.compile("[\\s.!?;]+$");
+
+	public PlanCacheKey {
+		Objects.requireNonNull(normalizedRequest, "normalizedRequest must not be null");
+		Objects.requireNonNull(systemFingerprint, "systemFingerprint must not be null");
+		Objects.requireNonNull(stateFingerprint, "stateFingerprint must not be null");
+	}
+
+	/**
+	 * Derive the key for a planning request.
+	 *
+	 * @param requestText the user request sent to the model
+	 * @param preview the rendered prompt for this request
+	 * @param state the conversation state, or {@code null} for a stateless request
+	 * @return the cache key
+	 */
+	public static PlanCacheKey of(String requestText, PromptPreview preview, ConversationState state) {
+		return new PlanCacheKey(
+				normalizeRequest(requestText),
+				preview.systemFingerprint(),
+				fingerprint(state));
+	}
+
+	/**
+	 * Normalize request text so that trivially different phrasings share a cache entry: leading
+	 * and trailing whitespace and trailing punctuation are dropped and inner whitespace runs are
+	 * collapsed. Case is preserved, since values quoted by the user (names, codes) end up in
+	 * the plan verbatim.
+	 *
+	 * @param requestText the raw request text
+	 * @return the normalized text
+	 */
+	public static String normalizeRequest(String requestText) {
+		if (requestText == null) {
+			return "";
+		}
+		String collapsed = WHITESPACE.matcher(requestText.strip()).replaceAll(" ");
+		return TRAILING_PUNCTUATION.matcher(collapsed).replaceAll("");
+	}
+
+	/**
+	 * Fingerprint the parts of the state that influence the plan: pending and provided
+	 * parameters and the working context. The original instruction and the latest message are
+	 * excluded, as the request text already carries them.
+	 */
+	static String fingerprint(ConversationState state) {
+		if (state == null) {
+			return PromptSegment.hash("");
+		}
+		StringBuilder sb = new StringBuilder();
+		for (PendingParam pending : state.pendingParams()) {
+			sb.append("pending:").append(pending.name()).append('\n');
+		}
+		for (Map.Entry<String, Object> provided : new TreeMap<>(state.providedParams()).entrySet()) {
+			sb.append("provided:").append(provided.getKey()).append('=').append(provided.getValue()).append('\n');
+		}
+		WorkingContext<?> working = state.workingContext();
+		if (working != null) {
+			sb.append("working:").append(working.contextType()).append('=').append(working.payload()).append('\n');
+		}
+		return PromptSegment.hash(sb.toString());
+	}
+}
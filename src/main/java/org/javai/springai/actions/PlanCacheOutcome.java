@@ -0,0 +1,21 @@
+package org.javai.springai.actions;
+
+/**
+ * Result of consulting the {@link PlanCache} for a single plan formulation.
+ */
+public enum PlanCacheOutcome {
+    /**
+     * No plan cache is configured, or the formulation was a dry run.
+     */
+    NOT_CONSULTED,
+
+    /**
+     * A cached plan was found and re-resolved; no model was invoked.
+     */
+    HIT,
+
+    /**
+     * No usable cached plan was found; the model was invoked.
+     */
+    MISS
+}
@@ -0,0 +1,37 @@
+package org.javai.springai.actions;
+
+/**
+ * Receives plan steps while the model is still generating the plan.
+ *
+ * <p>Used with {@link Planner.Builder#streaming(PlanStepListener)}. Each step is resolved and
+ * delivered as soon as its JSON has been received, in plan order, so callers can prepare for or
+ * start {@link org.javai.springai.actions.api.Mutability#READ_ONLY} work before the full plan is
+ * available. The complete plan is still returned by the planner once generation ends.</p>
+ *
+ * <p>An attempt that turns out invalid (for example, a later step fails to resolve or the JSON
+ * is truncated) is reported through {@link #onAttemptDiscarded(String)}; a retry may then
+ * deliver steps again from index 0. Listeners should therefore avoid irreversible work until
+ * the plan has been returned.</p>
+ *
+ * <p>An exception thrown by the listener ends planning and propagates to the caller of the
+ * planner. It is not retried and does not count against the model's circuit breaker.</p>
+ */
+@FunctionalInterface
+public interface PlanStepListener {
+
+	/**
+	 * Called for each resolved step.
+	 *
+	 * @param index zero-based position of the step in the plan
+	 * @param step the resolved step (may be an error or pending step)
+	 */
+	void onStep(int index, PlanStep step);
+
+	/**
+	 * Called when steps delivered for the current attempt are void because the attempt failed.
+	 *
+	 * @param reason why the attempt was discarded
+	 */
+	default void onAttemptDiscarded(String reason) {
+	}
+}
@@ -2,12 +2,20 @@ package org.javai.springai.actions;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -20,9 +28,12 @@ import org.javai.springai.actions.internal.bind.ActionParameterDescriptor;
 import org.javai.springai.actions.internal.bind.ActionPromptContributor;
 import org.javai.springai.actions.internal.bind.ActionRegistry;
 import org.javai.springai.actions.internal.parse.RawPlan;
+import org.javai.springai.actions.internal.parse.StreamingRawPlanParser;
+import org.javai.springai.actions.internal.plan.LatencyWindow;
 import org.javai.springai.actions.internal.plan.PlanFormulationResult;
 import org.javai.springai.actions.internal.plan.PlannerOptions;
 import org.javai.springai.actions.internal.plan.PromptPreview;
+import org.javai.springai.actions.internal.plan.PromptSegment;
 import org.javai.springai.actions.internal.prompt.PlanActionsContextContributor;
 import org.javai.springai.actions.internal.prompt.SystemPromptBuilder;
 import org.javai.springai.actions.internal.prompt.SystemPromptContext;
@@ -55,13 +66,20 @@ public final class Planner {
 	private final Consumer<PromptPreview> promptHook;
 	private final PersonaSpec persona;
 	private final TypeHandlerRegistry typeHandlerRegistry;
+	private final PlanCache planCache;
+	private final HedgingPolicy hedgingPolicy;
+	private final LatencyWindow primaryLatency;
+	private final boolean streaming;
+	private final PlanStepListener stepListener;
+	private final PromptBudget promptBudget;
+	private volatile StaticPromptSegments staticPromptSegments;
 
 	private Planner(Builder builder) {
 		// Get first tier's client for legacy compatibility (isDryRun, invokeModel)
 		this.chatClient = builder.chatClientTiers.isEmpty() 
 				? null 
 				: builder.chatClientTiers.getFirst().chatClient();
-		this.chatClientTiers = List.copyOf(builder.chatClientTiers);
+		this.chatClientTiers = withCircuitBreakers(builder.chatClientTiers, builder.circuitBreakerPolicy);
 		this.promptContributions = List.copyOf(builder.promptContributions);
 		this.collectedActions = collectActions(builder.actionSources);
 		this.toolSources = builder.toolSources != null ? builder.toolSources : new Object[0];
@@ -71,12 +89,46 @@ public final class Planner {
 		this.promptHook = builder.promptHook;
 		this.persona = builder.persona;
 		this.typeHandlerRegistry = builder.typeHandlerRegistry;
+		this.planCache = builder.planCache;
+		this.hedgingPolicy = builder.hedgingPolicy;
+		this.primaryLatency = hedgingPolicy != null ? new LatencyWindow(hedgingPolicy.windowSize()) : null;
+		this.streaming = builder.streaming;
+		this.stepListener = builder.stepListener;
+		this.promptBudget = builder.promptBudget;
 	}
 
 	public static Builder builder() {
 		return new Builder();
 	}
 
+	private static List<ChatClientTier> withCircuitBreakers(List<ChatClientTier> tiers, CircuitBreakerPolicy policy) {
+		if (policy == null) {
+			return List.copyOf(tiers);
+		}
+		List<ChatClientTier> guarded = new ArrayList<>(tiers.size());
+		for (int tierIndex = 0; tierIndex < tiers.size(); tierIndex++) {
+			ChatClientTier tier = tiers.get(tierIndex);
+			guarded.add(tier.circuitBreaker() != null
+					? tier
+					: tier.withCircuitBreaker(new TierCircuitBreaker(modelLabel(tier, tierIndex), policy)));
+		}
+		return List.copyOf(guarded);
+	}
+
+	/**
+	 * Current state of each tier's circuit breaker, in tier order. Empty when no tier has a
+	 * breaker.
+	 */
+	public List<TierCircuitBreaker.Snapshot> circuitBreakerSnapshots() {
+		List<TierCircuitBreaker.Snapshot> snapshots = new ArrayList<>(chatClientTiers.size());
+		for (ChatClientTier tier : chatClientTiers) {
+			if (tier.circuitBreaker() != null) {
+				snapshots.add(tier.circuitBreaker().snapshot());
+			}
+		}
+		return List.copyOf(snapshots);
+	}
+
 
 	// Conversation-aware entry point. Supply the rolling conversation state; this is the public API.
 	public PlanFormulationResult formulatePlan(@NonNull String requestText, ConversationState state) {
@@ -117,9 +169,17 @@ public final class Planner {
 			return formulateDryRunPlan(preview, actionContext);
 		}
 
+		PlanCacheKey cacheKey = planCache != null ? PlanCacheKey.of(requestText, preview, state) : null;
+		if (cacheKey != null) {
+			PlanFormulationResult cached = formulateFromCache(cacheKey, preview, effective, actionContext);
+			if (cached != null) {
+				return cached;
+			}
+		}
+
 		// Use tiered retry if configured, otherwise fall back to legacy single-client behavior
 		if (!chatClientTiers.isEmpty()) {
-			return formulatePlanWithRetry(preview, effective, actionContext);
+			return formulatePlanWithRetry(preview, effective, actionContext, cacheKey);
 		}
 
 		// Legacy path for backward compatibility (shouldn't normally be reached
@@ -163,6 +223,20 @@ public final class Planner {
 		return collectedActions.registry();
 	}
 
+	/**
+	 * Discard the cached static system prompt segments.
+	 *
+	 * <p>The persona, type guidance, prompt contributions, planning directive and the output of
+	 * {@link PromptContributor#isStatic() static} contributors are rendered once and reused on
+	 * every turn. Contributors report changes to their sources through
+	 * {@link PromptContributor#staticVersion()}, which rebuilds the segments automatically; call
+	 * this when some other source they were rendered from has changed. The segments are rebuilt
+	 * on the next turn.</p>
+	 */
+	public void invalidatePromptCache() {
+		staticPromptSegments = null;
+	}
+
 	private CollectedActions collectActions() {
 		return collectedActions;
 	}
@@ -337,11 +411,159 @@ public final class Planner {
 		};
 	}
 
+	/**
+	 * Assemble the system messages for a turn.
+	 *
+	 * <p>Static segments (persona, static contributors, type guidance, prompt contributions) come
+	 * first so that they form a byte-identical prefix on every turn, followed by the per-turn
+	 * segments (state-dependent contributors, retry addendum). The planning directive is static
+	 * but stays last, immediately before the user message, for maximum salience.</p>
+	 */
 	private PromptPreview buildPromptPreview(@NonNull String requestText,
 			@NonNull List<ActionDescriptor> actionDescriptors,
 			ConversationState state) {
-		List<String> systemMessages = new ArrayList<>();
+		StaticPromptSegments cached = staticPromptSegments(actionDescriptors);
+		List<PromptSegment> segments = new ArrayList<>(cached.prefix());
+
+		// State-dependent contributors (e.g., SqlWorkingContextContributor) run on every turn
+		SystemPromptContext ctx = null;
+		for (PromptContributor contributor : this.promptContributors) {
+			if (contributor == null || contributor.isStatic()) {
+				continue;
+			}
+			if (ctx == null) {
+				ctx = dynamicPromptContext(requestText, actionDescriptors, state);
+			}
+			contributor.contribute(ctx)
+					.map(text -> PromptSegment.dynamicSegment(segmentName(contributor), text))
+					.ifPresent(segments::add);
+		}
+
+		// Conversation-aware retry addendum
+		ConversationPromptBuilder.buildRetryAddendum(state)
+				.map(text -> PromptSegment.dynamicSegment("retryAddendum", text))
+				.ifPresent(segments::add);
+
+		segments.add(cached.planningDirective());
 
+		List<String> systemMessages = segments.stream().map(PromptSegment::text).toList();
+		List<String> userMessages = List.of(requestText);
+
+		PromptPreview preview = new PromptPreview(
+				Objects.requireNonNull(systemMessages),
+				Objects.requireNonNull(userMessages),
+				List.of(),  // No grammar IDs - we use JSON now
+				cached.actionNames(),
+				segments);
+		return withinBudget(preview, promptBudget);
+	}
+
+	/**
+	 * The prompt to send to a tier: the planner's prompt, further reduced to the tier's own
+	 * budget if it has one.
+	 */
+	private PromptPreview previewFor(ChatClientTier tier, PromptPreview preview) {
+		return withinBudget(preview, tier.promptBudget());
+	}
+
+	/**
+	 * Reduce the system segments of a preview to fit the budget, recording the estimated
+	 * tokens of each segment.
+	 */
+	private PromptPreview withinBudget(PromptPreview preview, PromptBudget budget) {
+		if (budget == null) {
+			return preview;
+		}
+		PromptBudget.Allocation allocation = budget.allocate(preview.systemSegments(), this::segmentPolicy);
+		if (!allocation.reduced().isEmpty()) {
+			logger.debug("Reduced prompt segments {} to fit budget of {} tokens",
+					allocation.reduced(), budget.maxSystemTokens());
+		}
+		if (!allocation.withinBudget()) {
+			logger.warn("System prompt of ~{} tokens exceeds budget of {} tokens after reduction",
+					allocation.totalTokens(), budget.maxSystemTokens());
+		}
+		return new PromptPreview(
+				allocation.segments().stream().map(PromptSegment::text).toList(),
+				preview.userMessages(),
+				preview.grammarIds(),
+				preview.actionNames(),
+				allocation.segments(),
+				allocation.tokens());
+	}
+
+	/**
+	 * Default budget policy of a segment. The base system prompt and planning directive are
+	 * required; built-in guidance is reduced after contributors; contributors declare their own.
+	 */
+	private PromptBudget.SegmentPolicy segmentPolicy(String segmentName) {
+		return switch (segmentName) {
+			case "systemPrompt", "planningDirective" -> PromptBudget.SegmentPolicy.required();
+			case "persona", "typeGuidance", "promptContribution", "retryAddendum" ->
+					new PromptBudget.SegmentPolicy(PromptBudget.BUILT_IN_PRIORITY, SegmentReducer.truncate());
+			default -> contributorPolicy(segmentName);
+		};
+	}
+
+	private PromptBudget.SegmentPolicy contributorPolicy(String segmentName) {
+		for (PromptContributor contributor : promptContributors) {
+			if (contributor != null && segmentName(contributor).equals(segmentName)) {
+				return new PromptBudget.SegmentPolicy(contributor.priority(), contributor.reducer());
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Merge the user message and conversation state into prompt context for context-aware
+	 * contributors.
+	 */
+	private SystemPromptContext dynamicPromptContext(String requestText, List<ActionDescriptor> actionDescriptors,
+			ConversationState state) {
+		Map<String, Object> mergedContext = new HashMap<>(this.promptContext);
+		mergedContext.put("userMessage", requestText);
+		if (state != null) {
+			mergedContext.put("conversationState", state);
+			if (state.workingContext() != null) {
+				mergedContext.put("workingContext", state.workingContext());
+			}
+		}
+		return new SystemPromptContext(
+				collectedActions.registry(),
+				actionDescriptors,
+				ActionDescriptorFilter.ALL,
+				mergedContext);
+	}
+
+	/**
+	 * Returns the cached static segments, rendering them on first use, after
+	 * {@link #invalidatePromptCache()} or when a static contributor's version has changed.
+	 * Concurrent first calls may render twice; the result is identical, so the race is benign.
+	 */
+	private StaticPromptSegments staticPromptSegments(List<ActionDescriptor> actionDescriptors) {
+		StaticPromptSegments segments = staticPromptSegments;
+		List<Long> versions = staticContributorVersions();
+		if (segments == null || segments.descriptors() != actionDescriptors
+				|| !segments.contributorVersions().equals(versions)) {
+			segments = renderStaticPromptSegments(actionDescriptors, versions);
+			staticPromptSegments = segments;
+		}
+		return segments;
+	}
+
+	private List<Long> staticContributorVersions() {
+		List<Long> versions = new ArrayList<>(this.promptContributors.size());
+		for (PromptContributor contributor : this.promptContributors) {
+			if (contributor != null && contributor.isStatic()) {
+				versions.add(contributor.staticVersion());
+			}
+		}
+		return versions;
+	}
+
+	private StaticPromptSegments renderStaticPromptSegments(List<ActionDescriptor> actionDescriptors,
+			List<Long> contributorVersions) {
+		List<PromptSegment> prefix = new ArrayList<>();
 		String systemPrompt = SystemPromptBuilder.build(
 				collectedActions.registry(),
 				ActionDescriptorFilter.ALL,
@@ -350,57 +572,47 @@ public final class Planner {
 				this.typeHandlerRegistry
 		);
 		if (!systemPrompt.isBlank()) {
-			systemMessages.add(systemPrompt);
+			prefix.add(PromptSegment.staticSegment("systemPrompt", systemPrompt));
 		}
-
 		if (this.persona != null) {
-			systemMessages.add(renderPersona(this.persona));
+			prefix.add(PromptSegment.staticSegment("persona", renderPersona(this.persona)));
 		}
 
-		// Add contributions from prompt contributors (e.g., SqlCatalogContextContributor)
-		// Merge conversation state into prompt context for context-aware contributors
-		Map<String, Object> mergedContext = new java.util.HashMap<>(this.promptContext);
-		if (state != null) {
-			mergedContext.put("conversationState", state);
-			if (state.workingContext() != null) {
-				mergedContext.put("workingContext", state.workingContext());
-			}
-		}
-		SystemPromptContext ctx = new SystemPromptContext(
-				collectedActions.registry(), 
-				actionDescriptors, 
-				ActionDescriptorFilter.ALL, 
-				mergedContext);
+		// Static contributors (e.g., PlanActionsContextContributor, SqlCatalogContextContributor)
+		SystemPromptContext staticContext = new SystemPromptContext(
+				collectedActions.registry(),
+				actionDescriptors,
+				ActionDescriptorFilter.ALL,
+				this.promptContext);
 		for (PromptContributor contributor : this.promptContributors) {
-			if (contributor != null) {
-				contributor.contribute(ctx).ifPresent(systemMessages::add);
+			if (contributor != null && contributor.isStatic()) {
+				contributor.contribute(staticContext)
+						.map(text -> PromptSegment.staticSegment(segmentName(contributor), text))
+						.ifPresent(prefix::add);
 			}
 		}
 
 		// Add type-specific guidance from registered type handlers
-		String typeGuidance = org.javai.springai.actions.internal.bind.ActionPromptContributor
-				.collectTypeGuidance(collectedActions.registry(), this.typeHandlerRegistry);
+		String typeGuidance = ActionPromptContributor.collectTypeGuidance(
+				collectedActions.registry(), this.typeHandlerRegistry);
 		if (!typeGuidance.isBlank()) {
-			systemMessages.add(typeGuidance);
+			prefix.add(PromptSegment.staticSegment("typeGuidance", typeGuidance));
+		}
+		for (String contribution : promptContributions) {
+			prefix.add(PromptSegment.staticSegment("promptContribution", contribution));
 		}
 
-		systemMessages.addAll(promptContributions);
-
-		// Conversation-aware retry addendum
-		ConversationPromptBuilder.buildRetryAddendum(state).ifPresent(systemMessages::add);
-
-		// Planning directive: placed LAST, immediately before user message, for maximum salience
-		// Generate dynamically based on actual actions registered for this planner
-		systemMessages.add(buildPlanningDirective(actionDescriptors));
-
-		List<String> userMessages = List.of(requestText);
-		List<String> actionNames = actionDescriptors.stream().map(ActionDescriptor::id).toList();
+		return new StaticPromptSegments(
+				actionDescriptors,
+				List.copyOf(contributorVersions),
+				List.copyOf(prefix),
+				// Generated from the actual actions registered for this planner
+				PromptSegment.staticSegment("planningDirective", buildPlanningDirective(actionDescriptors)),
+				actionDescriptors.stream().map(ActionDescriptor::id).toList());
+	}
 
-		return new PromptPreview(
-				Objects.requireNonNull(systemMessages),
-				Objects.requireNonNull(userMessages),
-				List.of(),  // No grammar IDs - we use JSON now
-				actionNames);
+	private static String segmentName(PromptContributor contributor) {
+		return contributor.getClass().getSimpleName();
 	}
 
 	private void maybeFirePromptHook(PromptPreview preview, PlannerOptions options) {
@@ -437,28 +649,54 @@ public final class Planner {
 	 */
 	@SuppressWarnings("null")
 	private String invokeModelWith(ChatClient client, PromptPreview preview) {
+		ChatClient.ChatClientRequestSpec request = prepareRequest(client, preview);
+		var response = request.call();
+		String content = response.content();
+		logExchange(preview, content);
+		return content;
+	}
+
+	/**
+	 * Stream the response of the specified chat client. Chunks are pulled one at a time, so
+	 * abandoning the iteration cancels the underlying request.
+	 */
+	@SuppressWarnings("null")
+	private Iterable<String> streamModelWith(ChatClient client, PromptPreview preview) {
+		return prepareRequest(client, preview).stream().content().toIterable(1);
+	}
+
+	@SuppressWarnings("null")
+	private ChatClient.ChatClientRequestSpec prepareRequest(ChatClient client, PromptPreview preview) {
 		ChatClient.ChatClientRequestSpec request = client.prompt();
 		request.tools(toolSources);
 		preview.systemMessages().forEach(request::system);
 		request.user(Objects.requireNonNull(preview.renderedUser()));
-		String sys = String.join("\n---\n", preview.systemMessages());
-		var response = request.call();
-		String content = response.content();
-		logger.info("System messages:\n{}", sys);
+		return request;
+	}
+
+	private void logExchange(PromptPreview preview, String content) {
+		logger.debug("Static prompt prefix: {} segment(s), hash {}", preview.staticPrefixLength(),
+				preview.staticPrefixHash());
+		logger.info("System messages:\n{}", String.join("\n---\n", preview.systemMessages()));
 		logger.info("User message:\n{}", preview.renderedUser());
 		logger.info("LLM response:\n{}", content);
-		return content;
 	}
 
 	/**
 	 * Attempt plan formulation with a specific chat client.
 	 * Captures the outcome as an InvocationResult for retry logic.
+	 *
+	 * @param listener receives steps early in streaming mode; {@code null} for none
 	 */
 	private InvocationResult attemptPlanFormulation(
 			ChatClient client,
 			PromptPreview preview,
-			CollectedActions actionContext
+			CollectedActions actionContext,
+			PlanStepListener listener
 	) {
+		if (streaming) {
+			return streamPlanFormulation(client, preview, actionContext, listener);
+		}
 		long startTime = System.currentTimeMillis();
 		try {
 			String response = invokeModelWith(client, preview);
@@ -488,37 +726,162 @@ public final class Planner {
 		}
 	}
 
+	/**
+	 * Streaming variant of {@link #attemptPlanFormulation}: the response is parsed incrementally
+	 * and each step is resolved, and handed to the listener, as soon as it is complete. Only
+	 * errors of the model stream become a failed result; an exception from the resolver or the
+	 * listener leaves as a {@link StepCallbackException}.
+	 */
+	private InvocationResult streamPlanFormulation(
+			ChatClient client,
+			PromptPreview preview,
+			CollectedActions actionContext,
+			PlanStepListener listener
+	) {
+		long startTime = System.currentTimeMillis();
+		StringBuilder response = new StringBuilder();
+		List<PlanStep> resolved = new ArrayList<>();
+		DefaultPlanResolver resolver = new DefaultPlanResolver();
+		ResolutionContext context = resolutionContext(actionContext.registry());
+		StreamingRawPlanParser parser = new StreamingRawPlanParser(JSON_MAPPER, rawStep -> {
+			try {
+				PlanStep step = resolver.resolveStep(rawStep, context);
+				resolved.add(step);
+				if (listener != null) {
+					listener.onStep(resolved.size() - 1, step);
+				}
+			} catch (RuntimeException e) {
+				throw new StepCallbackException(e);
+			}
+		});
+
+		InvocationResult result;
+		try {
+			try {
+				for (String chunk : streamModelWith(client, preview)) {
+					if (chunk != null) {
+						response.append(chunk);
+						parser.feed(chunk);
+					}
+				}
+				RawPlan rawPlan = parser.finish();
+				logExchange(preview, response.toString());
+				Plan plan = new Plan(rawPlan.message(), resolved);
+				long duration = System.currentTimeMillis() - startTime;
+				if (plan.status() == PlanStatus.ERROR) {
+					String errorDetail = plan.planSteps().stream()
+							.filter(s -> s instanceof PlanStep.ErrorStep)
+							.map(s -> ((PlanStep.ErrorStep) s).reason())
+							.findFirst()
+							.orElse("Plan contains errors");
+					result = InvocationResult.validationFailed(response.toString(), plan, errorDetail, duration);
+				} else {
+					result = InvocationResult.success(response.toString(), plan, duration);
+				}
+			} catch (IOException e) {
+				long duration = System.currentTimeMillis() - startTime;
+				String error = response.isEmpty()
+						? "LLM returned empty plan response"
+						: "Failed to parse JSON plan: " + e.getMessage();
+				result = InvocationResult.parseFailed(response.toString(), error, duration);
+			}
+		} catch (StepCallbackException e) {
+			// Not a failure of the model or its transport
+			throw e;
+		} catch (Exception e) {
+			long duration = System.currentTimeMillis() - startTime;
+			logger.warn("Network/API error during streamed plan formulation: {}", e.getMessage());
+			result = InvocationResult.networkError(e.getMessage(), duration);
+		}
+
+		if (listener != null && !result.isSuccess() && !resolved.isEmpty()) {
+			listener.onAttemptDiscarded(result.errorDetails());
+		}
+		return result;
+	}
+
 	/**
 	 * Formulate plan with retry across tiered chat clients.
+	 *
+	 * <p>With a {@link HedgingPolicy}, the first attempts of the primary and first fallback tier
+	 * are raced (see {@link #runHedgedRace}); if neither produces a plan, the remaining attempts
+	 * follow in tier order.</p>
+	 *
+	 * <p>Tiers whose {@link TierCircuitBreaker} is open are skipped without being invoked. If the
+	 * calling thread is interrupted, no further attempts are made and an error plan is returned.</p>
 	 */
 	private PlanFormulationResult formulatePlanWithRetry(
 			PromptPreview preview,
 			PlannerOptions options,
-			CollectedActions actionContext
+			CollectedActions actionContext,
+			PlanCacheKey cacheKey
 	) {
+		PlanCacheOutcome cacheOutcome = cacheKey != null ? PlanCacheOutcome.MISS : PlanCacheOutcome.NOT_CONSULTED;
 		List<AttemptRecord> attempts = new ArrayList<>();
 		String lastResponse = null;
 		Plan lastPlan = null;
+		int[] firstAttempt = new int[chatClientTiers.size()];
+		Arrays.fill(firstAttempt, 1);
+		int unavailableTiers = 0;
+
+		if (hedgingPolicy != null && chatClientTiers.size() > 1 && chatClientTiers.getFirst().tryAcquirePermission()) {
+			HedgedRace race = runHedgedRace(preview, actionContext);
+			attempts.addAll(race.records());
+			for (TierResult completed : race.completed()) {
+				lastResponse = completed.result().response();
+				if (completed.result().plan() != null) {
+					lastPlan = completed.result().plan();
+				}
+			}
+			if (race.winner() != null) {
+				ChatClientTier tier = chatClientTiers.get(race.winner().tierIndex());
+				logger.info("[Model Fallback] Hedged attempt on model '{}' won (total attempts: {})",
+						modelLabel(tier, race.winner().tierIndex()), attempts.size());
+				return successfulResult(tier, race.winner().result(), attempts, cacheOutcome, cacheKey,
+						preview, options, actionContext);
+			}
+			if (race.interrupted()) {
+				return interruptedResult(attempts, lastResponse, cacheOutcome, preview, options, actionContext);
+			}
+			firstAttempt[0] = 2;
+			firstAttempt[1] = race.records().size() > 1 ? 2 : 1;
+		}
 
+		tiers:
 		for (int tierIndex = 0; tierIndex < chatClientTiers.size(); tierIndex++) {
 			ChatClientTier tier = chatClientTiers.get(tierIndex);
-			String modelLabel = tier.modelId() != null ? tier.modelId() : "tier-" + tierIndex;
+			String modelLabel = modelLabel(tier, tierIndex);
 
-			for (int attempt = 1; attempt <= tier.maxAttempts(); attempt++) {
+			for (int attempt = firstAttempt[tierIndex]; attempt <= tier.maxAttempts(); attempt++) {
+				if (Thread.currentThread().isInterrupted()) {
+					return interruptedResult(attempts, lastResponse, cacheOutcome, preview, options, actionContext);
+				}
+				if (!tier.tryAcquirePermission()) {
+					logger.warn("[Model Fallback] Circuit open for model '{}', moving to next fallback", modelLabel);
+					if (attempt == 1) {
+						unavailableTiers++;
+					}
+					continue tiers;
+				}
 				logger.info("[Model Fallback] Invoking model '{}' - attempt {}/{}", 
 						modelLabel, attempt, tier.maxAttempts());
 
-				InvocationResult result = attemptPlanFormulation(
-						tier.chatClient(), preview, actionContext);
+				InvocationResult result;
+				try {
+					result = attemptPlanFormulation(
+							tier.chatClient(), previewFor(tier, preview), actionContext, stepListener);
+				} catch (StepCallbackException e) {
+					if (tier.circuitBreaker() != null) {
+						tier.circuitBreaker().onIgnored();
+					}
+					throw e.getCause();
+				}
+				if (tierIndex == 0) {
+					recordPrimaryLatency(result);
+				}
+				recordCircuitOutcome(tier, result);
 
-				attempts.add(new AttemptRecord(
-						tier.modelId(),
-						tierIndex,
-						attempt,
-						result.outcome(),
-						result.durationMillis(),
-						result.errorDetails()
-				));
+				attempts.add(attemptRecord(tier, tierIndex, attempt, result));
 
 				lastResponse = result.response();
 				if (result.plan() != null) {
@@ -528,12 +891,8 @@ public final class Planner {
 				if (result.isSuccess()) {
 					logger.info("[Model Fallback] Success on model '{}' attempt {}/{} (total attempts: {})",
 							modelLabel, attempt, tier.maxAttempts(), attempts.size());
-					PlanningMetrics metrics = new PlanningMetrics(
-							tier.modelId(), attempts.size(), attempts);
-					maybeFirePromptHook(preview, options);
-					return new PlanFormulationResult(
-							result.response(), result.plan(), preview, false,
-							actionContext.registry(), metrics);
+					return successfulResult(tier, result, attempts, cacheOutcome, cacheKey,
+							preview, options, actionContext);
 				}
 
 				logger.warn("[Model Fallback] Attempt {}/{} on model '{}' failed: {} - {}",
@@ -548,11 +907,15 @@ public final class Planner {
 		// All tiers exhausted - return error plan with full metrics
 		logger.error("[Model Fallback] All {} tiers exhausted after {} total attempts - returning error plan",
 				chatClientTiers.size(), attempts.size());
-		PlanningMetrics metrics = new PlanningMetrics(null, attempts.size(), attempts);
+		PlanningMetrics metrics = new PlanningMetrics(null, attempts.size(), attempts, cacheOutcome,
+				circuitBreakerSnapshots());
 
 		Plan errorPlan;
 		if (lastPlan != null) {
 			errorPlan = lastPlan;
+		} else if (unavailableTiers == chatClientTiers.size()) {
+			errorPlan = new Plan(null, List.of(new PlanStep.ErrorStep(
+					"All chat client tiers are unavailable: circuit open for " + metrics.openCircuits())));
 		} else {
 			// Include the last error details in the reason for backward compatibility
 			AttemptRecord lastAttempt = attempts.isEmpty() ? null : attempts.getLast();
@@ -573,6 +936,264 @@ public final class Planner {
 				actionContext.registry(), metrics);
 	}
 
+	/**
+	 * The error plan returned when the calling thread is interrupted during formulation. The
+	 * interrupt flag stays set for the caller.
+	 */
+	private PlanFormulationResult interruptedResult(
+			List<AttemptRecord> attempts,
+			String lastResponse,
+			PlanCacheOutcome cacheOutcome,
+			PromptPreview preview,
+			PlannerOptions options,
+			CollectedActions actionContext
+	) {
+		logger.warn("[Model Fallback] Interrupted after {} attempts - returning error plan", attempts.size());
+		PlanningMetrics metrics = new PlanningMetrics(null, attempts.size(), attempts, cacheOutcome,
+				circuitBreakerSnapshots());
+		Plan errorPlan = new Plan(lastResponse, List.of(new PlanStep.ErrorStep("Plan formulation was interrupted")));
+		maybeFirePromptHook(preview, options);
+		return new PlanFormulationResult(
+				lastResponse, errorPlan, preview, false,
+				actionContext.registry(), metrics);
+	}
+
+	private PlanFormulationResult successfulResult(
+			ChatClientTier tier,
+			InvocationResult result,
+			List<AttemptRecord> attempts,
+			PlanCacheOutcome cacheOutcome,
+			PlanCacheKey cacheKey,
+			PromptPreview preview,
+			PlannerOptions options,
+			CollectedActions actionContext
+	) {
+		PlanningMetrics metrics = new PlanningMetrics(
+				tier.modelId(), attempts.size(), attempts, cacheOutcome, circuitBreakerSnapshots());
+		cachePlan(cacheKey, result.response());
+		maybeFirePromptHook(preview, options);
+		return new PlanFormulationResult(
+				result.response(), result.plan(), preview, false,
+				actionContext.registry(), metrics);
+	}
+
+	/**
+	 * Race the first attempt on the primary tier against the first attempt on the fallback tier.
+	 *
+	 * <p>The fallback is only started if the primary has not completed within the hedge delay.
+	 * The first successful attempt wins and the other is cancelled (interrupting its thread). A
+	 * primary attempt that fails before the hedge delay ends the race without starting the
+	 * fallback, so that the normal retry order applies. The caller has already acquired the
+	 * primary tier's circuit breaker permission; the fallback is not started while its circuit
+	 * is open.</p>
+	 *
+	 * <p>Primary latency is recorded here, on the calling thread, once per race: a primary leg
+	 * that is cancelled but ignores the interrupt must not record its duration again when it
+	 * eventually returns.</p>
+	 */
+	private HedgedRace runHedgedRace(PromptPreview preview, CollectedActions actionContext) {
+		ExecutorCompletionService<TierResult> race = new ExecutorCompletionService<>(hedgingPolicy.executor());
+		List<Future<TierResult>> futures = new ArrayList<>(2);
+		long[] startNanos = new long[2];
+		TierResult[] results = new TierResult[2];
+		TierResult winner = null;
+		StepCallbackException failure = null;
+		boolean interrupted = false;
+
+		startNanos[0] = System.nanoTime();
+		futures.add(race.submit(() -> raceAttempt(0, preview, actionContext)));
+		try {
+			Future<TierResult> done = race.poll(hedgeDelayMillis(), TimeUnit.MILLISECONDS);
+			if (done == null && chatClientTiers.get(1).tryAcquirePermission()) {
+				logger.info("[Model Fallback] Model '{}' exceeded hedge delay, starting '{}' concurrently",
+						modelLabel(chatClientTiers.get(0), 0), modelLabel(chatClientTiers.get(1), 1));
+				startNanos[1] = System.nanoTime();
+				futures.add(race.submit(() -> raceAttempt(1, preview, actionContext)));
+			}
+			int pending = futures.size();
+			while (pending > 0) {
+				Future<TierResult> future = done != null ? done : race.take();
+				done = null;
+				pending--;
+				int tierIndex = futures.indexOf(future);
+				TierResult completed = raceOutcome(future, tierIndex, startNanos[tierIndex]);
+				results[tierIndex] = completed;
+				if (completed.result().isSuccess()) {
+					winner = completed;
+					break;
+				}
+				if (futures.size() == 1) {
+					break;
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			interrupted = true;
+		} catch (StepCallbackException e) {
+			failure = e;
+		}
+
+		List<AttemptRecord> records = new ArrayList<>(futures.size());
+		List<TierResult> completed = new ArrayList<>(futures.size());
+		for (int tierIndex = 0; tierIndex < futures.size(); tierIndex++) {
+			ChatClientTier tier = chatClientTiers.get(tierIndex);
+			if (results[tierIndex] != null) {
+				completed.add(results[tierIndex]);
+				records.add(attemptRecord(tier, tierIndex, 1, results[tierIndex].result()));
+				recordCircuitOutcome(tier, results[tierIndex].result());
+				if (tierIndex == 0) {
+					recordPrimaryLatency(results[tierIndex].result());
+				}
+			} else {
+				futures.get(tierIndex).cancel(true);
+				if (tier.circuitBreaker() != null) {
+					tier.circuitBreaker().onIgnored();
+				}
+				long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos[tierIndex]);
+				if (tierIndex == 0 && primaryLatency != null && failure == null && !interrupted) {
+					// The primary would have taken at least this long; leaving it out would bias
+					// the adaptive delay towards the fast responses that never lose a race
+					primaryLatency.record(elapsed);
+				}
+				records.add(new AttemptRecord(tier.modelId(), tierIndex, 1, AttemptOutcome.CANCELLED, elapsed,
+						interrupted ? "Cancelled: plan formulation interrupted"
+								: "Cancelled: hedged attempt completed first"));
+			}
+		}
+		if (failure != null) {
+			throw failure.getCause();
+		}
+		return new HedgedRace(records, completed, winner, interrupted);
+	}
+
+	/**
+	 * The result of a completed leg of a hedged race. A leg that threw is a failed attempt
+	 * classified by its cause, as {@link #attemptPlanFormulation} classifies the exceptions it
+	 * catches; only a leg that was itself cancelled counts as {@link AttemptOutcome#CANCELLED}.
+	 */
+	private TierResult raceOutcome(Future<TierResult> future, int tierIndex, long startNanos)
+			throws InterruptedException {
+		try {
+			return future.get();
+		} catch (CancellationException e) {
+			long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+			return new TierResult(tierIndex, InvocationResult.cancelled(elapsed));
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof VirtualMachineError error) {
+				throw error;
+			}
+			if (cause instanceof StepCallbackException callbackFailure) {
+				throw callbackFailure;
+			}
+			logger.warn("[Model Fallback] Hedged attempt on model '{}' failed unexpectedly",
+					modelLabel(chatClientTiers.get(tierIndex), tierIndex), cause);
+			long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+			return new TierResult(tierIndex, InvocationResult.failed(cause, elapsed));
+		}
+	}
+
+	private TierResult raceAttempt(int tierIndex, PromptPreview preview, CollectedActions actionContext) {
+		// Steps of a race are not streamed to the listener: both racers would interleave
+		ChatClientTier tier = chatClientTiers.get(tierIndex);
+		InvocationResult result = attemptPlanFormulation(
+				tier.chatClient(), previewFor(tier, preview), actionContext, null);
+		return new TierResult(tierIndex, result);
+	}
+
+	private long hedgeDelayMillis() {
+		if (hedgingPolicy.isAdaptive()) {
+			OptionalLong observed = primaryLatency.percentile(hedgingPolicy.percentile(), hedgingPolicy.minSamples());
+			if (observed.isPresent()) {
+				return observed.getAsLong();
+			}
+		}
+		return hedgingPolicy.initialDelay().toMillis();
+	}
+
+	/**
+	 * Track primary-tier latency for adaptive hedging. Network errors are excluded, as their
+	 * duration reflects timeouts rather than model latency, and so are cancelled attempts, whose
+	 * elapsed time the race records itself.
+	 */
+	private void recordPrimaryLatency(InvocationResult result) {
+		if (primaryLatency != null && result.outcome() != AttemptOutcome.NETWORK_ERROR
+				&& result.outcome() != AttemptOutcome.CANCELLED) {
+			primaryLatency.record(result.durationMillis());
+		}
+	}
+
+	/**
+	 * Report an attempt to the tier's circuit breaker. Network errors and unparseable responses
+	 * count against the tier; a plan that parses but fails validation is the model's answer and
+	 * says nothing about the tier's availability, and neither does a cancelled attempt.
+	 */
+	private static void recordCircuitOutcome(ChatClientTier tier, InvocationResult result) {
+		TierCircuitBreaker breaker = tier.circuitBreaker();
+		if (breaker == null) {
+			return;
+		}
+		if (result.outcome() == AttemptOutcome.CANCELLED) {
+			breaker.onIgnored();
+		} else if (result.outcome() == AttemptOutcome.NETWORK_ERROR || result.outcome() == AttemptOutcome.PARSE_FAILED) {
+			breaker.onFailure(result.durationMillis());
+		} else {
+			breaker.onSuccess(result.durationMillis());
+		}
+	}
+
+	private static AttemptRecord attemptRecord(ChatClientTier tier, int tierIndex, int attempt,
+			InvocationResult result) {
+		return new AttemptRecord(
+				tier.modelId(),
+				tierIndex,
+				attempt,
+				result.outcome(),
+				result.durationMillis(),
+				result.errorDetails()
+		);
+	}
+
+	private static String modelLabel(ChatClientTier tier, int tierIndex) {
+		return tier.modelId() != null ? tier.modelId() : "tier-" + tierIndex;
+	}
+
+	/**
+	 * Serve a plan from the plan cache, re-resolving the cached JSON against the current
+	 * registry. Returns {@code null} on a miss; entries that no longer resolve are evicted.
+	 */
+	private PlanFormulationResult formulateFromCache(
+			PlanCacheKey cacheKey,
+			PromptPreview preview,
+			PlannerOptions options,
+			CollectedActions actionContext
+	) {
+		Optional<String> cachedJson = planCache.get(cacheKey);
+		if (cachedJson.isEmpty()) {
+			return null;
+		}
+		try {
+			Plan plan = parseRawPlan(cachedJson.get(), actionContext.registry());
+			if (plan.status() != PlanStatus.ERROR) {
+				logger.debug("[Plan Cache] Serving cached plan for '{}'", cacheKey.normalizedRequest());
+				maybeFirePromptHook(preview, options);
+				return new PlanFormulationResult(
+						cachedJson.get(), plan, preview, false,
+						actionContext.registry(), PlanningMetrics.cacheHit());
+			}
+		} catch (PlanParseException e) {
+			logger.debug("[Plan Cache] Cached plan no longer parses: {}", e.getMessage());
+		}
+		planCache.evict(cacheKey);
+		return null;
+	}
+
+	private void cachePlan(PlanCacheKey cacheKey, String response) {
+		if (cacheKey != null && response != null) {
+			extractJsonContent(response).ifPresent(json -> planCache.put(cacheKey, json));
+		}
+	}
+
 	private void fireHook(PromptPreview preview) {
 		if (promptHook != null && preview != null) {
 			try {
@@ -624,7 +1245,7 @@ public final class Planner {
 		try {
 			RawPlan jsonPlan = JSON_MAPPER.readValue(json, RawPlan.class);
 			// Pass type handlers and prompt context to resolver for domain-specific handling
-			ResolutionContext context = ResolutionContext.of(actionRegistry, typeHandlerRegistry, promptContext);
+			ResolutionContext context = resolutionContext(actionRegistry);
 			// Resolve directly to bound Plan (includes validation)
 			return new DefaultPlanResolver().resolve(jsonPlan, context);
 		} catch (JsonProcessingException e) {
@@ -632,6 +1253,38 @@ public final class Planner {
 		}
 	}
 
+	private record TierResult(int tierIndex, InvocationResult result) {
+	}
+
+	/**
+	 * Carries an exception thrown while resolving a streamed step or delivering it to the
+	 * listener out of the attempt, so that it is not mistaken for a model or transport error.
+	 * Unwrapped before it leaves the planner.
+	 */
+	private static final class StepCallbackException extends RuntimeException {
+
+		StepCallbackException(RuntimeException cause) {
+			super(cause);
+		}
+
+		@Override
+		public synchronized RuntimeException getCause() {
+			return (RuntimeException) super.getCause();
+		}
+	}
+
+	/**
+	 * Outcome of a hedged race: attempt records in tier order, the attempts that completed, the
+	 * successful one, if any, and whether the calling thread was interrupted while waiting.
+	 */
+	private record HedgedRace(List<AttemptRecord> records, List<TierResult> completed, TierResult winner,
+			boolean interrupted) {
+	}
+
+	private ResolutionContext resolutionContext(ActionRegistry actionRegistry) {
+		return ResolutionContext.of(actionRegistry, typeHandlerRegistry, promptContext);
+	}
+
 	/**
 	 * Internal result of a single plan formulation attempt.
 	 */
@@ -658,6 +1311,22 @@ public final class Planner {
 			return new InvocationResult(null, null, AttemptOutcome.NETWORK_ERROR, error, durationMillis);
 		}
 
+		static InvocationResult cancelled(long durationMillis) {
+			return new InvocationResult(null, null, AttemptOutcome.CANCELLED, "Cancelled", durationMillis);
+		}
+
+		/**
+		 * An attempt that threw rather than returning a result: unparseable if the cause is a
+		 * {@link PlanParseException}, otherwise a failed invocation.
+		 */
+		static InvocationResult failed(Throwable cause, long durationMillis) {
+			String error = cause.getMessage() != null ? cause.getMessage() : cause.toString();
+			if (cause instanceof PlanParseException) {
+				return parseFailed(null, error, durationMillis);
+			}
+			return networkError(error, durationMillis);
+		}
+
 		boolean isSuccess() {
 			return outcome == AttemptOutcome.SUCCESS;
 		}
@@ -688,6 +1357,12 @@ public final class Planner {
 		private Consumer<PromptPreview> promptHook;
 		private PersonaSpec persona;
 		private TypeHandlerRegistry typeHandlerRegistry;
+		private PlanCache planCache;
+		private HedgingPolicy hedgingPolicy;
+		private CircuitBreakerPolicy circuitBreakerPolicy;
+		private boolean streaming;
+		private PlanStepListener stepListener;
+		private PromptBudget promptBudget;
 
 		private Builder() {
 		}
@@ -725,11 +1400,27 @@ public final class Planner {
 		 * @throws IllegalStateException if called more than once
 		 */
 		public Builder defaultChatClient(ChatClient client, int maxAttempts, String modelId) {
+			return defaultChatClient(client, maxAttempts, modelId, null);
+		}
+
+		/**
+		 * Set the default (primary) chat client with its own system prompt budget, applied in
+		 * addition to {@link #promptBudget(PromptBudget)}.
+		 *
+		 * @param client the Spring AI ChatClient
+		 * @param maxAttempts maximum attempts before moving to fallback (≥1)
+		 * @param modelId optional identifier for observability (e.g., "gpt-4.1-mini")
+		 * @param promptBudget budget for this tier's system prompt, or {@code null} for none
+		 * @return this builder
+		 * @throws IllegalStateException if called more than once
+		 */
+		public Builder defaultChatClient(ChatClient client, int maxAttempts, String modelId,
+				PromptBudget promptBudget) {
 			if (this.defaultClientSet) {
 				throw new IllegalStateException("defaultChatClient() can only be called once");
 			}
 			Objects.requireNonNull(client, "client must not be null");
-			this.chatClientTiers.add(new ChatClientTier(client, maxAttempts, modelId));
+			this.chatClientTiers.add(new ChatClientTier(client, maxAttempts, modelId, null, promptBudget));
 			this.defaultClientSet = true;
 			return this;
 		}
@@ -772,6 +1463,24 @@ public final class Planner {
 		 * @throws IllegalStateException if this client instance was already added
 		 */
 		public Builder fallbackChatClient(ChatClient client, int maxAttempts, String modelId) {
+			return fallbackChatClient(client, maxAttempts, modelId, null);
+		}
+
+		/**
+		 * Add a fallback chat client with its own system prompt budget, applied in addition to
+		 * {@link #promptBudget(PromptBudget)}, e.g. a smaller one for a model with a short
+		 * context window.
+		 *
+		 * @param client the Spring AI ChatClient
+		 * @param maxAttempts maximum attempts before moving to next fallback (≥1)
+		 * @param modelId optional identifier for observability
+		 * @param promptBudget budget for this tier's system prompt, or {@code null} for none
+		 * @return this builder
+		 * @throws IllegalStateException if defaultChatClient() was not called first
+		 * @throws IllegalStateException if this client instance was already added
+		 */
+		public Builder fallbackChatClient(ChatClient client, int maxAttempts, String modelId,
+				PromptBudget promptBudget) {
 			if (!this.defaultClientSet) {
 				throw new IllegalStateException("Must call defaultChatClient() before fallbackChatClient()");
 			}
@@ -782,7 +1491,7 @@ public final class Planner {
 					throw new IllegalStateException("The same ChatClient instance cannot be added to multiple tiers");
 				}
 			}
-			this.chatClientTiers.add(new ChatClientTier(client, maxAttempts, modelId));
+			this.chatClientTiers.add(new ChatClientTier(client, maxAttempts, modelId, null, promptBudget));
 			return this;
 		}
 
@@ -839,6 +1548,75 @@ public final class Planner {
 			return this;
 		}
 
+		/**
+		 * Consult the given cache before invoking any chat client, and store every plan the
+		 * model produces successfully.
+		 *
+		 * @see InMemoryPlanCache
+		 */
+		public Builder planCache(PlanCache planCache) {
+			this.planCache = planCache;
+			return this;
+		}
+
+		/**
+		 * Hedge the primary chat client tier with the first fallback tier. Has no effect unless a
+		 * fallback client is configured.
+		 *
+		 * @see HedgingPolicy
+		 */
+		public Builder hedging(HedgingPolicy policy) {
+			this.hedgingPolicy = policy;
+			return this;
+		}
+
+		/**
+		 * Guard every chat client tier with its own {@link TierCircuitBreaker}, so that a tier
+		 * that keeps failing or responding slowly is skipped until it recovers. Breaker state is
+		 * shared by all calls to the built planner.
+		 *
+		 * @see CircuitBreakerPolicy
+		 */
+		public Builder circuitBreaker(CircuitBreakerPolicy policy) {
+			this.circuitBreakerPolicy = policy;
+			return this;
+		}
+
+		/**
+		 * Request plans with {@code ChatClient.stream()} and parse them incrementally, resolving
+		 * each step as soon as it has been generated.
+		 */
+		public Builder streaming() {
+			this.streaming = true;
+			return this;
+		}
+
+		/**
+		 * Stream plans as with {@link #streaming()} and deliver each resolved step to the
+		 * listener while the rest of the plan is still being generated. Steps of hedged
+		 * attempts are not delivered.
+		 *
+		 * @see PlanStepListener
+		 */
+		public Builder streaming(PlanStepListener listener) {
+			this.streaming = true;
+			this.stepListener = listener;
+			return this;
+		}
+
+		/**
+		 * Keep the system prompt within a token budget by reducing low-priority segments.
+		 * Tiers may set a further budget of their own with
+		 * {@link #defaultChatClient(ChatClient, int, String, PromptBudget)} and
+		 * {@link #fallbackChatClient(ChatClient, int, String, PromptBudget)}.
+		 *
+		 * @see PromptBudget
+		 */
+		public Builder promptBudget(PromptBudget budget) {
+			this.promptBudget = budget;
+			return this;
+		}
+
 		public Builder enablePromptCapture() {
 			this.capturePromptByDefault = true;
 			return this;
@@ -867,6 +1645,19 @@ public final class Planner {
 	private record CollectedActions(List<ActionDescriptor> descriptors, ActionRegistry registry) {
 	}
 
+	/**
+	 * System prompt segments that do not change between turns: the cacheable prefix and the
+	 * planning directive that closes the system prompt.
+	 */
+	private record StaticPromptSegments(
+			List<ActionDescriptor> descriptors,
+			List<Long> contributorVersions,
+			List<PromptSegment> prefix,
+			PromptSegment planningDirective,
+			List<String> actionNames
+	) {
+	}
+
 	private static String renderPersona(PersonaSpec persona) {
 		StringBuilder sb = new StringBuilder("PERSONA:\n");
 		if (persona.role() != null && !persona.role().isBlank()) {
@@ -11,11 +11,16 @@ import java.util.List;
  * @param successfulModelId model that produced the final plan (null if all failed)
  * @param totalAttempts total attempts across all tiers
  * @param attempts detailed record of each attempt
+ * @param cacheOutcome whether the plan was served from the {@link PlanCache}
+ * @param circuitBreakers state of each tier's {@link TierCircuitBreaker} after formulation,
+ *        in tier order (empty when no breakers are configured)
  */
 public record PlanningMetrics(
         String successfulModelId,
         int totalAttempts,
-        List<AttemptRecord> attempts
+        List<AttemptRecord> attempts,
+        PlanCacheOutcome cacheOutcome,
+        List<TierCircuitBreaker.Snapshot> circuitBreakers
 ) {
     /**
      * Canonical constructor with defensive copying.
@@ -25,6 +30,23 @@ public record PlanningMetrics(
         if (totalAttempts < 0) {
             throw new IllegalArgumentException("totalAttempts must be >= 0");
         }
+        cacheOutcome = cacheOutcome != null ? cacheOutcome : PlanCacheOutcome.NOT_CONSULTED;
+        circuitBreakers = circuitBreakers != null ? List.copyOf(circuitBreakers) : List.of();
+    }
+
+    /**
+     * Constructor for formulations without circuit breakers.
+     */
+    public PlanningMetrics(String successfulModelId, int totalAttempts, List<AttemptRecord> attempts,
+            PlanCacheOutcome cacheOutcome) {
+        this(successfulModelId, totalAttempts, attempts, cacheOutcome, List.of());
+    }
+
+    /**
+     * Constructor for formulations that did not consult a plan cache.
+     */
+    public PlanningMetrics(String successfulModelId, int totalAttempts, List<AttemptRecord> attempts) {
+        this(successfulModelId, totalAttempts, attempts, PlanCacheOutcome.NOT_CONSULTED);
     }
 
     /**
@@ -55,16 +77,34 @@ public record PlanningMetrics(
         return new PlanningMetrics(null, 0, List.of());
     }
 
+    /**
+     * Create metrics for a plan served from the plan cache without invoking a model.
+     *
+     * @return metrics with no attempts and a {@link PlanCacheOutcome#HIT} outcome
+     */
+    public static PlanningMetrics cacheHit() {
+        return new PlanningMetrics(null, 0, List.of(), PlanCacheOutcome.HIT);
+    }
+
     /**
      * Check if planning ultimately succeeded.
      *
-     * <p>Returns true if any attempt resulted in SUCCESS, regardless of whether
-     * a modelId was provided.</p>
+     * <p>Returns true if the plan came from the cache or any attempt resulted in SUCCESS,
+     * regardless of whether a modelId was provided.</p>
      *
-     * @return true if a model produced a valid plan
+     * @return true if a valid plan was produced
      */
     public boolean succeeded() {
-        return attempts.stream().anyMatch(AttemptRecord::isSuccess);
+        return isCacheHit() || attempts.stream().anyMatch(AttemptRecord::isSuccess);
+    }
+
+    /**
+     * Check if the plan was served from the plan cache.
+     *
+     * @return true on a cache hit
+     */
+    public boolean isCacheHit() {
+        return cacheOutcome == PlanCacheOutcome.HIT;
     }
 
     /**
@@ -79,6 +119,18 @@ public record PlanningMetrics(
                 .count();
     }
 
+    /**
+     * Get the names of tiers whose circuit was open after formulation.
+     *
+     * @return names of open circuits, in tier order
+     */
+    public List<String> openCircuits() {
+        return circuitBreakers.stream()
+                .filter(snapshot -> snapshot.state() == TierCircuitBreaker.State.OPEN)
+                .map(TierCircuitBreaker.Snapshot::name)
+                .toList();
+    }
+
     /**
      * Get the final attempt record (the one that determined the outcome).
      *
@@ -0,0 +1,250 @@
+package org.javai.springai.actions;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import org.javai.springai.actions.internal.plan.PromptSegment;
+
+/**
+ * Upper bound on the size of the system prompt, and the rules for shrinking it.
+ *
+ * <p>The planner measures every system prompt segment with the budget's {@link TokenEstimator}.
+ * While the total exceeds {@link #maxSystemTokens()}, segments are reduced in order of
+ * ascending priority (later segments first among equals) with their {@link SegmentReducer}.
+ * Segments with {@link #REQUIRED} priority, such as the action catalog and planning directive,
+ * are never reduced; if they alone exceed the budget the prompt is sent over budget.</p>
+ *
+ * <p>Priorities and reducers come from the segment's {@link PromptContributor}
+ * ({@link PromptContributor#priority()}, {@link PromptContributor#reducer()}) and can be
+ * overridden per segment name, which for contributors is their simple class name:</p>
+ *
+ * <pre>{@code
+ * Planner planner = Planner.builder()
+ *     .promptBudget(PromptBudget.builder(6000)
+ *         .withPriority("persona", PromptBudget.REQUIRED)
+ *         .withReducer("promptContribution", SegmentReducer.drop())
+ *         .build())
+ *     ...
+ * }</pre>
+ *
+ * <p>A budget can also be set per {@link ChatClientTier}, to give a small fallback model a
+ * smaller prompt; see
+ * {@link Planner.Builder#fallbackChatClient(org.springframework.ai.chat.client.ChatClient, int, String, PromptBudget)}.</p>
+ */
+public final class PromptBudget {
+
+	/** Priority of segments that are never reduced. */
+	public static final int REQUIRED = Integer.MAX_VALUE;
+
+	/** Default priority of prompt contributors. */
+	public static final int DEFAULT_PRIORITY = 0;
+
+	/** Default priority of the persona, type guidance, prompt contributions and retry addendum. */
+	public static final int BUILT_IN_PRIORITY = 100;
+
+	/**
+	 * How a segment is treated when the prompt is over budget.
+	 *
+	 * @param priority segments with lower priority are reduced first
+	 * @param reducer shrinks the segment
+	 */
+	public record SegmentPolicy(int priority, SegmentReducer reducer) {
+
+		public SegmentPolicy {
+			Objects.requireNonNull(reducer, "reducer must not be null");
+		}
+
+		/**
+		 * Policy for segments that are never reduced.
+		 */
+		public static SegmentPolicy required() {
+			return new SegmentPolicy(REQUIRED, SegmentReducer.keep());
+		}
+	}
+
+	/**
+	 * Result of fitting segments into the budget.
+	 *
+	 * @param segments the segments to send, in prompt order; dropped segments are omitted
+	 * @param tokens estimated tokens of each segment in {@code segments}
+	 * @param totalTokens sum of {@code tokens}
+	 * @param reduced names of the segments that were reduced or dropped
+	 * @param withinBudget whether {@code totalTokens} fits the budget
+	 */
+	public record Allocation(
+			List<PromptSegment> segments,
+			List<Integer> tokens,
+			int totalTokens,
+			List<String> reduced,
+			boolean withinBudget
+	) {
+	}
+
+	private final int maxSystemTokens;
+	private final TokenEstimator estimator;
+	private final Map<String, Integer> priorities;
+	private final Map<String, SegmentReducer> reducers;
+
+	private PromptBudget(Builder builder) {
+		this.maxSystemTokens = builder.maxSystemTokens;
+		this.estimator = builder.estimator;
+		this.priorities = Map.copyOf(builder.priorities);
+		this.reducers = Map.copyOf(builder.reducers);
+	}
+
+	/**
+	 * Create a builder for a budget of the given size.
+	 *
+	 * @param maxSystemTokens maximum estimated tokens of all system messages (≥1)
+	 * @return a new builder
+	 */
+	public static Builder builder(int maxSystemTokens) {
+		return new Builder(maxSystemTokens);
+	}
+
+	public int maxSystemTokens() {
+		return maxSystemTokens;
+	}
+
+	public TokenEstimator estimator() {
+		return estimator;
+	}
+
+	/**
+	 * Measure the segments and reduce the lowest-priority ones until they fit.
+	 *
+	 * @param segments the rendered system segments, in prompt order
+	 * @param defaults policy of each segment name unless overridden on this budget
+	 * @return the allocation
+	 */
+	public Allocation allocate(List<PromptSegment> segments, Function<String, SegmentPolicy> defaults) {
+		int count = segments.size();
+		List<PromptSegment> current = new ArrayList<>(segments);
+		int[] tokens = new int[count];
+		int total = 0;
+		for (int i = 0; i < count; i++) {
+			tokens[i] = estimator.estimate(segments.get(i).text());
+			total += tokens[i];
+		}
+
+		List<String> reduced = new ArrayList<>();
+		if (total > maxSystemTokens) {
+			List<Integer> order = new ArrayList<>(count);
+			Map<Integer, SegmentPolicy> policies = new HashMap<>();
+			for (int i = 0; i < count; i++) {
+				SegmentPolicy policy = policyFor(segments.get(i).name(), defaults);
+				if (policy.priority() != REQUIRED) {
+					policies.put(i, policy);
+					order.add(i);
+				}
+			}
+			order.sort(Comparator.<Integer>comparingInt(i -> policies.get(i).priority())
+					.thenComparing(Comparator.reverseOrder()));
+
+			for (int i : order) {
+				if (total <= maxSystemTokens) {
+					break;
+				}
+				int target = Math.max(0, tokens[i] - (total - maxSystemTokens));
+				PromptSegment segment = current.get(i);
+				String text = policies.get(i).reducer().reduce(segment.text(), target, estimator);
+				if (text == null || text.equals(segment.text())) {
+					continue;
+				}
+				int reducedTokens = text.isEmpty() ? 0 : estimator.estimate(text);
+				total += reducedTokens - tokens[i];
+				tokens[i] = reducedTokens;
+				// The reduced text depends on the rest of the prompt, so it is no longer static
+				current.set(i, text.isEmpty() ? null : PromptSegment.dynamicSegment(segment.name(), text));
+				reduced.add(segment.name());
+			}
+		}
+
+		List<PromptSegment> kept = new ArrayList<>(count);
+		List<Integer> keptTokens = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			if (current.get(i) != null) {
+				kept.add(current.get(i));
+				keptTokens.add(tokens[i]);
+			}
+		}
+		return new Allocation(List.copyOf(kept), List.copyOf(keptTokens), total, List.copyOf(reduced),
+				total <= maxSystemTokens);
+	}
+
+	private SegmentPolicy policyFor(String name, Function<String, SegmentPolicy> defaults) {
+		SegmentPolicy fallback = defaults.apply(name);
+		if (fallback == null) {
+			fallback = new SegmentPolicy(DEFAULT_PRIORITY, SegmentReducer.truncate());
+		}
+		Integer priority = priorities.get(name);
+		SegmentReducer reducer = reducers.get(name);
+		if (priority == null && reducer == null) {
+			return fallback;
+		}
+		return new SegmentPolicy(priority != null ? priority : fallback.priority(),
+				reducer != null ? reducer : fallback.reducer());
+	}
+
+	/**
+	 * Builder for {@link PromptBudget}.
+	 */
+	public static final class Builder {
+		private final int maxSystemTokens;
+		private TokenEstimator estimator = TokenEstimator.DEFAULT;
+		private final Map<String, Integer> priorities = new HashMap<>();
+		private final Map<String, SegmentReducer> reducers = new HashMap<>();
+
+		private Builder(int maxSystemTokens) {
+			if (maxSystemTokens < 1) {
+				throw new IllegalArgumentException("maxSystemTokens must be >= 1");
+			}
+			this.maxSystemTokens = maxSystemTokens;
+		}
+
+		/**
+		 * Set the token estimator. Defaults to {@link TokenEstimator#DEFAULT}.
+		 *
+		 * @param estimator the estimator
+		 * @return this builder
+		 */
+		public Builder withEstimator(TokenEstimator estimator) {
+			this.estimator = Objects.requireNonNull(estimator, "estimator must not be null");
+			return this;
+		}
+
+		/**
+		 * Override the priority of a segment.
+		 *
+		 * @param segmentName the segment name, e.g. {@code "persona"} or a contributor's simple
+		 *        class name
+		 * @param priority the priority; {@link #REQUIRED} to never reduce it
+		 * @return this builder
+		 */
+		public Builder withPriority(String segmentName, int priority) {
+			priorities.put(Objects.requireNonNull(segmentName, "segmentName must not be null"), priority);
+			return this;
+		}
+
+		/**
+		 * Override how a segment is reduced.
+		 *
+		 * @param segmentName the segment name
+		 * @param reducer the reducer
+		 * @return this builder
+		 */
+		public Builder withReducer(String segmentName, SegmentReducer reducer) {
+			reducers.put(Objects.requireNonNull(segmentName, "segmentName must not be null"),
+					Objects.requireNonNull(reducer, "reducer must not be null"));
+			return this;
+		}
+
+		public PromptBudget build() {
+			return new PromptBudget(this);
+		}
+	}
+}
@@ -23,5 +23,54 @@ public interface PromptContributor {
 	 * @return text to include in system prompt, or empty if nothing to add
 	 */
 	Optional<String> contribute(SystemPromptContext context);
-}
 
+	/**
+	 * Whether this contributor's output depends only on state fixed when the planner is built
+	 * (action registry and static prompt context).
+	 *
+	 * <p>Static contributions are rendered once per {@link Planner} and reused on every turn;
+	 * they receive a context without conversation state. Contributors reading
+	 * {@code userMessage}, {@code conversationState}, {@code workingContext} or other mutable
+	 * sources must return {@code false} (the default). Static contributors whose source can
+	 * change should report it through {@link #staticVersion()}; otherwise call
+	 * {@link Planner#invalidatePromptCache()} when it changes.</p>
+	 *
+	 * @return {@code true} if the contribution can be cached for the planner's lifetime
+	 */
+	default boolean isStatic() {
+		return false;
+	}
+
+	/**
+	 * Version of the state a {@linkplain #isStatic() static} contribution is rendered from.
+	 *
+	 * <p>The planner re-renders its static prompt segments whenever any static contributor
+	 * reports a different version from the one it was rendered at, so a contributor backed by
+	 * a reloadable source (such as a SQL catalog) stays current without manual invalidation.
+	 * Must be cheap; it is consulted on every turn.</p>
+	 *
+	 * @return the version of the contributor's source; {@code 0} if it never changes
+	 */
+	default long staticVersion() {
+		return 0L;
+	}
+
+	/**
+	 * Priority of this contributor's segment when the prompt exceeds a {@link PromptBudget}.
+	 * Lower priorities are reduced first; {@link PromptBudget#REQUIRED} is never reduced.
+	 *
+	 * @return the priority; {@link PromptBudget#DEFAULT_PRIORITY} by default
+	 */
+	default int priority() {
+		return PromptBudget.DEFAULT_PRIORITY;
+	}
+
+	/**
+	 * How to shrink this contributor's segment to fit a {@link PromptBudget}.
+	 *
+	 * @return the reducer; {@link SegmentReducer#truncate()} by default
+	 */
+	default SegmentReducer reducer() {
+		return SegmentReducer.truncate();
+	}
+}
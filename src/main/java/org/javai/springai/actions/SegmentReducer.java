@@ -0,0 +1,77 @@
+package org.javai.springai.actions;
+
+/**
+ * Shrinks a system prompt segment to fit a {@link PromptBudget}.
+ *
+ * <p>Reducers are applied to the lowest-priority segments first. A reducer should remove the
+ * least useful content first, for example column descriptions of a SQL catalog before whole
+ * tables, and may return an empty string to drop the segment altogether.</p>
+ */
+@FunctionalInterface
+public interface SegmentReducer {
+
+	/**
+	 * Marker appended to text cut short by {@link #truncate()}.
+	 */
+	String TRUNCATION_MARKER = "… (truncated)";
+
+	/**
+	 * Reduce the text to at most {@code maxTokens} tokens.
+	 *
+	 * @param text the rendered segment
+	 * @param maxTokens the tokens the segment may use (≥0)
+	 * @param estimator the budget's token estimator
+	 * @return the reduced text; empty to drop the segment. Returning text over the limit is
+	 *         allowed when the segment cannot be reduced further
+	 */
+	String reduce(String text, int maxTokens, TokenEstimator estimator);
+
+	/**
+	 * Keep as many leading lines as fit, followed by {@link #TRUNCATION_MARKER}.
+	 */
+	static SegmentReducer truncate() {
+		return SegmentReducer::truncateLines;
+	}
+
+	/**
+	 * Drop the whole segment.
+	 */
+	static SegmentReducer drop() {
+		return (text, maxTokens, estimator) -> "";
+	}
+
+	/**
+	 * Never reduce the segment.
+	 */
+	static SegmentReducer keep() {
+		return (text, maxTokens, estimator) -> text;
+	}
+
+	/**
+	 * Keep as many leading lines of the text as fit, followed by {@link #TRUNCATION_MARKER}.
+	 *
+	 * @param text the text to truncate
+	 * @param maxTokens the tokens the result may use
+	 * @param estimator the token estimator
+	 * @return the truncated text, or empty if not even one line fits
+	 */
+	static String truncateLines(String text, int maxTokens, TokenEstimator estimator) {
+		if (estimator.estimate(text) <= maxTokens) {
+			return text;
+		}
+		// Line costs are summed rather than re-estimating the growing prefix, which keeps this
+		// linear; token counts are close to additive across line breaks
+		int available = maxTokens - estimator.estimate(TRUNCATION_MARKER);
+		StringBuilder kept = new StringBuilder();
+		int used = 0;
+		for (String line : text.split("\n", -1)) {
+			int cost = estimator.estimate(line + "\n");
+			if (used + cost > available) {
+				break;
+			}
+			kept.append(line).append('\n');
+			used += cost;
+		}
+		return kept.isEmpty() ? "" : kept + TRUNCATION_MARKER;
+	}
+}
@@ -0,0 +1,231 @@
+package org.javai.springai.actions;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * Circuit breaker guarding a single {@link ChatClientTier}.
+ *
+ * <p>Tracks the outcome and latency of the tier's recent calls in a rolling window shared by
+ * every {@link Planner} call. While the circuit is {@link State#OPEN} the planner skips the
+ * tier and moves straight to the next fallback, so an outage costs one detection window rather
+ * than {@code maxAttempts} failures on every request. See {@link CircuitBreakerPolicy} for the
+ * thresholds.</p>
+ *
+ * <p>Callers obtain permission with {@link #tryAcquirePermission()} and must then report the
+ * call with exactly one of {@link #onSuccess(long)}, {@link #onFailure(long)} or
+ * {@link #onIgnored()}. Thread-safe.</p>
+ */
+public final class TierCircuitBreaker {
+
+    /**
+     * Circuit states.
+     */
+    public enum State {
+        /** Calls flow normally and are recorded in the window. */
+        CLOSED,
+        /** Calls are rejected until the open duration has elapsed. */
+        OPEN,
+        /** A limited number of probe calls decide whether to close or reopen. */
+        HALF_OPEN
+    }
+
+    /**
+     * Point-in-time view of a breaker for metrics.
+     *
+     * @param name the tier's model identifier, or {@code tier-N}
+     * @param state the current state
+     * @param failureRate share of failed calls in the window (0 when empty)
+     * @param slowCallRate share of slow calls in the window (0 when empty)
+     * @param bufferedCalls calls currently in the window
+     * @param rejectedCalls calls rejected while open, since creation
+     * @param transitions state transitions since creation
+     * @param stateSince when the current state was entered
+     */
+    public record Snapshot(
+            String name,
+            State state,
+            double failureRate,
+            double slowCallRate,
+            int bufferedCalls,
+            long rejectedCalls,
+            long transitions,
+            Instant stateSince
+    ) {
+    }
+
+    private final String name;
+    private final CircuitBreakerPolicy policy;
+    private final Clock clock;
+
+    private final boolean[] failed;
+    private final boolean[] slow;
+    private int next;
+    private int buffered;
+    private int failures;
+    private int slowCalls;
+
+    private State state = State.CLOSED;
+    private long stateSinceMillis;
+    private int probesInFlight;
+    private int probeSuccesses;
+    private long rejectedCalls;
+    private long transitions;
+
+    public TierCircuitBreaker(String name, CircuitBreakerPolicy policy) {
+        this(name, policy, Clock.systemUTC());
+    }
+
+    public TierCircuitBreaker(String name, CircuitBreakerPolicy policy, Clock clock) {
+        this.name = Objects.requireNonNull(name, "name must not be null");
+        this.policy = Objects.requireNonNull(policy, "policy must not be null");
+        this.clock = Objects.requireNonNull(clock, "clock must not be null");
+        this.failed = new boolean[policy.windowSize()];
+        this.slow = new boolean[policy.windowSize()];
+        this.stateSinceMillis = clock.millis();
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public CircuitBreakerPolicy policy() {
+        return policy;
+    }
+
+    public synchronized State state() {
+        return state;
+    }
+
+    /**
+     * Ask whether a call may be made now. An open circuit whose open duration has elapsed
+     * becomes half-open and admits up to {@link CircuitBreakerPolicy#halfOpenProbes()} calls.
+     *
+     * @return {@code true} if the call may proceed and must be reported
+     */
+    public synchronized boolean tryAcquirePermission() {
+        if (state == State.OPEN
+                && clock.millis() - stateSinceMillis >= policy.openDuration().toMillis()) {
+            transitionTo(State.HALF_OPEN);
+        }
+        return switch (state) {
+            case CLOSED -> true;
+            case HALF_OPEN -> {
+                if (probesInFlight + probeSuccesses < policy.halfOpenProbes()) {
+                    probesInFlight++;
+                    yield true;
+                }
+                rejectedCalls++;
+                yield false;
+            }
+            case OPEN -> {
+                rejectedCalls++;
+                yield false;
+            }
+        };
+    }
+
+    /**
+     * Report a successful call.
+     *
+     * @param durationMillis the call's duration
+     */
+    public synchronized void onSuccess(long durationMillis) {
+        record(false, durationMillis);
+    }
+
+    /**
+     * Report a failed call.
+     *
+     * @param durationMillis the call's duration
+     */
+    public synchronized void onFailure(long durationMillis) {
+        record(true, durationMillis);
+    }
+
+    /**
+     * Report a permitted call whose outcome says nothing about the tier's health, such as a
+     * hedged attempt that was cancelled.
+     */
+    public synchronized void onIgnored() {
+        if (state == State.HALF_OPEN && probesInFlight > 0) {
+            probesInFlight--;
+        }
+    }
+
+    public synchronized Snapshot snapshot() {
+        return new Snapshot(
+                name,
+                state,
+                buffered == 0 ? 0 : (double) failures / buffered,
+                buffered == 0 ? 0 : (double) slowCalls / buffered,
+                buffered,
+                rejectedCalls,
+                transitions,
+                Instant.ofEpochMilli(stateSinceMillis));
+    }
+
+    private void record(boolean failure, long durationMillis) {
+        boolean slowCall = durationMillis >= policy.slowCallDuration().toMillis();
+        switch (state) {
+            case HALF_OPEN -> {
+                if (probesInFlight > 0) {
+                    probesInFlight--;
+                }
+                if (failure || slowCall) {
+                    transitionTo(State.OPEN);
+                } else if (++probeSuccesses >= policy.halfOpenProbes()) {
+                    transitionTo(State.CLOSED);
+                }
+            }
+            case CLOSED -> {
+                add(failure, slowCall);
+                if (buffered >= policy.minimumCalls()
+                        && ((double) failures / buffered >= policy.failureRateThreshold()
+                        || (double) slowCalls / buffered >= policy.slowCallRateThreshold())) {
+                    transitionTo(State.OPEN);
+                }
+            }
+            default -> {
+                // Late result of a call admitted before the circuit opened
+            }
+        }
+    }
+
+    private void add(boolean failure, boolean slowCall) {
+        if (buffered == failed.length) {
+            if (failed[next]) {
+                failures--;
+            }
+            if (slow[next]) {
+                slowCalls--;
+            }
+        } else {
+            buffered++;
+        }
+        failed[next] = failure;
+        slow[next] = slowCall;
+        if (failure) {
+            failures++;
+        }
+        if (slowCall) {
+            slowCalls++;
+        }
+        next = (next + 1) % failed.length;
+    }
+
+    private void transitionTo(State target) {
+        state = target;
+        stateSinceMillis = clock.millis();
+        transitions++;
+        probesInFlight = 0;
+        probeSuccesses = 0;
+        if (target == State.CLOSED) {
+            next = 0;
+            buffered = 0;
+            failures = 0;
+            slowCalls = 0;
+        }
+    }
+}
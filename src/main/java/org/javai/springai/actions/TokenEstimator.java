@@ -0,0 +1,38 @@
+package org.javai.springai.actions;
+
+/**
+ * Estimates how many model tokens a piece of prompt text will use.
+ *
+ * <p>{@link PromptBudget} measures every system prompt segment with an estimator. The default
+ * assumes about four characters per token, which is close for English prose and identifiers
+ * with common BPE tokenizers. Plug in a real tokenizer for exact counts.</p>
+ */
+@FunctionalInterface
+public interface TokenEstimator {
+
+	/**
+	 * Approximately four characters per token.
+	 */
+	TokenEstimator DEFAULT = charsPerToken(4.0);
+
+	/**
+	 * Estimate the number of tokens in the given text.
+	 *
+	 * @param text the text; never {@code null}
+	 * @return the estimated token count (≥0)
+	 */
+	int estimate(String text);
+
+	/**
+	 * Estimator assuming a fixed number of characters per token.
+	 *
+	 * @param charsPerToken average characters per token (&gt;0)
+	 * @return the estimator
+	 */
+	static TokenEstimator charsPerToken(double charsPerToken) {
+		if (!(charsPerToken > 0)) {
+			throw new IllegalArgumentException("charsPerToken must be > 0");
+		}
+		return text -> (int) Math.ceil(text.length() / charsPerToken);
+	}
+}
@@ -5,6 +5,9 @@ import java.util.List;
 
 /**
  * Runtime binding for executing an action plan step.
+ * <p>
+ * The {@link ActionInvoker} is compiled once when the action is registered and shared by every
+ * binding handed out for it.
  */
 public record ActionBinding(
 		String id,
@@ -12,7 +15,17 @@ public record ActionBinding(
 		Object bean,
 		Method method,
 		List<ActionParameterDescriptor> parameters,
-		String contextKey
+		String contextKey,
+		ActionInvoker invoker
 ) {
+
+	/**
+	 * Create a binding, compiling its invoker from the bean and method.
+	 */
+	public ActionBinding(String id, String description, Object bean, Method method,
+			List<ActionParameterDescriptor> parameters, String contextKey) {
+		this(id, description, bean, method, parameters, contextKey,
+				bean != null && method != null ? ActionInvoker.compile(bean, method) : null);
+	}
 }
 
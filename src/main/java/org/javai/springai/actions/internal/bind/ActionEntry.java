@@ -13,14 +13,15 @@ public record ActionEntry(
 		String example,
 		Object bean,
 		Method method,
-		String contextKey
+		String contextKey,
+		ActionInvoker invoker
 ) {
 	public ActionDescriptor descriptor() {
 		return new ActionDescriptor(id, description, parameters, example);
 	}
 
 	public ActionBinding binding() {
-		return new ActionBinding(id, description, bean, method, parameters, contextKey);
+		return new ActionBinding(id, description, bean, method, parameters, contextKey, invoker);
 	}
 }
 
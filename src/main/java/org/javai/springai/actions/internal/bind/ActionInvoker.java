@@ -0,0 +1,150 @@
+package org.javai.springai.actions.internal.bind;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import org.javai.springai.actions.api.ActionContext;
+import org.javai.springai.actions.api.FromContext;
+import org.javai.springai.actions.internal.plan.PlanArgument;
+
+/**
+ * Precompiled invoker for an action method.
+ * <p>
+ * Built once per action at registration time: the method is unreflected into a
+ * {@link MethodHandle} bound to its bean and spread over an argument array, and the parameter
+ * list is reduced to a slot plan recording, per position, whether the value is the
+ * {@link ActionContext}, a {@link FromContext} lookup, or the next plan argument. Each
+ * invocation then only fills an array and calls the handle, without re-inspecting parameters
+ * or annotations.
+ */
+public final class ActionInvoker {
+
+	private static final MethodType INVOKE_TYPE = MethodType.methodType(Object.class, Object[].class);
+
+	private final MethodHandle handle;
+	private final SlotKind[] slotKinds;
+	private final String[] slotContextKeys;
+	private final int argumentCount;
+	private final List<String> fromContextKeys;
+	private final boolean usesActionContext;
+
+	private ActionInvoker(MethodHandle handle, SlotKind[] slotKinds, String[] slotContextKeys) {
+		this.handle = handle;
+		this.slotKinds = slotKinds;
+		this.slotContextKeys = slotContextKeys;
+		int arguments = 0;
+		boolean context = false;
+		List<String> keys = new ArrayList<>();
+		for (int i = 0; i < slotKinds.length; i++) {
+			switch (slotKinds[i]) {
+				case ARGUMENT -> arguments++;
+				case CONTEXT -> context = true;
+				case FROM_CONTEXT -> keys.add(slotContextKeys[i]);
+			}
+		}
+		this.argumentCount = arguments;
+		this.usesActionContext = context;
+		this.fromContextKeys = List.copyOf(keys);
+	}
+
+	/**
+	 * Compile an invoker for the given action method on the given bean.
+	 *
+	 * @throws IllegalStateException if the method cannot be accessed
+	 */
+	public static ActionInvoker compile(Object bean, Method method) {
+		Objects.requireNonNull(bean, "bean must not be null");
+		Objects.requireNonNull(method, "method must not be null");
+		Parameter[] params = method.getParameters();
+		SlotKind[] kinds = new SlotKind[params.length];
+		String[] keys = new String[params.length];
+		for (int i = 0; i < params.length; i++) {
+			Parameter param = params[i];
+			if (param.getType() == ActionContext.class) {
+				kinds[i] = SlotKind.CONTEXT;
+			} else if (param.isAnnotationPresent(FromContext.class)) {
+				kinds[i] = SlotKind.FROM_CONTEXT;
+				keys[i] = param.getAnnotation(FromContext.class).value();
+			} else {
+				kinds[i] = SlotKind.ARGUMENT;
+			}
+		}
+		try {
+			method.setAccessible(true);
+			MethodHandle handle = MethodHandles.lookup().unreflect(method)
+					.bindTo(bean)
+					.asSpreader(Object[].class, params.length)
+					.asType(INVOKE_TYPE);
+			return new ActionInvoker(handle, kinds, keys);
+		} catch (IllegalAccessException | RuntimeException ex) {
+			throw new IllegalStateException("Cannot access action method " + method, ex);
+		}
+	}
+
+	/**
+	 * Number of parameters supplied from the plan (excludes injected parameters).
+	 */
+	public int argumentCount() {
+		return argumentCount;
+	}
+
+	/**
+	 * Context keys injected through {@link FromContext}, in parameter order.
+	 */
+	public List<String> fromContextKeys() {
+		return fromContextKeys;
+	}
+
+	/**
+	 * Whether the method receives the whole {@link ActionContext}.
+	 */
+	public boolean usesActionContext() {
+		return usesActionContext;
+	}
+
+	/**
+	 * Returns the first {@link FromContext} key absent from the context, or {@code null} if all
+	 * are present.
+	 */
+	public String missingContextKey(ActionContext context) {
+		for (String key : fromContextKeys) {
+			if (!context.contains(key)) {
+				return key;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Invoke the action. Callers must have checked {@link #argumentCount()} and
+	 * {@link #missingContextKey(ActionContext)} beforehand.
+	 *
+	 * @param context the action context to inject
+	 * @param arguments the plan arguments, in parameter order
+	 * @return the method's return value, or {@code null} for {@code void} methods
+	 * @throws Throwable anything thrown by the action itself, including errors, unwrapped
+	 */
+	public Object invoke(ActionContext context, List<PlanArgument> arguments) throws Throwable {
+		Object[] invokeArgs = new Object[slotKinds.length];
+		int argIdx = 0;
+		for (int i = 0; i < slotKinds.length; i++) {
+			invokeArgs[i] = switch (slotKinds[i]) {
+				case CONTEXT -> context;
+				case FROM_CONTEXT -> context.get(slotContextKeys[i]);
+				case ARGUMENT -> arguments.get(argIdx++).value();
+			};
+		}
+		return handle.invokeExact(invokeArgs);
+	}
+
+	private enum SlotKind {
+		CONTEXT,
+		FROM_CONTEXT,
+		ARGUMENT
+	}
+}
@@ -31,7 +31,9 @@ public final class ActionRegistry {
 				throw new IllegalStateException("Duplicate action definition: " + id);
 			}
 			String contextKey = action.contextKey();
-			entries.put(id, new ActionEntry(id, description, actionParameterDefinitions, null, bean, method, contextKey));
+			ActionInvoker invoker = ActionInvoker.compile(bean, method);
+			entries.put(id, new ActionEntry(id, description, actionParameterDefinitions, null, bean, method, contextKey,
+					invoker));
 		}
 	}
 
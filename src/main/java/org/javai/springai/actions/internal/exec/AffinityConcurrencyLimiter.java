@@ -0,0 +1,106 @@
+package org.javai.springai.actions.internal.exec;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Caps the number of actions running concurrently against an affinity.
+ * <p>
+ * A limit registered for {@code "warehouse"} applies to every step whose resolved affinity is
+ * {@code "warehouse"} or nested beneath it ({@code "warehouse:eu"}, {@code "warehouse:eu:orders"}).
+ * Limits are held by the executor instance, so they apply across all plans (and therefore all
+ * conversations) sharing that executor. Permits are always acquired in affinity-name order,
+ * which keeps steps spanning several limited affinities free of deadlock.
+ */
+public final class AffinityConcurrencyLimiter {
+
+	private static final AffinityConcurrencyLimiter NONE = new AffinityConcurrencyLimiter(Map.of());
+
+	private final Map<String, Semaphore> limits;
+
+	private AffinityConcurrencyLimiter(Map<String, Integer> limits) {
+		Map<String, Semaphore> semaphores = new TreeMap<>();
+		limits.forEach((affinity, permits) -> semaphores.put(affinity, new Semaphore(permits, true)));
+		this.limits = Collections.unmodifiableMap(semaphores);
+	}
+
+	/**
+	 * Create a limiter from affinity → maximum concurrent step count.
+	 */
+	public static AffinityConcurrencyLimiter of(Map<String, Integer> limits) {
+		if (limits == null || limits.isEmpty()) {
+			return NONE;
+		}
+		limits.forEach((affinity, permits) -> {
+			if (affinity == null || affinity.isBlank()) {
+				throw new IllegalArgumentException("Affinity must not be blank");
+			}
+			if (permits == null || permits < 1) {
+				throw new IllegalArgumentException("Concurrency limit for " + affinity + " must be at least 1");
+			}
+		});
+		return new AffinityConcurrencyLimiter(limits);
+	}
+
+	public static AffinityConcurrencyLimiter none() {
+		return NONE;
+	}
+
+	public boolean isEmpty() {
+		return limits.isEmpty();
+	}
+
+	/**
+	 * Block until a permit is held for every limited affinity covering the given affinities.
+	 *
+	 * @param affinities resolved affinities of the step about to run
+	 * @return a handle releasing the permits when closed
+	 * @throws InterruptedException if interrupted while waiting
+	 */
+	public Permit acquire(Set<String> affinities) throws InterruptedException {
+		if (limits.isEmpty() || affinities.isEmpty()) {
+			return Permit.NONE;
+		}
+		List<Semaphore> held = new ArrayList<>();
+		try {
+			for (Map.Entry<String, Semaphore> limit : limits.entrySet()) {
+				if (covers(limit.getKey(), affinities)) {
+					limit.getValue().acquire();
+					held.add(limit.getValue());
+				}
+			}
+		} catch (InterruptedException ex) {
+			held.forEach(Semaphore::release);
+			throw ex;
+		}
+		return held.isEmpty() ? Permit.NONE : () -> held.forEach(Semaphore::release);
+	}
+
+	private static boolean covers(String limited, Set<String> affinities) {
+		for (String affinity : affinities) {
+			if (affinity.equals(limited)
+					|| (affinity.startsWith(limited) && affinity.charAt(limited.length()) == ':')) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Held permits; closing releases them.
+	 */
+	@FunctionalInterface
+	public interface Permit extends AutoCloseable {
+
+		Permit NONE = () -> {
+		};
+
+		@Override
+		void close();
+	}
+}
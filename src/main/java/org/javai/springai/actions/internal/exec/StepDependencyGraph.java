@@ -0,0 +1,248 @@
+package org.javai.springai.actions.internal.exec;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.javai.springai.actions.PlanStep;
+import org.javai.springai.actions.api.Action;
+import org.javai.springai.actions.api.ActionContext;
+import org.javai.springai.actions.api.Mutability;
+import org.javai.springai.actions.internal.bind.ActionBinding;
+import org.javai.springai.actions.internal.bind.ActionInvoker;
+import org.javai.springai.actions.internal.plan.PlanArgument;
+
+/**
+ * Dependency graph over the action steps of a plan.
+ * <p>
+ * A step depends on every earlier step it must not overtake. Edges are derived from:
+ * <ul>
+ *   <li><b>Context flow</b> – a step reading a key (via {@code @FromContext}) that an earlier
+ *       step writes (via {@code contextKey}/{@code additionalContextKeys}), plus write/write and
+ *       read/write ordering on the same key.</li>
+ *   <li><b>Whole-context access</b> – a step taking an {@link ActionContext} parameter may read or
+ *       write any key, so it acts as a barrier against all other steps.</li>
+ *   <li><b>Affinity conflicts</b> – two steps whose resolved affinities overlap, where at least one
+ *       is not {@link Mutability#READ_ONLY}. A step without declared affinities has an unknown
+ *       resource scope and is therefore ordered against every non-read-only step.</li>
+ * </ul>
+ * Edges only ever point from an earlier step to a later one, so the graph is acyclic by
+ * construction and any schedule honouring it preserves the plan order for conflicting steps.
+ */
+public final class StepDependencyGraph {
+
+	private static final Pattern PLACEHOLDER = Pattern.compile("\\{([^{}]+)}");
+
+	private final List<PlanStep.ActionStep> steps;
+	private final List<StepTraits> traits;
+	private final List<List<Integer>> dependencies;
+
+	private StepDependencyGraph(List<PlanStep.ActionStep> steps, List<StepTraits> traits,
+			List<List<Integer>> dependencies) {
+		this.steps = steps;
+		this.traits = traits;
+		this.dependencies = dependencies;
+	}
+
+	/**
+	 * Build the graph for the given steps, in plan order.
+	 *
+	 * @param steps the action steps of a READY plan
+	 * @return the dependency graph
+	 */
+	public static StepDependencyGraph of(List<PlanStep.ActionStep> steps) {
+		List<PlanStep.ActionStep> ordered = List.copyOf(steps);
+		List<StepTraits> traits = ordered.stream().map(StepDependencyGraph::traitsOf).toList();
+		List<List<Integer>> dependencies = new ArrayList<>(ordered.size());
+		for (int later = 0; later < ordered.size(); later++) {
+			List<Integer> dependsOn = new ArrayList<>();
+			for (int earlier = 0; earlier < later; earlier++) {
+				if (mustPrecede(traits.get(earlier), traits.get(later))) {
+					dependsOn.add(earlier);
+				}
+			}
+			dependencies.add(List.copyOf(dependsOn));
+		}
+		return new StepDependencyGraph(ordered, traits, List.copyOf(dependencies));
+	}
+
+	public int size() {
+		return steps.size();
+	}
+
+	public PlanStep.ActionStep step(int index) {
+		return steps.get(index);
+	}
+
+	/**
+	 * Indices of the earlier steps that must complete before the given step may start.
+	 */
+	public List<Integer> dependenciesOf(int index) {
+		return dependencies.get(index);
+	}
+
+	/**
+	 * Resolved affinity lanes of the given step, e.g. {@code "customer:42"}.
+	 */
+	public Set<String> affinitiesOf(int index) {
+		return traits.get(index).affinities();
+	}
+
+	public Mutability mutabilityOf(int index) {
+		return traits.get(index).mutability();
+	}
+
+	/**
+	 * Whether the graph allows any two steps to run at the same time.
+	 */
+	public boolean hasConcurrency() {
+		for (int i = 1; i < steps.size(); i++) {
+			if (dependencies.get(i).size() < i) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static boolean mustPrecede(StepTraits earlier, StepTraits later) {
+		if (earlier.usesWholeContext() || later.usesWholeContext()) {
+			return true;
+		}
+		if (intersects(earlier.produces(), later.consumes())
+				|| intersects(earlier.consumes(), later.produces())
+				|| intersects(earlier.produces(), later.produces())) {
+			return true;
+		}
+		return affinityConflict(earlier, later);
+	}
+
+	private static boolean affinityConflict(StepTraits a, StepTraits b) {
+		if (a.mutability() == Mutability.READ_ONLY && b.mutability() == Mutability.READ_ONLY) {
+			return false;
+		}
+		if (a.affinities().isEmpty() || b.affinities().isEmpty()) {
+			return true;
+		}
+		for (String left : a.affinities()) {
+			for (String right : b.affinities()) {
+				if (overlaps(left, right)) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Affinities are hierarchical from left to right ({@code tenant:acme:account:42}), so a lane
+	 * overlaps every lane nested beneath it.
+	 */
+	private static boolean overlaps(String left, String right) {
+		if (left.equals(right)) {
+			return true;
+		}
+		String shorter = left.length() < right.length() ? left : right;
+		String longer = shorter == left ? right : left;
+		return longer.startsWith(shorter) && longer.charAt(shorter.length()) == ':';
+	}
+
+	private static boolean intersects(Set<String> a, Set<String> b) {
+		for (String key : a) {
+			if (b.contains(key)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static StepTraits traitsOf(PlanStep.ActionStep step) {
+		ActionBinding binding = step.binding();
+		if (binding == null || binding.method() == null || binding.invoker() == null) {
+			return new StepTraits(Mutability.MUTATE, Set.of(), Set.of(), Set.of(), true);
+		}
+		ActionInvoker invoker = binding.invoker();
+		Action action = binding.method().getAnnotation(Action.class);
+
+		Set<String> produces = new LinkedHashSet<>();
+		addIfPresent(produces, binding.contextKey());
+		Set<String> consumes = Set.copyOf(invoker.fromContextKeys());
+		boolean usesWholeContext = invoker.usesActionContext();
+		if (action == null) {
+			return new StepTraits(Mutability.MUTATE, Set.of(), produces, consumes, usesWholeContext);
+		}
+
+		addIfPresent(produces, action.contextKey());
+		for (String key : action.additionalContextKeys()) {
+			addIfPresent(produces, key);
+		}
+		return new StepTraits(action.mutability(), affinitiesOf(action, step.arguments()), Set.copyOf(produces),
+				consumes, usesWholeContext);
+	}
+
+	/**
+	 * Resolve the affinities declared by a step's {@link Action} against its arguments.
+	 *
+	 * @param step the action step
+	 * @return the resolved affinities; empty when none are declared
+	 */
+	public static Set<String> resolveAffinities(PlanStep.ActionStep step) {
+		ActionBinding binding = step.binding();
+		if (binding == null || binding.method() == null) {
+			return Set.of();
+		}
+		Action action = binding.method().getAnnotation(Action.class);
+		return action != null ? affinitiesOf(action, step.arguments()) : Set.of();
+	}
+
+	private static Set<String> affinitiesOf(Action action, List<PlanArgument> arguments) {
+		Set<String> affinities = new LinkedHashSet<>();
+		addIfPresent(affinities, resolveAffinity(action.affinity(), arguments));
+		for (String template : action.affinities()) {
+			addIfPresent(affinities, resolveAffinity(template, arguments));
+		}
+		return Set.copyOf(affinities);
+	}
+
+	/**
+	 * Substitute {@code {name}} placeholders with the step's argument values. Placeholders
+	 * without a matching argument are left in place, which conservatively places every such
+	 * step on the same lane.
+	 */
+	static String resolveAffinity(String template, List<PlanArgument> arguments) {
+		if (template == null || template.isBlank() || template.indexOf('{') < 0) {
+			return template;
+		}
+		Matcher matcher = PLACEHOLDER.matcher(template);
+		StringBuilder resolved = new StringBuilder();
+		while (matcher.find()) {
+			String name = matcher.group(1);
+			String replacement = matcher.group();
+			for (PlanArgument argument : arguments) {
+				if (name.equals(argument.name()) && argument.value() != null) {
+					replacement = String.valueOf(argument.value());
+					break;
+				}
+			}
+			matcher.appendReplacement(resolved, Matcher.quoteReplacement(replacement));
+		}
+		matcher.appendTail(resolved);
+		return resolved.toString();
+	}
+
+	private static void addIfPresent(Set<String> target, String value) {
+		if (value != null && !value.isBlank()) {
+			target.add(value);
+		}
+	}
+
+	private record StepTraits(
+			Mutability mutability,
+			Set<String> affinities,
+			Set<String> produces,
+			Set<String> consumes,
+			boolean usesWholeContext
+	) {
+	}
+}
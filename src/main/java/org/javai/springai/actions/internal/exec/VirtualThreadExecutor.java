@@ -0,0 +1,25 @@
+package org.javai.springai.actions.internal.exec;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Executor that starts a new virtual thread for every task.
+ * <p>
+ * Unlike {@link java.util.concurrent.Executors#newVirtualThreadPerTaskExecutor()} it has no
+ * lifecycle to manage, so a single shared instance can back any number of plan executors.
+ */
+public final class VirtualThreadExecutor implements Executor {
+
+	public static final VirtualThreadExecutor INSTANCE = new VirtualThreadExecutor();
+
+	private final ThreadFactory factory = Thread.ofVirtual().name("plan-exec-", 0).factory();
+
+	private VirtualThreadExecutor() {
+	}
+
+	@Override
+	public void execute(Runnable command) {
+		factory.newThread(command).start();
+	}
+}
@@ -0,0 +1,170 @@
+package org.javai.springai.actions.internal.parse;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Incremental parser for a {@link RawPlan} arriving as a stream of text chunks.
+ * <p>
+ * Chunks are fed to Jackson's non-blocking parser as they arrive from the model. Each element
+ * of the top-level {@code steps} array is handed to the step listener as soon as its closing
+ * brace has been received, so callers can resolve (or act on) early steps while later ones are
+ * still being generated.
+ * <p>
+ * Text before the first <code>{</code> (such as an opening markdown code fence) and anything
+ * after the top-level object closes is ignored. Instances are single-use and not thread-safe.
+ *
+ * <pre>{@code
+ * StreamingRawPlanParser parser = new StreamingRawPlanParser(mapper, step -> resolve(step));
+ * for (String chunk : chunks) {
+ *     parser.feed(chunk);
+ * }
+ * RawPlan plan = parser.finish();
+ * }</pre>
+ */
+public final class StreamingRawPlanParser {
+
+	private final ObjectMapper mapper;
+	private final Consumer<RawPlanStep> stepListener;
+	private final JsonParser parser;
+	private final ByteArrayFeeder feeder;
+	private final List<RawPlanStep> steps = new ArrayList<>();
+
+	private boolean started;
+	private boolean complete;
+	private int depth;
+	private String rootField;
+	private boolean inSteps;
+	private TokenBuffer stepBuffer;
+	private int stepDepth;
+	private String message;
+
+	public StreamingRawPlanParser(ObjectMapper mapper, Consumer<RawPlanStep> stepListener) {
+		this.mapper = Objects.requireNonNull(mapper, "mapper must not be null");
+		this.stepListener = Objects.requireNonNull(stepListener, "stepListener must not be null");
+		try {
+			this.parser = mapper.getFactory().createNonBlockingByteArrayParser();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		this.feeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+	}
+
+	/**
+	 * Feed the next chunk of model output, emitting any steps it completes.
+	 *
+	 * @param chunk the next piece of text; may be empty
+	 * @throws IOException if the input is not valid JSON or a step does not map to
+	 *         {@link RawPlanStep}
+	 */
+	public void feed(String chunk) throws IOException {
+		if (complete || chunk == null || chunk.isEmpty()) {
+			return;
+		}
+		String input = chunk;
+		if (!started) {
+			int start = chunk.indexOf('{');
+			if (start < 0) {
+				return;
+			}
+			started = true;
+			input = chunk.substring(start);
+		}
+		byte[] bytes = input.getBytes(StandardCharsets.UTF_8);
+		feeder.feedInput(bytes, 0, bytes.length);
+		drain();
+	}
+
+	/**
+	 * Signal the end of the stream and return the complete plan.
+	 *
+	 * @return the parsed plan; steps are in the order they were emitted
+	 * @throws IOException if no JSON object was received or it was truncated
+	 */
+	public RawPlan finish() throws IOException {
+		if (!complete) {
+			feeder.endOfInput();
+			if (started) {
+				drain();
+			}
+		}
+		if (!complete) {
+			throw new JsonParseException(parser, started ? "Incomplete JSON plan" : "No JSON plan found");
+		}
+		return new RawPlan(message, List.copyOf(steps));
+	}
+
+	/**
+	 * Whether the top-level plan object has been fully received.
+	 */
+	public boolean isComplete() {
+		return complete;
+	}
+
+	/**
+	 * Steps emitted so far.
+	 */
+	public List<RawPlanStep> steps() {
+		return List.copyOf(steps);
+	}
+
+	private void drain() throws IOException {
+		JsonToken token;
+		while (!complete && (token = parser.nextToken()) != JsonToken.NOT_AVAILABLE) {
+			if (token == null) {
+				return;
+			}
+			if (stepBuffer != null) {
+				bufferStepToken(token);
+				continue;
+			}
+			if (token.isStructStart()) {
+				if (inSteps && depth == 2 && token == JsonToken.START_OBJECT) {
+					stepBuffer = new TokenBuffer(parser);
+					bufferStepToken(token);
+					continue;
+				}
+				if (depth == 1 && token == JsonToken.START_ARRAY && "steps".equals(rootField)) {
+					inSteps = true;
+				}
+				depth++;
+			} else if (token.isStructEnd()) {
+				depth--;
+				if (depth == 1) {
+					inSteps = false;
+				}
+				complete = depth == 0;
+			} else if (depth == 1 && token == JsonToken.FIELD_NAME) {
+				rootField = parser.currentName();
+			} else if (depth == 1 && token == JsonToken.VALUE_STRING && "message".equals(rootField)) {
+				message = parser.getText();
+			}
+		}
+	}
+
+	private void bufferStepToken(JsonToken token) throws IOException {
+		stepBuffer.copyCurrentEvent(parser);
+		if (token.isStructStart()) {
+			stepDepth++;
+		} else if (token.isStructEnd() && --stepDepth == 0) {
+			TokenBuffer completed = stepBuffer;
+			stepBuffer = null;
+			try (JsonParser stepParser = completed.asParser()) {
+				RawPlanStep step = mapper.readValue(stepParser, RawPlanStep.class);
+				steps.add(step);
+				stepListener.accept(step);
+			}
+		}
+	}
+}
@@ -0,0 +1,59 @@
+package org.javai.springai.actions.internal.plan;
+
+import java.util.Arrays;
+import java.util.OptionalLong;
+
+/**
+ * Fixed-size rolling window of latency samples in milliseconds.
+ * <p>
+ * Keeps the most recent {@code capacity} samples in a ring buffer. Thread-safe; recording is
+ * O(1) and percentile queries sort a copy of the window.
+ */
+public final class LatencyWindow {
+
+	private final long[] samples;
+	private int next;
+	private int size;
+
+	public LatencyWindow(int capacity) {
+		if (capacity < 1) {
+			throw new IllegalArgumentException("capacity must be >= 1");
+		}
+		this.samples = new long[capacity];
+	}
+
+	public synchronized void record(long millis) {
+		samples[next] = Math.max(0, millis);
+		next = (next + 1) % samples.length;
+		if (size < samples.length) {
+			size++;
+		}
+	}
+
+	public synchronized int size() {
+		return size;
+	}
+
+	/**
+	 * Nearest-rank percentile of the recorded samples.
+	 *
+	 * @param percentile the percentile, greater than 0 and at most 100
+	 * @param minSamples minimum number of samples required for a meaningful answer
+	 * @return the percentile, or empty if fewer than {@code minSamples} samples are recorded
+	 */
+	public OptionalLong percentile(double percentile, int minSamples) {
+		if (percentile <= 0 || percentile > 100) {
+			throw new IllegalArgumentException("percentile must be in (0, 100]");
+		}
+		long[] sorted;
+		synchronized (this) {
+			if (size == 0 || size < minSamples) {
+				return OptionalLong.empty();
+			}
+			sorted = Arrays.copyOf(samples, size);
+		}
+		Arrays.sort(sorted);
+		int rank = (int) Math.ceil(percentile / 100.0 * sorted.length);
+		return OptionalLong.of(sorted[Math.max(0, rank - 1)]);
+	}
+}
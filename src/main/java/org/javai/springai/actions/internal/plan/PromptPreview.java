@@ -1,18 +1,77 @@
 package org.javai.springai.actions.internal.plan;
 
+import java.util.ArrayList;
 import java.util.List;
+import org.javai.springai.actions.TokenEstimator;
 import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
 
 /**
  * Captures the fully rendered prompt that would be sent to the LLM.
+ *
+ * <p>{@code systemSegments} mirrors {@code systemMessages} one-to-one and records, per message,
+ * whether it is static across turns together with its content hash. The planner places all
+ * static segments it can at the front, so {@link #cacheBreakpoints()} marks the end of a
+ * prefix that stays byte-identical from turn to turn and may be cached by the provider
+ * (Anthropic {@code cache_control} breakpoints, OpenAI automatic prefix caching).</p>
+ *
+ * <p>{@code segmentTokens} holds the estimated token count of each system message, as measured
+ * by the {@link org.javai.springai.actions.PromptBudget} that assembled the prompt. Without a
+ * budget the counts are estimated with {@link TokenEstimator#DEFAULT}.</p>
  */
 public record PromptPreview(
 		@NonNull List<String> systemMessages,
 		@NonNull List<String> userMessages,
 		List<String> grammarIds,
-		List<String> actionNames
+		List<String> actionNames,
+		@Nullable List<PromptSegment> systemSegments,
+		@Nullable List<Integer> segmentTokens
 ) {
 
+	public PromptPreview {
+		systemMessages = List.copyOf(systemMessages);
+		if (systemSegments == null) {
+			List<PromptSegment> derived = new ArrayList<>(systemMessages.size());
+			for (String message : systemMessages) {
+				derived.add(PromptSegment.dynamicSegment("system", message));
+			}
+			systemSegments = List.copyOf(derived);
+		} else {
+			systemSegments = List.copyOf(systemSegments);
+			if (systemSegments.size() != systemMessages.size()) {
+				throw new IllegalArgumentException("systemSegments must match systemMessages");
+			}
+		}
+		if (segmentTokens == null) {
+			List<Integer> estimated = new ArrayList<>(systemMessages.size());
+			for (String message : systemMessages) {
+				estimated.add(TokenEstimator.DEFAULT.estimate(message));
+			}
+			segmentTokens = List.copyOf(estimated);
+		} else {
+			segmentTokens = List.copyOf(segmentTokens);
+			if (segmentTokens.size() != systemMessages.size()) {
+				throw new IllegalArgumentException("segmentTokens must match systemMessages");
+			}
+		}
+	}
+
+	/**
+	 * Preview whose token counts are estimated with {@link TokenEstimator#DEFAULT}.
+	 */
+	public PromptPreview(List<String> systemMessages, List<String> userMessages,
+			List<String> grammarIds, List<String> actionNames, List<PromptSegment> systemSegments) {
+		this(systemMessages, userMessages, grammarIds, actionNames, systemSegments, null);
+	}
+
+	/**
+	 * Preview without segment metadata; every system message is treated as dynamic.
+	 */
+	public PromptPreview(List<String> systemMessages, List<String> userMessages,
+			List<String> grammarIds, List<String> actionNames) {
+		this(systemMessages, userMessages, grammarIds, actionNames, null, null);
+	}
+
 	public String renderedSystem() {
 		return String.join("\n\n", systemMessages);
 	}
@@ -20,5 +79,58 @@ public record PromptPreview(
 	public String renderedUser() {
 		return String.join("\n\n", userMessages);
 	}
-}
 
+	/**
+	 * Estimated tokens of all system messages.
+	 */
+	public int totalSystemTokens() {
+		int total = 0;
+		for (int tokens : segmentTokens) {
+			total += tokens;
+		}
+		return total;
+	}
+
+	/**
+	 * Content hashes of the system segments, in prompt order.
+	 */
+	public List<String> segmentHashes() {
+		return systemSegments.stream().map(PromptSegment::hash).toList();
+	}
+
+	/**
+	 * Indices of system segments after which a cache breakpoint should be placed. Currently
+	 * the last segment of the leading static run, or none if the prompt starts with a dynamic
+	 * segment.
+	 */
+	public List<Integer> cacheBreakpoints() {
+		int prefixLength = staticPrefixLength();
+		return prefixLength == 0 ? List.of() : List.of(prefixLength - 1);
+	}
+
+	/**
+	 * Number of leading system segments that are static.
+	 */
+	public int staticPrefixLength() {
+		int length = 0;
+		while (length < systemSegments.size() && systemSegments.get(length).isStatic()) {
+			length++;
+		}
+		return length;
+	}
+
+	/**
+	 * Fingerprint of the static prefix; equal across turns as long as the cacheable part of
+	 * the system prompt is unchanged.
+	 */
+	public String staticPrefixHash() {
+		return PromptSegment.combine(systemSegments.subList(0, staticPrefixLength()));
+	}
+
+	/**
+	 * Fingerprint of the complete system prompt, static and per-turn segments alike.
+	 */
+	public String systemFingerprint() {
+		return PromptSegment.combine(systemSegments);
+	}
+}
@@ -0,0 +1,76 @@
+package org.javai.springai.actions.internal.plan;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A single system message of a {@link PromptPreview}, tagged with its origin and a content hash.
+ *
+ * <p>{@link Kind#STATIC} segments are identical on every turn of a planner, so a run of them
+ * at the start of the prompt forms a prefix that providers can cache. The hash identifies the
+ * segment content and changes whenever the rendered text changes.</p>
+ *
+ * @param name short description of where the segment came from, e.g. {@code "persona"}
+ * @param text the rendered system message
+ * @param kind whether the segment is the same on every turn
+ * @param hash hex-encoded SHA-256 of {@code text}
+ */
+public record PromptSegment(String name, String text, Kind kind, String hash) {
+
+	public enum Kind {
+		/** Rendered once per planner; identical on every turn. */
+		STATIC,
+		/** Rendered per turn from conversation state or other mutable sources. */
+		DYNAMIC
+	}
+
+	public PromptSegment {
+		Objects.requireNonNull(name, "name must not be null");
+		Objects.requireNonNull(text, "text must not be null");
+		Objects.requireNonNull(kind, "kind must not be null");
+		Objects.requireNonNull(hash, "hash must not be null");
+	}
+
+	public static PromptSegment staticSegment(String name, String text) {
+		return new PromptSegment(name, text, Kind.STATIC, hash(text));
+	}
+
+	public static PromptSegment dynamicSegment(String name, String text) {
+		return new PromptSegment(name, text, Kind.DYNAMIC, hash(text));
+	}
+
+	public boolean isStatic() {
+		return kind == Kind.STATIC;
+	}
+
+	/**
+	 * Hex-encoded SHA-256 of the UTF-8 bytes of {@code text}.
+	 */
+	public static String hash(String text) {
+		return HexFormat.of().formatHex(sha256().digest(text.getBytes(StandardCharsets.UTF_8)));
+	}
+
+	/**
+	 * Hash over an ordered list of segment hashes; changes if any segment or the order changes.
+	 */
+	static String combine(List<PromptSegment> segments) {
+		MessageDigest digest = sha256();
+		for (PromptSegment segment : segments) {
+			digest.update(segment.hash().getBytes(StandardCharsets.US_ASCII));
+			digest.update((byte) '\n');
+		}
+		return HexFormat.of().formatHex(digest.digest());
+	}
+
+	private static MessageDigest sha256() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 not available", e);
+		}
+	}
+}
@@ -2,6 +2,7 @@ package org.javai.springai.actions.internal.prompt;
 
 import java.util.List;
 import java.util.Optional;
+import org.javai.springai.actions.PromptBudget;
 import org.javai.springai.actions.PromptContributor;
 import org.javai.springai.actions.internal.bind.ActionDescriptor;
 import org.javai.springai.actions.internal.bind.ActionParameterDescriptor;
@@ -68,5 +69,18 @@ public final class PlanActionsContextContributor implements PromptContributor {
 		
 		return Optional.of(actions.toString());
 	}
+
+	@Override
+	public boolean isStatic() {
+		return true;
+	}
+
+	/**
+	 * The action catalog is never reduced: the model cannot plan actions it has not seen.
+	 */
+	@Override
+	public int priority() {
+		return PromptBudget.REQUIRED;
+	}
 }
 
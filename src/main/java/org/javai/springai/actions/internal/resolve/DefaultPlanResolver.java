@@ -51,7 +51,15 @@ public class DefaultPlanResolver implements PlanResolver {
 
 	private static final String NO_ACTION_ID = "noAction";
 
-	private PlanStep resolveStep(RawPlanStep step, ResolutionContext context) {
+	/**
+	 * Resolve a single step. Used directly when steps arrive one at a time from a streamed
+	 * response; {@link #resolve(RawPlan, ResolutionContext)} applies it to every step.
+	 *
+	 * @param step the raw step
+	 * @param context the resolution context
+	 * @return the bound step, or an error/pending/no-action step
+	 */
+	public PlanStep resolveStep(RawPlanStep step, ResolutionContext context) {
 		// Handle error step from LLM
 		if (step.isError()) {
 			return new PlanStep.ErrorStep(step.reason());
@@ -1,10 +1,12 @@
 package org.javai.springai.actions.sql;
 
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.Set;
 import java.util.StringJoiner;
 import org.javai.springai.actions.PromptContributor;
+import org.javai.springai.actions.SegmentReducer;
 import org.javai.springai.actions.internal.prompt.SystemPromptContext;
 
 /**
@@ -14,6 +16,12 @@ import org.javai.springai.actions.internal.prompt.SystemPromptContext;
  * tables are "hot" (frequently accessed) and should be included in the system
  * prompt. Infrequently accessed tables are omitted, keeping the prompt lean
  * while still being discoverable via {@link SqlCatalogTool}.</p>
+ *
+ * <p>At most {@code maxHotTables} tables are included, most accessed first, as ranked by
+ * {@link SchemaAccessTracker#getTopTables(int, int)}. Pair it with a
+ * {@link DecayingSchemaAccessTracker} on long-running services so that tables which were hot
+ * long ago drop out of the prompt, or with a {@link HierarchicalSchemaAccessTracker} so that each
+ * tenant or session sees its own hot tables.</p>
  * 
  * <h2>Adaptive Behavior</h2>
  * <ul>
@@ -44,6 +52,9 @@ import org.javai.springai.actions.internal.prompt.SystemPromptContext;
  */
 public class AdaptiveSqlCatalogContributor implements PromptContributor {
 
+	/** Default maximum number of hot tables included in the prompt. */
+	public static final int DEFAULT_MAX_HOT_TABLES = 20;
+
 	private static final String SQL_CATALOG_FOOTER = """
 			
 			🔴 CRITICAL: SQL table/column names MUST be taken from this catalog exactly as shown.
@@ -61,26 +72,59 @@ public class AdaptiveSqlCatalogContributor implements PromptContributor {
 	private final SqlCatalog catalog;
 	private final SchemaAccessTracker tracker;
 	private final int hotThreshold;
+	private final int maxHotTables;
 
 	/**
-	 * Creates an adaptive contributor.
+	 * Creates an adaptive contributor including at most {@link #DEFAULT_MAX_HOT_TABLES} tables.
 	 * 
 	 * @param catalog the SQL catalog containing schema information
 	 * @param tracker the tracker recording access patterns
 	 * @param hotThreshold minimum access count to include a table in the prompt
 	 */
 	public AdaptiveSqlCatalogContributor(SqlCatalog catalog, SchemaAccessTracker tracker, int hotThreshold) {
+		this(catalog, tracker, hotThreshold, DEFAULT_MAX_HOT_TABLES);
+	}
+
+	/**
+	 * Creates an adaptive contributor that ranks tables by a blend of global, tenant and
+	 * session accesses, for example {@link HierarchicalSchemaAccessTracker.Blend#SESSION} to
+	 * follow only the current session.
+	 *
+	 * @param catalog the SQL catalog containing schema information
+	 * @param tracker the scoped tracker recording access patterns
+	 * @param blend how the levels of the current scope are combined
+	 * @param hotThreshold minimum blended access count to include a table in the prompt
+	 */
+	public AdaptiveSqlCatalogContributor(SqlCatalog catalog, HierarchicalSchemaAccessTracker tracker,
+			HierarchicalSchemaAccessTracker.Blend blend, int hotThreshold) {
+		this(catalog, Objects.requireNonNull(tracker, "tracker must not be null").blended(blend), hotThreshold);
+	}
+
+	/**
+	 * Creates an adaptive contributor.
+	 *
+	 * @param catalog the SQL catalog containing schema information
+	 * @param tracker the tracker recording access patterns
+	 * @param hotThreshold minimum access count to include a table in the prompt
+	 * @param maxHotTables maximum number of tables to include
+	 */
+	public AdaptiveSqlCatalogContributor(SqlCatalog catalog, SchemaAccessTracker tracker, int hotThreshold,
+			int maxHotTables) {
 		this.catalog = Objects.requireNonNull(catalog, "catalog must not be null");
 		this.tracker = Objects.requireNonNull(tracker, "tracker must not be null");
 		if (hotThreshold < 1) {
 			throw new IllegalArgumentException("hotThreshold must be at least 1");
 		}
+		if (maxHotTables < 1) {
+			throw new IllegalArgumentException("maxHotTables must be at least 1");
+		}
 		this.hotThreshold = hotThreshold;
+		this.maxHotTables = maxHotTables;
 	}
 
 	@Override
 	public Optional<String> contribute(SystemPromptContext context) {
-		Set<String> hotTables = tracker.getHotTables(hotThreshold);
+		List<String> hotTables = tracker.getTopTables(maxHotTables, hotThreshold);
 		
 		if (hotTables.isEmpty()) {
 			return Optional.of(NO_HOT_TABLES_MESSAGE.trim());
@@ -90,15 +134,25 @@ public class AdaptiveSqlCatalogContributor implements PromptContributor {
 	}
 
 	/**
-	 * Contributes schema for hot tables only.
+	 * Drops column descriptions, then column details, then columns, before dropping tables.
 	 */
-	private String contributeHotTables(Set<String> hotTables) {
+	@Override
+	public SegmentReducer reducer() {
+		return SqlCatalogSegmentReducer.INSTANCE;
+	}
+
+	/**
+	 * Contributes schema for hot tables only, most accessed first.
+	 */
+	private String contributeHotTables(List<String> hotTables) {
 		StringBuilder sb = new StringBuilder("SQL CATALOG (frequently used tables):\n");
 		
-		catalog.tables().forEach((tableName, table) -> {
-			// Only include hot tables
-			if (!hotTables.contains(tableName)) {
-				return;
+		Map<String, SqlCatalog.SqlTable> tables = catalog.tables();
+		for (String tableName : hotTables) {
+			SqlCatalog.SqlTable table = tables.get(tableName);
+			// Tracked tables may since have been removed from the catalog
+			if (table == null) {
+				continue;
 			}
 			
 			String displayName = catalog.usesModelNames() 
@@ -138,7 +192,7 @@ public class AdaptiveSqlCatalogContributor implements PromptContributor {
 					sb.append("\n");
 				}
 			}
-		});
+		}
 		
 		sb.append(SQL_CATALOG_FOOTER);
 		return sb.toString().trim();
@@ -152,5 +206,14 @@ public class AdaptiveSqlCatalogContributor implements PromptContributor {
 	public int getHotThreshold() {
 		return hotThreshold;
 	}
+
+	/**
+	 * Gets the maximum number of tables included in the prompt.
+	 *
+	 * @return the table limit
+	 */
+	public int getMaxHotTables() {
+		return maxHotTables;
+	}
 }
 
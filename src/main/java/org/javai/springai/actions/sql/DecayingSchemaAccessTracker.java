@@ -0,0 +1,434 @@
+package org.javai.springai.actions.sql;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * {@link SchemaAccessTracker} that forgets old accesses.
+ *
+ * <p>Accesses are counted in a ring of time buckets covering a sliding window (one hour in
+ * twelve five-minute buckets by default). Accesses older than the window no longer count, and
+ * with a half-life set, accesses inside the window count for less the older they are. Counts
+ * are therefore decayed scores: {@link #getAccessCount(String)} returns the score rounded
+ * down.</p>
+ *
+ * <p>Each bucket is a {@link LongAdder}, so concurrent tool calls recording the same table do
+ * not contend. The tracker also maintains the {@code topK} highest-scoring tables, so that
+ * {@link #getTopTables(int, int)} costs O(K) rather than a scan of every table ever seen. The
+ * top-K set is updated on each access and rebuilt whenever a bucket boundary passes; tables
+ * idle for a whole window are dropped at that point.</p>
+ *
+ * <h2>Example Usage</h2>
+ * <pre>{@code
+ * SchemaAccessTracker tracker = DecayingSchemaAccessTracker.builder()
+ *         .withWindow(Duration.ofHours(24), 24)
+ *         .withHalfLife(Duration.ofHours(6))
+ *         .build();
+ * }</pre>
+ *
+ * @see AdaptiveSqlCatalogContributor
+ */
+public final class DecayingSchemaAccessTracker implements SchemaAccessTracker {
+
+	private static final long EMPTY = Long.MIN_VALUE;
+
+	private final int buckets;
+	private final long bucketMillis;
+	private final double[] weights;
+	private final int topK;
+	private final Clock clock;
+	private final ConcurrentHashMap<String, Counter> counters = new ConcurrentHashMap<>();
+	private final AtomicLong rotatedEpoch = new AtomicLong(EMPTY);
+	private final Object leaderLock = new Object();
+	private volatile Set<String> leaders = ConcurrentHashMap.newKeySet();
+	// Score a table must beat to enter a full top-K set; null when unknown
+	private volatile Admission admission;
+
+	private DecayingSchemaAccessTracker(Builder builder) {
+		this.buckets = builder.buckets;
+		this.bucketMillis = Math.max(1, builder.window.toMillis() / builder.buckets);
+		this.weights = new double[buckets];
+		for (int age = 0; age < buckets; age++) {
+			weights[age] = builder.halfLife.isZero()
+					? 1.0
+					: Math.pow(0.5, (double) age * bucketMillis / builder.halfLife.toMillis());
+		}
+		this.topK = builder.topK;
+		this.clock = builder.clock;
+	}
+
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	@Override
+	public void recordTableAccess(String tableName) {
+		if (tableName == null) {
+			return;
+		}
+		long epoch = currentEpoch();
+		// A table idle for a whole window may be purged concurrently; losing that one access
+		// is accepted rather than serialising the hot path
+		counters.computeIfAbsent(tableName, name -> new Counter()).add(epoch, 1);
+		promote(tableName, epoch);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * <p>All accesses are counted in the current bucket.</p>
+	 */
+	@Override
+	public void recordTableAccess(String tableName, int count) {
+		if (tableName == null || count <= 0) {
+			return;
+		}
+		long epoch = currentEpoch();
+		counters.computeIfAbsent(tableName, name -> new Counter()).add(epoch, count);
+		promote(tableName, epoch);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * <p>The accesses are counted in the bucket covering {@code accessedAt}; accesses older than
+	 * the window are ignored, and accesses in the future count in the current bucket.</p>
+	 */
+	@Override
+	public void recordTableAccess(String tableName, int count, Instant accessedAt) {
+		if (tableName == null || count <= 0) {
+			return;
+		}
+		long epoch = currentEpoch();
+		long accessEpoch = Math.min(epoch, Math.floorDiv(accessedAt.toEpochMilli(), bucketMillis));
+		if (accessEpoch <= epoch - buckets) {
+			return;
+		}
+		counters.computeIfAbsent(tableName, name -> new Counter()).add(accessEpoch, count);
+		promote(tableName, epoch);
+	}
+
+	@Override
+	public int getAccessCount(String tableName) {
+		return (int) Math.floor(getScore(tableName));
+	}
+
+	/**
+	 * Gets the decayed access score of a table.
+	 *
+	 * @param tableName the table name
+	 * @return the score, or 0 if the table has not been accessed within the window
+	 */
+	public double getScore(String tableName) {
+		Counter counter = tableName != null ? counters.get(tableName) : null;
+		return counter != null ? counter.score(currentEpoch()) : 0.0;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * <p>Scans every tracked table; prefer {@link #getTopTables(int, int)} on the prompt path.</p>
+	 */
+	@Override
+	public Set<String> getHotTables(int threshold) {
+		long epoch = currentEpoch();
+		return counters.entrySet().stream()
+				.filter(e -> e.getValue().score(epoch) >= threshold)
+				.map(Map.Entry::getKey)
+				.collect(Collectors.toSet());
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * <p>Reads only the maintained top-K set when {@code limit} does not exceed {@code topK}.</p>
+	 */
+	@Override
+	public List<String> getTopTables(int limit, int threshold) {
+		if (limit > topK) {
+			return SchemaAccessTracker.super.getTopTables(limit, threshold);
+		}
+		long epoch = currentEpoch();
+		Map<String, Double> scores = new HashMap<>();
+		for (String table : leaders) {
+			Counter counter = counters.get(table);
+			double score = counter != null ? counter.score(epoch) : 0.0;
+			if (score >= threshold && score > 0) {
+				scores.put(table, score);
+			}
+		}
+		return scores.entrySet().stream()
+				.sorted(Map.Entry.<String, Double>comparingByValue().reversed()
+						.thenComparing(Map.Entry.comparingByKey()))
+				.limit(limit)
+				.map(Map.Entry::getKey)
+				.toList();
+	}
+
+	@Override
+	public Map<String, Integer> getAllAccessCounts() {
+		long epoch = currentEpoch();
+		Map<String, Integer> counts = new HashMap<>();
+		counters.forEach((table, counter) -> {
+			int count = (int) Math.floor(counter.score(epoch));
+			if (count > 0) {
+				counts.put(table, count);
+			}
+		});
+		return counts;
+	}
+
+	@Override
+	public void reset() {
+		synchronized (leaderLock) {
+			counters.clear();
+			leaders = ConcurrentHashMap.newKeySet();
+			admission = null;
+		}
+	}
+
+	/**
+	 * Gets the number of tables currently tracked, including those whose accesses are about to
+	 * expire.
+	 *
+	 * @return the number of tracked tables
+	 */
+	public int trackedTableCount() {
+		return counters.size();
+	}
+
+	/**
+	 * Length of one bucket; buckets start at multiples of it since the epoch.
+	 */
+	Duration bucketLength() {
+		return Duration.ofMillis(bucketMillis);
+	}
+
+	/**
+	 * Length of the window over which accesses count.
+	 */
+	Duration window() {
+		return Duration.ofMillis(bucketMillis * buckets);
+	}
+
+	/**
+	 * The current bucket number; rotates the tracker the first time a new bucket is seen.
+	 */
+	private long currentEpoch() {
+		long epoch = Math.floorDiv(clock.millis(), bucketMillis);
+		long rotated = rotatedEpoch.get();
+		if (epoch > rotated && rotatedEpoch.compareAndSet(rotated, epoch)) {
+			rotate(epoch);
+		}
+		return epoch;
+	}
+
+	/**
+	 * Drop tables idle for a whole window and rebuild the top-K set from the remaining scores,
+	 * which decay at different rates once a bucket boundary has passed.
+	 */
+	private void rotate(long epoch) {
+		synchronized (leaderLock) {
+			List<Map.Entry<String, Double>> scored = new ArrayList<>(counters.size());
+			counters.forEach((table, counter) -> {
+				double score = counter.score(epoch);
+				if (score > 0) {
+					scored.add(Map.entry(table, score));
+				} else {
+					counters.remove(table, counter);
+				}
+			});
+			scored.sort(Map.Entry.<String, Double>comparingByValue().reversed());
+			Set<String> rebuilt = ConcurrentHashMap.newKeySet();
+			for (int i = 0; i < Math.min(topK, scored.size()); i++) {
+				rebuilt.add(scored.get(i).getKey());
+			}
+			leaders = rebuilt;
+			admission = scored.size() >= topK ? new Admission(epoch, scored.get(topK - 1).getValue()) : null;
+		}
+	}
+
+	/**
+	 * Admit a table into the top-K set, displacing the lowest-scoring member if needed.
+	 *
+	 * <p>Within a bucket scores only grow, so the lowest leader score last seen in the current
+	 * bucket is a lower bound of the current one. A table that does not beat it is turned away
+	 * without taking the lock or scanning the leaders.</p>
+	 */
+	private void promote(String tableName, long epoch) {
+		if (leaders.contains(tableName)) {
+			return;
+		}
+		Admission bar = admission;
+		if (bar != null && bar.epoch() == epoch && scoreAt(tableName, epoch) <= bar.score()) {
+			return;
+		}
+		synchronized (leaderLock) {
+			Set<String> current = leaders;
+			if (current.contains(tableName)) {
+				return;
+			}
+			if (current.size() < topK) {
+				current.add(tableName);
+				return;
+			}
+			String weakest = null;
+			double weakestScore = Double.POSITIVE_INFINITY;
+			double runnerUpScore = Double.POSITIVE_INFINITY;
+			for (String table : current) {
+				double score = scoreAt(table, epoch);
+				if (score < weakestScore) {
+					runnerUpScore = weakestScore;
+					weakestScore = score;
+					weakest = table;
+				} else if (score < runnerUpScore) {
+					runnerUpScore = score;
+				}
+			}
+			double score = scoreAt(tableName, epoch);
+			if (score > weakestScore) {
+				current.remove(weakest);
+				current.add(tableName);
+				admission = new Admission(epoch, Math.min(score, runnerUpScore));
+			} else {
+				admission = new Admission(epoch, weakestScore);
+			}
+		}
+	}
+
+	private double scoreAt(String tableName, long epoch) {
+		Counter counter = counters.get(tableName);
+		return counter != null ? counter.score(epoch) : 0.0;
+	}
+
+	/**
+	 * Lowest score in the top-K set as of a bucket.
+	 */
+	private record Admission(long epoch, double score) {
+	}
+
+	/**
+	 * Per-table ring of bucket counts, each tagged with the bucket number it counts for.
+	 */
+	private final class Counter {
+		private final LongAdder[] counts = new LongAdder[buckets];
+		private final AtomicLongArray epochs = new AtomicLongArray(buckets);
+
+		Counter() {
+			for (int slot = 0; slot < buckets; slot++) {
+				counts[slot] = new LongAdder();
+				epochs.set(slot, EMPTY);
+			}
+		}
+
+		void add(long epoch, long count) {
+			int slot = (int) Math.floorMod(epoch, (long) buckets);
+			if (epochs.get(slot) != epoch) {
+				// First access in this bucket: recycle the slot, which held an expired bucket
+				synchronized (this) {
+					if (epochs.get(slot) != epoch) {
+						counts[slot].reset();
+						epochs.set(slot, epoch);
+					}
+				}
+			}
+			counts[slot].add(count);
+		}
+
+		double score(long epoch) {
+			double score = 0.0;
+			for (int slot = 0; slot < buckets; slot++) {
+				long bucketEpoch = epochs.get(slot);
+				if (bucketEpoch == EMPTY) {
+					continue;
+				}
+				long age = epoch - bucketEpoch;
+				if (age >= 0 && age < buckets) {
+					score += counts[slot].sum() * weights[(int) age];
+				}
+			}
+			return score;
+		}
+	}
+
+	/**
+	 * Builder for {@link DecayingSchemaAccessTracker}.
+	 */
+	public static final class Builder {
+		private Duration window = Duration.ofHours(1);
+		private int buckets = 12;
+		private Duration halfLife = Duration.ZERO;
+		private int topK = 64;
+		private Clock clock = Clock.systemUTC();
+
+		private Builder() {
+		}
+
+		/**
+		 * Sliding window over which accesses count, divided into {@code buckets} buckets.
+		 * Accesses expire one bucket at a time. Defaults to one hour in 12 buckets.
+		 */
+		public Builder withWindow(Duration window, int buckets) {
+			Objects.requireNonNull(window, "window must not be null");
+			if (window.isNegative() || window.isZero()) {
+				throw new IllegalArgumentException("window must be positive");
+			}
+			if (buckets < 1) {
+				throw new IllegalArgumentException("buckets must be >= 1");
+			}
+			this.window = window;
+			this.buckets = buckets;
+			return this;
+		}
+
+		/**
+		 * Age at which an access counts half. {@link Duration#ZERO} (the default) weighs all
+		 * accesses in the window equally.
+		 */
+		public Builder withHalfLife(Duration halfLife) {
+			Objects.requireNonNull(halfLife, "halfLife must not be null");
+			if (halfLife.isNegative()) {
+				throw new IllegalArgumentException("halfLife must not be negative");
+			}
+			this.halfLife = halfLife;
+			return this;
+		}
+
+		/**
+		 * Number of highest-scoring tables maintained for
+		 * {@link DecayingSchemaAccessTracker#getTopTables(int, int)}.
+		 * Defaults to 64.
+		 */
+		public Builder withTopK(int topK) {
+			if (topK < 1) {
+				throw new IllegalArgumentException("topK must be >= 1");
+			}
+			this.topK = topK;
+			return this;
+		}
+
+		/**
+		 * Clock used for bucketing; intended for tests.
+		 */
+		public Builder withClock(Clock clock) {
+			this.clock = Objects.requireNonNull(clock, "clock must not be null");
+			return this;
+		}
+
+		public DecayingSchemaAccessTracker build() {
+			return new DecayingSchemaAccessTracker(this);
+		}
+	}
+}
@@ -0,0 +1,526 @@
+package org.javai.springai.actions.sql;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@link SchemaAccessTracker} that keeps its counts across restarts.
+ *
+ * <p>Accesses are counted by an in-memory delegate and queued for persistence. The queue is
+ * flushed periodically (every second by default) as one batch of {@code count<TAB>table} lines
+ * appended to a log file, or {@code count<TAB>time<TAB>table} lines when accesses are persisted
+ * with their time (see below). Once the log holds {@code compactionThreshold} lines, the totals are
+ * written to a snapshot and the log is started afresh. On startup the snapshot and the logs
+ * written after it are read back into the delegate, one bulk
+ * {@link SchemaAccessTracker#recordTableAccess(String, int)} per table, so loading takes time
+ * proportional to the number of tables rather than the number of accesses.</p>
+ *
+ * <p>Logs are numbered, and the snapshot records the first log it does not include, so a crash
+ * during compaction never counts an access twice. A crash loses at most the accesses of the
+ * last flush interval.</p>
+ *
+ * <h2>Example Usage</h2>
+ * <pre>{@code
+ * FileBackedSchemaAccessTracker tracker = FileBackedSchemaAccessTracker
+ *         .builder(Path.of("/var/lib/myapp/schema-access"))
+ *         .build();
+ * // ... on shutdown
+ * tracker.close();
+ * }</pre>
+ *
+ * <h2>Access Times</h2>
+ *
+ * <p>With a time resolution set, accesses are persisted per time slot of that length and
+ * restored with {@link SchemaAccessTracker#recordTableAccess(String, int, Instant)}, so a
+ * delegate that forgets old accesses restores them into the time they happened, and drops them
+ * if they have expired while the service was down. Slots older than the retention period are
+ * removed on compaction. For a {@link DecayingSchemaAccessTracker} delegate, the resolution and
+ * retention default to its bucket length and window; for other delegates accesses are
+ * persisted without their time and kept forever.</p>
+ */
+public final class FileBackedSchemaAccessTracker implements SchemaAccessTracker, AutoCloseable {
+
+	private static final Logger logger = LoggerFactory.getLogger(FileBackedSchemaAccessTracker.class);
+
+	static final String SNAPSHOT_FILE = "snapshot.tsv";
+	private static final String LOG_PREFIX = "access-";
+	private static final String LOG_SUFFIX = ".log";
+	private static final String GENERATION_HEADER = "# generation ";
+	private static final long UNTIMED = Long.MIN_VALUE;
+
+	private final Path directory;
+	private final SchemaAccessTracker delegate;
+	private final int compactionThreshold;
+	private final Clock clock;
+	// Length of a time slot and how long slots are kept, in milliseconds; 0 when untimed
+	private final long resolutionMillis;
+	private final long retentionMillis;
+	private final ConcurrentLinkedQueue<Access> pending = new ConcurrentLinkedQueue<>();
+	private final ScheduledExecutorService scheduler;
+
+	// Guarded by this: persisted totals, the current log and how many lines it holds
+	private final Map<Slot, Long> totals = new HashMap<>();
+	private final Map<Slot, Long> unwritten = new HashMap<>();
+	private long generation;
+	private int logLines;
+	private boolean closed;
+
+	private FileBackedSchemaAccessTracker(Builder builder) {
+		this.directory = builder.directory;
+		this.delegate = builder.delegate;
+		this.compactionThreshold = builder.compactionThreshold;
+		this.clock = builder.clock;
+		Duration resolution = builder.timeResolution;
+		Duration retention = builder.retention;
+		if (resolution == null && delegate instanceof DecayingSchemaAccessTracker decaying) {
+			resolution = decaying.bucketLength();
+			retention = retention != null ? retention : decaying.window();
+		}
+		this.resolutionMillis = resolution != null ? resolution.toMillis() : 0;
+		this.retentionMillis = retention != null ? retention.toMillis() : 0;
+		try {
+			Files.createDirectories(directory);
+			load();
+		} catch (IOException e) {
+			throw new UncheckedIOException("Failed to load schema access log from " + directory, e);
+		}
+		if (builder.flushInterval.isZero()) {
+			this.scheduler = null;
+		} else {
+			this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+				Thread thread = new Thread(runnable, "schema-access-flush");
+				thread.setDaemon(true);
+				return thread;
+			});
+			long millis = builder.flushInterval.toMillis();
+			scheduler.scheduleWithFixedDelay(this::flushQuietly, millis, millis, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	/**
+	 * Create a builder for a tracker persisting to the given directory.
+	 *
+	 * @param directory directory holding the snapshot and logs; created if missing
+	 * @return a new builder
+	 */
+	public static Builder builder(Path directory) {
+		return new Builder(directory);
+	}
+
+	@Override
+	public void recordTableAccess(String tableName) {
+		if (tableName == null) {
+			return;
+		}
+		delegate.recordTableAccess(tableName);
+		pending.add(new Access(new Slot(tableName, slotOf(clock.millis())), 1));
+	}
+
+	@Override
+	public void recordTableAccess(String tableName, int count) {
+		if (tableName == null || count <= 0) {
+			return;
+		}
+		delegate.recordTableAccess(tableName, count);
+		pending.add(new Access(new Slot(tableName, slotOf(clock.millis())), count));
+	}
+
+	@Override
+	public int getAccessCount(String tableName) {
+		return delegate.getAccessCount(tableName);
+	}
+
+	@Override
+	public Set<String> getHotTables(int threshold) {
+		return delegate.getHotTables(threshold);
+	}
+
+	@Override
+	public List<String> getTopTables(int limit, int threshold) {
+		return delegate.getTopTables(limit, threshold);
+	}
+
+	@Override
+	public Map<String, Integer> getAllAccessCounts() {
+		return delegate.getAllAccessCounts();
+	}
+
+	/**
+	 * Resets the delegate and deletes all persisted counts.
+	 */
+	@Override
+	public synchronized void reset() {
+		delegate.reset();
+		pending.clear();
+		totals.clear();
+		unwritten.clear();
+		try {
+			compact();
+		} catch (IOException e) {
+			throw new UncheckedIOException("Failed to reset schema access log in " + directory, e);
+		}
+	}
+
+	/**
+	 * Append the queued accesses to the log, compacting it if it has grown past the threshold.
+	 *
+	 * @throws UncheckedIOException if the log cannot be written; the accesses are kept and
+	 *         retried on the next flush
+	 */
+	public synchronized void flush() {
+		if (closed) {
+			return;
+		}
+		Access access;
+		while ((access = pending.poll()) != null) {
+			unwritten.merge(access.slot(), (long) access.count(), Long::sum);
+		}
+		if (unwritten.isEmpty()) {
+			return;
+		}
+		try {
+			appendToLog(unwritten);
+			unwritten.forEach((slot, count) -> totals.merge(slot, count, Long::sum));
+			logLines += unwritten.size();
+			unwritten.clear();
+			if (logLines >= compactionThreshold) {
+				compact();
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException("Failed to write schema access log in " + directory, e);
+		}
+	}
+
+	/**
+	 * Flush, compact and stop the background flush.
+	 */
+	@Override
+	public void close() {
+		if (scheduler != null) {
+			scheduler.shutdown();
+		}
+		synchronized (this) {
+			if (closed) {
+				return;
+			}
+			flush();
+			try {
+				compact();
+			} catch (IOException e) {
+				throw new UncheckedIOException("Failed to compact schema access log in " + directory, e);
+			} finally {
+				closed = true;
+			}
+		}
+	}
+
+	private void flushQuietly() {
+		try {
+			flush();
+		} catch (RuntimeException e) {
+			logger.warn("Failed to flush schema access log: {}", e.getMessage());
+		}
+	}
+
+	/**
+	 * Read the snapshot and the logs written after it, and hand the unexpired totals to the
+	 * delegate.
+	 */
+	private void load() throws IOException {
+		long snapshotGeneration = 0;
+		Path snapshot = directory.resolve(SNAPSHOT_FILE);
+		if (Files.exists(snapshot)) {
+			long written = slotOf(Files.getLastModifiedTime(snapshot).toMillis());
+			List<String> lines = Files.readAllLines(snapshot, StandardCharsets.UTF_8);
+			for (String line : lines) {
+				if (line.startsWith(GENERATION_HEADER)) {
+					snapshotGeneration = Long.parseLong(line.substring(GENERATION_HEADER.length()).trim());
+				} else {
+					parseLine(line, written, totals);
+				}
+			}
+		}
+		TreeMap<Long, Path> logs = logFiles();
+		for (Map.Entry<Long, Path> log : logs.entrySet()) {
+			if (log.getKey() < snapshotGeneration) {
+				// Already in the snapshot; left behind by a compaction that did not finish
+				Files.deleteIfExists(log.getValue());
+				continue;
+			}
+			long written = slotOf(Files.getLastModifiedTime(log.getValue()).toMillis());
+			for (String line : Files.readAllLines(log.getValue(), StandardCharsets.UTF_8)) {
+				parseLine(line, written, totals);
+			}
+		}
+		generation = Math.max(snapshotGeneration, logs.isEmpty() ? 0 : logs.lastKey());
+		removeExpired();
+		totals.forEach((slot, count) -> {
+			int restored = (int) Math.min(count, Integer.MAX_VALUE);
+			if (slot.time() == UNTIMED) {
+				delegate.recordTableAccess(slot.tableName(), restored);
+			} else {
+				delegate.recordTableAccess(slot.tableName(), restored, Instant.ofEpochMilli(slot.time()));
+			}
+		});
+		logger.debug("Loaded {} access counts from {}", totals.size(), directory);
+		// Start from a compact state so the next log only holds new accesses
+		compact();
+	}
+
+	/**
+	 * Start of the time slot holding {@code millis}, or {@link #UNTIMED} without a resolution.
+	 */
+	private long slotOf(long millis) {
+		return resolutionMillis > 0 ? Math.floorDiv(millis, resolutionMillis) * resolutionMillis : UNTIMED;
+	}
+
+	/**
+	 * Drop the slots that ended before the retention period.
+	 */
+	private void removeExpired() {
+		if (retentionMillis > 0) {
+			long cutoff = clock.millis() - retentionMillis - resolutionMillis;
+			totals.keySet().removeIf(slot -> slot.time() != UNTIMED && slot.time() < cutoff);
+		}
+	}
+
+	/**
+	 * Write the totals to a new snapshot and start a new log. The snapshot is written to a
+	 * temporary file and moved into place, then the logs it covers are deleted.
+	 */
+	private void compact() throws IOException {
+		removeExpired();
+		long next = generation + 1;
+		Path temporary = directory.resolve(SNAPSHOT_FILE + ".tmp");
+		try (BufferedWriter writer = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+			writer.write(GENERATION_HEADER + next);
+			writer.newLine();
+			for (Map.Entry<Slot, Long> entry : totals.entrySet()) {
+				writeLine(writer, entry.getKey(), entry.getValue());
+			}
+		}
+		try {
+			Files.move(temporary, directory.resolve(SNAPSHOT_FILE),
+					StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (AtomicMoveNotSupportedException e) {
+			Files.move(temporary, directory.resolve(SNAPSHOT_FILE), StandardCopyOption.REPLACE_EXISTING);
+		}
+		generation = next;
+		logLines = 0;
+		for (Map.Entry<Long, Path> log : logFiles().entrySet()) {
+			if (log.getKey() < next) {
+				Files.deleteIfExists(log.getValue());
+			}
+		}
+	}
+
+	private void appendToLog(Map<Slot, Long> counts) throws IOException {
+		Path log = directory.resolve(LOG_PREFIX + generation + LOG_SUFFIX);
+		try (BufferedWriter writer = Files.newBufferedWriter(log, StandardCharsets.UTF_8,
+				StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+			for (Map.Entry<Slot, Long> entry : counts.entrySet()) {
+				writeLine(writer, entry.getKey(), entry.getValue());
+			}
+		}
+	}
+
+	private TreeMap<Long, Path> logFiles() throws IOException {
+		TreeMap<Long, Path> logs = new TreeMap<>();
+		try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, LOG_PREFIX + "*" + LOG_SUFFIX)) {
+			for (Path path : stream) {
+				String name = path.getFileName().toString();
+				String number = name.substring(LOG_PREFIX.length(), name.length() - LOG_SUFFIX.length());
+				try {
+					logs.put(Long.parseLong(number), path);
+				} catch (NumberFormatException e) {
+					logger.warn("Ignoring unexpected file {}", path);
+				}
+			}
+		}
+		return logs;
+	}
+
+	private static void writeLine(BufferedWriter writer, Slot slot, long count) throws IOException {
+		String tableName = slot.tableName();
+		if (tableName.indexOf('\n') >= 0 || tableName.indexOf('\r') >= 0) {
+			logger.warn("Not persisting access count of table name containing a line break");
+			return;
+		}
+		writer.write(Long.toString(count));
+		writer.write('\t');
+		if (slot.time() != UNTIMED) {
+			writer.write(Long.toString(slot.time()));
+			writer.write('\t');
+		}
+		writer.write(tableName);
+		writer.newLine();
+	}
+
+	/**
+	 * Parse a {@code count<TAB>table} or {@code count<TAB>time<TAB>table} line; a torn last
+	 * line after a crash is skipped.
+	 *
+	 * @param written slot of the time the file was last written, for untimed lines when
+	 *        accesses are persisted with their time
+	 */
+	private void parseLine(String line, long written, Map<Slot, Long> counts) {
+		int tab = line.indexOf('\t');
+		if (tab <= 0 || tab == line.length() - 1) {
+			return;
+		}
+		try {
+			long count = Long.parseLong(line.substring(0, tab));
+			String rest = line.substring(tab + 1);
+			long time = UNTIMED;
+			int second = rest.indexOf('\t');
+			if (second > 0 && second < rest.length() - 1 && rest.chars().limit(second).allMatch(Character::isDigit)) {
+				time = Long.parseLong(rest.substring(0, second));
+				rest = rest.substring(second + 1);
+			}
+			if (resolutionMillis == 0) {
+				time = UNTIMED;
+			} else if (time == UNTIMED) {
+				// Persisted without its time: it happened no later than the file was written
+				time = written;
+			} else {
+				time = slotOf(time);
+			}
+			counts.merge(new Slot(rest, time), count, Long::sum);
+		} catch (NumberFormatException e) {
+			logger.warn("Skipping malformed schema access log line");
+		}
+	}
+
+	/**
+	 * Accesses to a table in one time slot.
+	 *
+	 * @param time start of the slot in epoch milliseconds, or {@link #UNTIMED}
+	 */
+	private record Slot(String tableName, long time) {
+	}
+
+	private record Access(Slot slot, int count) {
+	}
+
+	/**
+	 * Builder for {@link FileBackedSchemaAccessTracker}.
+	 */
+	public static final class Builder {
+		private final Path directory;
+		private SchemaAccessTracker delegate = new InMemorySchemaAccessTracker();
+		private Duration flushInterval = Duration.ofSeconds(1);
+		private int compactionThreshold = 10_000;
+		private Duration timeResolution;
+		private Duration retention;
+		private Clock clock = Clock.systemUTC();
+
+		private Builder(Path directory) {
+			this.directory = Objects.requireNonNull(directory, "directory must not be null");
+		}
+
+		/**
+		 * Tracker that counts accesses in memory and answers queries. Defaults to an
+		 * {@link InMemorySchemaAccessTracker}.
+		 */
+		public Builder withDelegate(SchemaAccessTracker delegate) {
+			this.delegate = Objects.requireNonNull(delegate, "delegate must not be null");
+			return this;
+		}
+
+		/**
+		 * How often queued accesses are appended to the log. {@link Duration#ZERO} disables the
+		 * background flush; call {@link FileBackedSchemaAccessTracker#flush()} instead.
+		 * Defaults to one second.
+		 */
+		public Builder withFlushInterval(Duration flushInterval) {
+			Objects.requireNonNull(flushInterval, "flushInterval must not be null");
+			if (flushInterval.isNegative()) {
+				throw new IllegalArgumentException("flushInterval must not be negative");
+			}
+			this.flushInterval = flushInterval;
+			return this;
+		}
+
+		/**
+		 * Number of log lines after which the log is compacted into the snapshot. Defaults
+		 * to 10000.
+		 */
+		public Builder withCompactionThreshold(int compactionThreshold) {
+			if (compactionThreshold < 1) {
+				throw new IllegalArgumentException("compactionThreshold must be >= 1");
+			}
+			this.compactionThreshold = compactionThreshold;
+			return this;
+		}
+
+		/**
+		 * Length of the time slots in which accesses are persisted, so that they are restored
+		 * with their time. {@link Duration#ZERO} persists counts without their time. Defaults
+		 * to the bucket length of a {@link DecayingSchemaAccessTracker} delegate, and to
+		 * {@link Duration#ZERO} for other delegates.
+		 */
+		public Builder withTimeResolution(Duration timeResolution) {
+			Objects.requireNonNull(timeResolution, "timeResolution must not be null");
+			if (timeResolution.isNegative()) {
+				throw new IllegalArgumentException("timeResolution must not be negative");
+			}
+			this.timeResolution = timeResolution;
+			return this;
+		}
+
+		/**
+		 * How long persisted accesses are kept when persisted with their time.
+		 * {@link Duration#ZERO} keeps them forever. Defaults to the window of a
+		 * {@link DecayingSchemaAccessTracker} delegate, and to {@link Duration#ZERO} for other
+		 * delegates.
+		 */
+		public Builder withRetention(Duration retention) {
+			Objects.requireNonNull(retention, "retention must not be null");
+			if (retention.isNegative()) {
+				throw new IllegalArgumentException("retention must not be negative");
+			}
+			this.retention = retention;
+			return this;
+		}
+
+		/**
+		 * Clock used to time accesses; intended for tests.
+		 */
+		public Builder withClock(Clock clock) {
+			this.clock = Objects.requireNonNull(clock, "clock must not be null");
+			return this;
+		}
+
+		/**
+		 * Load the persisted counts and start the background flush.
+		 *
+		 * @throws UncheckedIOException if the directory cannot be read or written
+		 */
+		public FileBackedSchemaAccessTracker build() {
+			return new FileBackedSchemaAccessTracker(this);
+		}
+	}
+}
@@ -54,7 +54,8 @@ public class FrequencyAwareSqlCatalogTool {
 	@Tool(name = "listTables", description = """
 			List all tables in the data warehouse with their descriptions and types.
 			Use this first to understand what data is available before formulating a query.
-			Returns: table name, description, type (fact/dimension/bridge), column count, and synonyms.""")
+			Returns: table name, description, type (fact/dimension/bridge), column count, and synonyms.""",
+			resultConverter = SqlCatalogToolResultConverter.class)
 	public List<TableSummary> listTables() {
 		return delegate.listTables();
 	}
@@ -71,7 +72,8 @@ public class FrequencyAwareSqlCatalogTool {
 			Get detailed column information for a specific table.
 			Call this for tables relevant to the user's query.
 			Returns: column names, data types, descriptions, tags (pk, fk:table.column, measure, attribute), and constraints.
-			For JOINs, look at fk: tags which show the target table and column.""")
+			For JOINs, look at fk: tags which show the target table and column.""",
+			resultConverter = SqlCatalogToolResultConverter.class)
 	public TableDetail getTableDetails(
 			@ToolParam(description = "Name of the table to get details for") String tableName) {
 		
@@ -90,15 +92,11 @@ public class FrequencyAwareSqlCatalogTool {
 	}
 
 	/**
-	 * Resolves a display name (possibly a token or synonym) to its canonical table name.
+	 * Resolves a display name (possibly a model name or synonym) to its canonical table name,
+	 * so that every way of naming a table is counted as the same table.
 	 */
 	private String resolveCanonicalName(String displayName) {
-		// The delegate's lastTableRequested gives us what was looked up,
-		// but we need the canonical name. We'll track using the display name
-		// and let the tracker handle the mapping.
-		// For now, use the display name - the AdaptiveSqlCatalogContributor
-		// will need to handle the mapping when querying hot tables.
-		return displayName;
+		return delegate.findCanonicalTableName(displayName);
 	}
 
 	/**
@@ -0,0 +1,301 @@
+package org.javai.springai.actions.sql;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import net.sf.jsqlparser.expression.Expression;
+import net.sf.jsqlparser.expression.Function;
+import net.sf.jsqlparser.expression.LongValue;
+import net.sf.jsqlparser.expression.operators.relational.ExpressionList;
+import net.sf.jsqlparser.expression.operators.relational.LikeExpression;
+import net.sf.jsqlparser.schema.Column;
+import net.sf.jsqlparser.schema.Table;
+import net.sf.jsqlparser.statement.Statement;
+import net.sf.jsqlparser.statement.select.GroupByElement;
+import net.sf.jsqlparser.statement.select.Limit;
+import net.sf.jsqlparser.statement.select.OrderByElement;
+import net.sf.jsqlparser.statement.select.PlainSelect;
+import net.sf.jsqlparser.statement.select.Select;
+import net.sf.jsqlparser.statement.select.SetOperationList;
+import net.sf.jsqlparser.util.TablesNamesFinder;
+
+/**
+ * {@link SqlDialectRenderer} for {@link Query.Dialect#ANSI}, producing standard SQL that any
+ * JDBC database with SQL:2008 syntax accepts, and the base class for the other built-in
+ * renderers.
+ *
+ * <p>The statement is rewritten for the dialect on a copy, and only when something needs to
+ * change:</p>
+ * <ul>
+ *   <li><b>Row limits</b> - a query without a limit is bounded with
+ *       {@code FETCH FIRST n ROWS ONLY}, or {@code LIMIT n} where {@link #supportsLimit()}; a
+ *       larger literal limit is lowered; other limits are bounded by an enclosing query</li>
+ *   <li><b>ILIKE</b> - rewritten as {@code LOWER(a) LIKE LOWER(b)} unless
+ *       {@link #supportsIlike()}</li>
+ *   <li><b>Functions</b> - renamed to the dialect's equivalent, see {@link #functionRenames()}</li>
+ *   <li><b>Identifiers</b> - table and column names that are {@link #reservedWords() reserved}
+ *       or contain characters other than letters, digits and underscores are quoted</li>
+ * </ul>
+ *
+ * <p>Subclasses adapt the rendering to another dialect by overriding the protected hooks.</p>
+ */
+public class GenericSqlDialectRenderer implements SqlDialectRenderer {
+
+	private static final Pattern PLAIN_IDENTIFIER = Pattern.compile("[\\p{L}_][\\p{L}\\p{N}_$]*");
+
+	// TRUE, FALSE and NULL are left out as the parser may read them as column names
+	private static final Set<String> RESERVED_WORDS = Set.of(
+			"ALL", "AND", "ANY", "AS", "BETWEEN", "BY", "CASE", "CAST", "CHECK", "COLUMN",
+			"CONSTRAINT", "CREATE", "CROSS", "DEFAULT", "DELETE", "DISTINCT", "DROP", "ELSE", "END",
+			"EXCEPT", "EXISTS", "FETCH", "FOR", "FOREIGN", "FROM", "FULL", "GRANT", "GROUP", "HAVING",
+			"IN", "INNER", "INSERT", "INTERSECT", "INTO", "IS", "JOIN", "LEFT", "LIKE", "NATURAL",
+			"NOT", "OF", "ON", "OR", "ORDER", "OUTER", "PRIMARY", "REFERENCES", "RIGHT", "SELECT",
+			"SET", "SOME", "TABLE", "THEN", "TO", "UNION", "UNIQUE", "UPDATE", "USER", "USING",
+			"VALUES", "WHEN", "WHERE", "WITH");
+
+	private static final Map<String, String> FUNCTION_RENAMES = Map.of(
+			"IFNULL", "COALESCE",
+			"NVL", "COALESCE");
+
+	// Functions whose first argument is a date-time unit written as a bare word, e.g. DATEADD(day, 1, d)
+	private static final Set<String> UNIT_FUNCTIONS = Set.of(
+			"DATEADD", "DATEDIFF", "DATENAME", "DATEPART", "DATE_TRUNC", "TIMESTAMPADD", "TIMESTAMPDIFF");
+
+	@Override
+	public String render(Select select, QueryLimits limits) {
+		boolean limitRows = limits.limitsRows() && !withinLimit(select, limits.maxRows());
+		if (!limitRows && !new Rewriter(false).rewrite(select)) {
+			return select.toString();
+		}
+		Select copy = QueryCache.copy(select);
+		new Rewriter(true).rewrite(copy);
+		return limitRows ? limitRows(copy, limits.maxRows()) : copy.toString();
+	}
+
+	/**
+	 * Bounds a statement to {@code maxRows} rows and renders it.
+	 *
+	 * @param select a copy of the statement, which may be modified
+	 * @param maxRows the row limit
+	 * @return the SQL text
+	 */
+	protected String limitRows(Select select, long maxRows) {
+		Limit limit = select.getLimit();
+		if (select.getFetch() == null && limit != null && limit.getRowCount() instanceof LongValue) {
+			limit.setRowCount(new LongValue(maxRows));
+			return select.toString();
+		}
+		if (select.getFetch() == null && limit == null) {
+			if (supportsLimit()) {
+				Limit bound = new Limit();
+				bound.setRowCount(new LongValue(maxRows));
+				select.setLimit(bound);
+				return select.toString();
+			}
+			return select + " FETCH FIRST " + maxRows + " ROWS ONLY";
+		}
+		// FETCH, LIMIT ALL or a parameterised limit: bound the query from outside
+		return "SELECT * FROM (" + select + ") bounded_rows "
+				+ (supportsLimit() ? "LIMIT " + maxRows : "FETCH FIRST " + maxRows + " ROWS ONLY");
+	}
+
+	/**
+	 * @return true if the dialect accepts {@code LIMIT n}, which is then preferred to
+	 * {@code FETCH FIRST}
+	 */
+	protected boolean supportsLimit() {
+		return false;
+	}
+
+	/**
+	 * @return true if the dialect accepts {@code ILIKE}
+	 */
+	protected boolean supportsIlike() {
+		return false;
+	}
+
+	/**
+	 * @return upper-case words that must be quoted when used as table or column names
+	 */
+	protected Set<String> reservedWords() {
+		return RESERVED_WORDS;
+	}
+
+	/**
+	 * @return function names, in upper case, mapped to the name the dialect uses for the same
+	 * function with the same arguments
+	 */
+	protected Map<String, String> functionRenames() {
+		return FUNCTION_RENAMES;
+	}
+
+	/**
+	 * Converts a reserved word to the case the database stores unquoted identifiers in, so that
+	 * quoting it refers to the same object. The default leaves the case unchanged.
+	 *
+	 * @param identifier the identifier as written
+	 * @return the identifier as stored
+	 */
+	protected String foldCase(String identifier) {
+		return identifier;
+	}
+
+	/**
+	 * Quotes an identifier if the dialect requires it. Qualified names are quoted part by part,
+	 * and identifiers that are already quoted are left alone.
+	 *
+	 * @param identifier a table, schema or column name
+	 * @return the identifier, quoted if necessary
+	 */
+	protected String quoteIfNeeded(String identifier) {
+		if (identifier == null || identifier.isEmpty()
+				|| identifier.indexOf('"') >= 0 || identifier.indexOf('`') >= 0 || identifier.startsWith("[")) {
+			return identifier;
+		}
+		if (identifier.indexOf('.') >= 0) {
+			return Arrays.stream(identifier.split("\\.", -1))
+					.map(this::quoteIfNeeded)
+					.collect(Collectors.joining("."));
+		}
+		if (!PLAIN_IDENTIFIER.matcher(identifier).matches()) {
+			return '"' + identifier + '"';
+		}
+		if (reservedWords().contains(identifier.toUpperCase(Locale.ROOT))) {
+			return '"' + foldCase(identifier) + '"';
+		}
+		return identifier;
+	}
+
+	private static boolean withinLimit(Select select, long maxRows) {
+		Limit limit = select.getLimit();
+		return select.getFetch() == null && limit != null
+				&& limit.getRowCount() instanceof LongValue rowCount && rowCount.getValue() <= maxRows;
+	}
+
+	private static Function lower(Expression expression) {
+		Function lower = new Function();
+		lower.setName("LOWER");
+		lower.setParameters(new ExpressionList<>(expression));
+		return lower;
+	}
+
+	/**
+	 * Walks a statement and applies the dialect's rewrites, or only reports whether there are any.
+	 * Every rewrite leaves nothing further to rewrite, so nodes visited twice are harmless.
+	 */
+	private final class Rewriter extends TablesNamesFinder {
+
+		private final boolean apply;
+		private final Set<Column> units = Collections.newSetFromMap(new IdentityHashMap<>());
+		private boolean changed;
+
+		Rewriter(boolean apply) {
+			this.apply = apply;
+		}
+
+		/**
+		 * @return true if the statement needs (or, when applying, had) a rewrite
+		 */
+		boolean rewrite(Select select) {
+			getTables((Statement) select);
+			return changed;
+		}
+
+		/**
+		 * Records that a rewrite is needed.
+		 *
+		 * @return true if the rewrite should be applied now
+		 */
+		private boolean change() {
+			changed = true;
+			return apply;
+		}
+
+		@Override
+		public void visit(Table table) {
+			String name = quoteIfNeeded(table.getName());
+			if (name != null && !name.equals(table.getName()) && change()) {
+				table.setName(name);
+			}
+			String schema = quoteIfNeeded(table.getSchemaName());
+			if (schema != null && !schema.equals(table.getSchemaName()) && change()) {
+				table.setSchemaName(schema);
+			}
+			super.visit(table);
+		}
+
+		@Override
+		public void visit(Column column) {
+			if (!units.contains(column)) {
+				String name = quoteIfNeeded(column.getColumnName());
+				if (name != null && !name.equals(column.getColumnName()) && change()) {
+					column.setColumnName(name);
+				}
+			}
+			super.visit(column);
+		}
+
+		@Override
+		public void visit(Function function) {
+			String name = function.getName();
+			if (name != null) {
+				String upper = name.toUpperCase(Locale.ROOT);
+				String renamed = functionRenames().get(upper);
+				if (renamed != null && !renamed.equals(name) && change()) {
+					function.setName(renamed);
+				}
+				ExpressionList<?> parameters = function.getParameters();
+				if (UNIT_FUNCTIONS.contains(upper) && parameters != null && !parameters.isEmpty()
+						&& parameters.get(0) instanceof Column unit) {
+					units.add(unit);
+				}
+			}
+			super.visit(function);
+		}
+
+		@Override
+		public void visit(LikeExpression like) {
+			super.visit(like);
+			if (!supportsIlike() && like.getLikeKeyWord() == LikeExpression.KeyWord.ILIKE && change()) {
+				like.setLikeKeyWord(LikeExpression.KeyWord.LIKE);
+				like.setLeftExpression(lower(like.getLeftExpression()));
+				like.setRightExpression(lower(like.getRightExpression()));
+			}
+		}
+
+		@Override
+		public void visit(PlainSelect plainSelect) {
+			super.visit(plainSelect);
+			// TablesNamesFinder does not look at GROUP BY and ORDER BY, having no tables to find there
+			GroupByElement groupBy = plainSelect.getGroupBy();
+			if (groupBy != null && groupBy.getGroupByExpressionList() != null) {
+				for (Object expression : groupBy.getGroupByExpressionList()) {
+					if (expression instanceof Expression groupExpression) {
+						groupExpression.accept(this);
+					}
+				}
+			}
+			orderBy(plainSelect.getOrderByElements());
+		}
+
+		@Override
+		public void visit(SetOperationList setOperationList) {
+			super.visit(setOperationList);
+			orderBy(setOperationList.getOrderByElements());
+		}
+
+		private void orderBy(List<OrderByElement> elements) {
+			if (elements != null) {
+				for (OrderByElement element : elements) {
+					element.getExpression().accept(this);
+				}
+			}
+		}
+	}
+}
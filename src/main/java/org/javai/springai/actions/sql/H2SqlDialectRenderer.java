@@ -0,0 +1,61 @@
+package org.javai.springai.actions.sql;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * {@link SqlDialectRenderer} for {@link Query.Dialect#H2}.
+ *
+ * <p>Row limits are written as {@code LIMIT n} and {@code ILIKE} is kept. Reserved words used as
+ * identifiers are quoted in upper case, the case H2 stores unquoted identifiers in; H2 2.x
+ * reserves some common column names, such as {@code VALUE} and {@code KEY}.</p>
+ *
+ * <p>There is no statement timeout SQL: H2's {@code SET QUERY_TIMEOUT} holds for the rest of the
+ * session, so on a pooled connection it would outlive the query. H2 honours the JDBC timeout set
+ * by {@link QueryLimits#applyTo(java.sql.Statement)} instead.</p>
+ */
+public class H2SqlDialectRenderer extends GenericSqlDialectRenderer {
+
+	// Keywords of H2 2.x, other than those the parser may read as column names and date-time units
+	private static final Set<String> RESERVED_WORDS = Set.of(
+			"ALL", "AND", "ANY", "ARRAY", "AS", "ASYMMETRIC", "AUTHORIZATION", "BETWEEN", "BOTH",
+			"CASE", "CAST", "CHECK", "CONSTRAINT", "CROSS", "DEFAULT", "DISTINCT", "ELSE", "END",
+			"EXCEPT", "EXISTS", "FETCH", "FOR", "FOREIGN", "FROM", "FULL", "GROUP", "GROUPS",
+			"HAVING", "IF", "ILIKE", "IN", "INNER", "INTERSECT", "INTERVAL", "IS", "JOIN", "KEY",
+			"LEADING", "LEFT", "LIKE", "LIMIT", "MINUS", "NATURAL", "NOT", "OFFSET", "ON", "OR",
+			"ORDER", "OVER", "PARTITION", "PRIMARY", "QUALIFY", "RANGE", "REGEXP", "RIGHT", "ROW",
+			"ROWNUM", "ROWS", "SELECT", "SET", "SOME", "SYMMETRIC", "TABLE", "TO", "TOP", "TRAILING",
+			"UESCAPE", "UNION", "UNIQUE", "UNKNOWN", "USER", "USING", "VALUE", "VALUES", "WHEN",
+			"WHERE", "WINDOW", "WITH", "_ROWID_");
+
+	private static final Map<String, String> FUNCTION_RENAMES = Map.of(
+			"GETDATE", "NOW",
+			"SYSDATETIME", "NOW",
+			"LEN", "LENGTH");
+
+	@Override
+	protected boolean supportsLimit() {
+		return true;
+	}
+
+	@Override
+	protected boolean supportsIlike() {
+		return true;
+	}
+
+	@Override
+	protected Set<String> reservedWords() {
+		return RESERVED_WORDS;
+	}
+
+	@Override
+	protected Map<String, String> functionRenames() {
+		return FUNCTION_RENAMES;
+	}
+
+	@Override
+	protected String foldCase(String identifier) {
+		return identifier.toUpperCase(Locale.ROOT);
+	}
+}
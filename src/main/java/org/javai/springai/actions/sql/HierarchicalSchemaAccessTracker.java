@@ -0,0 +1,430 @@
+package org.javai.springai.actions.sql;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * {@link SchemaAccessTracker} that counts accesses globally, per tenant and per session.
+ *
+ * <p>Every access is recorded at each level of its {@link SchemaAccessScope}. Reads combine the
+ * levels of a scope with a {@link Blend}: the count of a table is the weighted mean of its counts
+ * at the levels the scope has, rounded down. Weights of levels the scope lacks are left out, so
+ * a global scope reads plain global counts and one access counts once in every scope. With the
+ * default blend a tenant's own accesses outweigh global ones, so each tenant sees the tables it
+ * actually queries rather than a hot set shared by all tenants.</p>
+ *
+ * <p>The scope of a call comes from the scope supplier, typically backed by request-scoped
+ * state, or is fixed with {@link #forScope(SchemaAccessScope)}:</p>
+ * <pre>{@code
+ * HierarchicalSchemaAccessTracker tracker = HierarchicalSchemaAccessTracker.builder()
+ *         .withScope(() -> SchemaAccessScope.ofSession(currentTenant(), currentSession()))
+ *         .build();
+ *
+ * planner.promptContributor(new AdaptiveSqlCatalogContributor(catalog, tracker, 3))
+ *        .tools(new FrequencyAwareSqlCatalogTool(new SqlCatalogTool(catalog), tracker));
+ * }</pre>
+ *
+ * <p>Each level is a separate tracker from the tracker factory, a
+ * {@link DecayingSchemaAccessTracker} by default. Session trackers are created on first access
+ * and the least recently used are discarded beyond {@code maxSessions}.</p>
+ */
+public final class HierarchicalSchemaAccessTracker implements SchemaAccessTracker {
+
+	/**
+	 * Weights of the global, tenant and session counts in a blended count. Only the weights of
+	 * the levels a scope has count, so the same blend serves global, tenant and session scopes.
+	 *
+	 * @param global weight of the global count (≥0)
+	 * @param tenant weight of the scope's tenant count (≥0)
+	 * @param session weight of the scope's session count (≥0)
+	 */
+	public record Blend(double global, double tenant, double session) {
+
+		/** Global counts only, as if the tracker were not scoped. */
+		public static final Blend GLOBAL = new Blend(1.0, 0.0, 0.0);
+
+		/** The scope's tenant counts only. */
+		public static final Blend TENANT = new Blend(0.0, 1.0, 0.0);
+
+		/** The scope's session counts only. */
+		public static final Blend SESSION = new Blend(0.0, 0.0, 1.0);
+
+		/**
+		 * Session accesses count double and global accesses a quarter, relative to the tenant's.
+		 */
+		public static final Blend DEFAULT = new Blend(0.25, 1.0, 2.0);
+
+		public Blend {
+			if (global < 0 || tenant < 0 || session < 0) {
+				throw new IllegalArgumentException("blend weights must not be negative");
+			}
+			if (global + tenant + session == 0) {
+				throw new IllegalArgumentException("at least one blend weight must be positive");
+			}
+		}
+
+		/**
+		 * Sum of the weights of the levels the scope has; 0 if the blend reads none of them.
+		 */
+		double totalWeight(SchemaAccessScope scope) {
+			return global
+					+ (scope.tenantId() != null ? tenant : 0.0)
+					+ (scope.sessionId() != null ? session : 0.0);
+		}
+	}
+
+	private final Supplier<? extends SchemaAccessTracker> trackerFactory;
+	private final Supplier<SchemaAccessScope> scopeSupplier;
+	private final Blend blend;
+	private final SchemaAccessTracker global;
+	private final ConcurrentHashMap<String, SchemaAccessTracker> tenants = new ConcurrentHashMap<>();
+	private final LinkedHashMap<SchemaAccessScope, SchemaAccessTracker> sessions;
+
+	private HierarchicalSchemaAccessTracker(Builder builder) {
+		this.trackerFactory = builder.trackerFactory;
+		this.scopeSupplier = builder.scopeSupplier;
+		this.blend = builder.blend;
+		this.global = newTracker();
+		int maxSessions = builder.maxSessions;
+		this.sessions = new LinkedHashMap<>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<SchemaAccessScope, SchemaAccessTracker> eldest) {
+				return size() > maxSessions;
+			}
+		};
+	}
+
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	/**
+	 * A view of this tracker bound to a fixed scope, read with this tracker's blend.
+	 *
+	 * @param scope the scope
+	 * @return the view
+	 */
+	public SchemaAccessTracker forScope(SchemaAccessScope scope) {
+		Objects.requireNonNull(scope, "scope must not be null");
+		return new ScopedView(() -> scope, blend);
+	}
+
+	/**
+	 * A view of this tracker that reads the current scope with another blend.
+	 *
+	 * @param blend the blend
+	 * @return the view
+	 */
+	public SchemaAccessTracker blended(Blend blend) {
+		Objects.requireNonNull(blend, "blend must not be null");
+		return new ScopedView(scopeSupplier, blend);
+	}
+
+	@Override
+	public void recordTableAccess(String tableName) {
+		record(currentScope(scopeSupplier), tableName, 1, null);
+	}
+
+	@Override
+	public void recordTableAccess(String tableName, int count) {
+		record(currentScope(scopeSupplier), tableName, count, null);
+	}
+
+	@Override
+	public void recordTableAccess(String tableName, int count, Instant accessedAt) {
+		record(currentScope(scopeSupplier), tableName, count, Objects.requireNonNull(accessedAt));
+	}
+
+	@Override
+	public int getAccessCount(String tableName) {
+		return blendedCount(currentScope(scopeSupplier), blend, tableName);
+	}
+
+	@Override
+	public Set<String> getHotTables(int threshold) {
+		return hotTables(currentScope(scopeSupplier), blend, threshold);
+	}
+
+	@Override
+	public List<String> getTopTables(int limit, int threshold) {
+		return topTables(currentScope(scopeSupplier), blend, limit, threshold);
+	}
+
+	@Override
+	public Map<String, Integer> getAllAccessCounts() {
+		return blendedCounts(currentScope(scopeSupplier), blend);
+	}
+
+	/**
+	 * Resets all levels of all scopes.
+	 */
+	@Override
+	public void reset() {
+		global.reset();
+		tenants.clear();
+		synchronized (sessions) {
+			sessions.clear();
+		}
+	}
+
+	private SchemaAccessTracker newTracker() {
+		return Objects.requireNonNull(trackerFactory.get(), "trackerFactory returned null");
+	}
+
+	private static SchemaAccessScope currentScope(Supplier<SchemaAccessScope> supplier) {
+		SchemaAccessScope scope = supplier.get();
+		return scope != null ? scope : SchemaAccessScope.GLOBAL;
+	}
+
+	/**
+	 * Record accesses at every level of the scope, at the given time or, if {@code null}, now.
+	 */
+	private void record(SchemaAccessScope scope, String tableName, int count, Instant accessedAt) {
+		if (tableName == null || count <= 0) {
+			return;
+		}
+		recordAt(global, tableName, count, accessedAt);
+		if (scope.tenantId() != null) {
+			SchemaAccessTracker tenant = tenants.computeIfAbsent(scope.tenantId(), id -> newTracker());
+			recordAt(tenant, tableName, count, accessedAt);
+		}
+		if (scope.sessionId() != null) {
+			SchemaAccessTracker session;
+			synchronized (sessions) {
+				session = sessions.computeIfAbsent(scope, s -> newTracker());
+			}
+			recordAt(session, tableName, count, accessedAt);
+		}
+	}
+
+	private static void recordAt(SchemaAccessTracker tracker, String tableName, int count, Instant accessedAt) {
+		if (accessedAt != null) {
+			tracker.recordTableAccess(tableName, count, accessedAt);
+		} else {
+			tracker.recordTableAccess(tableName, count);
+		}
+	}
+
+	private SchemaAccessTracker tenantTracker(SchemaAccessScope scope) {
+		return scope.tenantId() != null ? tenants.get(scope.tenantId()) : null;
+	}
+
+	private SchemaAccessTracker sessionTracker(SchemaAccessScope scope) {
+		if (scope.sessionId() == null) {
+			return null;
+		}
+		synchronized (sessions) {
+			return sessions.get(scope);
+		}
+	}
+
+	private int blendedCount(SchemaAccessScope scope, Blend blend, String tableName) {
+		double totalWeight = blend.totalWeight(scope);
+		if (totalWeight == 0) {
+			return 0;
+		}
+		double count = blend.global() * global.getAccessCount(tableName);
+		SchemaAccessTracker tenant = tenantTracker(scope);
+		if (tenant != null) {
+			count += blend.tenant() * tenant.getAccessCount(tableName);
+		}
+		SchemaAccessTracker session = sessionTracker(scope);
+		if (session != null) {
+			count += blend.session() * session.getAccessCount(tableName);
+		}
+		return (int) Math.floor(count / totalWeight);
+	}
+
+	private Map<String, Integer> blendedCounts(SchemaAccessScope scope, Blend blend) {
+		double totalWeight = blend.totalWeight(scope);
+		if (totalWeight == 0) {
+			return Map.of();
+		}
+		Map<String, Double> counts = new HashMap<>();
+		addWeighted(counts, global, blend.global());
+		addWeighted(counts, tenantTracker(scope), blend.tenant());
+		addWeighted(counts, sessionTracker(scope), blend.session());
+		Map<String, Integer> blended = new HashMap<>();
+		counts.forEach((table, count) -> {
+			int rounded = (int) Math.floor(count / totalWeight);
+			if (rounded > 0) {
+				blended.put(table, rounded);
+			}
+		});
+		return blended;
+	}
+
+	private static void addWeighted(Map<String, Double> counts, SchemaAccessTracker tracker, double weight) {
+		if (tracker == null || weight == 0) {
+			return;
+		}
+		tracker.getAllAccessCounts().forEach((table, count) -> counts.merge(table, weight * count, Double::sum));
+	}
+
+	private Set<String> hotTables(SchemaAccessScope scope, Blend blend, int threshold) {
+		return blendedCounts(scope, blend).entrySet().stream()
+				.filter(e -> e.getValue() >= threshold)
+				.map(Map.Entry::getKey)
+				.collect(Collectors.toSet());
+	}
+
+	/**
+	 * Rank the union of each level's top tables by blended count. A table outside the top
+	 * {@code limit} of every level is not considered, which keeps this O(levels × limit) on
+	 * trackers that maintain a ranking.
+	 */
+	private List<String> topTables(SchemaAccessScope scope, Blend blend, int limit, int threshold) {
+		Set<String> candidates = new LinkedHashSet<>();
+		addCandidates(candidates, global, blend.global(), limit);
+		addCandidates(candidates, tenantTracker(scope), blend.tenant(), limit);
+		addCandidates(candidates, sessionTracker(scope), blend.session(), limit);
+		Map<String, Integer> counts = new HashMap<>();
+		for (String table : candidates) {
+			int count = blendedCount(scope, blend, table);
+			if (count >= threshold && count > 0) {
+				counts.put(table, count);
+			}
+		}
+		return counts.entrySet().stream()
+				.sorted(Map.Entry.<String, Integer>comparingByValue().reversed()
+						.thenComparing(Map.Entry.comparingByKey()))
+				.limit(limit)
+				.map(Map.Entry::getKey)
+				.toList();
+	}
+
+	private static void addCandidates(Set<String> candidates, SchemaAccessTracker tracker, double weight, int limit) {
+		if (tracker != null && weight > 0) {
+			candidates.addAll(tracker.getTopTables(limit, 1));
+		}
+	}
+
+	/**
+	 * The tracker seen from one scope supplier and blend.
+	 */
+	private final class ScopedView implements SchemaAccessTracker {
+		private final Supplier<SchemaAccessScope> scope;
+		private final Blend blend;
+
+		ScopedView(Supplier<SchemaAccessScope> scope, Blend blend) {
+			this.scope = scope;
+			this.blend = blend;
+		}
+
+		@Override
+		public void recordTableAccess(String tableName) {
+			record(currentScope(scope), tableName, 1, null);
+		}
+
+		@Override
+		public void recordTableAccess(String tableName, int count) {
+			record(currentScope(scope), tableName, count, null);
+		}
+
+		@Override
+		public void recordTableAccess(String tableName, int count, Instant accessedAt) {
+			record(currentScope(scope), tableName, count, Objects.requireNonNull(accessedAt));
+		}
+
+		@Override
+		public int getAccessCount(String tableName) {
+			return blendedCount(currentScope(scope), blend, tableName);
+		}
+
+		@Override
+		public Set<String> getHotTables(int threshold) {
+			return hotTables(currentScope(scope), blend, threshold);
+		}
+
+		@Override
+		public List<String> getTopTables(int limit, int threshold) {
+			return topTables(currentScope(scope), blend, limit, threshold);
+		}
+
+		@Override
+		public Map<String, Integer> getAllAccessCounts() {
+			return blendedCounts(currentScope(scope), blend);
+		}
+
+		/**
+		 * Resets the finest level of the scope: its session, else its tenant, else everything.
+		 */
+		@Override
+		public void reset() {
+			SchemaAccessScope current = currentScope(scope);
+			if (current.sessionId() != null) {
+				synchronized (sessions) {
+					sessions.remove(current);
+				}
+			} else if (current.tenantId() != null) {
+				tenants.remove(current.tenantId());
+			} else {
+				HierarchicalSchemaAccessTracker.this.reset();
+			}
+		}
+	}
+
+	/**
+	 * Builder for {@link HierarchicalSchemaAccessTracker}.
+	 */
+	public static final class Builder {
+		private Supplier<? extends SchemaAccessTracker> trackerFactory = () -> DecayingSchemaAccessTracker.builder().build();
+		private Supplier<SchemaAccessScope> scopeSupplier = () -> SchemaAccessScope.GLOBAL;
+		private Blend blend = Blend.DEFAULT;
+		private int maxSessions = 10_000;
+
+		private Builder() {
+		}
+
+		/**
+		 * Creates the tracker of each level. Defaults to a {@link DecayingSchemaAccessTracker}
+		 * with default settings.
+		 */
+		public Builder withTrackerFactory(Supplier<? extends SchemaAccessTracker> trackerFactory) {
+			this.trackerFactory = Objects.requireNonNull(trackerFactory, "trackerFactory must not be null");
+			return this;
+		}
+
+		/**
+		 * Supplies the scope of the current call; a {@code null} scope counts as
+		 * {@link SchemaAccessScope#GLOBAL}. Defaults to {@link SchemaAccessScope#GLOBAL}.
+		 */
+		public Builder withScope(Supplier<SchemaAccessScope> scopeSupplier) {
+			this.scopeSupplier = Objects.requireNonNull(scopeSupplier, "scopeSupplier must not be null");
+			return this;
+		}
+
+		/**
+		 * How levels are combined when reading. Defaults to {@link Blend#DEFAULT}.
+		 */
+		public Builder withBlend(Blend blend) {
+			this.blend = Objects.requireNonNull(blend, "blend must not be null");
+			return this;
+		}
+
+		/**
+		 * Maximum number of sessions tracked; the least recently used session is discarded
+		 * beyond it. Defaults to 10000.
+		 */
+		public Builder withMaxSessions(int maxSessions) {
+			if (maxSessions < 1) {
+				throw new IllegalArgumentException("maxSessions must be >= 1");
+			}
+			this.maxSessions = maxSessions;
+			return this;
+		}
+
+		public HierarchicalSchemaAccessTracker build() {
+			return new HierarchicalSchemaAccessTracker(this);
+		}
+	}
+}
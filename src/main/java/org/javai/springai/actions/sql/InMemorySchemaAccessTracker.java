@@ -40,6 +40,14 @@ public class InMemorySchemaAccessTracker implements SchemaAccessTracker {
 		}
 	}
 
+	@Override
+	public void recordTableAccess(String tableName, int count) {
+		if (tableName != null && count > 0) {
+			accessCounts.computeIfAbsent(tableName, k -> new AtomicInteger(0))
+					.addAndGet(count);
+		}
+	}
+
 	@Override
 	public int getAccessCount(String tableName) {
 		AtomicInteger count = accessCounts.get(tableName);
@@ -2,7 +2,6 @@ package org.javai.springai.actions.sql;
 
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -20,6 +19,13 @@ import java.util.Optional;
  *     .addColumn("orders", "id", "Primary key", "bigint", new String[]{"pk"}, null);
  * }</pre>
  * 
+ * <h2>Concurrency</h2>
+ * 
+ * <p>The catalog may be mutated while it is in use. Mutators are synchronized, and readers
+ * see an immutable {@link SqlCatalogSnapshot} of the latest version; a {@link Query} validated
+ * against the catalog uses the snapshot that was current when validation started. To replace
+ * a whole schema at once, wrap catalogs in a {@link ReloadableSqlCatalog}.</p>
+ * 
  * <h2>Model Name Mapping</h2>
  * 
  * <p>When model name mapping is enabled, the catalog provides alternative names
@@ -40,15 +46,17 @@ public final class InMemorySqlCatalog implements SqlCatalog {
 	private static final List<String> EMPTY = List.of();
 
 	private final Map<String, TableBuilder> tables = new LinkedHashMap<>();
-	private Query.Dialect dialect = Query.Dialect.ANSI;
-	private boolean validateColumns = false;
-	private boolean modelNamesEnabled = false;
-
-	// Model name mappings (lazily populated when model names are enabled)
-	private Map<String, String> tableNameToModelName = null;  // tableName -> modelName
-	private Map<String, String> modelNameToTableName = null;  // modelName -> tableName
-	private Map<String, String> columnNameToModelName = null; // "table.column" -> modelName
-	private Map<String, String> modelNameToColumnName = null; // "tableModelName.columnModelName" -> columnName
+	private volatile Query.Dialect dialect = Query.Dialect.ANSI;
+	private volatile SqlDialectRenderer dialectRenderer = null;
+	private volatile QueryLimits queryLimits = QueryLimits.NONE;
+	private volatile boolean validateColumns = false;
+	private volatile boolean modelNamesEnabled = false;
+	private volatile int queryCacheSize = QueryCache.DEFAULT_MAX_ENTRIES;
+
+	// Incremented on every mutation; identifies the contents of the current snapshot
+	private volatile long version = 0;
+	// Frozen tables and lookup index for the current version (lazily rebuilt after mutation)
+	private volatile SqlCatalogSnapshot snapshot = null;
 
 	/**
 	 * Sets the target SQL dialect for queries using this catalog.
@@ -59,8 +67,9 @@ public final class InMemorySqlCatalog implements SqlCatalog {
 	 * @param dialect the target SQL dialect
 	 * @return this catalog for fluent chaining
 	 */
-	public InMemorySqlCatalog withDialect(Query.Dialect dialect) {
+	public synchronized InMemorySqlCatalog withDialect(Query.Dialect dialect) {
 		this.dialect = dialect != null ? dialect : Query.Dialect.ANSI;
+		mutated();
 		return this;
 	}
 
@@ -69,6 +78,46 @@ public final class InMemorySqlCatalog implements SqlCatalog {
 		return dialect;
 	}
 
+	/**
+	 * Sets the renderer for queries using this catalog, in place of the renderer of its
+	 * {@link #withDialect(Query.Dialect) dialect}. Use this for databases without a built-in
+	 * dialect, or to adjust how a built-in dialect renders.
+	 * 
+	 * @param dialectRenderer the renderer, or {@code null} to use the dialect's renderer
+	 * @return this catalog for fluent chaining
+	 */
+	public synchronized InMemorySqlCatalog withDialectRenderer(SqlDialectRenderer dialectRenderer) {
+		this.dialectRenderer = dialectRenderer;
+		mutated();
+		return this;
+	}
+
+	@Override
+	public SqlDialectRenderer dialectRenderer() {
+		SqlDialectRenderer renderer = dialectRenderer;
+		return renderer != null ? renderer : dialect.renderer();
+	}
+
+	/**
+	 * Sets the limits enforced on queries using this catalog.
+	 * 
+	 * <p>{@link Query#sqlString()} then bounds every query to the row limit, and
+	 * {@link Query#limits()} gives the statement timeout to apply when executing it.</p>
+	 * 
+	 * @param queryLimits the limits, or {@code null} for none
+	 * @return this catalog for fluent chaining
+	 */
+	public synchronized InMemorySqlCatalog withQueryLimits(QueryLimits queryLimits) {
+		this.queryLimits = queryLimits != null ? queryLimits : QueryLimits.NONE;
+		mutated();
+		return this;
+	}
+
+	@Override
+	public QueryLimits queryLimits() {
+		return queryLimits;
+	}
+
 	/**
 	 * Enables or disables column-level validation for queries using this catalog.
 	 * 
@@ -79,8 +128,9 @@ public final class InMemorySqlCatalog implements SqlCatalog {
 	 * @param validateColumns true to enable column validation
 	 * @return this catalog for fluent chaining
 	 */
-	public InMemorySqlCatalog withValidateColumns(boolean validateColumns) {
+	public synchronized InMemorySqlCatalog withValidateColumns(boolean validateColumns) {
 		this.validateColumns = validateColumns;
+		mutated();
 		return this;
 	}
 
@@ -89,6 +139,29 @@ public final class InMemorySqlCatalog implements SqlCatalog {
 		return validateColumns;
 	}
 
+	/**
+	 * Sets how many validated queries are cached per catalog version.
+	 * 
+	 * <p>{@link Query#fromSql(String, SqlCatalog)} serves repeated SQL from the cache without
+	 * parsing or validating it again. The cache is emptied whenever the catalog changes.</p>
+	 * 
+	 * @param queryCacheSize the maximum number of cached queries; {@code 0} disables caching
+	 * @return this catalog for fluent chaining
+	 */
+	public synchronized InMemorySqlCatalog withQueryCacheSize(int queryCacheSize) {
+		if (queryCacheSize < 0) {
+			throw new IllegalArgumentException("queryCacheSize must not be negative");
+		}
+		this.queryCacheSize = queryCacheSize;
+		mutated();
+		return this;
+	}
+
+	@Override
+	public int queryCacheSize() {
+		return queryCacheSize;
+	}
+
 	/**
 	 * Enables or disables model name mapping for this catalog.
 	 * 
@@ -103,13 +176,10 @@ public final class InMemorySqlCatalog implements SqlCatalog {
 	 * @param enabled true to enable model name mapping
 	 * @return this catalog for fluent chaining
 	 */
-	public InMemorySqlCatalog withModelNames(boolean enabled) {
+	public synchronized InMemorySqlCatalog withModelNames(boolean enabled) {
 		this.modelNamesEnabled = enabled;
 		// Clear any existing mappings when toggling
-		this.tableNameToModelName = null;
-		this.modelNameToTableName = null;
-		this.columnNameToModelName = null;
-		this.modelNameToColumnName = null;
+		mutated();
 		return this;
 	}
 
@@ -120,75 +190,31 @@ public final class InMemorySqlCatalog implements SqlCatalog {
 
 	@Override
 	public Optional<String> getTableModelName(String tableName) {
-		if (!modelNamesEnabled || tableName == null) {
-			return Optional.empty();
-		}
-		ensureModelNameMappingsBuilt();
-		return Optional.ofNullable(tableNameToModelName.get(tableName));
+		return snapshot().getTableModelName(tableName);
 	}
 
 	@Override
 	public Optional<String> getColumnModelName(String tableName, String columnName) {
-		if (!modelNamesEnabled || tableName == null || columnName == null) {
-			return Optional.empty();
-		}
-		ensureModelNameMappingsBuilt();
-		String key = tableName + "." + columnName;
-		return Optional.ofNullable(columnNameToModelName.get(key));
+		return snapshot().getColumnModelName(tableName, columnName);
 	}
 
 	@Override
 	public Optional<String> resolveTableFromModelName(String modelName) {
-		if (!modelNamesEnabled || modelName == null) {
-			return Optional.empty();
-		}
-		ensureModelNameMappingsBuilt();
-		return Optional.ofNullable(modelNameToTableName.get(modelName));
+		return snapshot().resolveTableFromModelName(modelName);
 	}
 
 	@Override
 	public Optional<String> resolveColumnFromModelName(String tableModelName, String columnModelName) {
-		if (!modelNamesEnabled || tableModelName == null || columnModelName == null) {
-			return Optional.empty();
-		}
-		ensureModelNameMappingsBuilt();
-		String key = tableModelName + "." + columnModelName;
-		return Optional.ofNullable(modelNameToColumnName.get(key));
+		return snapshot().resolveColumnFromModelName(tableModelName, columnModelName);
 	}
 
 	@Override
 	public Map<String, String> modelNameMappings() {
-		if (!modelNamesEnabled) {
-			return Map.of();
-		}
-		ensureModelNameMappingsBuilt();
-		Map<String, String> all = new LinkedHashMap<>(modelNameToTableName);
-		// For column model names, include table context
-		modelNameToColumnName.forEach((key, value) -> {
-			// key is "tableModelName.columnModelName", extract just the column model name for display
-			String[] parts = key.split("\\.", 2);
-			if (parts.length == 2) {
-				String tableModelName = parts[0];
-				String columnModelName = parts[1];
-				String tableName = modelNameToTableName.get(tableModelName);
-				all.put(columnModelName, tableName + "." + value);
-			}
-		});
-		return Collections.unmodifiableMap(all);
-	}
-
-	/**
-	 * Invalidates model name mappings so they will be rebuilt on next access.
-	 */
-	private void invalidateModelNameMappings() {
-		tableNameToModelName = null;
-		modelNameToTableName = null;
-		columnNameToModelName = null;
-		modelNameToColumnName = null;
+		return snapshot().modelNameMappings();
 	}
 
 	/**
-	 * Lazily builds model name mappings for all tables and columns.
+	 * Returns the lookup index of the current snapshot.
 	 * 
 	 * <p>Model name strategy:</p>
 	 * <ul>
@@ -196,50 +222,79 @@ public final class InMemorySqlCatalog implements SqlCatalog {
 	 *   <li>If no synonyms, falls back to generated identifier (full obfuscation)</li>
 	 * </ul>
 	 */
-	private void ensureModelNameMappingsBuilt() {
-		if (tableNameToModelName != null) {
-			return; // Already built
-		}
+	@Override
+	public SqlCatalogIndex index() {
+		return snapshot().index();
+	}
 
-		tableNameToModelName = new HashMap<>();
-		modelNameToTableName = new HashMap<>();
-		columnNameToModelName = new HashMap<>();
-		modelNameToColumnName = new HashMap<>();
-
-		for (TableBuilder table : tables.values()) {
-			// Use first synonym as model name if available, otherwise generate one
-			String tableModelName;
-			if (!table.synonyms.isEmpty()) {
-				tableModelName = table.synonyms.getFirst();  // First synonym is the model name
-			} else {
-				String[] tagsArray = table.tags.toArray(new String[0]);
-				tableModelName = TokenGenerator.tableToken(table.name, tagsArray);  // Generated fallback
-			}
-			tableNameToModelName.put(table.name, tableModelName);
-			modelNameToTableName.put(tableModelName, table.name);
-
-			// Generate column model names (same strategy)
-			for (ColumnBuilder column : table.columns.values()) {
-				String columnModelName;
-				if (!column.synonyms.isEmpty()) {
-					columnModelName = column.synonyms.getFirst();  // First synonym is the model name
-				} else {
-					columnModelName = TokenGenerator.columnToken(table.name, column.name);  // Generated fallback
+	/**
+	 * Returns the version of the catalog's contents, incremented by every mutation.
+	 */
+	@Override
+	public long version() {
+		return version;
+	}
+
+	/**
+	 * Returns the snapshot for the current version, freezing the builders on first access
+	 * after a mutation. Tables whose builders did not change are reused from the previous
+	 * snapshot.
+	 * 
+	 * <p>The snapshot is immutable and safe to use from any thread while the catalog continues
+	 * to be mutated.</p>
+	 */
+	@Override
+	public SqlCatalogSnapshot snapshot() {
+		SqlCatalogSnapshot current = snapshot;
+		if (current != null) {
+			return current;
+		}
+		synchronized (this) {
+			if (snapshot == null) {
+				Map<String, SqlTable> frozen = new LinkedHashMap<>();
+				for (TableBuilder builder : tables.values()) {
+					frozen.put(builder.name, builder.build());
 				}
-				String nameKey = table.name + "." + column.name;
-				String modelKey = tableModelName + "." + columnModelName;
-				columnNameToModelName.put(nameKey, columnModelName);
-				modelNameToColumnName.put(modelKey, column.name);
+				Map<String, SqlTable> frozenTables = Collections.unmodifiableMap(frozen);
+				SqlCatalogIndex index = modelNamesEnabled
+						? SqlCatalogIndex.of(frozenTables, InMemorySqlCatalog::tableModelName,
+								InMemorySqlCatalog::columnModelName)
+						: SqlCatalogIndex.of(frozenTables, null, null);
+				snapshot = new SqlCatalogSnapshot(version, frozenTables, index, dialect, dialectRenderer(),
+						queryLimits, validateColumns, modelNamesEnabled, queryCacheSize);
 			}
+			return snapshot;
+		}
+	}
+
+	static String tableModelName(SqlTable table) {
+		if (!table.synonymsOrEmpty().isEmpty()) {
+			return table.synonyms().getFirst();  // First synonym is the model name
 		}
+		return TokenGenerator.tableToken(table.name(), table.tags().toArray(new String[0]));  // Generated fallback
 	}
 
-	public InMemorySqlCatalog addTable(String tableName, String description, String... tags) {
+	static String columnModelName(SqlTable table, SqlColumn column) {
+		if (column.synonyms() != null && !column.synonyms().isEmpty()) {
+			return column.synonyms().getFirst();  // First synonym is the model name
+		}
+		return TokenGenerator.columnToken(table.name(), column.name());  // Generated fallback
+	}
+
+	/**
+	 * Starts a new version; the snapshot is rebuilt on next access.
+	 */
+	private void mutated() {
+		version++;
+		snapshot = null;
+	}
+
+	public synchronized InMemorySqlCatalog addTable(String tableName, String description, String... tags) {
 		if (tableName == null || tableName.isBlank()) {
 			return this;
 		}
 		tables.putIfAbsent(tableName, new TableBuilder(tableName, description, tags));
-		invalidateModelNameMappings();
+		mutated();
 		return this;
 	}
 
@@ -260,7 +315,7 @@ public final class InMemorySqlCatalog implements SqlCatalog {
 	 * @param synonyms alternative names that should map to this table
 	 * @return this catalog for fluent chaining
 	 */
-	public InMemorySqlCatalog withSynonyms(String tableName, String... synonyms) {
+	public synchronized InMemorySqlCatalog withSynonyms(String tableName, String... synonyms) {
 		if (tableName == null || tableName.isBlank() || synonyms == null || synonyms.length == 0) {
 			return this;
 		}
@@ -272,6 +327,8 @@ public final class InMemorySqlCatalog implements SqlCatalog {
 					builder.synonyms.add(synonym);
 				}
 			}
+			builder.changed();
+			mutated();
 		}
 		return this;
 	}
@@ -304,14 +361,15 @@ public final class InMemorySqlCatalog implements SqlCatalog {
 		}
 	}
 
-	public InMemorySqlCatalog addColumn(String tableName, String columnName, String description, String dataType,
+	public synchronized InMemorySqlCatalog addColumn(String tableName, String columnName, String description, String dataType,
 			String[] tags, String[] constraints) {
 		if (tableName == null || tableName.isBlank() || columnName == null || columnName.isBlank()) {
 			return this;
 		}
 		TableBuilder table = tables.computeIfAbsent(tableName, t -> new TableBuilder(tableName, null, null));
 		table.columns.put(columnName, new ColumnBuilder(columnName, description, dataType, tags, constraints));
-		invalidateModelNameMappings();
+		table.changed();
+		mutated();
 		return this;
 	}
 
@@ -333,7 +391,7 @@ public final class InMemorySqlCatalog implements SqlCatalog {
 	 * @param synonyms alternative names that should map to this column
 	 * @return this catalog for fluent chaining
 	 */
-	public InMemorySqlCatalog withColumnSynonyms(String tableName, String columnName, String... synonyms) {
+	public synchronized InMemorySqlCatalog withColumnSynonyms(String tableName, String columnName, String... synonyms) {
 		if (tableName == null || tableName.isBlank() || columnName == null || columnName.isBlank() 
 				|| synonyms == null || synonyms.length == 0) {
 			return this;
@@ -350,6 +408,8 @@ public final class InMemorySqlCatalog implements SqlCatalog {
 					column.synonyms.add(synonym);
 				}
 			}
+			table.changed();
+			mutated();
 		}
 		return this;
 	}
@@ -382,13 +442,13 @@ public final class InMemorySqlCatalog implements SqlCatalog {
 		}
 	}
 
+	/**
+	 * Returns the tables of the current snapshot. The map and its tables are immutable and
+	 * shared by all callers until the catalog is next mutated.
+	 */
 	@Override
 	public Map<String, SqlTable> tables() {
-		Map<String, SqlTable> copy = new LinkedHashMap<>();
-		for (TableBuilder builder : tables.values()) {
-			copy.put(builder.name, builder.build());
-		}
-		return Collections.unmodifiableMap(copy);
+		return snapshot().tables();
 	}
 
 	private static final class TableBuilder {
@@ -398,6 +458,7 @@ public final class InMemorySqlCatalog implements SqlCatalog {
 		private final Map<String, ColumnBuilder> columns;
 		private final List<String> constraints;
 		private final List<String> synonyms;
+		private SqlTable built;
 
 		TableBuilder(String name, String description, String[] tags) {
 			this.name = name;
@@ -408,11 +469,21 @@ public final class InMemorySqlCatalog implements SqlCatalog {
 			this.synonyms = new ArrayList<>();
 		}
 
+		/**
+		 * Returns the frozen table, built once per change to this builder or its columns.
+		 */
 		SqlTable build() {
-			List<SqlCatalog.SqlColumn> builtColumns = columns.values().stream()
-					.map(ColumnBuilder::build)
-					.toList();
-			return new SqlTable(name, description, builtColumns, tags, constraints, List.copyOf(synonyms));
+			if (built == null) {
+				List<SqlCatalog.SqlColumn> builtColumns = columns.values().stream()
+						.map(ColumnBuilder::build)
+						.toList();
+				built = new SqlTable(name, description, builtColumns, tags, constraints, List.copyOf(synonyms));
+			}
+			return built;
+		}
+
+		void changed() {
+			built = null;
 		}
 	}
 
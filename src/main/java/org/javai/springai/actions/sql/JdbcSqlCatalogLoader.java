@@ -0,0 +1,611 @@
+package org.javai.springai.actions.sql;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.function.Supplier;
+import javax.sql.DataSource;
+import org.javai.springai.actions.sql.SqlCatalog.SqlColumn;
+import org.javai.springai.actions.sql.SqlCatalog.SqlTable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Builds a {@link SqlCatalog} from a database's {@link DatabaseMetaData}.
+ *
+ * <p>Tables and views become catalog tables, with their remarks as descriptions. Columns carry
+ * their type name and remarks; primary key columns are tagged {@code pk} and foreign key
+ * columns {@code fk:table.column}, the form {@link SqlCatalogContextContributor} explains to the
+ * model for JOINs.</p>
+ *
+ * <pre>{@code
+ * JdbcSqlCatalogLoader loader = JdbcSqlCatalogLoader.builder(dataSource)
+ *     .withSchemas("sales", "finance")
+ *     .withDialect(Query.Dialect.POSTGRES)
+ *     .build();
+ * ReloadableSqlCatalog catalog = new ReloadableSqlCatalog(loader);
+ * }</pre>
+ *
+ * <h2>Performance</h2>
+ *
+ * <p>Each schema is introspected on its own connection, in parallel. Unless an executor is
+ * configured, each load starts its own virtual threads, at most
+ * {@link Builder#withParallelism(int) parallelism} of them, and stops them before returning.
+ * Columns are read with one metadata query per schema, and so are keys where the driver
+ * accepts a {@code null} table name; otherwise keys are read with one query per table.</p>
+ *
+ * <p>The loader remembers a fingerprint of every table's metadata. On {@link #refresh()} a
+ * table whose fingerprint is unchanged keeps its previous {@link SqlTable} instance, and if no
+ * table changed the previous catalog is returned as is, so a {@link ReloadableSqlCatalog}
+ * keeps its version and nothing cached for it is invalidated.</p>
+ *
+ * <p>Thread-safe; concurrent loads are serialized.</p>
+ */
+public final class JdbcSqlCatalogLoader implements Supplier<SqlCatalog> {
+
+	private static final Logger logger = LoggerFactory.getLogger(JdbcSqlCatalogLoader.class);
+
+	private static final Set<String> SYSTEM_SCHEMAS = Set.of(
+			"information_schema", "pg_catalog", "pg_toast", "sys", "mysql", "performance_schema");
+
+	private static final ThreadFactory THREAD_FACTORY = Thread.ofVirtual().name("sql-catalog-loader-", 0).factory();
+
+	private final DataSource dataSource;
+	private final String catalogName;
+	private final List<String> schemas;
+	private final String tablePattern;
+	private final String[] tableTypes;
+	private final boolean qualifyNames;
+	private final Executor executor;
+	private final int parallelism;
+	private final Query.Dialect dialect;
+	private final SqlDialectRenderer dialectRenderer;
+	private final QueryLimits queryLimits;
+	private final boolean validateColumns;
+	private final int queryCacheSize;
+	private final boolean modelNames;
+
+	// Cleared once the driver rejects key queries for a whole schema
+	private volatile boolean keysPerSchema = true;
+
+	// State of the previous load, guarded by this
+	private Map<String, LoadedTable> loaded = Map.of();
+	private SqlCatalogSnapshot current;
+	private long version;
+
+	private JdbcSqlCatalogLoader(Builder builder) {
+		this.dataSource = builder.dataSource;
+		this.catalogName = builder.catalogName;
+		this.schemas = List.copyOf(builder.schemas);
+		this.tablePattern = builder.tablePattern;
+		this.tableTypes = builder.tableTypes.toArray(new String[0]);
+		this.qualifyNames = builder.qualifyNames;
+		this.executor = builder.executor;
+		this.parallelism = builder.parallelism;
+		this.dialect = builder.dialect;
+		this.dialectRenderer = builder.dialectRenderer != null ? builder.dialectRenderer : builder.dialect.renderer();
+		this.queryLimits = builder.queryLimits;
+		this.validateColumns = builder.validateColumns;
+		this.queryCacheSize = builder.queryCacheSize;
+		this.modelNames = builder.modelNames;
+	}
+
+	/**
+	 * Create a builder reading metadata through the given data source.
+	 *
+	 * @param dataSource source of connections; one is opened per schema
+	 * @return a new builder
+	 */
+	public static Builder builder(DataSource dataSource) {
+		return new Builder(dataSource);
+	}
+
+	/**
+	 * Load the catalog, reusing unchanged tables from the previous load.
+	 *
+	 * @return the catalog
+	 * @throws SqlCatalogLoadException if the metadata cannot be read
+	 */
+	@Override
+	public SqlCatalog get() {
+		return refresh().catalog();
+	}
+
+	/**
+	 * Introspect the database and compare every table with the previous load.
+	 *
+	 * @return the catalog and the tables that were added, changed or removed
+	 * @throws SqlCatalogLoadException if the metadata cannot be read
+	 */
+	public synchronized Refresh refresh() {
+		List<String> targetSchemas = schemas.isEmpty() ? discoverSchemas() : schemas;
+		if (executor != null) {
+			return refresh(targetSchemas, executor);
+		}
+		int threads = Math.max(1, Math.min(parallelism, targetSchemas.size()));
+		try (ExecutorService loaderThreads = Executors.newFixedThreadPool(threads, THREAD_FACTORY)) {
+			return refresh(targetSchemas, loaderThreads);
+		}
+	}
+
+	private Refresh refresh(List<String> targetSchemas, Executor introspectionExecutor) {
+		List<CompletableFuture<List<TableMetadata>>> tasks = new ArrayList<>(targetSchemas.size());
+		for (String schema : targetSchemas) {
+			tasks.add(CompletableFuture.supplyAsync(() -> introspect(schema), introspectionExecutor));
+		}
+
+		Map<String, LoadedTable> next = new LinkedHashMap<>();
+		Set<String> added = new LinkedHashSet<>();
+		Set<String> changed = new LinkedHashSet<>();
+		for (CompletableFuture<List<TableMetadata>> task : tasks) {
+			for (TableMetadata metadata : join(task)) {
+				if (next.containsKey(metadata.name())) {
+					logger.warn("Table {} exists in several schemas; keeping the first. "
+							+ "Enable qualified names to load both", metadata.name());
+					continue;
+				}
+				LoadedTable previous = loaded.get(metadata.name());
+				if (previous != null && previous.fingerprint() == metadata.fingerprint()) {
+					next.put(metadata.name(), previous);
+					continue;
+				}
+				(previous == null ? added : changed).add(metadata.name());
+				next.put(metadata.name(), new LoadedTable(metadata.fingerprint(), metadata.toTable()));
+			}
+		}
+		Set<String> removed = new LinkedHashSet<>(loaded.keySet());
+		removed.removeAll(next.keySet());
+
+		if (current == null || !added.isEmpty() || !changed.isEmpty() || !removed.isEmpty()) {
+			current = snapshotOf(next, ++version);
+			logger.debug("Loaded SQL catalog version {}: {} tables ({} added, {} changed, {} removed)",
+					version, next.size(), added.size(), changed.size(), removed.size());
+		}
+		loaded = next;
+		return new Refresh(current, Set.copyOf(added), Set.copyOf(changed), Set.copyOf(removed));
+	}
+
+	private SqlCatalogSnapshot snapshotOf(Map<String, LoadedTable> tables, long version) {
+		Map<String, SqlTable> frozen = new LinkedHashMap<>();
+		tables.forEach((name, table) -> frozen.put(name, table.table()));
+		Map<String, SqlTable> frozenTables = Collections.unmodifiableMap(frozen);
+		SqlCatalogIndex index = modelNames
+				? SqlCatalogIndex.of(frozenTables, InMemorySqlCatalog::tableModelName,
+						InMemorySqlCatalog::columnModelName)
+				: SqlCatalogIndex.of(frozenTables, null, null);
+		return new SqlCatalogSnapshot(version, frozenTables, index, dialect, dialectRenderer, queryLimits,
+				validateColumns, modelNames, queryCacheSize);
+	}
+
+	private List<String> discoverSchemas() {
+		List<String> discovered = new ArrayList<>();
+		try (Connection connection = dataSource.getConnection();
+				ResultSet rs = connection.getMetaData().getSchemas()) {
+			while (rs.next()) {
+				String schema = rs.getString("TABLE_SCHEM");
+				String catalog = rs.getString("TABLE_CATALOG");
+				if (schema != null && !SYSTEM_SCHEMAS.contains(schema.toLowerCase(Locale.ROOT))
+						&& (catalogName == null || catalogName.equals(catalog))) {
+					discovered.add(schema);
+				}
+			}
+		} catch (SQLException e) {
+			throw new SqlCatalogLoadException("Failed to list database schemas", e);
+		}
+		// Databases without schemas (e.g. MySQL) report none; read the whole catalog instead
+		if (discovered.isEmpty()) {
+			discovered.add(null);
+		}
+		return discovered;
+	}
+
+	private List<TableMetadata> introspect(String schema) {
+		try (Connection connection = dataSource.getConnection()) {
+			DatabaseMetaData metaData = connection.getMetaData();
+			Map<String, TableMetadata> tables = new LinkedHashMap<>();
+			try (ResultSet rs = metaData.getTables(catalogName, schema, tablePattern, tableTypes)) {
+				while (rs.next()) {
+					String table = rs.getString("TABLE_NAME");
+					tables.put(table, new TableMetadata(
+							qualify(rs.getString("TABLE_SCHEM"), table),
+							rs.getString("REMARKS"),
+							rs.getString("TABLE_TYPE")));
+				}
+			}
+			try (ResultSet rs = metaData.getColumns(catalogName, schema, tablePattern, "%")) {
+				while (rs.next()) {
+					TableMetadata table = tables.get(rs.getString("TABLE_NAME"));
+					if (table != null) {
+						table.columns.add(new ColumnMetadata(
+								rs.getString("COLUMN_NAME"),
+								rs.getString("TYPE_NAME"),
+								rs.getString("REMARKS"),
+								rs.getInt("ORDINAL_POSITION")));
+					}
+				}
+			}
+			if (!keysPerSchema || !readKeys(metaData, schema, tables)) {
+				for (Map.Entry<String, TableMetadata> entry : tables.entrySet()) {
+					readKeys(metaData, schema, entry.getKey(), entry.getValue());
+				}
+			}
+			List<TableMetadata> result = new ArrayList<>(tables.values());
+			result.forEach(TableMetadata::seal);
+			return result;
+		} catch (SQLException e) {
+			throw new SqlCatalogLoadException(
+					"Failed to read metadata of schema " + (schema != null ? schema : "<default>"), e);
+		}
+	}
+
+	/**
+	 * Read the keys of every table of a schema with one query each for primary and foreign
+	 * keys. JDBC does not require drivers to accept a {@code null} table name here; if the
+	 * driver rejects it, returns false and the loader reads keys per table from then on.
+	 */
+	private boolean readKeys(DatabaseMetaData metaData, String schema, Map<String, TableMetadata> tables) {
+		Map<String, Set<String>> primaryKeys = new HashMap<>();
+		Map<String, Map<String, String>> foreignKeys = new HashMap<>();
+		try {
+			try (ResultSet rs = metaData.getPrimaryKeys(catalogName, schema, null)) {
+				while (rs.next()) {
+					primaryKeys.computeIfAbsent(rs.getString("TABLE_NAME"), table -> new LinkedHashSet<>())
+							.add(rs.getString("COLUMN_NAME"));
+				}
+			}
+			try (ResultSet rs = metaData.getImportedKeys(catalogName, schema, null)) {
+				while (rs.next()) {
+					String target = qualify(rs.getString("PKTABLE_SCHEM"), rs.getString("PKTABLE_NAME"));
+					foreignKeys.computeIfAbsent(rs.getString("FKTABLE_NAME"), table -> new HashMap<>())
+							.put(rs.getString("FKCOLUMN_NAME"), "fk:" + target + "." + rs.getString("PKCOLUMN_NAME"));
+				}
+			}
+		} catch (SQLException | RuntimeException e) {
+			logger.debug("Driver cannot read keys of a whole schema, reading them per table: {}", e.getMessage());
+			keysPerSchema = false;
+			return false;
+		}
+		tables.forEach((name, table) -> {
+			table.primaryKey.addAll(primaryKeys.getOrDefault(name, Set.of()));
+			table.foreignKeys.putAll(foreignKeys.getOrDefault(name, Map.of()));
+		});
+		return true;
+	}
+
+	private void readKeys(DatabaseMetaData metaData, String schema, String tableName, TableMetadata table)
+			throws SQLException {
+		try (ResultSet rs = metaData.getPrimaryKeys(catalogName, schema, tableName)) {
+			while (rs.next()) {
+				table.primaryKey.add(rs.getString("COLUMN_NAME"));
+			}
+		}
+		try (ResultSet rs = metaData.getImportedKeys(catalogName, schema, tableName)) {
+			while (rs.next()) {
+				String target = qualify(rs.getString("PKTABLE_SCHEM"), rs.getString("PKTABLE_NAME"));
+				table.foreignKeys.put(rs.getString("FKCOLUMN_NAME"),
+						"fk:" + target + "." + rs.getString("PKCOLUMN_NAME"));
+			}
+		}
+	}
+
+	private String qualify(String schema, String table) {
+		return qualifyNames && schema != null ? schema + "." + table : table;
+	}
+
+	private static <T> T join(CompletableFuture<T> task) {
+		try {
+			return task.join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException cause) {
+				throw cause;
+			}
+			throw e;
+		}
+	}
+
+	/**
+	 * Outcome of a {@link #refresh()}.
+	 *
+	 * @param catalog the loaded catalog; the previous instance if nothing changed
+	 * @param added tables that were not in the previous load
+	 * @param changed tables whose metadata changed since the previous load
+	 * @param removed tables that are no longer present
+	 */
+	public record Refresh(
+			SqlCatalogSnapshot catalog,
+			Set<String> added,
+			Set<String> changed,
+			Set<String> removed
+	) {
+
+		/**
+		 * Whether any table was added, changed or removed.
+		 */
+		public boolean hasChanges() {
+			return !added.isEmpty() || !changed.isEmpty() || !removed.isEmpty();
+		}
+	}
+
+	/**
+	 * A table as of the previous load.
+	 */
+	private record LoadedTable(long fingerprint, SqlTable table) {
+	}
+
+	/**
+	 * Raw metadata of one table, accumulated from several metadata queries.
+	 */
+	private static final class TableMetadata {
+		private final String name;
+		private final String remarks;
+		private final String type;
+		private final List<ColumnMetadata> columns = new ArrayList<>();
+		private final Set<String> primaryKey = new LinkedHashSet<>();
+		private final Map<String, String> foreignKeys = new HashMap<>();
+		private long fingerprint;
+
+		TableMetadata(String name, String remarks, String type) {
+			this.name = name;
+			this.remarks = remarks;
+			this.type = type;
+		}
+
+		String name() {
+			return name;
+		}
+
+		long fingerprint() {
+			return fingerprint;
+		}
+
+		/**
+		 * Orders the columns and computes the fingerprint once all metadata has been read.
+		 */
+		void seal() {
+			columns.sort((a, b) -> Integer.compare(a.position(), b.position()));
+			Fingerprint hash = new Fingerprint().add(name).add(remarks).add(type);
+			for (ColumnMetadata column : columns) {
+				hash.add(column.name()).add(column.typeName()).add(column.remarks())
+						.add(primaryKey.contains(column.name()) ? "pk" : "")
+						.add(foreignKeys.get(column.name()));
+			}
+			fingerprint = hash.value();
+		}
+
+		SqlTable toTable() {
+			List<SqlColumn> builtColumns = new ArrayList<>(columns.size());
+			for (ColumnMetadata column : columns) {
+				List<String> tags = new ArrayList<>(2);
+				if (primaryKey.contains(column.name())) {
+					tags.add("pk");
+				}
+				String foreignKey = foreignKeys.get(column.name());
+				if (foreignKey != null) {
+					tags.add(foreignKey);
+				}
+				builtColumns.add(new SqlColumn(column.name(), column.remarks(),
+						column.typeName() != null ? column.typeName().toLowerCase(Locale.ROOT) : null,
+						List.copyOf(tags), List.of(), List.of()));
+			}
+			List<String> tags = type != null && type.toUpperCase(Locale.ROOT).contains("VIEW")
+					? List.of("view")
+					: List.of();
+			return new SqlTable(name, remarks, List.copyOf(builtColumns), tags, List.of(), List.of());
+		}
+	}
+
+	private record ColumnMetadata(String name, String typeName, String remarks, int position) {
+	}
+
+	/**
+	 * 64-bit FNV-1a hash over a sequence of nullable strings.
+	 */
+	private static final class Fingerprint {
+		private long hash = 0xcbf29ce484222325L;
+
+		Fingerprint add(String value) {
+			if (value != null) {
+				for (int i = 0; i < value.length(); i++) {
+					mix(value.charAt(i));
+				}
+			} else {
+				mix(0xFFFF);
+			}
+			// Separator, so that ("ab", "c") and ("a", "bc") differ
+			mix(0xFFFE);
+			return this;
+		}
+
+		long value() {
+			return hash;
+		}
+
+		private void mix(int c) {
+			hash ^= c;
+			hash *= 0x100000001b3L;
+		}
+	}
+
+	/**
+	 * Builder for {@link JdbcSqlCatalogLoader}.
+	 */
+	public static final class Builder {
+		private final DataSource dataSource;
+		private String catalogName;
+		private final List<String> schemas = new ArrayList<>();
+		private String tablePattern = "%";
+		// H2 2.x reports base tables as "BASE TABLE"
+		private final List<String> tableTypes = new ArrayList<>(List.of("TABLE", "BASE TABLE", "VIEW"));
+		private boolean qualifyNames;
+		private Executor executor;
+		private int parallelism = 4;
+		private Query.Dialect dialect = Query.Dialect.ANSI;
+		private SqlDialectRenderer dialectRenderer;
+		private QueryLimits queryLimits = QueryLimits.NONE;
+		private boolean validateColumns;
+		private int queryCacheSize = QueryCache.DEFAULT_MAX_ENTRIES;
+		private boolean modelNames;
+
+		private Builder(DataSource dataSource) {
+			this.dataSource = Objects.requireNonNull(dataSource, "dataSource must not be null");
+		}
+
+		/**
+		 * Restrict introspection to one database catalog.
+		 *
+		 * @param catalogName the JDBC catalog name
+		 * @return this builder
+		 */
+		public Builder withCatalogName(String catalogName) {
+			this.catalogName = catalogName;
+			return this;
+		}
+
+		/**
+		 * Introspect only the given schemas. By default every non-system schema is read.
+		 *
+		 * @param schemas schema names, as stored in the database
+		 * @return this builder
+		 */
+		public Builder withSchemas(String... schemas) {
+			this.schemas.clear();
+			this.schemas.addAll(List.of(schemas));
+			return this;
+		}
+
+		/**
+		 * Introspect only tables whose names match a JDBC pattern ({@code %} and {@code _}).
+		 *
+		 * @param tablePattern the table name pattern
+		 * @return this builder
+		 */
+		public Builder withTablePattern(String tablePattern) {
+			this.tablePattern = Objects.requireNonNull(tablePattern, "tablePattern must not be null");
+			return this;
+		}
+
+		/**
+		 * Table types to include. Defaults to {@code TABLE}, {@code BASE TABLE} and {@code VIEW}.
+		 *
+		 * @param tableTypes JDBC table types
+		 * @return this builder
+		 */
+		public Builder withTableTypes(String... tableTypes) {
+			this.tableTypes.clear();
+			this.tableTypes.addAll(List.of(tableTypes));
+			return this;
+		}
+
+		/**
+		 * Name tables {@code schema.table} rather than {@code table}, for databases whose
+		 * schemas contain tables of the same name.
+		 *
+		 * @param qualifyNames true to qualify table names with their schema
+		 * @return this builder
+		 */
+		public Builder withQualifiedNames(boolean qualifyNames) {
+			this.qualifyNames = qualifyNames;
+			return this;
+		}
+
+		/**
+		 * Set the executor on which schemas are introspected. By default each load starts its
+		 * own virtual threads, bounded by {@link #withParallelism(int)}, and stops them before
+		 * returning.
+		 *
+		 * @param executor the executor for per-schema introspection
+		 * @return this builder
+		 */
+		public Builder withExecutor(Executor executor) {
+			this.executor = Objects.requireNonNull(executor, "executor must not be null");
+			return this;
+		}
+
+		/**
+		 * Set how many schemas are introspected at once, each on its own connection. Defaults
+		 * to 4. Ignored when an executor is set.
+		 *
+		 * @param parallelism the maximum number of schemas read concurrently
+		 * @return this builder
+		 */
+		public Builder withParallelism(int parallelism) {
+			if (parallelism < 1) {
+				throw new IllegalArgumentException("parallelism must be at least 1");
+			}
+			this.parallelism = parallelism;
+			return this;
+		}
+
+		/**
+		 * @see InMemorySqlCatalog#withDialect(Query.Dialect)
+		 */
+		public Builder withDialect(Query.Dialect dialect) {
+			this.dialect = dialect != null ? dialect : Query.Dialect.ANSI;
+			return this;
+		}
+
+		/**
+		 * @see InMemorySqlCatalog#withDialectRenderer(SqlDialectRenderer)
+		 */
+		public Builder withDialectRenderer(SqlDialectRenderer dialectRenderer) {
+			this.dialectRenderer = dialectRenderer;
+			return this;
+		}
+
+		/**
+		 * @see InMemorySqlCatalog#withQueryLimits(QueryLimits)
+		 */
+		public Builder withQueryLimits(QueryLimits queryLimits) {
+			this.queryLimits = queryLimits != null ? queryLimits : QueryLimits.NONE;
+			return this;
+		}
+
+		/**
+		 * @see InMemorySqlCatalog#withValidateColumns(boolean)
+		 */
+		public Builder withValidateColumns(boolean validateColumns) {
+			this.validateColumns = validateColumns;
+			return this;
+		}
+
+		/**
+		 * @see InMemorySqlCatalog#withQueryCacheSize(int)
+		 */
+		public Builder withQueryCacheSize(int queryCacheSize) {
+			if (queryCacheSize < 0) {
+				throw new IllegalArgumentException("queryCacheSize must not be negative");
+			}
+			this.queryCacheSize = queryCacheSize;
+			return this;
+		}
+
+		/**
+		 * @see InMemorySqlCatalog#withModelNames(boolean)
+		 */
+		public Builder withModelNames(boolean modelNames) {
+			this.modelNames = modelNames;
+			return this;
+		}
+
+		public JdbcSqlCatalogLoader build() {
+			return new JdbcSqlCatalogLoader(this);
+		}
+	}
+}
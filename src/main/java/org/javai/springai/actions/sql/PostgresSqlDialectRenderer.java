@@ -0,0 +1,72 @@
+package org.javai.springai.actions.sql;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * {@link SqlDialectRenderer} for {@link Query.Dialect#POSTGRES}.
+ *
+ * <p>Row limits are written as {@code LIMIT n} and {@code ILIKE} is kept. Functions from other
+ * dialects that PostgreSQL knows under another name, such as {@code IFNULL}, {@code GETDATE} and
+ * {@code LEN}, are renamed. Reserved words used as identifiers are quoted in lower case, the case
+ * PostgreSQL stores unquoted identifiers in.</p>
+ *
+ * <p>The statement timeout is available as {@code SET LOCAL statement_timeout}, which holds until
+ * the end of the current transaction.</p>
+ */
+public class PostgresSqlDialectRenderer extends GenericSqlDialectRenderer {
+
+	// Reserved key words of PostgreSQL 16, other than those the parser may read as column names
+	private static final Set<String> RESERVED_WORDS = Set.of(
+			"ALL", "ANALYSE", "ANALYZE", "AND", "ANY", "ARRAY", "AS", "ASC", "ASYMMETRIC", "BOTH",
+			"CASE", "CAST", "CHECK", "COLLATE", "COLUMN", "CONSTRAINT", "CREATE", "DEFAULT",
+			"DEFERRABLE", "DESC", "DISTINCT", "DO", "ELSE", "END", "EXCEPT", "FETCH", "FOR", "FOREIGN",
+			"FROM", "GRANT", "GROUP", "HAVING", "IN", "INITIALLY", "INTERSECT", "INTO", "LATERAL",
+			"LEADING", "LIMIT", "NOT", "OFFSET", "ON", "ONLY", "OR", "ORDER", "PLACING", "PRIMARY",
+			"REFERENCES", "RETURNING", "SELECT", "SOME", "SYMMETRIC", "TABLE", "THEN", "TO",
+			"TRAILING", "UNION", "UNIQUE", "USER", "USING", "VARIADIC", "WHEN", "WHERE", "WINDOW",
+			"WITH");
+
+	private static final Map<String, String> FUNCTION_RENAMES = Map.of(
+			"IFNULL", "COALESCE",
+			"NVL", "COALESCE",
+			"GETDATE", "NOW",
+			"SYSDATETIME", "NOW",
+			"LEN", "LENGTH");
+
+	@Override
+	public Optional<String> statementTimeoutSql(Duration timeout) {
+		if (timeout.isZero()) {
+			return Optional.empty();
+		}
+		return Optional.of("SET LOCAL statement_timeout = " + timeout.toMillis());
+	}
+
+	@Override
+	protected boolean supportsLimit() {
+		return true;
+	}
+
+	@Override
+	protected boolean supportsIlike() {
+		return true;
+	}
+
+	@Override
+	protected Set<String> reservedWords() {
+		return RESERVED_WORDS;
+	}
+
+	@Override
+	protected Map<String, String> functionRenames() {
+		return FUNCTION_RENAMES;
+	}
+
+	@Override
+	protected String foldCase(String identifier) {
+		return identifier.toLowerCase(Locale.ROOT);
+	}
+}
@@ -1,20 +1,12 @@
 package org.javai.springai.actions.sql;
 
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
-import java.util.regex.Pattern;
 import net.sf.jsqlparser.JSQLParserException;
-import net.sf.jsqlparser.expression.BinaryExpression;
-import net.sf.jsqlparser.expression.Expression;
 import net.sf.jsqlparser.parser.CCJSqlParserUtil;
 import net.sf.jsqlparser.schema.Column;
-import net.sf.jsqlparser.schema.Table;
 import net.sf.jsqlparser.statement.Statement;
-import net.sf.jsqlparser.statement.select.Join;
-import net.sf.jsqlparser.statement.select.PlainSelect;
 import net.sf.jsqlparser.statement.select.Select;
 import net.sf.jsqlparser.statement.select.SelectItem;
 import net.sf.jsqlparser.util.TablesNamesFinder;
@@ -51,6 +43,19 @@ import net.sf.jsqlparser.util.TablesNamesFinder;
  *     // Execute against database
  * }
  * }</pre>
+ *
+ * <h2>Query Limits</h2>
+ *
+ * <p>Queries are generated by a model and may scan far more data than intended. The catalog's
+ * {@link QueryLimits} bound every rendered query: {@link #sqlString()} adds or lowers the row
+ * limit, and the statement timeout is applied to the JDBC statement:</p>
+ *
+ * <pre>{@code
+ * try (PreparedStatement statement = connection.prepareStatement(query.sqlString())) {
+ *     query.limits().applyTo(statement);
+ *     // Execute the statement
+ * }
+ * }</pre>
  */
 public record Query(Select select, SqlCatalog catalog) {
 
@@ -58,10 +63,25 @@ public record Query(Select select, SqlCatalog catalog) {
 	 * Supported SQL dialects for output generation.
 	 */
 	public enum Dialect {
-		/** Standard ANSI SQL (default) */
-		ANSI,
+		/** Standard ANSI SQL (default), for any JDBC database */
+		ANSI(new GenericSqlDialectRenderer()),
 		/** PostgreSQL-specific syntax */
-		POSTGRES
+		POSTGRES(new PostgresSqlDialectRenderer()),
+		/** H2-specific syntax */
+		H2(new H2SqlDialectRenderer());
+
+		private final SqlDialectRenderer renderer;
+
+		Dialect(SqlDialectRenderer renderer) {
+			this.renderer = renderer;
+		}
+
+		/**
+		 * @return the built-in renderer for this dialect
+		 */
+		public SqlDialectRenderer renderer() {
+			return renderer;
+		}
 	}
 
 	/**
@@ -71,15 +91,23 @@ public record Query(Select select, SqlCatalog catalog) {
 	 * <ol>
 	 *   <li>Parse SQL into AST</li>
 	 *   <li>Verify it's a SELECT statement</li>
-	 *   <li>Resolve model names to canonical names (if catalog uses model names)</li>
-	 *   <li>Substitute synonyms with canonical names</li>
-	 *   <li>Validate schema references</li>
+	 *   <li>In a single pass over the AST, resolve model names (if catalog uses model names)
+	 *       and synonyms to canonical names, and validate schema references</li>
 	 * </ol>
 	 * 
 	 * <p>If the SQL uses model names (when the catalog uses model names), the framework
 	 * will automatically replace them with canonical names. If the SQL uses synonyms,
 	 * they will be substituted with canonical names from the catalog.</p>
 	 * 
+	 * <p>Validation runs against {@link SqlCatalog#snapshot() a snapshot} of the catalog taken
+	 * when it starts, and the returned query keeps that snapshot, so a catalog reloaded
+	 * concurrently does not affect a query already being validated or rendered.</p>
+	 * 
+	 * <p>Validated queries are cached by SQL text per catalog version, so SQL seen before
+	 * against the same catalog version is neither parsed nor validated again. Each call returns
+	 * its own copy of the statement, which the caller may modify. The cache size is set by
+	 * {@link SqlCatalog#queryCacheSize()}; queries without a catalog are not cached.</p>
+	 * 
 	 * @param sql the SQL string to parse
 	 * @param catalog optional schema catalog for table/column validation (may be null)
 	 * @return a validated Query object
@@ -90,6 +118,19 @@ public record Query(Select select, SqlCatalog catalog) {
 			throw new QueryValidationException("SQL string cannot be null or blank");
 		}
 
+		// Pin the catalog version so that a concurrent reload cannot change it mid-validation
+		SqlCatalog pinned = catalog != null ? catalog.snapshot() : null;
+		QueryCache cache = pinned instanceof SqlCatalogSnapshot snapshot ? snapshot.queryCache() : null;
+		if (cache == null) {
+			return parseAndValidate(sql, pinned);
+		}
+		return cache.get(sql, pinned, () -> parseAndValidate(sql, pinned));
+	}
+
+	/**
+	 * Parses and validates SQL against a pinned catalog, bypassing the query cache.
+	 */
+	private static Query parseAndValidate(String sql, SqlCatalog pinned) {
 		// 1. Parse the SQL once - we'll reuse this AST for all processing
 		Statement stmt;
 		try {
@@ -104,22 +145,14 @@ public record Query(Select select, SqlCatalog catalog) {
 					"Only SELECT statements are allowed, got: " + stmt.getClass().getSimpleName());
 		}
 
-		// 3. Resolve model names if catalog uses model names
-		if (catalog != null && catalog.usesModelNames()) {
-			resolveModelNames(selectStmt, catalog);
-		}
-
-		// 4. Apply synonym substitution on the AST (modifies in place)
-		if (catalog != null && !catalog.tables().isEmpty()) {
-			applySynonymSubstitution(selectStmt, catalog);
+		// 3. Resolve model names and synonyms to canonical names and validate schema references,
+		//    in a single traversal of the AST (modifies it in place)
+		SqlCatalogIndex index = pinned != null ? pinned.index() : SqlCatalogIndex.empty();
+		if (!index.isEmpty()) {
+			SqlNameResolver.resolve(selectStmt, index, pinned.usesModelNames(), pinned.validateColumns());
 		}
 
-		// 5. Validate schema references (after model name resolution and synonym substitution)
-		if (catalog != null && !catalog.tables().isEmpty()) {
-			validateSchemaReferences(selectStmt, catalog);
-		}
-
-		return new Query(selectStmt, catalog);
+		return new Query(selectStmt, pinned);
 	}
 
 	/**
@@ -134,633 +167,108 @@ public record Query(Select select, SqlCatalog catalog) {
 	}
 
 	/**
-	 * Returns the SQL string using the catalog's configured dialect.
+	 * Returns the SQL string using the catalog's configured dialect and limits.
 	 * 
 	 * <p>If this Query was created with a {@link SqlCatalog}, the catalog's
-	 * {@link SqlCatalog#dialect()} is used. Otherwise, defaults to ANSI.</p>
+	 * {@link SqlCatalog#dialectRenderer() renderer} is used and its
+	 * {@link SqlCatalog#queryLimits() row limit} is enforced. Otherwise, defaults to ANSI
+	 * without limits.</p>
 	 * 
 	 * @return the SQL string in the appropriate dialect
 	 */
 	public String sqlString() {
-		Dialect effectiveDialect = (catalog != null) ? catalog.dialect() : Dialect.ANSI;
-		return sqlString(effectiveDialect);
+		return sqlString(renderer());
 	}
 
 	/**
-	 * Returns the SQL string, optionally transformed for a specific dialect.
+	 * Returns the SQL string, transformed for a specific dialect, enforcing the catalog's row
+	 * limit.
 	 * 
 	 * @param dialect the target SQL dialect
 	 * @return the SQL string in the specified dialect
 	 */
 	public String sqlString(Dialect dialect) {
-		return switch (dialect) {
-			case ANSI -> select.toString();
-			case POSTGRES -> toPostgres(select);
-		};
+		return sqlString(dialect.renderer());
 	}
 
 	/**
-	 * Returns the SQL string with model names instead of canonical names.
-	 * 
-	 * <p>This is useful for debugging what the LLM should produce when 
-	 * model name mapping is enabled. The returned SQL will have table 
-	 * and column names replaced with their model-facing names (synonyms or generated identifiers).</p>
-	 * 
-	 * <p>If the catalog does not use model names, returns the 
-	 * normal SQL string (same as {@link #sqlString()}).</p>
+	 * Returns the SQL string as rendered by the given renderer, enforcing the catalog's row
+	 * limit.
 	 * 
-	 * @return the model-facing SQL string (as the LLM sees/generates it)
+	 * @param renderer the renderer for the target dialect
+	 * @return the SQL string in the renderer's dialect
 	 */
-	public String modelSql() {
-		if (catalog == null || !catalog.usesModelNames()) {
-			return sqlString();
-		}
-		
-		// Create a string-based replacement since we want to show what the LLM would see
-		String sql = sqlString();
-		
-		// Replace canonical table names with model names (longest first to avoid partial matches)
-		List<String> tableNames = catalog.tables().keySet().stream()
-				.sorted((a, b) -> Integer.compare(b.length(), a.length()))
-				.toList();
-		
-		for (String tableName : tableNames) {
-			String modelName = catalog.getTableModelName(tableName).orElse(tableName);
-			// Replace as a whole word (case-insensitive)
-			sql = sql.replaceAll("(?i)\\b" + Pattern.quote(tableName) + "\\b", modelName);
-		}
-		
-		// Replace canonical column names with model names (per table)
-		for (var entry : catalog.tables().entrySet()) {
-			String tableName = entry.getKey();
-			var table = entry.getValue();
-			if (table.columns() != null) {
-				// Sort by length descending
-				List<String> columnNames = table.columns().stream()
-						.map(SqlCatalog.SqlColumn::name)
-						.sorted((a, b) -> Integer.compare(b.length(), a.length()))
-						.toList();
-				
-				for (String columnName : columnNames) {
-					String modelName = catalog.getColumnModelName(tableName, columnName).orElse(columnName);
-					// Replace as a whole word (case-insensitive)
-					sql = sql.replaceAll("(?i)\\b" + Pattern.quote(columnName) + "\\b", modelName);
-				}
-			}
-		}
-		
-		return sql;
+	public String sqlString(SqlDialectRenderer renderer) {
+		return sqlString(renderer, limits());
 	}
 
 	/**
-	 * Resolves model names (synonyms or generated identifiers) back to their canonical names.
-	 * 
-	 * <p>This is called when the catalog uses model names and the LLM returns
-	 * SQL with model names instead of canonical names (e.g., "SELECT value FROM orders").</p>
+	 * Returns the SQL string as rendered by the given renderer, enforcing the given limits
+	 * instead of the catalog's.
 	 * 
-	 * @param select the parsed SELECT statement (modified in place)
-	 * @param catalog the catalog containing model name mappings
+	 * @param renderer the renderer for the target dialect
+	 * @param limits the limits to enforce; {@link QueryLimits#NONE} renders the query as it is
+	 * @return the SQL string in the renderer's dialect
 	 */
-	private static void resolveModelNames(Select select, SqlCatalog catalog) {
-		if (select.getPlainSelect() == null) {
-			return;
-		}
-		
-		PlainSelect plainSelect = select.getPlainSelect();
-		
-		// First pass: resolve table model names and collect alias -> canonical table mappings
-		Map<String, String> aliasToCanonicalTable = new HashMap<>();
-		resolveTableModelNames(plainSelect, catalog, aliasToCanonicalTable);
-		
-		// Second pass: resolve column model names
-		resolveColumnModelNames(plainSelect, catalog, aliasToCanonicalTable);
+	public String sqlString(SqlDialectRenderer renderer, QueryLimits limits) {
+		return renderer.render(select, limits);
 	}
 
 	/**
-	 * Resolves model table names in FROM and JOIN clauses to their canonical names.
-	 */
-	private static void resolveTableModelNames(PlainSelect plainSelect, SqlCatalog catalog,
-			Map<String, String> aliasToCanonicalTable) {
-		
-		// FROM clause
-		if (plainSelect.getFromItem() instanceof Table fromTable) {
-			String resolvedTableName = resolveTableModelName(fromTable.getName(), catalog);
-			if (resolvedTableName != null) {
-				fromTable.setName(resolvedTableName);
-			}
-			String tableName = fromTable.getName();
-			String alias = (fromTable.getAlias() != null) 
-					? fromTable.getAlias().getName().toLowerCase() 
-					: tableName.toLowerCase();
-			aliasToCanonicalTable.put(alias, tableName);
-		}
-		
-		// JOINs
-		if (plainSelect.getJoins() != null) {
-			for (Join join : plainSelect.getJoins()) {
-				if (join.getRightItem() instanceof Table joinTable) {
-					String resolvedTableName = resolveTableModelName(joinTable.getName(), catalog);
-					if (resolvedTableName != null) {
-						joinTable.setName(resolvedTableName);
-					}
-					String tableName = joinTable.getName();
-					String alias = (joinTable.getAlias() != null) 
-							? joinTable.getAlias().getName().toLowerCase() 
-							: tableName.toLowerCase();
-					aliasToCanonicalTable.put(alias, tableName);
-				}
-			}
-		}
-	}
-
-	/**
-	 * Resolves a table model name to its canonical name.
+	 * Returns the limits enforced when this query is rendered and executed.
 	 * 
-	 * <p>Model names can be either:</p>
-	 * <ul>
-	 *   <li>A synonym (e.g., "orders" for "fct_orders") - more readable</li>
-	 *   <li>A generated identifier (e.g., "ft_abc123") - when no synonyms defined</li>
-	 * </ul>
+	 * <p>The row limit is part of the rendered SQL. The statement timeout is for the caller to
+	 * apply, with {@link QueryLimits#applyTo(java.sql.Statement)} or by executing
+	 * {@link #statementTimeoutSql()} first.</p>
 	 * 
-	 * @return the canonical name if input was a model name, null otherwise
+	 * @return the catalog's limits, or {@link QueryLimits#NONE} without a catalog
 	 */
-	private static String resolveTableModelName(String tableRef, SqlCatalog catalog) {
-		if (tableRef == null) {
-			return null;
-		}
-		// Let the catalog determine if this is a model name - it knows its own mappings
-		return catalog.resolveTableFromModelName(tableRef).orElse(null);
+	public QueryLimits limits() {
+		return catalog != null ? catalog.queryLimits() : QueryLimits.NONE;
 	}
 
 	/**
-	 * Resolves model column names in SELECT, WHERE, and JOIN ON clauses to their canonical names.
+	 * Returns the statement that sets the catalog's statement timeout in the catalog's dialect,
+	 * to be executed in the same transaction before this query.
+	 * 
+	 * @return the statement, or empty if there is no timeout or the dialect cannot set one
+	 * @see SqlDialectRenderer#statementTimeoutSql(java.time.Duration)
 	 */
-	private static void resolveColumnModelNames(PlainSelect plainSelect, SqlCatalog catalog,
-			Map<String, String> aliasToCanonicalTable) {
-		
-		// SELECT items
-		if (plainSelect.getSelectItems() != null) {
-			for (SelectItem<?> item : plainSelect.getSelectItems()) {
-				if (item.getExpression() instanceof Column col) {
-					resolveColumnModelName(col, catalog, aliasToCanonicalTable);
-				}
-			}
-		}
-		
-		// WHERE clause
-		if (plainSelect.getWhere() != null) {
-			resolveColumnsInExpression(plainSelect.getWhere(), catalog, aliasToCanonicalTable);
-		}
-		
-		// JOIN ON conditions
-		if (plainSelect.getJoins() != null) {
-			for (Join join : plainSelect.getJoins()) {
-				if (join.getOnExpressions() != null) {
-					for (Expression onExpr : join.getOnExpressions()) {
-						resolveColumnsInExpression(onExpr, catalog, aliasToCanonicalTable);
-					}
-				}
-			}
-		}
+	public Optional<String> statementTimeoutSql() {
+		QueryLimits limits = limits();
+		return limits.limitsTime()
+				? renderer().statementTimeoutSql(limits.statementTimeout())
+				: Optional.empty();
 	}
 
-	/**
-	 * Resolves model column names in an expression tree.
-	 */
-	private static void resolveColumnsInExpression(Expression expr, SqlCatalog catalog,
-			Map<String, String> aliasToCanonicalTable) {
-		if (expr instanceof Column col) {
-			resolveColumnModelName(col, catalog, aliasToCanonicalTable);
-		} else if (expr instanceof BinaryExpression binExpr) {
-			resolveColumnsInExpression(binExpr.getLeftExpression(), catalog, aliasToCanonicalTable);
-			resolveColumnsInExpression(binExpr.getRightExpression(), catalog, aliasToCanonicalTable);
-		}
+	private SqlDialectRenderer renderer() {
+		return catalog != null ? catalog.dialectRenderer() : Dialect.ANSI.renderer();
 	}
 
 	/**
-	 * Resolves a single column's model name to its canonical name.
+	 * Returns the SQL string with model names instead of canonical names.
 	 * 
-	 * <p>Model column names can be either synonyms or generated identifiers.
-	 * The catalog is consulted to determine if the column name is a model name.</p>
-	 */
-	private static void resolveColumnModelName(Column col, SqlCatalog catalog,
-			Map<String, String> aliasToCanonicalTable) {
-		String columnName = col.getColumnName();
-		if (columnName == null) {
-			return;
-		}
-		
-		// Determine which table this column belongs to
-		String tableRef = (col.getTable() != null && col.getTable().getName() != null)
-				? col.getTable().getName().toLowerCase()
-				: null;
-		
-		// Get the canonical table name (either from alias or by resolving model name)
-		String canonicalTable = null;
-		if (tableRef != null) {
-			// First check if tableRef is an alias
-			canonicalTable = aliasToCanonicalTable.get(tableRef);
-			if (canonicalTable == null) {
-				// tableRef might be a model name (shouldn't happen after resolveTableModelNames, but be defensive)
-				canonicalTable = catalog.resolveTableFromModelName(tableRef).orElse(null);
-			}
-		}
-		
-		// Get the table's model name and try to resolve the column's model name
-		if (canonicalTable != null) {
-			String tableModelName = catalog.getTableModelName(canonicalTable).orElse(null);
-			if (tableModelName != null) {
-				String resolved = catalog.resolveColumnFromModelName(tableModelName, columnName).orElse(null);
-				if (resolved != null) {
-					col.setColumnName(resolved);
-				}
-			}
-		} else {
-			// Unqualified column - try all tables
-			for (String tableName : aliasToCanonicalTable.values()) {
-				String tableModelName = catalog.getTableModelName(tableName).orElse(null);
-				if (tableModelName != null) {
-					String resolved = catalog.resolveColumnFromModelName(tableModelName, columnName).orElse(null);
-					if (resolved != null) {
-						col.setColumnName(resolved);
-						break;
-					}
-				}
-			}
-		}
-	}
-
-	/**
-	 * Applies synonym substitution by walking the AST and modifying Table and Column nodes in place.
+	 * <p>This is useful for debugging what the LLM should produce when 
+	 * model name mapping is enabled. The returned SQL will have table 
+	 * and column names replaced with their model-facing names (synonyms or generated identifiers).</p>
 	 * 
-	 * <p>This approach is safer than string replacement because it only modifies actual table and column
-	 * references, not SQL keywords (like ORDER BY) or string literals.</p>
+	 * <p>Names are mapped on a copy of the statement's AST, so only actual table and column
+	 * references change, and the cost depends on the size of the query rather than the
+	 * catalog.</p>
 	 * 
-	 * @param select the parsed SELECT statement (modified in place)
-	 * @param catalog the catalog containing synonym mappings
-	 */
-	private static void applySynonymSubstitution(Select select, SqlCatalog catalog) {
-		if (select.getPlainSelect() == null) {
-			return;
-		}
-		
-		PlainSelect plainSelect = select.getPlainSelect();
-		
-		// Build a map of table synonyms for quick lookup (case-insensitive)
-		Map<String, String> tableSynonymMap = buildTableSynonymMap(catalog);
-		
-		// First pass: substitute table names and collect alias mappings
-		Map<String, String> aliasToCanonicalTable = new HashMap<>();
-		substituteTableNames(plainSelect, tableSynonymMap, aliasToCanonicalTable);
-		
-		// Build column synonym maps per table
-		Map<String, Map<String, String>> columnSynonymMaps = buildColumnSynonymMaps(catalog);
-		
-		// Second pass: substitute column names
-		substituteColumnNames(plainSelect, aliasToCanonicalTable, columnSynonymMaps);
-	}
-
-	/**
-	 * Builds a map of table synonyms (lowercase synonym -> canonical name).
-	 */
-	private static Map<String, String> buildTableSynonymMap(SqlCatalog catalog) {
-		Map<String, String> map = new HashMap<>();
-		for (SqlCatalog.SqlTable table : catalog.tables().values()) {
-			if (table.synonyms() != null) {
-				for (String synonym : table.synonyms()) {
-					map.put(synonym.toLowerCase(), table.name());
-				}
-			}
-		}
-		return map;
-	}
-
-	/**
-	 * Builds column synonym maps for each table (table name -> (lowercase synonym -> canonical column name)).
-	 */
-	private static Map<String, Map<String, String>> buildColumnSynonymMaps(SqlCatalog catalog) {
-		Map<String, Map<String, String>> result = new HashMap<>();
-		for (SqlCatalog.SqlTable table : catalog.tables().values()) {
-			Map<String, String> columnMap = new HashMap<>();
-			if (table.columns() != null) {
-				for (SqlCatalog.SqlColumn column : table.columns()) {
-					if (column.synonyms() != null) {
-						for (String synonym : column.synonyms()) {
-							columnMap.put(synonym.toLowerCase(), column.name());
-						}
-					}
-				}
-			}
-			if (!columnMap.isEmpty()) {
-				result.put(table.name(), columnMap);
-			}
-		}
-		return result;
-	}
-
-	/**
-	 * Substitutes table names in the AST, modifying Table nodes in place.
-	 * Also builds a map of aliases to canonical table names for column substitution.
-	 */
-	private static void substituteTableNames(PlainSelect plainSelect, 
-			Map<String, String> tableSynonymMap, Map<String, String> aliasToCanonicalTable) {
-		
-		// FROM clause
-		if (plainSelect.getFromItem() instanceof Table fromTable) {
-			String canonical = substituteTableName(fromTable, tableSynonymMap);
-			String alias = (fromTable.getAlias() != null) 
-					? fromTable.getAlias().getName().toLowerCase() 
-					: canonical.toLowerCase();
-			aliasToCanonicalTable.put(alias, canonical);
-		}
-		
-		// JOINs
-		if (plainSelect.getJoins() != null) {
-			for (Join join : plainSelect.getJoins()) {
-				if (join.getRightItem() instanceof Table joinTable) {
-					String canonical = substituteTableName(joinTable, tableSynonymMap);
-					String alias = (joinTable.getAlias() != null) 
-							? joinTable.getAlias().getName().toLowerCase() 
-							: canonical.toLowerCase();
-					aliasToCanonicalTable.put(alias, canonical);
-				}
-			}
-		}
-	}
-
-	/**
-	 * Substitutes a single table name if it matches a synonym.
-	 * @return the canonical table name (whether substituted or original)
-	 */
-	private static String substituteTableName(Table table, Map<String, String> tableSynonymMap) {
-		String original = table.getName();
-		String canonical = tableSynonymMap.get(original.toLowerCase());
-		if (canonical != null) {
-			table.setName(canonical);
-			return canonical;
-		}
-		return original;
-	}
-
-	/**
-	 * Substitutes column names in the AST, modifying Column nodes in place.
-	 */
-	private static void substituteColumnNames(PlainSelect plainSelect,
-			Map<String, String> aliasToCanonicalTable, Map<String, Map<String, String>> columnSynonymMaps) {
-		
-		// SELECT items
-		if (plainSelect.getSelectItems() != null) {
-			for (SelectItem<?> item : plainSelect.getSelectItems()) {
-				if (item.getExpression() instanceof Column col) {
-					substituteColumnName(col, aliasToCanonicalTable, columnSynonymMaps);
-				}
-			}
-		}
-		
-		// WHERE clause
-		if (plainSelect.getWhere() != null) {
-			substituteColumnsInExpression(plainSelect.getWhere(), aliasToCanonicalTable, columnSynonymMaps);
-		}
-		
-		// JOIN ON conditions
-		if (plainSelect.getJoins() != null) {
-			for (Join join : plainSelect.getJoins()) {
-				if (join.getOnExpressions() != null) {
-					for (Expression onExpr : join.getOnExpressions()) {
-						substituteColumnsInExpression(onExpr, aliasToCanonicalTable, columnSynonymMaps);
-					}
-				}
-			}
-		}
-	}
-
-	/**
-	 * Substitutes column names in an expression tree.
-	 */
-	private static void substituteColumnsInExpression(Expression expr,
-			Map<String, String> aliasToCanonicalTable, Map<String, Map<String, String>> columnSynonymMaps) {
-		if (expr instanceof Column col) {
-			substituteColumnName(col, aliasToCanonicalTable, columnSynonymMaps);
-		} else if (expr instanceof BinaryExpression binExpr) {
-			substituteColumnsInExpression(binExpr.getLeftExpression(), aliasToCanonicalTable, columnSynonymMaps);
-			substituteColumnsInExpression(binExpr.getRightExpression(), aliasToCanonicalTable, columnSynonymMaps);
-		}
-	}
-
-	/**
-	 * Substitutes a single column name if it matches a synonym.
-	 */
-	private static void substituteColumnName(Column col,
-			Map<String, String> aliasToCanonicalTable, Map<String, Map<String, String>> columnSynonymMaps) {
-		String columnName = col.getColumnName();
-		
-		// Determine which table this column belongs to
-		String tableRef = (col.getTable() != null && col.getTable().getName() != null)
-				? col.getTable().getName().toLowerCase()
-				: null;
-		
-		// Find the canonical table name
-		String canonicalTable = (tableRef != null) ? aliasToCanonicalTable.get(tableRef) : null;
-		
-		// If we know the table, look up column synonyms for that specific table
-		if (canonicalTable != null) {
-			Map<String, String> columnMap = columnSynonymMaps.get(canonicalTable);
-			if (columnMap != null) {
-				String canonical = columnMap.get(columnName.toLowerCase());
-				if (canonical != null) {
-					col.setColumnName(canonical);
-				}
-			}
-		} else {
-			// Unqualified column - check all tables
-			for (Map.Entry<String, Map<String, String>> entry : columnSynonymMaps.entrySet()) {
-				String canonical = entry.getValue().get(columnName.toLowerCase());
-				if (canonical != null) {
-					col.setColumnName(canonical);
-					break; // First match wins
-				}
-			}
-		}
-	}
-
-	/**
-	 * Validates that the SELECT statement only references tables and columns in the catalog.
-	 */
-	private static void validateSchemaReferences(Select select, SqlCatalog catalog) {
-		TablesNamesFinder tablesFinder = new TablesNamesFinder();
-		// Cast to Statement to resolve method ambiguity in JSqlParser
-		Set<String> tables = tablesFinder.getTables((Statement) select);
-
-		// Build a map of table aliases to canonical table names
-		Map<String, String> aliasToTable = new HashMap<>();
-		for (String table : tables) {
-			String tableName = extractTableName(table).orElse(table);
-			if (!catalog.tables().containsKey(tableName)) {
-				throw new QueryValidationException("Unknown table: " + tableName + 
-						". Available tables: " + catalog.tables().keySet());
-			}
-			// Map both the canonical name and any aliases found
-			aliasToTable.put(tableName.toLowerCase(), tableName);
-		}
-
-		// Extract aliases from the parsed SELECT statement
-		extractTableAliases(select, aliasToTable);
-
-		// Extract and validate column references (only if enabled on catalog)
-		if (catalog.validateColumns()) {
-			java.util.ArrayList<Column> columns = new java.util.ArrayList<>();
-			extractColumns(select, columns);
-			validateColumns(columns, catalog, aliasToTable);
-		}
-	}
-
-	/**
-	 * Extracts table aliases from the SELECT statement.
-	 */
-	private static void extractTableAliases(Select select, Map<String, String> aliasToTable) {
-		if (select.getPlainSelect() != null) {
-			PlainSelect plainSelect = select.getPlainSelect();
-			
-			// FROM clause
-			if (plainSelect.getFromItem() instanceof Table fromTable) {
-				if (fromTable.getAlias() != null) {
-					aliasToTable.put(fromTable.getAlias().getName().toLowerCase(), fromTable.getName());
-				}
-			}
-			
-			// JOINs
-			if (plainSelect.getJoins() != null) {
-				for (Join join : plainSelect.getJoins()) {
-					if (join.getRightItem() instanceof Table joinTable) {
-						if (joinTable.getAlias() != null) {
-							aliasToTable.put(joinTable.getAlias().getName().toLowerCase(), joinTable.getName());
-						}
-					}
-				}
-			}
-		}
-	}
-
-	/**
-	 * Extracts column references from a SELECT statement.
-	 */
-	private static void extractColumns(Select select, java.util.ArrayList<Column> columns) {
-		if (select.getPlainSelect() != null) {
-			PlainSelect plainSelect = select.getPlainSelect();
-			
-			// SELECT items
-			if (plainSelect.getSelectItems() != null) {
-				for (SelectItem<?> item : plainSelect.getSelectItems()) {
-					if (item.getExpression() instanceof Column col) {
-						columns.add(col);
-					}
-				}
-			}
-			
-			// WHERE clause
-			if (plainSelect.getWhere() != null) {
-				collectColumnsFromExpression(plainSelect.getWhere(), columns);
-			}
-			
-			// JOIN ON conditions
-			if (plainSelect.getJoins() != null) {
-				for (Join join : plainSelect.getJoins()) {
-					if (join.getOnExpressions() != null) {
-						for (Expression onExpr : join.getOnExpressions()) {
-							collectColumnsFromExpression(onExpr, columns);
-						}
-					}
-				}
-			}
-		}
-	}
-
-	/**
-	 * Validates column references against the catalog.
-	 */
-	private static void validateColumns(java.util.ArrayList<Column> columns,
-			SqlCatalog catalog, Map<String, String> aliasToTable) {
-		for (Column col : columns) {
-			String columnName = col.getColumnName();
-			Table table = col.getTable();
-			
-			if (table != null && table.getName() != null) {
-				// Qualified column reference (e.g., t.column_name or table.column_name)
-				String tableRef = table.getName().toLowerCase();
-				String actualTableName = aliasToTable.get(tableRef);
-				if (actualTableName != null) {
-					SqlCatalog.SqlTable catalogTable = catalog.tables().get(actualTableName);
-					if (catalogTable != null && !columnExistsInTable(catalogTable, columnName)) {
-						throw new QueryValidationException(
-								"Unknown column '%s' in table '%s'. Available columns: %s"
-										.formatted(columnName, actualTableName, getColumnNames(catalogTable)));
-					}
-				}
-			} else {
-				// Unqualified column reference - check all tables in query
-				boolean found = false;
-				for (String actualTableName : aliasToTable.values()) {
-					SqlCatalog.SqlTable catalogTable = catalog.tables().get(actualTableName);
-					if (catalogTable != null && columnExistsInTable(catalogTable, columnName)) {
-						found = true;
-						break;
-					}
-				}
-				if (!found && !aliasToTable.isEmpty()) {
-					throw new QueryValidationException(
-							"Unknown column '%s'. Not found in any table: %s"
-									.formatted(columnName, aliasToTable.values()));
-				}
-			}
-		}
-	}
-
-	/**
-	 * Recursively collects Column nodes from an expression.
-	 */
-	private static void collectColumnsFromExpression(Expression expr, java.util.ArrayList<Column> columns) {
-		if (expr instanceof Column col) {
-			columns.add(col);
-		} else if (expr instanceof BinaryExpression binExpr) {
-			collectColumnsFromExpression(binExpr.getLeftExpression(), columns);
-			collectColumnsFromExpression(binExpr.getRightExpression(), columns);
-		}
-	}
-
-	/**
-	 * Checks if a column exists in a table (by name or synonym).
-	 */
-	private static boolean columnExistsInTable(SqlCatalog.SqlTable table, String columnName) {
-		return table.findColumn(columnName).isPresent();
-	}
-
-	/**
-	 * Gets the list of column names for error messages.
-	 */
-	private static List<String> getColumnNames(SqlCatalog.SqlTable table) {
-		return table.columns().stream().map(SqlCatalog.SqlColumn::name).toList();
-	}
-
-	/**
-	 * Extracts the table name from a potentially aliased table reference.
+	 * <p>The statement is printed as the model wrote it: the catalog's row limit and dialect
+	 * rewrites, which {@link #sqlString()} applies for execution, are not. If the catalog does
+	 * not use model names, the statement is printed with its canonical names.</p>
+	 * 
+	 * @return the model-facing SQL string (as the LLM sees/generates it)
 	 */
-	private static Optional<String> extractTableName(String tableRef) {
-		if (tableRef == null || tableRef.isBlank()) {
-			return Optional.empty();
+	public String modelSql() {
+		if (catalog == null || !catalog.usesModelNames()) {
+			return select.toString();
 		}
-		// TablesNamesFinder returns just the table name, not aliases
-		return Optional.of(tableRef.trim());
-	}
-
-	/**
-	 * Converts a SELECT statement to PostgreSQL dialect.
-	 * Currently returns the default toString() which is largely ANSI-compatible.
-	 * Can be extended for PostgreSQL-specific transformations as needed.
-	 */
-	private static String toPostgres(Select select) {
-		// JSqlParser's default toString is largely ANSI SQL which PostgreSQL supports.
-		// For PostgreSQL-specific features (e.g., ILIKE), we could use a custom visitor.
-		return select.toString();
+		Select modelSelect = QueryCache.copy(select);
+		SqlNameResolver.toModelNames(modelSelect, catalog.index());
+		return modelSelect.toString();
 	}
 
 	// ========================================================================
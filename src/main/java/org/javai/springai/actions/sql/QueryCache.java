@@ -0,0 +1,242 @@
+package org.javai.springai.actions.sql;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+import net.sf.jsqlparser.JSQLParserException;
+import net.sf.jsqlparser.parser.CCJSqlParserUtil;
+import net.sf.jsqlparser.schema.Column;
+import net.sf.jsqlparser.schema.Table;
+import net.sf.jsqlparser.statement.Statement;
+import net.sf.jsqlparser.statement.select.Select;
+import net.sf.jsqlparser.util.TablesNamesFinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Bounded cache of validated queries for {@link Query#fromSql(String, SqlCatalog)}.
+ *
+ * <p>Each {@link SqlCatalogSnapshot} owns a cache sized by {@link SqlCatalog#queryCacheSize()},
+ * so a query is only ever served against the catalog version it was validated against, and a
+ * catalog change starts with an empty cache. Entries are keyed by the SQL text with
+ * insignificant whitespace removed. Least recently used entries are evicted once the cache is
+ * full.</p>
+ *
+ * <p>The cache holds the canonical SQL of each validated query, and a hit parses it again:
+ * {@link Select} is mutable, so each caller gets its own tree, and parsing canonical SQL skips
+ * name resolution and validation. A query whose canonical SQL does not parse back to the same
+ * table and column names, because a canonical name is not a valid unquoted identifier, is not
+ * cached.</p>
+ */
+final class QueryCache {
+
+	private static final Logger logger = LoggerFactory.getLogger(QueryCache.class);
+
+	/** Default maximum number of cached queries per catalog version. */
+	static final int DEFAULT_MAX_ENTRIES = 512;
+
+	private static final AtomicBoolean serializedCopyLogged = new AtomicBoolean();
+
+	private final int maxEntries;
+	private final Map<String, String> entries;
+	private final AtomicBoolean uncachedLogged = new AtomicBoolean();
+
+	QueryCache(int maxEntries) {
+		if (maxEntries < 1) {
+			throw new IllegalArgumentException("maxEntries must be >= 1");
+		}
+		this.maxEntries = maxEntries;
+		this.entries = new LinkedHashMap<>(64, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+				return size() > QueryCache.this.maxEntries;
+			}
+		};
+	}
+
+	/**
+	 * Returns a copy of the cached query for this SQL, validating and caching the query on a
+	 * miss. Validation failures are not cached.
+	 *
+	 * @param sql the SQL text as received
+	 * @param catalog the catalog snapshot owning this cache
+	 * @param validate parses and validates the SQL against {@code catalog}
+	 * @return a query the caller may modify
+	 */
+	Query get(String sql, SqlCatalog catalog, Supplier<Query> validate) {
+		String key = normalize(sql);
+		String canonicalSql;
+		synchronized (entries) {
+			canonicalSql = entries.get(key);
+		}
+		if (canonicalSql != null) {
+			Select select = reparse(canonicalSql, null);
+			if (select != null) {
+				return new Query(select, catalog);
+			}
+		}
+		Query query = validate.get();
+		canonicalSql = query.select().toString();
+		if (reparse(canonicalSql, query.select()) != null) {
+			synchronized (entries) {
+				entries.put(key, canonicalSql);
+			}
+		} else if (uncachedLogged.compareAndSet(false, true)) {
+			logger.debug("Queries whose canonical SQL does not parse back to the same names are not cached: {}",
+					canonicalSql);
+		}
+		// The caller may modify the query it was given; later hits parse the cached SQL
+		return query;
+	}
+
+	/**
+	 * Discards all cached queries.
+	 */
+	void clear() {
+		synchronized (entries) {
+			entries.clear();
+		}
+	}
+
+	int size() {
+		synchronized (entries) {
+			return entries.size();
+		}
+	}
+
+	/**
+	 * Collapses whitespace outside quoted literals and identifiers to a single space (or line
+	 * break), and drops leading and trailing whitespace and trailing semicolons.
+	 */
+	static String normalize(String sql) {
+		StringBuilder sb = new StringBuilder(sql.length());
+		char quote = 0;
+		char pendingSpace = 0;
+		for (int i = 0; i < sql.length(); i++) {
+			char c = sql.charAt(i);
+			if (quote != 0) {
+				sb.append(c);
+				if (c == quote) {
+					quote = 0;
+				}
+				continue;
+			}
+			if (Character.isWhitespace(c)) {
+				// A line break ends a -- comment, so it is kept as one
+				if (sb.length() > 0 && pendingSpace != '\n') {
+					pendingSpace = c == '\n' ? '\n' : ' ';
+				}
+				continue;
+			}
+			if (pendingSpace != 0) {
+				sb.append(pendingSpace);
+				pendingSpace = 0;
+			}
+			if (c == '\'' || c == '"' || c == '`') {
+				quote = c;
+			}
+			sb.append(c);
+		}
+		int end = sb.length();
+		while (end > 0 && (sb.charAt(end - 1) == ';' || sb.charAt(end - 1) == ' ' || sb.charAt(end - 1) == '\n')) {
+			end--;
+		}
+		sb.setLength(end);
+		return sb.toString();
+	}
+
+	/**
+	 * Copies a statement, so that the copy can be modified without affecting the original.
+	 *
+	 * <p>The copy is parsed from the statement's SQL. Should that not give back the same table
+	 * and column names, because a name is not a valid unquoted identifier, the statement is
+	 * copied through Java serialization instead, which is logged once.</p>
+	 *
+	 * @param select the statement to copy
+	 * @return a deep copy of the statement
+	 */
+	static Select copy(Select select) {
+		Select copy = reparse(select.toString(), select);
+		if (copy != null) {
+			return copy;
+		}
+		if (serializedCopyLogged.compareAndSet(false, true)) {
+			logger.info("Copying a query whose names are not valid unquoted identifiers by serialization: {}",
+					select);
+		}
+		return serializedCopy(select);
+	}
+
+	/**
+	 * Parses SQL back into a statement.
+	 *
+	 * @param sql the SQL of a statement
+	 * @param original the statement the SQL was printed from, to compare names with; {@code null}
+	 *        not to compare
+	 * @return the statement, or {@code null} if the SQL does not parse or gives back other names
+	 */
+	static Select reparse(String sql, Select original) {
+		Statement statement;
+		try {
+			statement = CCJSqlParserUtil.parse(sql);
+		} catch (JSQLParserException e) {
+			return null;
+		}
+		if (!(statement instanceof Select select)) {
+			return null;
+		}
+		if (original != null && !NameCollector.names(select).equals(NameCollector.names(original))) {
+			return null;
+		}
+		return select;
+	}
+
+	private static Select serializedCopy(Select select) {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+			out.writeObject(select);
+		} catch (IOException e) {
+			throw new IllegalStateException("Query can neither be parsed back nor serialized: " + select, e);
+		}
+		try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+			return (Select) in.readObject();
+		} catch (IOException | ClassNotFoundException e) {
+			// The bytes were just written in this process, so this is a bug
+			throw new IllegalStateException("Could not copy query tree", e);
+		}
+	}
+
+	/**
+	 * Collects the table and column names of a statement in the order they are visited.
+	 */
+	private static final class NameCollector extends TablesNamesFinder {
+
+		private final List<String> names = new ArrayList<>();
+
+		static List<String> names(Select select) {
+			NameCollector collector = new NameCollector();
+			collector.getTables((Statement) select);
+			return collector.names;
+		}
+
+		@Override
+		public void visit(Table table) {
+			names.add(table.getFullyQualifiedName());
+			super.visit(table);
+		}
+
+		@Override
+		public void visit(Column column) {
+			names.add(column.getFullyQualifiedName());
+			super.visit(column);
+		}
+	}
+}
@@ -0,0 +1,84 @@
+package org.javai.springai.actions.sql;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Limits enforced on queries when they are rendered for execution.
+ *
+ * <p>A {@link Query} only ever holds a SELECT statement, so every query it renders is read-only
+ * and subject to the limits of its catalog. The row limit is written into the SQL itself by the
+ * {@link SqlDialectRenderer}: a query without a limit gets one, and a query asking for more rows
+ * has its limit lowered. The statement timeout cannot be expressed inside a SELECT, so it is
+ * applied to the JDBC statement with {@link #applyTo(Statement)}, or set for the transaction
+ * with {@link Query#statementTimeoutSql()} where the dialect supports it.</p>
+ *
+ * <pre>{@code
+ * SqlCatalog catalog = new InMemorySqlCatalog()
+ *     .withDialect(Query.Dialect.POSTGRES)
+ *     .withQueryLimits(QueryLimits.of(10_000, Duration.ofSeconds(30)));
+ * }</pre>
+ *
+ * @param maxRows maximum number of rows a query may return; {@code 0} for no limit
+ * @param statementTimeout maximum time a query may run; {@link Duration#ZERO} for no timeout
+ */
+public record QueryLimits(long maxRows, Duration statementTimeout) {
+
+	/** No row limit and no timeout. */
+	public static final QueryLimits NONE = new QueryLimits(0, Duration.ZERO);
+
+	public QueryLimits {
+		Objects.requireNonNull(statementTimeout, "statementTimeout must not be null");
+		if (maxRows < 0) {
+			throw new IllegalArgumentException("maxRows must not be negative");
+		}
+		if (statementTimeout.isNegative()) {
+			throw new IllegalArgumentException("statementTimeout must not be negative");
+		}
+	}
+
+	/**
+	 * Limits with both a row limit and a statement timeout.
+	 *
+	 * @param maxRows maximum number of rows; {@code 0} for no limit
+	 * @param statementTimeout maximum run time; {@link Duration#ZERO} for no timeout
+	 * @return the limits
+	 */
+	public static QueryLimits of(long maxRows, Duration statementTimeout) {
+		return new QueryLimits(maxRows, statementTimeout);
+	}
+
+	/**
+	 * @return true if queries are limited to {@link #maxRows()} rows
+	 */
+	public boolean limitsRows() {
+		return maxRows > 0;
+	}
+
+	/**
+	 * @return true if queries are limited to {@link #statementTimeout()}
+	 */
+	public boolean limitsTime() {
+		return !statementTimeout.isZero();
+	}
+
+	/**
+	 * Applies these limits to a JDBC statement before it executes a rendered query. The timeout
+	 * is rounded up to whole seconds, the unit JDBC uses. The row limit is applied as well, so
+	 * that the driver discards surplus rows should the database ignore the rendered limit.
+	 *
+	 * @param statement the statement that will execute the query
+	 * @throws SQLException if the driver rejects a limit
+	 */
+	public void applyTo(Statement statement) throws SQLException {
+		if (limitsTime()) {
+			long seconds = (statementTimeout.toMillis() + 999) / 1000;
+			statement.setQueryTimeout((int) Math.min(seconds, Integer.MAX_VALUE));
+		}
+		if (limitsRows()) {
+			statement.setMaxRows((int) Math.min(maxRows, Integer.MAX_VALUE));
+		}
+	}
+}
@@ -0,0 +1,199 @@
+package org.javai.springai.actions.sql;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import org.javai.springai.actions.PromptContributor;
+import org.javai.springai.actions.SegmentReducer;
+import org.javai.springai.actions.conversation.ConversationState;
+import org.javai.springai.actions.internal.prompt.SystemPromptContext;
+
+/**
+ * A prompt contributor that includes only the tables relevant to the current request.
+ *
+ * <p>Where {@link SqlCatalogContextContributor} renders the whole catalog, this contributor
+ * scores every table against the user message (and the conversation's original instruction)
+ * by lexical match on table and column names, synonyms and descriptions. Tables that join to a
+ * matching table through a foreign key ({@code fk:table.column} tags) are pulled in as well, so
+ * the model sees the join partners it needs. The best {@code maxTables} tables are rendered, in
+ * order of relevance, until the token budget is spent.</p>
+ *
+ * <p>Scoring uses an inverted index built once per catalog version, so the cost of a turn
+ * depends on the message and the matching tables rather than the size of the catalog. When
+ * nothing matches, tables are listed in catalog order up to the budget.</p>
+ *
+ * <h2>Usage</h2>
+ * <pre>{@code
+ * // At most 8 tables and roughly 1500 tokens of schema per turn
+ * planner.promptContributor(new RelevantSqlCatalogContributor(catalog, 8, 1500))
+ *        .tools(new SqlCatalogTool(catalog));
+ * }</pre>
+ *
+ * <p>Omitted tables remain discoverable through {@link SqlCatalogTool}.</p>
+ *
+ * @see SqlCatalogContextContributor
+ * @see AdaptiveSqlCatalogContributor
+ */
+public class RelevantSqlCatalogContributor implements PromptContributor {
+
+	/** Default maximum number of tables rendered per turn. */
+	public static final int DEFAULT_MAX_TABLES = 10;
+
+	/** Default token budget for the rendered tables. */
+	public static final int DEFAULT_TOKEN_BUDGET = 2000;
+
+	// Share of a matching table's score passed to each table it joins to
+	private static final double JOIN_PARTNER_WEIGHT = 0.5;
+
+	private static final String SQL_CATALOG_FOOTER = """
+
+			🔴 CRITICAL: SQL table/column names MUST be taken from this catalog exactly as shown.
+			- Use the table NAME shown before the colon, NOT user's informal terms
+			- Use the column NAME shown after the bullet, NOT invented names
+			- For JOINs, use FK relationships shown in column tags (e.g., fk:table.id means JOIN table ON ... = table.id)
+			- If a name doesn't appear in this catalog, use the listTables/getTableDetails tools to discover it
+			""";
+
+	private final SqlCatalog catalog;
+	private final int maxTables;
+	private final int tokenBudget;
+	private volatile SqlCatalogRelevanceIndex index;
+
+	/**
+	 * Creates a contributor with the default table limit and token budget.
+	 *
+	 * @param catalog the SQL catalog containing schema information
+	 */
+	public RelevantSqlCatalogContributor(SqlCatalog catalog) {
+		this(catalog, DEFAULT_MAX_TABLES, DEFAULT_TOKEN_BUDGET);
+	}
+
+	/**
+	 * Creates a relevance-ranked contributor.
+	 *
+	 * @param catalog the SQL catalog containing schema information
+	 * @param maxTables maximum number of tables to render per turn
+	 * @param tokenBudget approximate number of tokens the rendered tables may use; the most
+	 *        relevant table is always rendered
+	 */
+	public RelevantSqlCatalogContributor(SqlCatalog catalog, int maxTables, int tokenBudget) {
+		this.catalog = Objects.requireNonNull(catalog, "catalog must not be null");
+		if (maxTables < 1) {
+			throw new IllegalArgumentException("maxTables must be at least 1");
+		}
+		if (tokenBudget < 1) {
+			throw new IllegalArgumentException("tokenBudget must be at least 1");
+		}
+		this.maxTables = maxTables;
+		this.tokenBudget = tokenBudget;
+	}
+
+	@Override
+	public Optional<String> contribute(SystemPromptContext context) {
+		SqlCatalogRelevanceIndex current = index();
+		if (current.tableCount() == 0) {
+			return Optional.empty();
+		}
+
+		List<String> candidates = new ArrayList<>();
+		for (SqlCatalogRelevanceIndex.ScoredTable scored : current.rank(requestText(context), JOIN_PARTNER_WEIGHT)) {
+			candidates.add(scored.name());
+		}
+		boolean matched = !candidates.isEmpty();
+		if (!matched) {
+			candidates = current.tableNames();
+		}
+
+		StringBuilder sb = new StringBuilder(matched
+				? "SQL CATALOG (tables relevant to this request):\n"
+				: "SQL CATALOG:\n");
+		int tokens = 0;
+		int included = 0;
+		for (String tableName : candidates) {
+			if (included == maxTables) {
+				break;
+			}
+			String text = current.render(tableName);
+			int cost = estimateTokens(text);
+			if (included > 0 && tokens + cost > tokenBudget) {
+				continue;
+			}
+			sb.append(text);
+			tokens += cost;
+			included++;
+		}
+		int omitted = current.tableCount() - included;
+		if (omitted > 0) {
+			sb.append("(").append(omitted).append(omitted == 1 ? " more table" : " more tables")
+					.append(" not shown)\n");
+		}
+		sb.append(SQL_CATALOG_FOOTER);
+		return Optional.of(sb.toString().trim());
+	}
+
+	/**
+	 * Drops column descriptions, then column details, then columns, before dropping tables.
+	 */
+	@Override
+	public SegmentReducer reducer() {
+		return SqlCatalogSegmentReducer.INSTANCE;
+	}
+
+	/**
+	 * Returns the index for the catalog's current version, rebuilding it after a change.
+	 */
+	private SqlCatalogRelevanceIndex index() {
+		SqlCatalogRelevanceIndex current = index;
+		if (current == null || current.version() != catalog.version()) {
+			current = SqlCatalogRelevanceIndex.of(catalog.snapshot());
+			index = current;
+		}
+		return current;
+	}
+
+	/**
+	 * The text to score tables against: the user message, plus the original instruction of an
+	 * ongoing conversation so that follow-ups ("and by region?") keep their tables.
+	 */
+	private static String requestText(SystemPromptContext context) {
+		if (context == null) {
+			return "";
+		}
+		Set<String> parts = new LinkedHashSet<>();
+		context.contextFor("userMessage").map(Object::toString).ifPresent(parts::add);
+		context.contextFor("conversationState")
+				.filter(ConversationState.class::isInstance)
+				.map(ConversationState.class::cast)
+				.map(ConversationState::originalInstruction)
+				.ifPresent(parts::add);
+		return String.join("\n", parts);
+	}
+
+	/**
+	 * Rough token count of English prose and identifiers: about four characters per token.
+	 */
+	private static int estimateTokens(String text) {
+		return (text.length() + 3) / 4;
+	}
+
+	/**
+	 * Gets the maximum number of tables rendered per turn.
+	 *
+	 * @return the table limit
+	 */
+	public int getMaxTables() {
+		return maxTables;
+	}
+
+	/**
+	 * Gets the token budget for the rendered tables.
+	 *
+	 * @return the token budget
+	 */
+	public int getTokenBudget() {
+		return tokenBudget;
+	}
+}
@@ -0,0 +1,196 @@
+package org.javai.springai.actions.sql;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@link SqlCatalog} whose entire schema can be replaced atomically while it is in use.
+ *
+ * <p>The catalog holds a single immutable {@link SqlCatalogSnapshot}. {@link #swap(SqlCatalog)}
+ * and {@link #reload()} build the next snapshot off to the side and publish it with one atomic
+ * reference update, so readers never observe a half-loaded schema. Work already in progress is
+ * unaffected: {@link Query#fromSql(String, SqlCatalog)} pins the snapshot that was current when
+ * it started and completes against that version.</p>
+ *
+ * <pre>{@code
+ * JdbcSqlCatalogLoader loader = JdbcSqlCatalogLoader.builder(dataSource).build();
+ * ReloadableSqlCatalog catalog = new ReloadableSqlCatalog(loader);
+ * scheduler.scheduleAtFixedRate(catalog::reload, 1, 1, TimeUnit.HOURS);
+ * }</pre>
+ *
+ * <p>Each successful swap increments {@link #version()}, which invalidates prompt text and other
+ * data cached for the previous schema.</p>
+ */
+public final class ReloadableSqlCatalog implements SqlCatalog {
+
+	private static final Logger logger = LoggerFactory.getLogger(ReloadableSqlCatalog.class);
+
+	private final Supplier<? extends SqlCatalog> loader;
+	private final AtomicLong generation = new AtomicLong();
+	private final AtomicReference<SqlCatalogSnapshot> current = new AtomicReference<>();
+	// Catalog most recently swapped in, to skip reloads that return the same instance
+	private volatile SqlCatalog lastLoaded;
+
+	/**
+	 * Create a catalog serving the given schema until it is swapped.
+	 *
+	 * @param initial the initial schema
+	 */
+	public ReloadableSqlCatalog(SqlCatalog initial) {
+		this.loader = null;
+		swap(initial);
+	}
+
+	/**
+	 * Create a catalog that loads its schema from the given loader, now and on every
+	 * {@link #reload()}.
+	 *
+	 * @param loader supplies a freshly loaded schema; called on the reloading thread
+	 * @throws RuntimeException if the initial load fails
+	 */
+	public ReloadableSqlCatalog(Supplier<? extends SqlCatalog> loader) {
+		this.loader = Objects.requireNonNull(loader, "loader must not be null");
+		swap(loader.get());
+	}
+
+	/**
+	 * Atomically replace the schema.
+	 *
+	 * @param catalog the new schema; its current contents are copied
+	 * @return the new version
+	 */
+	public long swap(SqlCatalog catalog) {
+		Objects.requireNonNull(catalog, "catalog must not be null");
+		SqlCatalogSnapshot captured = SqlCatalogSnapshot.of(catalog);
+		synchronized (generation) {
+			long version = generation.incrementAndGet();
+			current.set(captured.withVersion(version));
+			lastLoaded = catalog;
+			return version;
+		}
+	}
+
+	/**
+	 * Load the schema again from the loader and swap it in. If loading fails, the current schema
+	 * is kept and the failure is logged. If the loader returns the same catalog instance as last
+	 * time, as {@link JdbcSqlCatalogLoader} does when nothing changed, the version is kept.
+	 *
+	 * @return {@code true} if a new schema was swapped in
+	 * @throws IllegalStateException if the catalog was not created with a loader
+	 */
+	public synchronized boolean reload() {
+		if (loader == null) {
+			throw new IllegalStateException("ReloadableSqlCatalog was created without a loader");
+		}
+		SqlCatalog loaded;
+		try {
+			loaded = loader.get();
+		} catch (RuntimeException e) {
+			logger.warn("Failed to reload SQL catalog; keeping version {}", version(), e);
+			return false;
+		}
+		if (loaded == null) {
+			logger.warn("SQL catalog loader returned null; keeping version {}", version());
+			return false;
+		}
+		if (loaded == lastLoaded) {
+			return false;
+		}
+		long version = swap(loaded);
+		logger.debug("Reloaded SQL catalog as version {}", version);
+		return true;
+	}
+
+	/**
+	 * Reload on the given executor.
+	 *
+	 * @param executor runs the loader and the swap
+	 * @return completes with the result of {@link #reload()}
+	 */
+	public CompletableFuture<Boolean> reloadAsync(Executor executor) {
+		return CompletableFuture.supplyAsync(this::reload, executor);
+	}
+
+	@Override
+	public SqlCatalogSnapshot snapshot() {
+		return current.get();
+	}
+
+	@Override
+	public long version() {
+		return current.get().version();
+	}
+
+	@Override
+	public Map<String, SqlTable> tables() {
+		return current.get().tables();
+	}
+
+	@Override
+	public SqlCatalogIndex index() {
+		return current.get().index();
+	}
+
+	@Override
+	public Query.Dialect dialect() {
+		return current.get().dialect();
+	}
+
+	@Override
+	public SqlDialectRenderer dialectRenderer() {
+		return current.get().dialectRenderer();
+	}
+
+	@Override
+	public QueryLimits queryLimits() {
+		return current.get().queryLimits();
+	}
+
+	@Override
+	public int queryCacheSize() {
+		return current.get().queryCacheSize();
+	}
+
+	@Override
+	public boolean validateColumns() {
+		return current.get().validateColumns();
+	}
+
+	@Override
+	public boolean usesModelNames() {
+		return current.get().usesModelNames();
+	}
+
+	@Override
+	public Optional<String> getTableModelName(String tableName) {
+		return current.get().getTableModelName(tableName);
+	}
+
+	@Override
+	public Optional<String> getColumnModelName(String tableName, String columnName) {
+		return current.get().getColumnModelName(tableName, columnName);
+	}
+
+	@Override
+	public Optional<String> resolveTableFromModelName(String modelName) {
+		return current.get().resolveTableFromModelName(modelName);
+	}
+
+	@Override
+	public Optional<String> resolveColumnFromModelName(String tableModelName, String columnModelName) {
+		return current.get().resolveColumnFromModelName(tableModelName, columnModelName);
+	}
+
+	@Override
+	public Map<String, String> modelNameMappings() {
+		return current.get().modelNameMappings();
+	}
+}
@@ -0,0 +1,38 @@
+package org.javai.springai.actions.sql;
+
+/**
+ * The tenant and session a schema access belongs to.
+ *
+ * <p>Used by {@link HierarchicalSchemaAccessTracker} to count accesses per tenant and per
+ * session in addition to globally. Either part may be {@code null}: a scope without a tenant
+ * only counts globally, and a scope without a session does not count per session.</p>
+ *
+ * @param tenantId the tenant, or {@code null}
+ * @param sessionId the session within the tenant, or {@code null}
+ */
+public record SchemaAccessScope(String tenantId, String sessionId) {
+
+	/** Scope of accesses that belong to no tenant or session. */
+	public static final SchemaAccessScope GLOBAL = new SchemaAccessScope(null, null);
+
+	/**
+	 * Scope of a tenant, outside any particular session.
+	 *
+	 * @param tenantId the tenant
+	 * @return the scope
+	 */
+	public static SchemaAccessScope ofTenant(String tenantId) {
+		return new SchemaAccessScope(tenantId, null);
+	}
+
+	/**
+	 * Scope of a session of a tenant.
+	 *
+	 * @param tenantId the tenant, or {@code null} for single-tenant deployments
+	 * @param sessionId the session
+	 * @return the scope
+	 */
+	public static SchemaAccessScope ofSession(String tenantId, String sessionId) {
+		return new SchemaAccessScope(tenantId, sessionId);
+	}
+}
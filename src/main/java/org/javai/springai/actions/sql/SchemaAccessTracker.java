@@ -1,5 +1,7 @@
 package org.javai.springai.actions.sql;
 
+import java.time.Instant;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -13,13 +15,16 @@ import java.util.Set;
  * <h2>Usage Pattern</h2>
  * <ol>
  *   <li>Wrap {@link SqlCatalogTool} to record access via {@link #recordTableAccess}</li>
- *   <li>Query hot tables via {@link #getHotTables} with a threshold</li>
+ *   <li>Query hot tables via {@link #getHotTables} or {@link #getTopTables} with a threshold</li>
  *   <li>Include hot tables in system prompt via AdaptiveSqlCatalogContributor</li>
  * </ol>
  * 
  * <h2>Implementations</h2>
  * <ul>
  *   <li>{@link InMemorySchemaAccessTracker} - Simple in-memory implementation for testing</li>
+ *   <li>{@link DecayingSchemaAccessTracker} - Sliding-window, decayed counts for long-running services</li>
+ *   <li>{@link HierarchicalSchemaAccessTracker} - Global, per-tenant and per-session counts</li>
+ *   <li>{@link FileBackedSchemaAccessTracker} - Counts persisted across restarts</li>
  * </ul>
  * 
  * @see SqlCatalogTool
@@ -37,6 +42,33 @@ public interface SchemaAccessTracker {
 	 */
 	void recordTableAccess(String tableName);
 
+	/**
+	 * Records several accesses to a table at once, e.g. when restoring persisted counts.
+	 *
+	 * @param tableName the canonical table name that was accessed
+	 * @param count the number of accesses (≥0)
+	 */
+	default void recordTableAccess(String tableName, int count) {
+		for (int i = 0; i < count; i++) {
+			recordTableAccess(tableName);
+		}
+	}
+
+	/**
+	 * Records several accesses to a table that happened at a given time, e.g. when restoring
+	 * persisted counts.
+	 *
+	 * <p>Trackers that forget old accesses count them at the time they happened, and not at all
+	 * if they have already expired. The default ignores the time.</p>
+	 *
+	 * @param tableName the canonical table name that was accessed
+	 * @param count the number of accesses (≥0)
+	 * @param accessedAt when the accesses happened
+	 */
+	default void recordTableAccess(String tableName, int count, Instant accessedAt) {
+		recordTableAccess(tableName, count);
+	}
+
 	/**
 	 * Gets the number of times a table has been accessed.
 	 * 
@@ -56,6 +88,26 @@ public interface SchemaAccessTracker {
 	 */
 	Set<String> getHotTables(int threshold);
 
+	/**
+	 * Gets the most accessed tables that meet {@code threshold}, most accessed first.
+	 *
+	 * <p>The default implementation sorts {@link #getAllAccessCounts()}; implementations that
+	 * maintain a ranking should override it.</p>
+	 *
+	 * @param limit maximum number of tables to return
+	 * @param threshold minimum access count to be considered "hot"
+	 * @return table names by descending access count, ties by name (never null)
+	 */
+	default List<String> getTopTables(int limit, int threshold) {
+		return getAllAccessCounts().entrySet().stream()
+				.filter(e -> e.getValue() >= threshold)
+				.sorted(Map.Entry.<String, Integer>comparingByValue().reversed()
+						.thenComparing(Map.Entry.comparingByKey()))
+				.limit(limit)
+				.map(Map.Entry::getKey)
+				.toList();
+	}
+
 	/**
 	 * Gets all access counts as a map.
 	 * 
@@ -32,6 +32,27 @@ public interface SqlCatalog {
 		return Query.Dialect.ANSI;
 	}
 
+	/**
+	 * Returns the renderer that {@link Query#sqlString()} uses for this catalog.
+	 *
+	 * <p>Catalogs for databases without a built-in {@link Query.Dialect} return their own
+	 * renderer here.</p>
+	 *
+	 * @return the renderer (defaults to the renderer of {@link #dialect()})
+	 */
+	default SqlDialectRenderer dialectRenderer() {
+		return dialect().renderer();
+	}
+
+	/**
+	 * Returns the limits enforced on queries rendered for this catalog.
+	 *
+	 * @return the query limits (defaults to {@link QueryLimits#NONE})
+	 */
+	default QueryLimits queryLimits() {
+		return QueryLimits.NONE;
+	}
+
 	/**
 	 * Returns whether column-level validation is enabled for this catalog.
 	 * 
@@ -48,6 +69,62 @@ public interface SqlCatalog {
 		return false;
 	}
 
+	/**
+	 * Returns the version of this catalog's contents.
+	 * 
+	 * <p>Catalogs whose tables, columns, synonyms or settings can change must return a
+	 * different version after each change, so that data derived from the catalog (its index,
+	 * rendered prompt text, parsed queries) can be cached per version. The default of
+	 * {@code 0} declares the catalog immutable.</p>
+	 * 
+	 * @return the catalog version
+	 */
+	default long version() {
+		return 0L;
+	}
+
+	/**
+	 * Returns how many validated queries {@link Query#fromSql(String, SqlCatalog)} caches per
+	 * catalog version.
+	 * 
+	 * <p>Queries are cached by catalogs whose {@link #snapshot()} is a {@link SqlCatalogSnapshot};
+	 * others validate every query. {@code 0} disables the cache.</p>
+	 * 
+	 * @return the maximum number of cached queries (defaults to 512)
+	 */
+	default int queryCacheSize() {
+		return QueryCache.DEFAULT_MAX_ENTRIES;
+	}
+
+	/**
+	 * Returns a view of this catalog that will not change.
+	 *
+	 * <p>Operations that consult the catalog several times, such as
+	 * {@link Query#fromSql(String, SqlCatalog)}, pin a snapshot first so that every lookup
+	 * sees the same version even if the catalog is mutated or reloaded concurrently. The
+	 * default returns this catalog, which is correct for immutable catalogs; catalogs that
+	 * can change should return a {@link SqlCatalogSnapshot}.</p>
+	 *
+	 * @return an immutable view of the current version
+	 */
+	default SqlCatalog snapshot() {
+		return this;
+	}
+
+	/**
+	 * Returns a lookup index over this catalog's tables, columns, synonyms and model names.
+	 * 
+	 * <p>The default implementation builds a new index on every call. Implementations whose
+	 * tables do not change on every call should cache the index and rebuild it on mutation, as
+	 * {@link InMemorySqlCatalog}, {@link SqlCatalogSnapshot} and {@link ReloadableSqlCatalog}
+	 * do.</p>
+	 * 
+	 * @return the catalog index
+	 */
+	default SqlCatalogIndex index() {
+		return SqlCatalogIndex.of(this);
+	}
+
 	/**
 	 * Resolves a table name (which may be a synonym) to the canonical table name.
 	 * 
@@ -59,20 +136,7 @@ public interface SqlCatalog {
 	 * @return the canonical table name, or empty if no match found
 	 */
 	default Optional<String> resolveTableName(String tableName) {
-		if (tableName == null || tableName.isBlank()) {
-			return Optional.empty();
-		}
-		// First, check for exact canonical match
-		if (tables().containsKey(tableName)) {
-			return Optional.of(tableName);
-		}
-		// Then check synonyms
-		for (SqlTable table : tables().values()) {
-			if (table.matchesName(tableName)) {
-				return Optional.of(table.name());
-			}
-		}
-		return Optional.empty();
+		return index().resolveTableName(tableName);
 	}
 
 	// ==================== MODEL NAME MAPPING ====================
@@ -4,6 +4,7 @@ import java.util.List;
 import java.util.Optional;
 import java.util.StringJoiner;
 import org.javai.springai.actions.PromptContributor;
+import org.javai.springai.actions.SegmentReducer;
 import org.javai.springai.actions.internal.prompt.SystemPromptContext;
 
 /**
@@ -37,9 +38,13 @@ public final class SqlCatalogContextContributor implements PromptContributor {
 			""";
 
 	private final SqlCatalog catalog;
+	private final boolean versioned;
+	// Catalog last read from the "sql" context when none is configured
+	private volatile SqlCatalog contextCatalog;
 
 	public SqlCatalogContextContributor(SqlCatalog catalog) {
 		this.catalog = catalog;
+		this.versioned = isVersioned(catalog);
 	}
 
 	@Override
@@ -51,6 +56,13 @@ public final class SqlCatalogContextContributor implements PromptContributor {
 								.map(SqlCatalog.class::cast)
 								.orElse(null)
 						: null;
+		if (catalog == null) {
+			contextCatalog = effectiveCatalog;
+		}
+		if (effectiveCatalog != null) {
+			// Render a single version even if the catalog is reloaded meanwhile
+			effectiveCatalog = effectiveCatalog.snapshot();
+		}
 		if (effectiveCatalog == null || effectiveCatalog.tables().isEmpty()) {
 			return Optional.empty();
 		}
@@ -62,58 +74,106 @@ public final class SqlCatalogContextContributor implements PromptContributor {
 		}
 	}
 
+	/**
+	 * Static only for a configured catalog that reports a new version on every change, that
+	 * is one whose {@link SqlCatalog#snapshot()} is a {@link SqlCatalogSnapshot}. Other
+	 * catalogs, and a catalog read from the context, are rendered on every turn.
+	 */
+	@Override
+	public boolean isStatic() {
+		return versioned;
+	}
+
+	/**
+	 * The version of the configured catalog, or of the catalog last read from the context, so
+	 * that planners re-render the catalog after it is mutated or reloaded.
+	 */
+	@Override
+	public long staticVersion() {
+		SqlCatalog source = catalog != null ? catalog : contextCatalog;
+		return isVersioned(source) ? source.version() : 0L;
+	}
+
+	private static boolean isVersioned(SqlCatalog catalog) {
+		return catalog != null && catalog.snapshot() instanceof SqlCatalogSnapshot;
+	}
+
+	/**
+	 * Drops column descriptions, then column details, then columns, before dropping tables.
+	 */
+	@Override
+	public SegmentReducer reducer() {
+		return SqlCatalogSegmentReducer.INSTANCE;
+	}
+
 	/**
 	 * Contributes standard (canonical name) catalog format.
 	 */
 	private String contributeStandard(SqlCatalog catalog) {
 		StringBuilder sb = new StringBuilder("SQL CATALOG:\n");
-		catalog.tables().forEach((tableName, table) -> {
-			sb.append("- ").append(tableName);
-			if (table.description() != null && !table.description().isBlank()) {
-				sb.append(": ").append(table.description());
-			}
-			if (table.tags() != null && !table.tags().isEmpty()) {
-				sb.append(" [tags: ").append(String.join(", ", table.tags())).append("]");
-			}
-			if (table.constraints() != null && !table.constraints().isEmpty()) {
-				sb.append(" [constraints: ").append(String.join("; ", table.constraints())).append("]");
-			}
-			// Add table synonyms
-			if (table.synonyms() != null && !table.synonyms().isEmpty()) {
-				sb.append(" (aka: ").append(String.join(", ", table.synonyms())).append(")");
-			}
-			sb.append("\n");
-			if (table.columns() != null && !table.columns().isEmpty()) {
-				for (var col : table.columns()) {
-					sb.append("  • ").append(col.name());
-					StringJoiner details = new StringJoiner("; ");
-					if (col.dataType() != null && !col.dataType().isBlank()) {
-						details.add("type=" + col.dataType());
-					}
-					if (col.description() != null && !col.description().isBlank()) {
-						details.add(col.description());
-					}
-					if (col.tags() != null && !col.tags().isEmpty()) {
-						details.add("tags=" + String.join(",", col.tags()));
-					}
-					if (col.constraints() != null && !col.constraints().isEmpty()) {
-						details.add("constraints=" + String.join(",", col.constraints()));
-					}
-					// Add column synonyms
-					if (col.synonyms() != null && !col.synonyms().isEmpty()) {
-						details.add("aka=" + String.join(",", col.synonyms()));
-					}
-					if (details.length() > 0) {
-						sb.append(" (").append(details).append(")");
-					}
-					sb.append("\n");
-				}
-			}
-		});
+		catalog.tables().forEach((tableName, table) -> appendStandardTable(sb, tableName, table));
 		sb.append(SQL_CATALOG_FOOTER);
 		return sb.toString().trim();
 	}
 
+	/**
+	 * Renders one table (and its columns) in the format of the catalog section, using model
+	 * names if the catalog has them enabled.
+	 */
+	static String renderTable(SqlCatalog catalog, String tableName, SqlCatalog.SqlTable table) {
+		StringBuilder sb = new StringBuilder();
+		if (catalog.usesModelNames()) {
+			appendModelNameTable(sb, catalog, tableName, table);
+		} else {
+			appendStandardTable(sb, tableName, table);
+		}
+		return sb.toString();
+	}
+
+	private static void appendStandardTable(StringBuilder sb, String tableName, SqlCatalog.SqlTable table) {
+		sb.append("- ").append(tableName);
+		if (table.description() != null && !table.description().isBlank()) {
+			sb.append(": ").append(table.description());
+		}
+		if (table.tags() != null && !table.tags().isEmpty()) {
+			sb.append(" [tags: ").append(String.join(", ", table.tags())).append("]");
+		}
+		if (table.constraints() != null && !table.constraints().isEmpty()) {
+			sb.append(" [constraints: ").append(String.join("; ", table.constraints())).append("]");
+		}
+		// Add table synonyms
+		if (table.synonyms() != null && !table.synonyms().isEmpty()) {
+			sb.append(" (aka: ").append(String.join(", ", table.synonyms())).append(")");
+		}
+		sb.append("\n");
+		if (table.columns() != null && !table.columns().isEmpty()) {
+			for (var col : table.columns()) {
+				sb.append("  • ").append(col.name());
+				StringJoiner details = new StringJoiner("; ");
+				if (col.dataType() != null && !col.dataType().isBlank()) {
+					details.add("type=" + col.dataType());
+				}
+				if (col.description() != null && !col.description().isBlank()) {
+					details.add(col.description());
+				}
+				if (col.tags() != null && !col.tags().isEmpty()) {
+					details.add("tags=" + String.join(",", col.tags()));
+				}
+				if (col.constraints() != null && !col.constraints().isEmpty()) {
+					details.add("constraints=" + String.join(",", col.constraints()));
+				}
+				// Add column synonyms
+				if (col.synonyms() != null && !col.synonyms().isEmpty()) {
+					details.add("aka=" + String.join(",", col.synonyms()));
+				}
+				if (details.length() > 0) {
+					sb.append(" (").append(details).append(")");
+				}
+				sb.append("\n");
+			}
+		}
+	}
+
 	/**
 	 * Contributes catalog with alternative names (hiding real database object names).
 	 * 
@@ -126,57 +186,60 @@ public final class SqlCatalogContextContributor implements PromptContributor {
 	 */
 	private String contributeWithModelNames(SqlCatalog catalog) {
 		StringBuilder sb = new StringBuilder("SQL CATALOG:\n");
-		catalog.tables().forEach((tableName, table) -> {
-			String tableModelName = catalog.getTableModelName(tableName).orElse(tableName);
-			sb.append("- ").append(tableModelName);
-			if (table.description() != null && !table.description().isBlank()) {
-				sb.append(": ").append(table.description());
-			}
-			if (table.tags() != null && !table.tags().isEmpty()) {
-				sb.append(" [tags: ").append(String.join(", ", table.tags())).append("]");
-			}
-			// Show remaining synonyms (first one is the model name)
-			List<String> remainingSynonyms = getRemainingTableSynonyms(table, tableModelName);
-			if (!remainingSynonyms.isEmpty()) {
-				sb.append(" (also: ").append(String.join(", ", remainingSynonyms)).append(")");
-			}
-			sb.append("\n");
-			if (table.columns() != null && !table.columns().isEmpty()) {
-				for (var col : table.columns()) {
-					String columnModelName = catalog.getColumnModelName(tableName, col.name()).orElse(col.name());
-					sb.append("  • ").append(columnModelName);
-					StringJoiner details = new StringJoiner("; ");
-					if (col.dataType() != null && !col.dataType().isBlank()) {
-						details.add("type=" + col.dataType());
-					}
-					if (col.description() != null && !col.description().isBlank()) {
-						details.add(col.description());
-					}
-					// Convert FK references to model names
-					if (col.tags() != null && !col.tags().isEmpty()) {
-						String modelNameTags = convertFkTagsToModelNames(col.tags(), catalog);
-						details.add("tags=" + modelNameTags);
-					}
-					// Show remaining column synonyms (first one is the model name)
-					List<String> remainingColSynonyms = getRemainingColumnSynonyms(col, columnModelName);
-					if (!remainingColSynonyms.isEmpty()) {
-						details.add("also=" + String.join(",", remainingColSynonyms));
-					}
-					if (details.length() > 0) {
-						sb.append(" (").append(details).append(")");
-					}
-					sb.append("\n");
-				}
-			}
-		});
+		catalog.tables().forEach((tableName, table) -> appendModelNameTable(sb, catalog, tableName, table));
 		sb.append(SQL_CATALOG_FOOTER);
 		return sb.toString().trim();
 	}
 
+	private static void appendModelNameTable(StringBuilder sb, SqlCatalog catalog, String tableName,
+			SqlCatalog.SqlTable table) {
+		String tableModelName = catalog.getTableModelName(tableName).orElse(tableName);
+		sb.append("- ").append(tableModelName);
+		if (table.description() != null && !table.description().isBlank()) {
+			sb.append(": ").append(table.description());
+		}
+		if (table.tags() != null && !table.tags().isEmpty()) {
+			sb.append(" [tags: ").append(String.join(", ", table.tags())).append("]");
+		}
+		// Show remaining synonyms (first one is the model name)
+		List<String> remainingSynonyms = getRemainingTableSynonyms(table, tableModelName);
+		if (!remainingSynonyms.isEmpty()) {
+			sb.append(" (also: ").append(String.join(", ", remainingSynonyms)).append(")");
+		}
+		sb.append("\n");
+		if (table.columns() != null && !table.columns().isEmpty()) {
+			for (var col : table.columns()) {
+				String columnModelName = catalog.getColumnModelName(tableName, col.name()).orElse(col.name());
+				sb.append("  • ").append(columnModelName);
+				StringJoiner details = new StringJoiner("; ");
+				if (col.dataType() != null && !col.dataType().isBlank()) {
+					details.add("type=" + col.dataType());
+				}
+				if (col.description() != null && !col.description().isBlank()) {
+					details.add(col.description());
+				}
+				// Convert FK references to model names
+				if (col.tags() != null && !col.tags().isEmpty()) {
+					String modelNameTags = convertFkTagsToModelNames(col.tags(), catalog);
+					details.add("tags=" + modelNameTags);
+				}
+				// Show remaining column synonyms (first one is the model name)
+				List<String> remainingColSynonyms = getRemainingColumnSynonyms(col, columnModelName);
+				if (!remainingColSynonyms.isEmpty()) {
+					details.add("also=" + String.join(",", remainingColSynonyms));
+				}
+				if (details.length() > 0) {
+					sb.append(" (").append(details).append(")");
+				}
+				sb.append("\n");
+			}
+		}
+	}
+
 	/**
 	 * Gets table synonyms excluding the first one if it's used as the model name.
 	 */
-	private List<String> getRemainingTableSynonyms(SqlCatalog.SqlTable table, String modelName) {
+	private static List<String> getRemainingTableSynonyms(SqlCatalog.SqlTable table, String modelName) {
 		if (table.synonyms() == null || table.synonyms().isEmpty()) {
 			return List.of();
 		}
@@ -192,7 +255,7 @@ public final class SqlCatalogContextContributor implements PromptContributor {
 	/**
 	 * Gets column synonyms excluding the first one if it's used as the model name.
 	 */
-	private List<String> getRemainingColumnSynonyms(SqlCatalog.SqlColumn col, String modelName) {
+	private static List<String> getRemainingColumnSynonyms(SqlCatalog.SqlColumn col, String modelName) {
 		if (col.synonyms() == null || col.synonyms().isEmpty()) {
 			return List.of();
 		}
@@ -209,7 +272,7 @@ public final class SqlCatalogContextContributor implements PromptContributor {
 	 * Converts FK references in column tags to use model names.
 	 * <p>Converts tags like "fk:dim_customer.id" to use their model name equivalents</p>
 	 */
-	private String convertFkTagsToModelNames(java.util.List<String> tags, SqlCatalog catalog) {
+	private static String convertFkTagsToModelNames(java.util.List<String> tags, SqlCatalog catalog) {
 		return tags.stream()
 				.map(tag -> convertFkTagToModelName(tag, catalog))
 				.collect(java.util.stream.Collectors.joining(","));
@@ -218,7 +281,7 @@ public final class SqlCatalogContextContributor implements PromptContributor {
 	/**
 	 * Converts a single FK tag to use model names if it matches the fk:table.column pattern.
 	 */
-	private String convertFkTagToModelName(String tag, SqlCatalog catalog) {
+	private static String convertFkTagToModelName(String tag, SqlCatalog catalog) {
 		if (tag == null || !tag.startsWith("fk:")) {
 			return tag;
 		}
@@ -0,0 +1,296 @@
+package org.javai.springai.actions.sql;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import org.javai.springai.actions.sql.SqlCatalog.SqlColumn;
+import org.javai.springai.actions.sql.SqlCatalog.SqlTable;
+
+/**
+ * Immutable lookup index over the tables of a {@link SqlCatalog}.
+ *
+ * <p>Table names, table synonyms, model names and per-table column names and synonyms are
+ * held in case-folded hash maps, so that resolving a name costs a single map lookup instead of
+ * a scan over every table, column and synonym in the catalog. {@link Query#fromSql} resolves
+ * each table and column reference of a generated query through the catalog's index.</p>
+ *
+ * <p>Where several entries fold to the same key, the first in catalog order wins, which
+ * matches a linear scan with {@link SqlTable#matchesName(String)}.</p>
+ *
+ * <p>An index is a snapshot: it does not see tables added to the catalog after it was built.
+ * Catalogs that change should rebuild it on mutation, as {@link InMemorySqlCatalog} does.</p>
+ */
+public final class SqlCatalogIndex {
+
+	private static final SqlCatalogIndex EMPTY = new SqlCatalogIndex(Map.of(), Map.of(), Map.of(), Map.of(),
+			Map.of(), Map.of(), Map.of());
+
+	private final Map<String, SqlTable> tables;
+	private final Map<String, String> tablesByName;
+	private final Map<String, String> tablesBySynonym;
+	private final Map<String, ColumnIndex> columns;
+	private final Map<String, String> tableModelNames;
+	private final Map<String, String> tablesByModelName;
+	private final Map<String, String> modelNameMappings;
+
+	private SqlCatalogIndex(Map<String, SqlTable> tables, Map<String, String> tablesByName,
+			Map<String, String> tablesBySynonym, Map<String, ColumnIndex> columns,
+			Map<String, String> tableModelNames, Map<String, String> tablesByModelName,
+			Map<String, String> modelNameMappings) {
+		this.tables = tables;
+		this.tablesByName = tablesByName;
+		this.tablesBySynonym = tablesBySynonym;
+		this.columns = columns;
+		this.tableModelNames = tableModelNames;
+		this.tablesByModelName = tablesByModelName;
+		this.modelNameMappings = modelNameMappings;
+	}
+
+	/**
+	 * Index with no tables.
+	 */
+	public static SqlCatalogIndex empty() {
+		return EMPTY;
+	}
+
+	/**
+	 * Build an index over the catalog's current tables, including its model names when
+	 * {@link SqlCatalog#usesModelNames()} is enabled.
+	 *
+	 * @param catalog the catalog to index
+	 * @return the index
+	 */
+	public static SqlCatalogIndex of(SqlCatalog catalog) {
+		if (!catalog.usesModelNames()) {
+			return of(catalog.tables(), null, null);
+		}
+		return of(catalog.tables(),
+				table -> catalog.getTableModelName(table.name()).orElse(null),
+				(table, column) -> catalog.getColumnModelName(table.name(), column.name()).orElse(null));
+	}
+
+	/**
+	 * Build an index over the given tables.
+	 *
+	 * @param tables tables keyed by canonical name, in catalog order
+	 * @param tableModelName model name of each table, or {@code null} if model names are disabled
+	 * @param columnModelName model name of each column, or {@code null} if model names are disabled
+	 * @return the index
+	 */
+	public static SqlCatalogIndex of(Map<String, SqlTable> tables,
+			Function<SqlTable, String> tableModelName,
+			BiFunction<SqlTable, SqlColumn, String> columnModelName) {
+		if (tables.isEmpty()) {
+			return EMPTY;
+		}
+		Map<String, String> tablesByName = new HashMap<>();
+		Map<String, String> tablesBySynonym = new HashMap<>();
+		Map<String, ColumnIndex> columns = new HashMap<>();
+		Map<String, String> tableModelNames = new HashMap<>();
+		Map<String, String> tablesByModelName = new HashMap<>();
+		Map<String, String> modelNameMappings = new LinkedHashMap<>();
+		Map<String, String> columnModelMappings = new LinkedHashMap<>();
+
+		for (SqlTable table : tables.values()) {
+			tablesByName.putIfAbsent(fold(table.name()), table.name());
+			for (String synonym : table.synonymsOrEmpty()) {
+				tablesByName.putIfAbsent(fold(synonym), table.name());
+				tablesBySynonym.putIfAbsent(fold(synonym), table.name());
+			}
+
+			String modelName = tableModelName != null ? tableModelName.apply(table) : null;
+			if (modelName != null) {
+				tableModelNames.put(table.name(), modelName);
+				tablesByModelName.putIfAbsent(fold(modelName), table.name());
+				modelNameMappings.put(modelName, table.name());
+			}
+			columns.put(table.name(), ColumnIndex.of(table, modelName != null ? columnModelName : null,
+					columnModelMappings));
+		}
+		modelNameMappings.putAll(columnModelMappings);
+
+		return new SqlCatalogIndex(
+				Collections.unmodifiableMap(new LinkedHashMap<>(tables)),
+				Map.copyOf(tablesByName),
+				Map.copyOf(tablesBySynonym),
+				Map.copyOf(columns),
+				Map.copyOf(tableModelNames),
+				Map.copyOf(tablesByModelName),
+				Collections.unmodifiableMap(modelNameMappings));
+	}
+
+	public boolean isEmpty() {
+		return tables.isEmpty();
+	}
+
+	/**
+	 * Canonical table names, in catalog order.
+	 */
+	public Set<String> tableNames() {
+		return tables.keySet();
+	}
+
+	/**
+	 * Table with exactly the given canonical name.
+	 */
+	public Optional<SqlTable> table(String tableName) {
+		return tableName == null ? Optional.empty() : Optional.ofNullable(tables.get(tableName));
+	}
+
+	/**
+	 * Resolve a table name or synonym, ignoring case, to the canonical table name.
+	 *
+	 * @see SqlCatalog#resolveTableName(String)
+	 */
+	public Optional<String> resolveTableName(String tableName) {
+		if (tableName == null || tableName.isBlank()) {
+			return Optional.empty();
+		}
+		if (tables.containsKey(tableName)) {
+			return Optional.of(tableName);
+		}
+		return Optional.ofNullable(tablesByName.get(fold(tableName)));
+	}
+
+	/**
+	 * Resolve a table synonym, ignoring case, to the canonical table name. Canonical names
+	 * themselves are not matched.
+	 */
+	public Optional<String> resolveTableSynonym(String synonym) {
+		return synonym == null ? Optional.empty() : Optional.ofNullable(tablesBySynonym.get(fold(synonym)));
+	}
+
+	/**
+	 * Find the column of a table by name or synonym, ignoring case.
+	 *
+	 * @param tableName the canonical table name
+	 * @param columnName the column name or synonym
+	 * @see SqlTable#findColumn(String)
+	 */
+	public Optional<SqlColumn> findColumn(String tableName, String columnName) {
+		ColumnIndex index = tableName != null ? columns.get(tableName) : null;
+		if (index == null || columnName == null || columnName.isBlank()) {
+			return Optional.empty();
+		}
+		return Optional.ofNullable(index.byName.get(fold(columnName)));
+	}
+
+	/**
+	 * Resolve a column synonym of a table, ignoring case, to the canonical column name.
+	 * Canonical names themselves are not matched.
+	 *
+	 * @param tableName the canonical table name
+	 * @param synonym the column synonym
+	 */
+	public Optional<String> resolveColumnSynonym(String tableName, String synonym) {
+		ColumnIndex index = tableName != null ? columns.get(tableName) : null;
+		if (index == null || synonym == null) {
+			return Optional.empty();
+		}
+		return Optional.ofNullable(index.bySynonym.get(fold(synonym)));
+	}
+
+	/**
+	 * Model name of a table.
+	 *
+	 * @see SqlCatalog#getTableModelName(String)
+	 */
+	public Optional<String> tableModelName(String tableName) {
+		return tableName == null ? Optional.empty() : Optional.ofNullable(tableModelNames.get(tableName));
+	}
+
+	/**
+	 * Model name of a column.
+	 *
+	 * @see SqlCatalog#getColumnModelName(String, String)
+	 */
+	public Optional<String> columnModelName(String tableName, String columnName) {
+		ColumnIndex index = tableName != null ? columns.get(tableName) : null;
+		if (index == null || columnName == null) {
+			return Optional.empty();
+		}
+		return Optional.ofNullable(index.modelNames.get(columnName));
+	}
+
+	/**
+	 * Resolve a table model name, ignoring case, to the canonical table name.
+	 *
+	 * @see SqlCatalog#resolveTableFromModelName(String)
+	 */
+	public Optional<String> resolveTableModelName(String modelName) {
+		return modelName == null ? Optional.empty() : Optional.ofNullable(tablesByModelName.get(fold(modelName)));
+	}
+
+	/**
+	 * Resolve a column model name of a table, ignoring case, to the canonical column name.
+	 *
+	 * @param tableName the canonical table name
+	 * @param columnModelName the column model name
+	 */
+	public Optional<String> resolveColumnModelName(String tableName, String columnModelName) {
+		ColumnIndex index = tableName != null ? columns.get(tableName) : null;
+		if (index == null || columnModelName == null) {
+			return Optional.empty();
+		}
+		return Optional.ofNullable(index.byModelName.get(fold(columnModelName)));
+	}
+
+	/**
+	 * Model names of all tables, then all columns, mapped to the canonical table name or
+	 * {@code table.column}.
+	 *
+	 * @see SqlCatalog#modelNameMappings()
+	 */
+	public Map<String, String> modelNameMappings() {
+		return modelNameMappings;
+	}
+
+	static String fold(String name) {
+		return name.toLowerCase(Locale.ROOT);
+	}
+
+	/**
+	 * Column lookups of a single table.
+	 */
+	private record ColumnIndex(
+			Map<String, SqlColumn> byName,
+			Map<String, String> bySynonym,
+			Map<String, String> modelNames,
+			Map<String, String> byModelName
+	) {
+
+		static ColumnIndex of(SqlTable table, BiFunction<SqlTable, SqlColumn, String> columnModelName,
+				Map<String, String> modelNameMappings) {
+			if (table.columns() == null || table.columns().isEmpty()) {
+				return new ColumnIndex(Map.of(), Map.of(), Map.of(), Map.of());
+			}
+			Map<String, SqlColumn> byName = new HashMap<>();
+			Map<String, String> bySynonym = new HashMap<>();
+			Map<String, String> modelNames = new HashMap<>();
+			Map<String, String> byModelName = new HashMap<>();
+			for (SqlColumn column : table.columns()) {
+				byName.putIfAbsent(fold(column.name()), column);
+				if (column.synonyms() != null) {
+					for (String synonym : column.synonyms()) {
+						byName.putIfAbsent(fold(synonym), column);
+						bySynonym.putIfAbsent(fold(synonym), column.name());
+					}
+				}
+				String modelName = columnModelName != null ? columnModelName.apply(table, column) : null;
+				if (modelName != null) {
+					modelNames.put(column.name(), modelName);
+					byModelName.putIfAbsent(fold(modelName), column.name());
+					modelNameMappings.put(modelName, table.name() + "." + column.name());
+				}
+			}
+			return new ColumnIndex(Map.copyOf(byName), Map.copyOf(bySynonym), Map.copyOf(modelNames),
+					Map.copyOf(byModelName));
+		}
+	}
+}
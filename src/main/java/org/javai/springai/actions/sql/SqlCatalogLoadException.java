@@ -0,0 +1,16 @@
+package org.javai.springai.actions.sql;
+
+/**
+ * Exception thrown when a {@link SqlCatalog} cannot be loaded from its source, for example
+ * because the database metadata could not be read.
+ */
+public class SqlCatalogLoadException extends RuntimeException {
+
+	public SqlCatalogLoadException(String message) {
+		super(message);
+	}
+
+	public SqlCatalogLoadException(String message, Throwable cause) {
+		super(message, cause);
+	}
+}
@@ -0,0 +1,231 @@
+package org.javai.springai.actions.sql;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.javai.springai.actions.sql.SqlCatalog.SqlColumn;
+import org.javai.springai.actions.sql.SqlCatalog.SqlTable;
+
+/**
+ * Inverted index scoring the tables of one catalog version against free text.
+ *
+ * <p>Table and column names, synonyms, model names and descriptions are split into terms
+ * ({@code fct_orders} and {@code orderValue} become {@code fct, order} and {@code order, value})
+ * and each term maps to the tables it occurs in, weighted by where it occurs. Scoring a message
+ * only visits the postings of the message's terms, so its cost depends on the message and the
+ * matching tables rather than on the size of the catalog. Rarer terms count for more (inverse
+ * document frequency).</p>
+ *
+ * <p>Foreign key tags ({@code fk:table.column}) form a join graph in both directions, which
+ * {@link #rank(String, double)} uses to pull in the join partners of matching tables.</p>
+ */
+final class SqlCatalogRelevanceIndex {
+
+	private static final double NAME_WEIGHT = 3.0;
+	private static final double COLUMN_WEIGHT = 1.5;
+	private static final double DESCRIPTION_WEIGHT = 1.0;
+
+	private static final Set<String> STOP_WORDS = Set.of(
+			"a", "an", "and", "are", "as", "at", "be", "by", "can", "do", "for", "from", "give", "how",
+			"i", "in", "is", "it", "list", "me", "of", "on", "or", "per", "please", "show", "that",
+			"the", "their", "to", "what", "which", "with", "who");
+
+	/**
+	 * A table and its relevance score.
+	 *
+	 * @param name the canonical table name
+	 * @param score the relevance score; partners found only through joins score below their seeds
+	 */
+	record ScoredTable(String name, double score) {
+	}
+
+	private final long version;
+	private final SqlCatalog catalog;
+	private final Map<String, Integer> order;
+	private final Map<String, Map<String, Double>> postings;
+	private final Map<String, Set<String>> joinPartners;
+	private final Map<String, String> rendered = new ConcurrentHashMap<>();
+
+	private SqlCatalogRelevanceIndex(SqlCatalog catalog, Map<String, Integer> order,
+			Map<String, Map<String, Double>> postings, Map<String, Set<String>> joinPartners) {
+		this.version = catalog.version();
+		this.catalog = catalog;
+		this.order = order;
+		this.postings = postings;
+		this.joinPartners = joinPartners;
+	}
+
+	/**
+	 * Index a catalog. The catalog should be a {@linkplain SqlCatalog#snapshot() snapshot}.
+	 */
+	static SqlCatalogRelevanceIndex of(SqlCatalog catalog) {
+		Map<String, SqlTable> tables = catalog.tables();
+		Map<String, Integer> order = new HashMap<>();
+		Map<String, Map<String, Double>> postings = new HashMap<>();
+		Map<String, Set<String>> joinPartners = new HashMap<>();
+
+		for (SqlTable table : tables.values()) {
+			String name = table.name();
+			order.put(name, order.size());
+			addTerms(postings, name, name, NAME_WEIGHT);
+			for (String synonym : table.synonymsOrEmpty()) {
+				addTerms(postings, name, synonym, NAME_WEIGHT);
+			}
+			catalog.getTableModelName(name).ifPresent(model -> addTerms(postings, name, model, NAME_WEIGHT));
+			addTerms(postings, name, table.description(), DESCRIPTION_WEIGHT);
+			if (table.columns() == null) {
+				continue;
+			}
+			for (SqlColumn column : table.columns()) {
+				addTerms(postings, name, column.name(), COLUMN_WEIGHT);
+				if (column.synonyms() != null) {
+					for (String synonym : column.synonyms()) {
+						addTerms(postings, name, synonym, COLUMN_WEIGHT);
+					}
+				}
+				addTerms(postings, name, column.description(), DESCRIPTION_WEIGHT);
+				if (column.tags() != null) {
+					for (String tag : column.tags()) {
+						String target = foreignKeyTarget(tag);
+						if (target != null && tables.containsKey(target) && !target.equals(name)) {
+							joinPartners.computeIfAbsent(name, t -> new LinkedHashSet<>()).add(target);
+							joinPartners.computeIfAbsent(target, t -> new LinkedHashSet<>()).add(name);
+						}
+					}
+				}
+			}
+		}
+		return new SqlCatalogRelevanceIndex(catalog, order, postings, joinPartners);
+	}
+
+	long version() {
+		return version;
+	}
+
+	SqlCatalog catalog() {
+		return catalog;
+	}
+
+	int tableCount() {
+		return order.size();
+	}
+
+	/**
+	 * Score the tables against a message, most relevant first.
+	 *
+	 * @param text the message
+	 * @param joinPartnerWeight share of a matching table's score given to each of its join partners
+	 *        (0 disables join expansion)
+	 * @return tables with a positive score, by descending score and then catalog order
+	 */
+	List<ScoredTable> rank(String text, double joinPartnerWeight) {
+		Map<String, Double> scores = new HashMap<>();
+		for (String term : new LinkedHashSet<>(terms(text))) {
+			Map<String, Double> matches = postings.get(term);
+			if (matches == null) {
+				continue;
+			}
+			double idf = Math.log(1.0 + (double) order.size() / matches.size());
+			matches.forEach((table, weight) -> scores.merge(table, weight * idf, Double::sum));
+		}
+		if (joinPartnerWeight > 0 && !scores.isEmpty()) {
+			Map<String, Double> expanded = new HashMap<>(scores);
+			scores.forEach((table, score) -> {
+				for (String partner : joinPartners.getOrDefault(table, Set.of())) {
+					expanded.merge(partner, score * joinPartnerWeight, Math::max);
+				}
+			});
+			scores.clear();
+			scores.putAll(expanded);
+		}
+		List<ScoredTable> ranked = new ArrayList<>(scores.size());
+		scores.forEach((table, score) -> ranked.add(new ScoredTable(table, score)));
+		ranked.sort(Comparator.comparingDouble(ScoredTable::score).reversed()
+				.thenComparing(scored -> order.get(scored.name())));
+		return ranked;
+	}
+
+	/**
+	 * Tables in catalog order.
+	 */
+	List<String> tableNames() {
+		return List.copyOf(catalog.tables().keySet());
+	}
+
+	/**
+	 * The prompt text of a table, rendered once per index.
+	 */
+	String render(String tableName) {
+		return rendered.computeIfAbsent(tableName,
+				name -> SqlCatalogContextContributor.renderTable(catalog, name, catalog.tables().get(name)));
+	}
+
+	private static void addTerms(Map<String, Map<String, Double>> postings, String table, String text,
+			double weight) {
+		for (String term : terms(text)) {
+			postings.computeIfAbsent(term, t -> new LinkedHashMap<>()).merge(table, weight, Math::max);
+		}
+	}
+
+	/**
+	 * Split text into lower-case terms at non-alphanumeric characters and camel-case
+	 * boundaries, dropping stop words and reducing plurals to their singular.
+	 */
+	static List<String> terms(String text) {
+		if (text == null || text.isBlank()) {
+			return List.of();
+		}
+		List<String> terms = new ArrayList<>();
+		StringBuilder current = new StringBuilder();
+		for (int i = 0; i < text.length(); i++) {
+			char c = text.charAt(i);
+			boolean boundary = !Character.isLetterOrDigit(c)
+					|| (Character.isUpperCase(c) && i > 0 && Character.isLowerCase(text.charAt(i - 1)));
+			if (boundary) {
+				addTerm(terms, current);
+			}
+			if (Character.isLetterOrDigit(c)) {
+				current.append(c);
+			}
+		}
+		addTerm(terms, current);
+		return terms;
+	}
+
+	private static void addTerm(List<String> terms, StringBuilder current) {
+		if (current.isEmpty()) {
+			return;
+		}
+		String term = singular(current.toString().toLowerCase(Locale.ROOT));
+		current.setLength(0);
+		if (!STOP_WORDS.contains(term)) {
+			terms.add(term);
+		}
+	}
+
+	private static String singular(String term) {
+		if (term.length() > 4 && term.endsWith("ies")) {
+			return term.substring(0, term.length() - 3) + "y";
+		}
+		if (term.length() > 3 && term.endsWith("s") && !term.endsWith("ss")) {
+			return term.substring(0, term.length() - 1);
+		}
+		return term;
+	}
+
+	private static String foreignKeyTarget(String tag) {
+		if (tag == null || !tag.startsWith("fk:")) {
+			return null;
+		}
+		String reference = tag.substring(3);
+		int dot = reference.lastIndexOf('.');
+		return dot > 0 ? reference.substring(0, dot) : reference;
+	}
+}
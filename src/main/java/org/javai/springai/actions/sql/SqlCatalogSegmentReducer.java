@@ -0,0 +1,148 @@
+package org.javai.springai.actions.sql;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringJoiner;
+import org.javai.springai.actions.SegmentReducer;
+import org.javai.springai.actions.TokenEstimator;
+
+/**
+ * Shrinks a rendered SQL catalog section by removing detail before removing tables.
+ *
+ * <p>Works on the format produced by {@link SqlCatalogContextContributor}: a heading, one
+ * {@code "- table"} line per table followed by its {@code "  • column (details)"} lines, and a
+ * footer after the first blank line. Tables are degraded one at a time from the last to the
+ * first, through these levels, until the section fits:</p>
+ * <ol>
+ *   <li>column descriptions removed (type, tags and synonyms are kept)</li>
+ *   <li>column details removed, leaving column names</li>
+ *   <li>columns removed, leaving the table line</li>
+ *   <li>table removed</li>
+ * </ol>
+ * <p>Earlier tables, which relevance-ranked contributors list first, keep their detail longest.
+ * The heading, footer and other lines, such as notes about omitted tables, are always kept.</p>
+ */
+final class SqlCatalogSegmentReducer implements SegmentReducer {
+
+	static final SqlCatalogSegmentReducer INSTANCE = new SqlCatalogSegmentReducer();
+
+	private static final String TABLE_PREFIX = "- ";
+	private static final String COLUMN_PREFIX = "  • ";
+	private static final int DROPPED = 4;
+
+	private SqlCatalogSegmentReducer() {
+	}
+
+	@Override
+	public String reduce(String text, int maxTokens, TokenEstimator estimator) {
+		if (estimator.estimate(text) <= maxTokens) {
+			return text;
+		}
+		int footerStart = text.indexOf("\n\n");
+		String body = footerStart >= 0 ? text.substring(0, footerStart) : text;
+		String footer = footerStart >= 0 ? text.substring(footerStart) : "";
+
+		List<String> heading = new ArrayList<>();
+		List<String> notes = new ArrayList<>();
+		List<Table> tables = new ArrayList<>();
+		for (String line : body.split("\n")) {
+			if (line.startsWith(TABLE_PREFIX)) {
+				tables.add(new Table(line));
+			} else if (line.startsWith(COLUMN_PREFIX) && !tables.isEmpty()) {
+				tables.get(tables.size() - 1).columns.add(line);
+			} else if (tables.isEmpty()) {
+				heading.add(line);
+			} else {
+				notes.add(line);
+			}
+		}
+		if (tables.isEmpty()) {
+			return text;
+		}
+
+		int fixed = estimator.estimate(String.join("\n", heading) + "\n" + String.join("\n", notes) + footer);
+		int total = fixed;
+		for (Table table : tables) {
+			table.tokens = estimator.estimate(table.render());
+			total += table.tokens;
+		}
+		for (int level = 1; level <= DROPPED && total > maxTokens; level++) {
+			for (int i = tables.size() - 1; i >= 0 && total > maxTokens; i--) {
+				Table table = tables.get(i);
+				table.level = level;
+				int tokens = level == DROPPED ? 0 : estimator.estimate(table.render());
+				total += tokens - table.tokens;
+				table.tokens = tokens;
+			}
+		}
+
+		StringBuilder sb = new StringBuilder(String.join("\n", heading)).append('\n');
+		int dropped = 0;
+		for (Table table : tables) {
+			if (table.level == DROPPED) {
+				dropped++;
+			} else {
+				sb.append(table.render());
+			}
+		}
+		for (String note : notes) {
+			sb.append(note).append('\n');
+		}
+		if (dropped > 0) {
+			sb.append("(").append(dropped).append(dropped == 1 ? " more table" : " more tables")
+					.append(" omitted to fit the prompt budget)\n");
+		}
+		return (sb.toString().stripTrailing() + footer).trim();
+	}
+
+	/**
+	 * Column line without descriptions: only {@code key=value} details are kept.
+	 */
+	private static String withoutDescriptions(String column) {
+		int open = column.indexOf(" (");
+		if (open < 0 || !column.endsWith(")")) {
+			return column;
+		}
+		StringJoiner kept = new StringJoiner("; ");
+		for (String detail : column.substring(open + 2, column.length() - 1).split("; ")) {
+			if (detail.matches("[a-z]+=.*")) {
+				kept.add(detail);
+			}
+		}
+		return kept.length() == 0 ? column.substring(0, open) : column.substring(0, open) + " (" + kept + ")";
+	}
+
+	private static String withoutDetails(String column) {
+		int open = column.indexOf(" (");
+		return open < 0 ? column : column.substring(0, open);
+	}
+
+	/**
+	 * A table line and its column lines.
+	 */
+	private static final class Table {
+		private final String line;
+		private final List<String> columns = new ArrayList<>();
+		private int level;
+		private int tokens;
+
+		Table(String line) {
+			this.line = line;
+		}
+
+		String render() {
+			StringBuilder sb = new StringBuilder(line).append('\n');
+			if (level < 3) {
+				for (String column : columns) {
+					String rendered = switch (level) {
+						case 0 -> column;
+						case 1 -> withoutDescriptions(column);
+						default -> withoutDetails(column);
+					};
+					sb.append(rendered).append('\n');
+				}
+			}
+			return sb.toString();
+		}
+	}
+}
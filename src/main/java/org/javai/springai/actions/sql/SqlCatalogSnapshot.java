@@ -0,0 +1,165 @@
+package org.javai.springai.actions.sql;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Immutable {@link SqlCatalog} capturing one version of a catalog: its tables, lookup index and
+ * settings.
+ *
+ * <p>Snapshots are what {@link SqlCatalog#snapshot()} returns for catalogs that can change.
+ * Code that consults a catalog several times for one logical operation, such as
+ * {@link Query#fromSql(String, SqlCatalog)}, pins a snapshot first so that every lookup sees the
+ * same version even if the catalog is mutated or reloaded concurrently.</p>
+ */
+public final class SqlCatalogSnapshot implements SqlCatalog {
+
+	private final long version;
+	private final Map<String, SqlTable> tables;
+	private final SqlCatalogIndex index;
+	private final Query.Dialect dialect;
+	private final SqlDialectRenderer dialectRenderer;
+	private final QueryLimits queryLimits;
+	private final boolean validateColumns;
+	private final boolean usesModelNames;
+	private final int queryCacheSize;
+	// Validated queries for this version; null when caching is disabled
+	private final QueryCache queryCache;
+
+	SqlCatalogSnapshot(long version, Map<String, SqlTable> tables, SqlCatalogIndex index, Query.Dialect dialect,
+			SqlDialectRenderer dialectRenderer, QueryLimits queryLimits, boolean validateColumns,
+			boolean usesModelNames, int queryCacheSize) {
+		this.version = version;
+		this.tables = tables;
+		this.index = index;
+		this.dialect = dialect;
+		this.dialectRenderer = dialectRenderer;
+		this.queryLimits = queryLimits;
+		this.validateColumns = validateColumns;
+		this.usesModelNames = usesModelNames;
+		this.queryCacheSize = queryCacheSize;
+		this.queryCache = queryCacheSize > 0 ? new QueryCache(queryCacheSize) : null;
+	}
+
+	/**
+	 * Capture the current state of a catalog. Returns the catalog itself if it is already a
+	 * snapshot.
+	 *
+	 * @param catalog the catalog to capture
+	 * @return an immutable snapshot
+	 */
+	public static SqlCatalogSnapshot of(SqlCatalog catalog) {
+		Objects.requireNonNull(catalog, "catalog must not be null");
+		SqlCatalog pinned = catalog.snapshot();
+		if (pinned instanceof SqlCatalogSnapshot snapshot) {
+			return snapshot;
+		}
+		return new SqlCatalogSnapshot(
+				pinned.version(),
+				Collections.unmodifiableMap(new LinkedHashMap<>(pinned.tables())),
+				pinned.index(),
+				pinned.dialect(),
+				pinned.dialectRenderer(),
+				pinned.queryLimits(),
+				pinned.validateColumns(),
+				pinned.usesModelNames(),
+				pinned.queryCacheSize());
+	}
+
+	/**
+	 * Copy of this snapshot identified by a different version.
+	 *
+	 * @param version the new version
+	 * @return a snapshot with the same contents
+	 */
+	public SqlCatalogSnapshot withVersion(long version) {
+		return new SqlCatalogSnapshot(version, tables, index, dialect, dialectRenderer, queryLimits,
+				validateColumns, usesModelNames, queryCacheSize);
+	}
+
+	@Override
+	public SqlCatalog snapshot() {
+		return this;
+	}
+
+	@Override
+	public long version() {
+		return version;
+	}
+
+	@Override
+	public Map<String, SqlTable> tables() {
+		return tables;
+	}
+
+	@Override
+	public SqlCatalogIndex index() {
+		return index;
+	}
+
+	@Override
+	public Query.Dialect dialect() {
+		return dialect;
+	}
+
+	@Override
+	public SqlDialectRenderer dialectRenderer() {
+		return dialectRenderer;
+	}
+
+	@Override
+	public QueryLimits queryLimits() {
+		return queryLimits;
+	}
+
+	@Override
+	public int queryCacheSize() {
+		return queryCacheSize;
+	}
+
+	/**
+	 * @return the cache of queries validated against this snapshot, or {@code null} if disabled
+	 */
+	QueryCache queryCache() {
+		return queryCache;
+	}
+
+	@Override
+	public boolean validateColumns() {
+		return validateColumns;
+	}
+
+	@Override
+	public boolean usesModelNames() {
+		return usesModelNames;
+	}
+
+	@Override
+	public Optional<String> getTableModelName(String tableName) {
+		return index.tableModelName(tableName);
+	}
+
+	@Override
+	public Optional<String> getColumnModelName(String tableName, String columnName) {
+		return index.columnModelName(tableName, columnName);
+	}
+
+	@Override
+	public Optional<String> resolveTableFromModelName(String modelName) {
+		return index.resolveTableModelName(modelName);
+	}
+
+	@Override
+	public Optional<String> resolveColumnFromModelName(String tableModelName, String columnModelName) {
+		return index.resolveTableModelName(tableModelName)
+				.flatMap(tableName -> index.resolveColumnModelName(tableName, columnModelName));
+	}
+
+	@Override
+	public Map<String, String> modelNameMappings() {
+		return index.modelNameMappings();
+	}
+}
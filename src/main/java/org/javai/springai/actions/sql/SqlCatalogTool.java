@@ -3,6 +3,8 @@ package org.javai.springai.actions.sql;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 import org.springframework.ai.tool.annotation.Tool;
 import org.springframework.ai.tool.annotation.ToolParam;
@@ -34,13 +36,24 @@ import org.springframework.ai.tool.annotation.ToolParam;
  * object names. The LLM uses these names in its SQL, and the framework
  * translates them back to real names during query processing.</p>
  * 
+ * <h2>Caching</h2>
+ * 
+ * <p>Responses are memoized per {@link SqlCatalog#version() catalog version}: the table list
+ * is built once, and each table's detail and each requested name's resolution are computed on
+ * first use. A change to the catalog discards them. Repeated calls therefore return the same
+ * response instances, which {@link SqlCatalogToolResultConverter} serializes once.</p>
+ * 
  * @see SqlCatalog
  * @see TableSummary
  * @see TableDetail
  */
 public class SqlCatalogTool {
 
+	// Bound on memoized name resolutions, which are keyed by whatever names the model sends
+	private static final int MAX_RESOLVED_NAMES = 1024;
+
 	private final SqlCatalog catalog;
+	private volatile Responses responses;
 	
 	// Invocation tracking for testing
 	private final AtomicInteger listTablesCount = new AtomicInteger(0);
@@ -67,18 +80,11 @@ public class SqlCatalogTool {
 	@Tool(name = "listTables", description = """
 			List all tables in the data warehouse with their descriptions and types.
 			Use this first to understand what data is available before formulating a query.
-			Returns: table name, description, type (fact/dimension/bridge), column count, and synonyms.""")
+			Returns: table name, description, type (fact/dimension/bridge), column count, and synonyms.""",
+			resultConverter = SqlCatalogToolResultConverter.class)
 	public List<TableSummary> listTables() {
 		listTablesCount.incrementAndGet();
-		
-		List<TableSummary> summaries = new ArrayList<>();
-		catalog.tables().forEach((tableName, table) -> {
-			String displayName = catalog.usesModelNames() 
-					? catalog.getTableModelName(tableName).orElse(tableName)
-					: tableName;
-			summaries.add(TableSummary.from(displayName, table));
-		});
-		return summaries;
+		return responses().summaries();
 	}
 
 	/**
@@ -95,58 +101,122 @@ public class SqlCatalogTool {
 			Get detailed column information for a specific table.
 			Call this for tables relevant to the user's query.
 			Returns: column names, data types, descriptions, tags (pk, fk:table.column, measure, attribute), and constraints.
-			For JOINs, look at fk: tags which show the target table and column.""")
+			For JOINs, look at fk: tags which show the target table and column.""",
+			resultConverter = SqlCatalogToolResultConverter.class)
 	public TableDetail getTableDetails(
 			@ToolParam(description = "Name of the table to get details for") String tableName) {
 		getTableDetailsCount.incrementAndGet();
 		lastTableRequested = tableName;
 		
 		// Find the table - may be by canonical name or token
-		String canonicalName = findCanonicalTableName(tableName);
+		Responses current = responses();
+		String canonicalName = current.canonicalName(tableName);
 		if (canonicalName == null) {
 			return null;
 		}
-		
-		SqlCatalog.SqlTable table = catalog.tables().get(canonicalName);
-		if (table == null) {
-			return null;
-		}
-		
-		String displayName = catalog.usesModelNames() 
-				? catalog.getTableModelName(canonicalName).orElse(canonicalName)
-				: canonicalName;
-		
-		return TableDetail.from(displayName, table, catalog, canonicalName);
+		return current.detail(canonicalName);
 	}
 
 	/**
 	 * Finds the canonical table name from a display name (which may be a token).
 	 */
-	private String findCanonicalTableName(String displayName) {
-		if (displayName == null) {
-			return null;
+	String findCanonicalTableName(String displayName) {
+		return responses().canonicalName(displayName);
+	}
+
+	/**
+	 * Returns the responses for the catalog's current version, starting afresh after a change.
+	 */
+	private Responses responses() {
+		Responses current = responses;
+		if (current == null || current.version() != catalog.version()) {
+			current = new Responses(catalog.snapshot());
+			responses = current;
 		}
-		
-		// First, check if it's a canonical name
-		if (catalog.tables().containsKey(displayName)) {
-			return displayName;
+		return current;
+	}
+
+	/**
+	 * Tool responses for one catalog version, computed against a snapshot of that version.
+	 */
+	private static final class Responses {
+		private final SqlCatalog snapshot;
+		private final List<TableSummary> summaries;
+		private final ConcurrentHashMap<String, Optional<String>> canonicalNames = new ConcurrentHashMap<>();
+		private final ConcurrentHashMap<String, TableDetail> details = new ConcurrentHashMap<>();
+
+		Responses(SqlCatalog snapshot) {
+			this.snapshot = snapshot;
+			List<TableSummary> list = new ArrayList<>();
+			snapshot.tables().forEach((tableName, table) ->
+					list.add(TableSummary.from(displayName(tableName), table)));
+			this.summaries = List.copyOf(list);
 		}
-		
-		// If tokenized, try to resolve the token
-		if (catalog.usesModelNames()) {
-			String resolved = catalog.resolveTableFromModelName(displayName).orElse(null);
-			if (resolved != null) {
-				return resolved;
+
+		long version() {
+			return snapshot.version();
+		}
+
+		List<TableSummary> summaries() {
+			return summaries;
+		}
+
+		String canonicalName(String displayName) {
+			if (displayName == null) {
+				return null;
+			}
+			Optional<String> cached = canonicalNames.get(displayName);
+			if (cached == null) {
+				cached = Optional.ofNullable(resolve(displayName));
+				// Names the model invents are unbounded; stop memoizing rather than grow
+				if (canonicalNames.size() < MAX_RESOLVED_NAMES) {
+					canonicalNames.putIfAbsent(displayName, cached);
+				}
 			}
+			return cached.orElse(null);
 		}
-		
-		// Try synonym matching
-		String resolved = catalog.resolveTableName(displayName).orElse(null);
-		if (resolved != null) {
-			return resolved;
+
+		TableDetail detail(String canonicalName) {
+			SqlCatalog.SqlTable table = snapshot.tables().get(canonicalName);
+			if (table == null) {
+				return null;
+			}
+			return details.computeIfAbsent(canonicalName, name -> immutable(
+					TableDetail.from(displayName(name), table, snapshot, name)));
+		}
+
+		private String resolve(String displayName) {
+			// First, check if it's a canonical name
+			if (snapshot.tables().containsKey(displayName)) {
+				return displayName;
+			}
+			
+			// If tokenized, try to resolve the token
+			if (snapshot.usesModelNames()) {
+				String resolved = snapshot.resolveTableFromModelName(displayName).orElse(null);
+				if (resolved != null) {
+					return resolved;
+				}
+			}
+			
+			// Try synonym matching
+			return snapshot.resolveTableName(displayName).orElse(null);
+		}
+
+		private String displayName(String canonicalName) {
+			return snapshot.usesModelNames()
+					? snapshot.getTableModelName(canonicalName).orElse(canonicalName)
+					: canonicalName;
+		}
+
+		/**
+		 * Shared between callers, so the lists must not be modifiable.
+		 */
+		private static TableDetail immutable(TableDetail detail) {
+			return new TableDetail(detail.name(), detail.description(), detail.type(),
+					List.copyOf(detail.columns()),
+					detail.synonyms() != null ? List.copyOf(detail.synonyms()) : null);
 		}
-		
-		return null;
 	}
 
 	// Test accessors
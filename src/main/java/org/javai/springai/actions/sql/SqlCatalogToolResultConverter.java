@@ -0,0 +1,67 @@
+package org.javai.springai.actions.sql;
+
+import java.lang.reflect.Type;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.springframework.ai.tool.execution.DefaultToolCallResultConverter;
+import org.springframework.ai.tool.execution.ToolCallResultConverter;
+import org.springframework.lang.Nullable;
+
+/**
+ * Tool result converter for {@link SqlCatalogTool} and {@link FrequencyAwareSqlCatalogTool}.
+ *
+ * <p>The catalog tools return the same response instances until the catalog changes, so this
+ * converter keeps the JSON of recently returned instances and serializes each one only once.
+ * Entries are keyed by identity rather than equality, which would cost a deep hash of the
+ * response on every call. Serialization itself is left to
+ * {@link DefaultToolCallResultConverter}, so the JSON is the same as without this
+ * converter.</p>
+ */
+public final class SqlCatalogToolResultConverter implements ToolCallResultConverter {
+
+	// Enough for every table of a large catalog plus the table list
+	private static final int MAX_ENTRIES = 512;
+
+	private final ToolCallResultConverter delegate = new DefaultToolCallResultConverter();
+	private final Map<Identity, String> serialized = new LinkedHashMap<>(64, 0.75f, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Identity, String> eldest) {
+			return size() > MAX_ENTRIES;
+		}
+	};
+
+	@Override
+	public String convert(@Nullable Object result, @Nullable Type returnType) {
+		if (result == null) {
+			return delegate.convert(null, returnType);
+		}
+		Identity key = new Identity(result);
+		synchronized (serialized) {
+			String json = serialized.get(key);
+			if (json != null) {
+				return json;
+			}
+		}
+		String json = delegate.convert(result, returnType);
+		synchronized (serialized) {
+			serialized.put(key, json);
+		}
+		return json;
+	}
+
+	/**
+	 * Map key comparing the wrapped response by reference.
+	 */
+	private record Identity(Object value) {
+
+		@Override
+		public boolean equals(Object other) {
+			return other instanceof Identity identity && identity.value == value;
+		}
+
+		@Override
+		public int hashCode() {
+			return System.identityHashCode(value);
+		}
+	}
+}
@@ -0,0 +1,46 @@
+package org.javai.springai.actions.sql;
+
+import java.time.Duration;
+import java.util.Optional;
+import net.sf.jsqlparser.statement.select.Select;
+
+/**
+ * Renders validated SELECT statements as SQL text for one database dialect.
+ *
+ * <p>Each {@link Query.Dialect} has a built-in renderer. Other databases can be supported by
+ * implementing this interface, usually by extending {@link GenericSqlDialectRenderer}, and
+ * configuring the renderer on the catalog with
+ * {@link InMemorySqlCatalog#withDialectRenderer(SqlDialectRenderer)}.</p>
+ *
+ * <p>Renderers are shared between threads and must be stateless.</p>
+ *
+ * @see QueryLimits
+ */
+public interface SqlDialectRenderer {
+
+	/**
+	 * Renders a statement, enforcing the row limit of {@code limits}.
+	 *
+	 * <p>The statement belongs to a {@link Query} and must not be modified; renderers that
+	 * rewrite the tree do so on a copy.</p>
+	 *
+	 * @param select the statement to render
+	 * @param limits the limits to enforce
+	 * @return the SQL text
+	 */
+	String render(Select select, QueryLimits limits);
+
+	/**
+	 * Returns a statement that limits the run time of the queries that follow it in the same
+	 * transaction, for dialects that have one. Executing it before the query enforces the
+	 * timeout in the database itself, which also covers work a JDBC timeout cannot cancel.
+	 * Dialects whose timeout setting outlives the transaction return empty and rely on
+	 * {@link QueryLimits#applyTo(java.sql.Statement)}.
+	 *
+	 * @param timeout the statement timeout
+	 * @return the statement, or empty if the dialect has none or the timeout is zero
+	 */
+	default Optional<String> statementTimeoutSql(Duration timeout) {
+		return Optional.empty();
+	}
+}
@@ -0,0 +1,630 @@
+package org.javai.springai.actions.sql;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import net.sf.jsqlparser.expression.Alias;
+import net.sf.jsqlparser.expression.AnalyticExpression;
+import net.sf.jsqlparser.expression.AnyComparisonExpression;
+import net.sf.jsqlparser.expression.Expression;
+import net.sf.jsqlparser.expression.ExpressionVisitorAdapter;
+import net.sf.jsqlparser.schema.Column;
+import net.sf.jsqlparser.schema.Table;
+import net.sf.jsqlparser.statement.Statement;
+import net.sf.jsqlparser.statement.select.AllColumns;
+import net.sf.jsqlparser.statement.select.AllTableColumns;
+import net.sf.jsqlparser.statement.select.FromItem;
+import net.sf.jsqlparser.statement.select.Join;
+import net.sf.jsqlparser.statement.select.OrderByElement;
+import net.sf.jsqlparser.statement.select.ParenthesedFromItem;
+import net.sf.jsqlparser.statement.select.ParenthesedSelect;
+import net.sf.jsqlparser.statement.select.PlainSelect;
+import net.sf.jsqlparser.statement.select.Select;
+import net.sf.jsqlparser.statement.select.SelectItem;
+import net.sf.jsqlparser.statement.select.SetOperationList;
+import net.sf.jsqlparser.statement.select.TableFunction;
+import net.sf.jsqlparser.statement.select.WithItem;
+import net.sf.jsqlparser.util.TablesNamesFinder;
+
+/**
+ * Resolves and validates the table and column references of a parsed query in one traversal.
+ *
+ * <p>Each table reference is rewritten from its model name or synonym to the canonical name and
+ * checked against the catalog as it is visited; each column reference is then rewritten and
+ * checked against the relations in scope. All lookups go through the catalog's
+ * {@link SqlCatalogIndex}, so the cost is proportional to the query rather than the catalog.</p>
+ *
+ * <p>The same traversal also maps a resolved query back to model names, for showing the model
+ * the SQL it would have written; see {@link #toModelNames(Select, SqlCatalogIndex)}.</p>
+ *
+ * <h2>Scoping</h2>
+ *
+ * <ul>
+ *   <li>Every {@link PlainSelect} opens a scope of the relations in its {@code FROM} and
+ *       {@code JOIN} clauses: catalog tables, derived tables and common table expressions,
+ *       by alias or name.</li>
+ *   <li>Subqueries in expressions see the enclosing scopes, so correlated references resolve.
+ *       Derived tables see the enclosing scopes but not their siblings.</li>
+ *   <li>Common table expressions are visible to later {@code WITH} items and to the body of
+ *       the query, and shadow catalog tables of the same name.</li>
+ *   <li>Each branch of a {@code UNION}, {@code INTERSECT} or {@code EXCEPT} is its own
+ *       scope.</li>
+ *   <li>{@code GROUP BY}, {@code HAVING} and {@code ORDER BY} may also refer to the select
+ *       list's aliases.</li>
+ * </ul>
+ *
+ * <p>Columns of a derived table or common table expression are the names its select list
+ * produces. Where a column of such a query is rewritten, it keeps the name the model gave it as
+ * an alias, so the enclosing query's references to it stay valid. Relations whose columns
+ * cannot be known, such as those selecting {@code *}, are not checked for columns; neither are
+ * column references whose qualifier is not in scope.</p>
+ *
+ * <p>Expressions are walked with a JSqlParser visitor, so subqueries anywhere in them are
+ * scoped as above. Any table reference the scoped pass still does not reach, in a construct it
+ * has no scoping rule for, is resolved and validated afterwards by a {@link TablesNamesFinder}
+ * pass over the whole statement, so an unknown table is rejected wherever it appears.</p>
+ */
+final class SqlNameResolver {
+
+	private final SqlCatalogIndex index;
+	private final boolean modelNames;
+	private final boolean validateColumns;
+	// Maps canonical names to model names rather than the reverse
+	private final boolean toModelNames;
+	// Table references already resolved by the scoped pass
+	private final Set<Table> resolvedTables = Collections.newSetFromMap(new IdentityHashMap<>());
+	private final Set<String> commonTableNames = new HashSet<>();
+
+	private SqlNameResolver(SqlCatalogIndex index, boolean modelNames, boolean validateColumns,
+			boolean toModelNames) {
+		this.index = index;
+		this.modelNames = modelNames;
+		this.validateColumns = validateColumns;
+		this.toModelNames = toModelNames;
+	}
+
+	/**
+	 * Rewrites model names and synonyms in a query to canonical names, in place, and validates
+	 * its table and column references.
+	 *
+	 * @param select the query (modified in place)
+	 * @param index the catalog index
+	 * @param modelNames whether the query may use model names
+	 * @param validateColumns whether column references are validated as well as tables
+	 * @throws QueryValidationException if the query references an unknown table or column
+	 */
+	static void resolve(Select select, SqlCatalogIndex index, boolean modelNames, boolean validateColumns) {
+		new SqlNameResolver(index, modelNames, validateColumns, false).resolve(select);
+	}
+
+	/**
+	 * Rewrites the canonical table and column names of a resolved query to their model names,
+	 * in place. References the catalog does not know are left as they are.
+	 *
+	 * @param select the resolved query (modified in place)
+	 * @param index the catalog index
+	 */
+	static void toModelNames(Select select, SqlCatalogIndex index) {
+		new SqlNameResolver(index, false, false, true).resolve(select);
+	}
+
+	private void resolve(Select select) {
+		select(select, null, false);
+		new UnreachedTables().resolve(select);
+	}
+
+	/**
+	 * Resolves a query of any shape and returns the relation it produces.
+	 *
+	 * @param derived whether the enclosing query refers to this query's columns by name
+	 */
+	private Relation select(Select select, Scope outer, boolean derived) {
+		Scope scope = withItems(select.getWithItemsList(), outer);
+		if (select instanceof ParenthesedSelect parenthesed) {
+			return select(parenthesed.getSelect(), scope, derived);
+		}
+		if (select instanceof PlainSelect plain) {
+			return plainSelect(plain, scope, derived);
+		}
+		if (select instanceof SetOperationList setOperation) {
+			// The first branch names the columns; ORDER BY refers to those names only
+			Relation relation = null;
+			for (Select branch : setOperation.getSelects()) {
+				Relation branchRelation = select(branch, scope, derived);
+				if (relation == null) {
+					relation = branchRelation;
+				}
+			}
+			return relation != null ? relation : Relation.UNKNOWN;
+		}
+		return Relation.UNKNOWN;
+	}
+
+	/**
+	 * Resolves the common table expressions of a {@code WITH} clause, each seeing those before
+	 * it, and returns the scope they are visible in.
+	 */
+	private Scope withItems(List<WithItem> withItems, Scope outer) {
+		if (withItems == null || withItems.isEmpty()) {
+			return outer;
+		}
+		Scope scope = new Scope(outer);
+		for (WithItem withItem : withItems) {
+			String name = withItem.getAlias().getName().toLowerCase();
+			commonTableNames.add(name);
+			// A recursive reference sees the expression before its columns are known
+			scope.commonTables.put(name, Relation.UNKNOWN);
+			Relation relation = select(withItem.getSelect(), scope, true);
+			if (withItem.getWithItemList() != null && !withItem.getWithItemList().isEmpty()) {
+				Set<String> columns = new LinkedHashSet<>();
+				for (SelectItem<?> column : withItem.getWithItemList()) {
+					columns.add(column.toString().toLowerCase());
+				}
+				relation = new Relation(columns);
+			}
+			scope.commonTables.put(name, relation);
+		}
+		return scope;
+	}
+
+	private Relation plainSelect(PlainSelect plain, Scope outer, boolean derived) {
+		Scope scope = new Scope(outer);
+		fromItem(plain.getFromItem(), scope);
+		joins(plain.getJoins(), scope);
+
+		if (plain.getSelectItems() != null) {
+			for (SelectItem<?> item : plain.getSelectItems()) {
+				selectItem(item, scope, derived);
+			}
+		}
+		expression(plain.getWhere(), scope);
+		joinConditions(plain.getFromItem(), plain.getJoins(), scope);
+
+		// These clauses may also name the select list's aliases
+		scope.selectAliasesVisible = true;
+		if (plain.getGroupBy() != null && plain.getGroupBy().getGroupByExpressionList() != null) {
+			for (Object groupBy : plain.getGroupBy().getGroupByExpressionList()) {
+				if (groupBy instanceof Expression expr) {
+					expression(expr, scope);
+				}
+			}
+		}
+		expression(plain.getHaving(), scope);
+		if (plain.getOrderByElements() != null) {
+			for (OrderByElement orderBy : plain.getOrderByElements()) {
+				expression(orderBy.getExpression(), scope);
+			}
+		}
+		return outputRelation(plain);
+	}
+
+	private void selectItem(SelectItem<?> item, Scope scope, boolean derived) {
+		if (item.getAlias() != null) {
+			scope.selectAliases.add(item.getAlias().getName().toLowerCase());
+		}
+		Expression expr = item.getExpression();
+		String producedName = expr instanceof Column col && item.getAlias() == null ? col.getColumnName() : null;
+		expression(expr, scope);
+		if (derived && producedName != null && !producedName.equals(((Column) expr).getColumnName())) {
+			// Keep the name the enclosing query knows this column by
+			item.setAlias(new Alias(producedName, true));
+		}
+	}
+
+	private void fromItem(FromItem item, Scope scope) {
+		if (item == null) {
+			return;
+		}
+		if (item instanceof Table table) {
+			table(table, scope);
+		} else if (item instanceof ParenthesedSelect derivedTable) {
+			// A derived table sees the enclosing query's scopes but not its siblings
+			Relation relation = select(derivedTable, scope.outer, true);
+			scope.addRelation(derivedTable.getAlias(), relation);
+		} else if (item instanceof ParenthesedFromItem parenthesed) {
+			// The tables of a parenthesised join are in scope as if it were not parenthesised
+			fromItem(parenthesed.getFromItem(), scope);
+			joins(parenthesed.getJoins(), scope);
+		} else if (item instanceof TableFunction tableFunction) {
+			expression(tableFunction.getFunction(), scope);
+			scope.addRelation(item.getAlias(), Relation.UNKNOWN);
+		} else {
+			scope.addRelation(item.getAlias(), Relation.UNKNOWN);
+		}
+	}
+
+	private void joins(List<Join> joins, Scope scope) {
+		if (joins != null) {
+			for (Join join : joins) {
+				fromItem(join.getRightItem(), scope);
+			}
+		}
+	}
+
+	/**
+	 * Resolves the {@code ON} conditions of a {@code FROM} clause, including those of
+	 * parenthesised joins, once all of its relations are in scope.
+	 */
+	private void joinConditions(FromItem item, List<Join> joins, Scope scope) {
+		if (item instanceof ParenthesedFromItem parenthesed) {
+			joinConditions(parenthesed.getFromItem(), parenthesed.getJoins(), scope);
+		}
+		if (joins == null) {
+			return;
+		}
+		for (Join join : joins) {
+			joinConditions(join.getRightItem(), null, scope);
+			if (join.getOnExpressions() != null) {
+				for (Expression onExpr : join.getOnExpressions()) {
+					expression(onExpr, scope);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Brings a table reference into scope: a common table expression if one has that name, and
+	 * otherwise a catalog table, rewritten to its canonical name and validated.
+	 */
+	private void table(Table table, Scope scope) {
+		resolvedTables.add(table);
+		String name = table.getName();
+		if (name == null) {
+			return;
+		}
+		if (table.getSchemaName() == null) {
+			Relation commonTable = scope.commonTable(name.toLowerCase());
+			if (commonTable != null) {
+				scope.addRelation(table.getAlias() != null ? table.getAlias() : new Alias(name), commonTable);
+				return;
+			}
+		}
+
+		if (!toModelNames) {
+			String resolved = modelNames ? index.resolveTableModelName(name).orElse(null) : null;
+			if (resolved == null) {
+				resolved = index.resolveTableSynonym(name).orElse(null);
+			}
+			if (resolved != null) {
+				table.setName(resolved);
+			}
+		}
+
+		String tableName = table.getFullyQualifiedName();
+		if (index.table(tableName).isEmpty()) {
+			if (toModelNames) {
+				return;
+			}
+			throw new QueryValidationException("Unknown table: " + tableName +
+					". Available tables: " + index.tableNames());
+		}
+		if (toModelNames) {
+			index.tableModelName(tableName).ifPresent(table::setName);
+		}
+
+		if (table.getAlias() != null) {
+			scope.tables.put(table.getAlias().getName().toLowerCase(), tableName);
+		} else if (!table.getName().equals(name)) {
+			// Columns qualified by the table's name as written must follow the rename
+			scope.qualifierRenames.put(name.toLowerCase(), table.getName());
+		}
+		scope.tables.putIfAbsent(tableName.toLowerCase(), tableName);
+		scope.tables.putIfAbsent(name.toLowerCase(), tableName);
+	}
+
+	/**
+	 * Walks an expression tree, resolving its column references and any subqueries.
+	 */
+	private void expression(Expression expr, Scope scope) {
+		if (expr != null) {
+			expr.accept(new ExpressionResolver(scope));
+		}
+	}
+
+	/**
+	 * Rewrites a column reference's model name or synonym to the canonical column name and
+	 * validates it against the relation it refers to, or against every relation in scope.
+	 */
+	private void column(Column col, Scope scope) {
+		String columnName = col.getColumnName();
+		if (columnName == null) {
+			return;
+		}
+
+		Table qualifier = col.getTable();
+		if (qualifier != null && qualifier.getName() != null) {
+			qualifiedColumn(col, qualifier.getName().toLowerCase(), scope);
+			return;
+		}
+
+		String folded = columnName.toLowerCase();
+		if (scope.selectAliasVisible(folded) || scope.relationHasColumn(folded)) {
+			return;
+		}
+
+		// Unqualified: the innermost table that knows the name wins
+		List<String> candidates = scope.visibleTables();
+		for (String tableName : candidates) {
+			String resolved = resolveColumn(tableName, columnName);
+			if (resolved != null) {
+				col.setColumnName(resolved);
+				return;
+			}
+		}
+		if (!validateColumns || scope.hasUnknownColumns()) {
+			return;
+		}
+		for (String tableName : candidates) {
+			if (index.findColumn(tableName, columnName).isPresent()) {
+				return;
+			}
+		}
+		List<String> relations = scope.visibleRelationNames();
+		if (!relations.isEmpty()) {
+			throw new QueryValidationException(
+					"Unknown column '%s'. Not found in any table: %s".formatted(columnName, relations));
+		}
+	}
+
+	private void qualifiedColumn(Column col, String tableRef, Scope scope) {
+		String columnName = col.getColumnName();
+		for (Scope current = scope; current != null; current = current.outer) {
+			String tableName = current.tables.get(tableRef);
+			if (tableName != null) {
+				String renamed = current.qualifierRenames.get(tableRef);
+				if (renamed != null) {
+					col.getTable().setName(renamed);
+				}
+				tableColumn(col, tableName);
+				return;
+			}
+			Relation relation = current.relations.get(tableRef);
+			if (relation != null) {
+				if (validateColumns && relation.columns() != null
+						&& !relation.columns().contains(columnName.toLowerCase())) {
+					throw new QueryValidationException(
+							"Unknown column '%s' in '%s'. Available columns: %s"
+									.formatted(columnName, tableRef, relation.columns()));
+				}
+				return;
+			}
+		}
+		String tableName = modelNames ? index.resolveTableModelName(tableRef).orElse(null) : null;
+		if (tableName != null) {
+			tableColumn(col, tableName);
+		}
+	}
+
+	private void tableColumn(Column col, String tableName) {
+		String columnName = col.getColumnName();
+		String resolved = resolveColumn(tableName, columnName);
+		if (resolved != null) {
+			col.setColumnName(resolved);
+			columnName = resolved;
+		}
+		if (validateColumns && index.findColumn(tableName, columnName).isEmpty()) {
+			throw new QueryValidationException(
+					"Unknown column '%s' in table '%s'. Available columns: %s"
+							.formatted(columnName, tableName, columnNames(tableName)));
+		}
+	}
+
+	/**
+	 * Canonical name of a column model name or synonym, or {@code null} if the name is neither.
+	 * When mapping to model names, the model name of a column of the table instead.
+	 */
+	private String resolveColumn(String tableName, String columnName) {
+		if (toModelNames) {
+			return index.findColumn(tableName, columnName)
+					.flatMap(column -> index.columnModelName(tableName, column.name()))
+					.orElse(null);
+		}
+		String resolved = modelNames ? index.resolveColumnModelName(tableName, columnName).orElse(null) : null;
+		return resolved != null ? resolved : index.resolveColumnSynonym(tableName, columnName).orElse(null);
+	}
+
+	private List<String> columnNames(String tableName) {
+		return index.table(tableName)
+				.map(table -> table.columns().stream().map(SqlCatalog.SqlColumn::name).toList())
+				.orElse(List.of());
+	}
+
+	/**
+	 * The columns a resolved {@code SELECT} produces, by the names its select list gives them.
+	 */
+	private static Relation outputRelation(PlainSelect plain) {
+		if (plain.getSelectItems() == null) {
+			return Relation.UNKNOWN;
+		}
+		Set<String> columns = new LinkedHashSet<>();
+		for (SelectItem<?> item : plain.getSelectItems()) {
+			Expression expr = item.getExpression();
+			if (item.getAlias() != null) {
+				columns.add(item.getAlias().getName().toLowerCase());
+			} else if (expr instanceof AllColumns || expr instanceof AllTableColumns) {
+				return Relation.UNKNOWN;
+			} else if (expr instanceof Column col) {
+				columns.add(col.getColumnName().toLowerCase());
+			}
+		}
+		return new Relation(columns);
+	}
+
+	/**
+	 * Visits every node of an expression, resolving column references against a scope and
+	 * subqueries in a scope nested in it.
+	 */
+	private final class ExpressionResolver extends ExpressionVisitorAdapter {
+
+		private final Scope scope;
+
+		ExpressionResolver(Scope scope) {
+			this.scope = scope;
+		}
+
+		@Override
+		public void visit(Column column) {
+			column(column, scope);
+		}
+
+		@Override
+		public void visit(ParenthesedSelect subquery) {
+			select(subquery, scope, false);
+		}
+
+		@Override
+		public void visit(AnyComparisonExpression any) {
+			select(any.getSelect(), scope, false);
+		}
+
+		@Override
+		public void visit(AnalyticExpression analytic) {
+			accept(analytic.getExpression());
+			accept(analytic.getOffset());
+			accept(analytic.getDefaultValue());
+			accept(analytic.getKeep());
+			accept(analytic.getFilterExpression());
+			accept(analytic.getPartitionExpressionList());
+			if (analytic.getOrderByElements() != null) {
+				for (OrderByElement orderBy : analytic.getOrderByElements()) {
+					accept(orderBy.getExpression());
+				}
+			}
+		}
+
+		private void accept(Expression expr) {
+			if (expr != null) {
+				expr.accept(this);
+			}
+		}
+	}
+
+	/**
+	 * Finds the table references the scoped pass did not reach and resolves them as tables of
+	 * no particular scope, so that none escapes validation.
+	 */
+	private final class UnreachedTables extends TablesNamesFinder {
+
+		private final List<Table> unreached = new ArrayList<>();
+
+		void resolve(Select select) {
+			getTables((Statement) select);
+			for (Table table : unreached) {
+				String name = table.getName();
+				boolean commonTable = table.getSchemaName() == null && name != null
+						&& commonTableNames.contains(name.toLowerCase());
+				if (!commonTable) {
+					table(table, new Scope(null));
+				}
+			}
+		}
+
+		@Override
+		public void visit(Table table) {
+			if (!resolvedTables.contains(table)) {
+				unreached.add(table);
+			}
+			super.visit(table);
+		}
+	}
+
+	/**
+	 * A derived table or common table expression, with the columns it produces, or
+	 * {@code null} columns if they cannot be known.
+	 */
+	private record Relation(Set<String> columns) {
+		static final Relation UNKNOWN = new Relation(null);
+	}
+
+	/**
+	 * Relations visible to the column references of one {@code SELECT}, by alias or name.
+	 */
+	private static final class Scope {
+		final Scope outer;
+		final Map<String, String> tables = new LinkedHashMap<>();
+		final Map<String, String> qualifierRenames = new HashMap<>();
+		final Map<String, Relation> relations = new LinkedHashMap<>();
+		final List<Relation> unnamedRelations = new ArrayList<>();
+		final Map<String, Relation> commonTables = new HashMap<>();
+		final Set<String> selectAliases = new HashSet<>();
+		boolean selectAliasesVisible;
+
+		Scope(Scope outer) {
+			this.outer = outer;
+		}
+
+		void addRelation(Alias alias, Relation relation) {
+			if (alias != null) {
+				relations.put(alias.getName().toLowerCase(), relation);
+			} else {
+				unnamedRelations.add(relation);
+			}
+		}
+
+		Relation commonTable(String name) {
+			for (Scope scope = this; scope != null; scope = scope.outer) {
+				Relation relation = scope.commonTables.get(name);
+				if (relation != null) {
+					return relation;
+				}
+			}
+			return null;
+		}
+
+		boolean selectAliasVisible(String columnName) {
+			return selectAliasesVisible && selectAliases.contains(columnName);
+		}
+
+		boolean relationHasColumn(String columnName) {
+			for (Scope scope = this; scope != null; scope = scope.outer) {
+				for (Relation relation : scope.derivedRelations()) {
+					if (relation.columns() != null && relation.columns().contains(columnName)) {
+						return true;
+					}
+				}
+			}
+			return false;
+		}
+
+		boolean hasUnknownColumns() {
+			for (Scope scope = this; scope != null; scope = scope.outer) {
+				for (Relation relation : scope.derivedRelations()) {
+					if (relation.columns() == null) {
+						return true;
+					}
+				}
+			}
+			return false;
+		}
+
+		List<String> visibleTables() {
+			Set<String> visible = new LinkedHashSet<>();
+			for (Scope scope = this; scope != null; scope = scope.outer) {
+				visible.addAll(scope.tables.values());
+			}
+			return new ArrayList<>(visible);
+		}
+
+		List<String> visibleRelationNames() {
+			Set<String> visible = new LinkedHashSet<>();
+			for (Scope scope = this; scope != null; scope = scope.outer) {
+				visible.addAll(scope.tables.values());
+				visible.addAll(scope.relations.keySet());
+			}
+			return new ArrayList<>(visible);
+		}
+
+		private List<Relation> derivedRelations() {
+			List<Relation> derived = new ArrayList<>(relations.values());
+			derived.addAll(unnamedRelations);
+			return derived;
+		}
+	}
+}
@@ -1,8 +1,13 @@
 package org.javai.springai.actions;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.javai.springai.actions.api.Action;
 import org.javai.springai.actions.internal.plan.PlanFormulationResult;
 import org.junit.jupiter.api.Test;
@@ -354,6 +359,237 @@ class ModelFallbackTest {
         assertThat(finalAttempt.attemptWithinTier()).isEqualTo(2);
     }
 
+    @Test
+    void hedgedFallbackWinsWhenPrimaryIsSlow() {
+        ChatClient slowPrimary = mock(ChatClient.class, Mockito.RETURNS_DEEP_STUBS);
+        when(slowPrimary.prompt().call().content()).thenAnswer(invocation -> {
+            Thread.sleep(5_000);
+            return VALID_JSON_PLAN;
+        });
+        ChatClient fastFallback = createMockClient(VALID_JSON_PLAN);
+
+        Planner planner = Planner.builder()
+                .defaultChatClient(slowPrimary, 1, "primary")
+                .fallbackChatClient(fastFallback, 1, "fallback")
+                .hedging(HedgingPolicy.afterDelay(Duration.ofMillis(50)))
+                .actions(new DemoActions())
+                .build();
+
+        long start = System.nanoTime();
+        PlanFormulationResult result = planner.formulatePlan("do something");
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertThat(result.plan().status()).isEqualTo(PlanStatus.READY);
+        assertThat(elapsedMillis).isLessThan(5_000);
+        assertThat(result.planningMetrics().successfulModelId()).isEqualTo("fallback");
+        assertThat(result.planningMetrics().attempts())
+                .extracting(AttemptRecord::modelId, AttemptRecord::outcome)
+                .containsExactly(
+                        tuple("primary", AttemptOutcome.CANCELLED),
+                        tuple("fallback", AttemptOutcome.SUCCESS));
+    }
+
+    @Test
+    void hedgedLegThatThrowsIsRecordedAsFailedNotCancelled() {
+        ChatClient slowPrimary = mock(ChatClient.class, Mockito.RETURNS_DEEP_STUBS);
+        when(slowPrimary.prompt().call().content()).thenAnswer(invocation -> {
+            Thread.sleep(300);
+            return VALID_JSON_PLAN;
+        });
+        ChatClient brokenFallback = mock(ChatClient.class, Mockito.RETURNS_DEEP_STUBS);
+        when(brokenFallback.prompt().call().content()).thenThrow(new AssertionError("client bug"));
+
+        Planner planner = Planner.builder()
+                .defaultChatClient(slowPrimary, 1, "primary")
+                .fallbackChatClient(brokenFallback, 1, "fallback")
+                .hedging(HedgingPolicy.afterDelay(Duration.ofMillis(50)))
+                .actions(new DemoActions())
+                .build();
+
+        PlanFormulationResult result = planner.formulatePlan("do something");
+
+        assertThat(result.planningMetrics().successfulModelId()).isEqualTo("primary");
+        assertThat(result.planningMetrics().attempts())
+                .extracting(AttemptRecord::modelId, AttemptRecord::outcome)
+                .containsExactly(
+                        tuple("primary", AttemptOutcome.SUCCESS),
+                        tuple("fallback", AttemptOutcome.NETWORK_ERROR));
+    }
+
+    @Test
+    void hedgingDoesNotStartFallbackWhenPrimaryIsFast() {
+        ChatClient primary = createMockClient(VALID_JSON_PLAN);
+        ChatClient fallback = createMockClient(VALID_JSON_PLAN);
+
+        Planner planner = Planner.builder()
+                .defaultChatClient(primary, 1, "primary")
+                .fallbackChatClient(fallback, 1, "fallback")
+                .hedging(HedgingPolicy.afterDelay(Duration.ofSeconds(5)))
+                .actions(new DemoActions())
+                .build();
+
+        PlanFormulationResult result = planner.formulatePlan("do something");
+
+        assertThat(result.planningMetrics().successfulModelId()).isEqualTo("primary");
+        assertThat(result.planningMetrics().totalAttempts()).isEqualTo(1);
+    }
+
+    @Test
+    void hedgingFallsBackToRetryOrderWhenPrimaryFailsFast() {
+        ChatClient primary = mock(ChatClient.class, Mockito.RETURNS_DEEP_STUBS);
+        when(primary.prompt().call().content())
+                .thenReturn(MALFORMED_JSON)
+                .thenReturn(VALID_JSON_PLAN);
+        ChatClient fallback = createMockClient(VALID_JSON_PLAN);
+
+        Planner planner = Planner.builder()
+                .defaultChatClient(primary, 2, "primary")
+                .fallbackChatClient(fallback, 1, "fallback")
+                .hedging(HedgingPolicy.afterDelay(Duration.ofSeconds(5)))
+                .actions(new DemoActions())
+                .build();
+
+        PlanFormulationResult result = planner.formulatePlan("do something");
+
+        assertThat(result.planningMetrics().successfulModelId()).isEqualTo("primary");
+        assertThat(result.planningMetrics().attempts())
+                .extracting(AttemptRecord::attemptWithinTier, AttemptRecord::outcome)
+                .containsExactly(
+                        tuple(1, AttemptOutcome.PARSE_FAILED),
+                        tuple(2, AttemptOutcome.SUCCESS));
+    }
+
+    @Test
+    void cancelledPrimaryThatIgnoresInterruptRecordsLatencyOnce() throws InterruptedException {
+        CountDownLatch strayPrimaryReturned = new CountDownLatch(1);
+        ChatClient primary = mock(ChatClient.class, Mockito.RETURNS_DEEP_STUBS);
+        when(primary.prompt().call().content())
+                .thenAnswer(invocation -> {
+                    // Ignores the interrupt from cancellation and returns long after losing the race
+                    long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(1_500);
+                    while (System.nanoTime() < deadline) {
+                        try {
+                            Thread.sleep(Math.max(1, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime())));
+                        } catch (InterruptedException ignored) {
+                            // keep going
+                        }
+                    }
+                    strayPrimaryReturned.countDown();
+                    return VALID_JSON_PLAN;
+                })
+                .thenAnswer(invocation -> {
+                    Thread.sleep(1_000);
+                    return VALID_JSON_PLAN;
+                });
+        ChatClient fallback = createMockClient(VALID_JSON_PLAN);
+        HedgingPolicy defaults = HedgingPolicy.afterDelay(Duration.ofMillis(50));
+
+        Planner planner = Planner.builder()
+                .defaultChatClient(primary, 1, "primary")
+                .fallbackChatClient(fallback, 1, "fallback")
+                .hedging(new HedgingPolicy(Duration.ofMillis(50), 100, 2, 1, defaults.executor()))
+                .actions(new DemoActions())
+                .build();
+
+        PlanFormulationResult first = planner.formulatePlan("do something");
+        assertThat(strayPrimaryReturned.await(5, TimeUnit.SECONDS)).isTrue();
+        PlanFormulationResult second = planner.formulatePlan("do something");
+
+        // Only the cancelled elapsed time was recorded, so the second race hedges well before
+        // the primary's 1s answer; recording the stray 1.5s as well would let the primary win
+        assertThat(first.planningMetrics().successfulModelId()).isEqualTo("fallback");
+        assertThat(second.planningMetrics().successfulModelId()).isEqualTo("fallback");
+    }
+
+    @Test
+    void interruptDuringHedgedRaceStopsFormulation() {
+        AtomicInteger primaryCalls = new AtomicInteger();
+        AtomicInteger fallbackCalls = new AtomicInteger();
+        ChatClient primary = mock(ChatClient.class, Mockito.RETURNS_DEEP_STUBS);
+        when(primary.prompt().call().content()).thenAnswer(invocation -> {
+            primaryCalls.incrementAndGet();
+            Thread.sleep(5_000);
+            return VALID_JSON_PLAN;
+        });
+        ChatClient fallback = mock(ChatClient.class, Mockito.RETURNS_DEEP_STUBS);
+        when(fallback.prompt().call().content()).thenAnswer(invocation -> {
+            fallbackCalls.incrementAndGet();
+            return VALID_JSON_PLAN;
+        });
+
+        Planner planner = Planner.builder()
+                .defaultChatClient(primary, 2, "primary")
+                .fallbackChatClient(fallback, 1, "fallback")
+                .hedging(HedgingPolicy.afterDelay(Duration.ofSeconds(5)))
+                .actions(new DemoActions())
+                .build();
+
+        PlanFormulationResult result;
+        boolean stillInterrupted;
+        Thread.currentThread().interrupt();
+        try {
+            result = planner.formulatePlan("do something");
+        } finally {
+            stillInterrupted = Thread.interrupted();
+        }
+
+        assertThat(stillInterrupted).isTrue();
+        assertThat(result.plan().status()).isEqualTo(PlanStatus.ERROR);
+        assertThat(result.planningMetrics().attempts())
+                .extracting(AttemptRecord::modelId, AttemptRecord::outcome)
+                .containsExactly(tuple("primary", AttemptOutcome.CANCELLED));
+        assertThat(primaryCalls.get()).isLessThanOrEqualTo(1);
+        assertThat(fallbackCalls.get()).isZero();
+    }
+
+    @Test
+    void openCircuitSkipsFailingPrimaryTier() {
+        ChatClient primary = createMockClient(MALFORMED_JSON);
+        ChatClient fallback = createMockClient(VALID_JSON_PLAN);
+
+        Planner planner = Planner.builder()
+                .defaultChatClient(primary, 1, "primary")
+                .fallbackChatClient(fallback, 1, "fallback")
+                .circuitBreaker(CircuitBreakerPolicy.defaults().withFailureRate(0.5, 2, 2))
+                .actions(new DemoActions())
+                .build();
+
+        planner.formulatePlan("do something");
+        PlanFormulationResult tripped = planner.formulatePlan("do something");
+        PlanFormulationResult result = planner.formulatePlan("do something");
+
+        assertThat(tripped.planningMetrics().openCircuits()).containsExactly("primary");
+        assertThat(result.plan().status()).isEqualTo(PlanStatus.READY);
+        assertThat(result.planningMetrics().attempts())
+                .extracting(AttemptRecord::modelId, AttemptRecord::outcome)
+                .containsExactly(tuple("fallback", AttemptOutcome.SUCCESS));
+        assertThat(result.planningMetrics().circuitBreakers())
+                .extracting(TierCircuitBreaker.Snapshot::name, TierCircuitBreaker.Snapshot::state)
+                .containsExactly(
+                        tuple("primary", TierCircuitBreaker.State.OPEN),
+                        tuple("fallback", TierCircuitBreaker.State.CLOSED));
+    }
+
+    @Test
+    void allCircuitsOpenReturnsErrorPlanWithoutInvokingModels() {
+        ChatClient primary = createMockClient(MALFORMED_JSON);
+
+        Planner planner = Planner.builder()
+                .defaultChatClient(primary, 1, "primary")
+                .circuitBreaker(CircuitBreakerPolicy.defaults().withFailureRate(1.0, 1, 1))
+                .actions(new DemoActions())
+                .build();
+
+        planner.formulatePlan("do something");
+        PlanFormulationResult result = planner.formulatePlan("do something");
+
+        assertThat(result.plan().status()).isEqualTo(PlanStatus.ERROR);
+        assertThat(result.planningMetrics().totalAttempts()).isZero();
+        assertThat(planner.circuitBreakerSnapshots())
+                .extracting(TierCircuitBreaker.Snapshot::rejectedCalls)
+                .containsExactly(1L);
+    }
+
     // Helper methods
 
     private ChatClient createMockClient(String response) {
@@ -2,6 +2,11 @@ package org.javai.springai.actions;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
 import java.util.List;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -23,7 +28,8 @@ class ModelFallbackTypesTest {
                             AttemptOutcome.SUCCESS,
                             AttemptOutcome.VALIDATION_FAILED,
                             AttemptOutcome.PARSE_FAILED,
-                            AttemptOutcome.NETWORK_ERROR
+                            AttemptOutcome.NETWORK_ERROR,
+                            AttemptOutcome.CANCELLED
                     );
         }
     }
@@ -297,6 +303,135 @@ class ModelFallbackTypesTest {
                     .isInstanceOf(IllegalArgumentException.class)
                     .hasMessageContaining("maxAttempts must be >= 1");
         }
+
+        @Test
+        void withPromptBudgetKeepsOtherSettings() {
+            ChatClient mockClient = Mockito.mock(ChatClient.class);
+            PromptBudget budget = PromptBudget.builder(1000).build();
+
+            ChatClientTier tier = new ChatClientTier(mockClient, 2, "small-model").withPromptBudget(budget);
+
+            assertThat(tier.promptBudget()).isSameAs(budget);
+            assertThat(tier.maxAttempts()).isEqualTo(2);
+            assertThat(tier.withCircuitBreaker(null).promptBudget()).isSameAs(budget);
+        }
     }
-}
 
+    @Nested
+    class TierCircuitBreakerTest {
+
+        private final MutableClock clock = new MutableClock();
+        private final CircuitBreakerPolicy policy = CircuitBreakerPolicy.defaults()
+                .withFailureRate(0.5, 4, 4)
+                .withOpenDuration(Duration.ofSeconds(10));
+
+        @Test
+        void opensWhenFailureRateReachesThreshold() {
+            TierCircuitBreaker breaker = new TierCircuitBreaker("primary", policy, clock);
+
+            breaker.onSuccess(10);
+            breaker.onFailure(10);
+            breaker.onSuccess(10);
+            assertThat(breaker.state()).isEqualTo(TierCircuitBreaker.State.CLOSED);
+
+            breaker.onFailure(10);
+
+            assertThat(breaker.state()).isEqualTo(TierCircuitBreaker.State.OPEN);
+            assertThat(breaker.tryAcquirePermission()).isFalse();
+            assertThat(breaker.snapshot().rejectedCalls()).isEqualTo(1);
+        }
+
+        @Test
+        void opensWhenTooManyCallsAreSlow() {
+            TierCircuitBreaker breaker = new TierCircuitBreaker("primary",
+                    policy.withSlowCalls(Duration.ofSeconds(1), 0.75), clock);
+
+            breaker.onSuccess(2_000);
+            breaker.onSuccess(2_000);
+            breaker.onSuccess(2_000);
+            breaker.onSuccess(10);
+
+            assertThat(breaker.state()).isEqualTo(TierCircuitBreaker.State.OPEN);
+            assertThat(breaker.snapshot().slowCallRate()).isEqualTo(0.75);
+        }
+
+        @Test
+        void halfOpenProbeClosesCircuitOnSuccess() {
+            TierCircuitBreaker breaker = openBreaker();
+
+            clock.advance(Duration.ofSeconds(10));
+
+            assertThat(breaker.tryAcquirePermission()).isTrue();
+            assertThat(breaker.state()).isEqualTo(TierCircuitBreaker.State.HALF_OPEN);
+            assertThat(breaker.tryAcquirePermission()).isFalse();
+
+            breaker.onSuccess(10);
+
+            assertThat(breaker.state()).isEqualTo(TierCircuitBreaker.State.CLOSED);
+            assertThat(breaker.snapshot().bufferedCalls()).isZero();
+            assertThat(breaker.snapshot().transitions()).isEqualTo(3);
+        }
+
+        @Test
+        void halfOpenProbeReopensCircuitOnFailure() {
+            TierCircuitBreaker breaker = openBreaker();
+
+            clock.advance(Duration.ofSeconds(10));
+            assertThat(breaker.tryAcquirePermission()).isTrue();
+            breaker.onFailure(10);
+
+            assertThat(breaker.state()).isEqualTo(TierCircuitBreaker.State.OPEN);
+            assertThat(breaker.snapshot().stateSince()).isEqualTo(clock.instant());
+        }
+
+        @Test
+        void ignoredProbeFreesItsSlot() {
+            TierCircuitBreaker breaker = openBreaker();
+
+            clock.advance(Duration.ofSeconds(10));
+            assertThat(breaker.tryAcquirePermission()).isTrue();
+            breaker.onIgnored();
+
+            assertThat(breaker.tryAcquirePermission()).isTrue();
+        }
+
+        @Test
+        void rejectInvalidPolicy() {
+            assertThatThrownBy(() -> CircuitBreakerPolicy.defaults().withFailureRate(1.5, 10, 5))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+
+        private TierCircuitBreaker openBreaker() {
+            TierCircuitBreaker breaker = new TierCircuitBreaker("primary", policy, clock);
+            for (int i = 0; i < 4; i++) {
+                breaker.onFailure(10);
+            }
+            assertThat(breaker.state()).isEqualTo(TierCircuitBreaker.State.OPEN);
+            return breaker;
+        }
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now = Instant.parse("2026-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package org.javai.springai.actions;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Map;
+import org.javai.springai.actions.api.Action;
+import org.javai.springai.actions.conversation.ConversationState;
+import org.javai.springai.actions.internal.plan.PlanFormulationResult;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.ai.chat.client.ChatClient;
+
+/**
+ * Tests for {@link PlanCache} integration in the {@link Planner} and {@link InMemoryPlanCache}.
+ */
+@DisplayName("PlanCache")
+class PlanCacheTest {
+
+	private static final String VALID_JSON_PLAN = """
+			{
+				"message": "Executing demo action",
+				"steps": [
+					{
+						"actionId": "demo",
+						"description": "Run the demo",
+						"parameters": { "input": "test value" }
+					}
+				]
+			}
+			""";
+
+	@Nested
+	@DisplayName("Planner")
+	class PlannerIntegration {
+
+		@Test
+		@DisplayName("should serve a repeated request from the cache without invoking the model")
+		void shouldServeRepeatedRequestFromCache() {
+			ChatClient client = mock(ChatClient.class, Mockito.RETURNS_DEEP_STUBS);
+			// A second model call would fail to parse
+			when(client.prompt().call().content()).thenReturn(VALID_JSON_PLAN).thenReturn("{{{");
+			InMemoryPlanCache cache = InMemoryPlanCache.builder().build();
+			Planner planner = Planner.builder()
+					.defaultChatClient(client, 1, "primary")
+					.actions(new DemoActions())
+					.planCache(cache)
+					.build();
+
+			PlanFormulationResult first = planner.formulatePlan("Run the demo", ConversationState.initial("Run the demo"));
+			PlanFormulationResult second = planner.formulatePlan("  run  the demo?", ConversationState.initial("x"));
+			PlanFormulationResult third = planner.formulatePlan("Run   the demo.", ConversationState.initial("y"));
+
+			assertThat(first.planningMetrics().cacheOutcome()).isEqualTo(PlanCacheOutcome.MISS);
+			// Case is preserved by normalization, so "run" differs from "Run"
+			assertThat(second.planningMetrics().cacheOutcome()).isEqualTo(PlanCacheOutcome.MISS);
+			assertThat(third.planningMetrics().cacheOutcome()).isEqualTo(PlanCacheOutcome.HIT);
+			assertThat(third.planningMetrics().succeeded()).isTrue();
+			assertThat(third.planningMetrics().totalAttempts()).isZero();
+			assertThat(third.plan().status()).isEqualTo(PlanStatus.READY);
+			assertThat(third.plan().planSteps().getFirst()).isNotSameAs(first.plan().planSteps().getFirst());
+			assertThat(cache.hitCount()).isEqualTo(1);
+			assertThat(cache.missCount()).isEqualTo(2);
+		}
+
+		@Test
+		@DisplayName("should not share entries across differing conversation state")
+		void shouldKeyOnConversationState() {
+			ChatClient client = mock(ChatClient.class, Mockito.RETURNS_DEEP_STUBS);
+			when(client.prompt().call().content()).thenReturn(VALID_JSON_PLAN);
+			Planner planner = Planner.builder()
+					.defaultChatClient(client)
+					.actions(new DemoActions())
+					.planCache(InMemoryPlanCache.builder().build())
+					.build();
+			ConversationState initial = ConversationState.initial("Run the demo");
+
+			planner.formulatePlan("Run the demo", initial);
+			PlanFormulationResult withParams = planner.formulatePlan("Run the demo",
+					initial.withProvidedParams(Map.of("input", "other")));
+
+			assertThat(withParams.planningMetrics().cacheOutcome()).isEqualTo(PlanCacheOutcome.MISS);
+		}
+
+		@Test
+		@DisplayName("should report NOT_CONSULTED when no cache is configured")
+		void shouldReportNotConsultedWithoutCache() {
+			ChatClient client = mock(ChatClient.class, Mockito.RETURNS_DEEP_STUBS);
+			when(client.prompt().call().content()).thenReturn(VALID_JSON_PLAN);
+			Planner planner = Planner.builder()
+					.defaultChatClient(client)
+					.actions(new DemoActions())
+					.build();
+
+			PlanFormulationResult result = planner.formulatePlan("Run the demo");
+
+			assertThat(result.planningMetrics().cacheOutcome()).isEqualTo(PlanCacheOutcome.NOT_CONSULTED);
+		}
+	}
+
+	@Nested
+	@DisplayName("InMemoryPlanCache")
+	class InMemory {
+
+		private final PlanCacheKey a = new PlanCacheKey("a", "system", "state");
+		private final PlanCacheKey b = new PlanCacheKey("b", "system", "state");
+		private final PlanCacheKey c = new PlanCacheKey("c", "system", "state");
+
+		@Test
+		@DisplayName("should evict the least recently used entry beyond capacity")
+		void shouldEvictLeastRecentlyUsed() {
+			InMemoryPlanCache cache = InMemoryPlanCache.builder().withMaxEntries(2).build();
+			cache.put(a, "{\"a\":1}");
+			cache.put(b, "{\"b\":1}");
+			cache.get(a);
+			cache.put(c, "{\"c\":1}");
+
+			assertThat(cache.get(a)).contains("{\"a\":1}");
+			assertThat(cache.get(b)).isEmpty();
+			assertThat(cache.get(c)).isPresent();
+			assertThat(cache.evictionCount()).isEqualTo(1);
+			assertThat(cache.size()).isEqualTo(2);
+		}
+
+		@Test
+		@DisplayName("should expire entries after the time-to-live")
+		void shouldExpireEntries() {
+			MutableClock clock = new MutableClock();
+			InMemoryPlanCache cache = InMemoryPlanCache.builder()
+					.withTimeToLive(Duration.ofMinutes(5))
+					.withClock(clock)
+					.build();
+			cache.put(a, "{}");
+
+			clock.advance(Duration.ofMinutes(4));
+			assertThat(cache.get(a)).isPresent();
+			clock.advance(Duration.ofMinutes(1));
+			assertThat(cache.get(a)).isEmpty();
+			assertThat(cache.hitCount()).isEqualTo(1);
+			assertThat(cache.missCount()).isEqualTo(1);
+		}
+
+		@Test
+		@DisplayName("should normalize whitespace and trailing punctuation but not case")
+		void shouldNormalizeRequests() {
+			assertThat(PlanCacheKey.normalizeRequest("  Show  orders\tby region?! "))
+					.isEqualTo("Show orders by region");
+			assertThat(PlanCacheKey.normalizeRequest("Orders for ACME")).isNotEqualTo("orders for acme");
+		}
+	}
+
+	static class MutableClock extends Clock {
+		private Instant now = Instant.parse("2025-01-01T00:00:00Z");
+
+		void advance(Duration duration) {
+			now = now.plus(duration);
+		}
+
+		@Override
+		public ZoneId getZone() {
+			return ZoneOffset.UTC;
+		}
+
+		@Override
+		public Clock withZone(ZoneId zone) {
+			return this;
+		}
+
+		@Override
+		public Instant instant() {
+			return now;
+		}
+	}
+
+	static class DemoActions {
+		@Action(description = "Demo action")
+		public void demo(String input) {
+			// no-op
+		}
+	}
+}
@@ -1,16 +1,27 @@
 package org.javai.springai.actions;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.javai.springai.actions.api.Action;
 import org.javai.springai.actions.internal.plan.PlanFormulationResult;
 import org.javai.springai.actions.internal.plan.PlannerOptions;
 import org.javai.springai.actions.internal.plan.PromptPreview;
+import org.javai.springai.actions.internal.plan.PromptSegment;
+import org.javai.springai.actions.internal.prompt.SystemPromptContext;
 import org.javai.springai.actions.sql.InMemorySqlCatalog;
 import org.javai.springai.actions.sql.Query;
+import org.javai.springai.actions.sql.ReloadableSqlCatalog;
 import org.javai.springai.actions.sql.SqlCatalogContextContributor;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 import org.springframework.ai.chat.client.ChatClient;
+import reactor.core.publisher.Flux;
 
 /**
  * Tests for the Planner class.
@@ -234,6 +245,221 @@ class PlannerTest {
 		assertThat(system).contains("fk:dim_date.id");
 	}
 
+	@Test
+	void staticPromptSegmentsAreRenderedOncePerPlanner() {
+		CountingContributor staticContributor = new CountingContributor("static-segment", true);
+		CountingContributor dynamicContributor = new CountingContributor("dynamic-segment", false);
+		Planner planner = Planner.builder()
+				.actions(new DemoActions())
+				.promptContributor(staticContributor)
+				.promptContributor(dynamicContributor)
+				.build();
+
+		PromptPreview first = planner.preview("first turn");
+		PromptPreview second = planner.preview("second turn");
+
+		assertThat(second.systemMessages()).isEqualTo(first.systemMessages());
+		assertThat(second.systemMessages().indexOf("static-segment"))
+				.isLessThan(second.systemMessages().indexOf("dynamic-segment"));
+		assertThat(staticContributor.calls.get()).isEqualTo(1);
+		assertThat(dynamicContributor.calls.get()).isEqualTo(2);
+
+		planner.invalidatePromptCache();
+		planner.preview("third turn");
+
+		assertThat(staticContributor.calls.get()).isEqualTo(2);
+	}
+
+	@Test
+	void reloadedCatalogIsRenderedOnNextTurn() {
+		ReloadableSqlCatalog catalog = new ReloadableSqlCatalog(new InMemorySqlCatalog()
+				.addTable("orders", "Orders", "fact"));
+		Planner planner = Planner.builder()
+				.actions(new QueryActions())
+				.promptContributor(new SqlCatalogContextContributor(catalog))
+				.build();
+
+		assertThat(String.join("\n", planner.preview("first turn").systemMessages()))
+				.contains("orders")
+				.doesNotContain("invoices");
+
+		catalog.swap(new InMemorySqlCatalog().addTable("invoices", "Invoices", "fact"));
+
+		assertThat(String.join("\n", planner.preview("second turn").systemMessages()))
+				.contains("invoices")
+				.doesNotContain("- orders");
+	}
+
+	@Test
+	void promptBudgetReducesContributorsBeforeRequiredSegments() {
+		String catalogText = "catalog line\n".repeat(200);
+		Planner unbudgeted = Planner.builder()
+				.actions(new DemoActions())
+				.promptContributor(context -> Optional.of(catalogText))
+				.build();
+		PromptPreview full = unbudgeted.preview("do something");
+		int budget = full.totalSystemTokens() - 200;
+
+		Planner planner = Planner.builder()
+				.actions(new DemoActions())
+				.promptContributor(context -> Optional.of(catalogText))
+				.promptBudget(PromptBudget.builder(budget).build())
+				.build();
+		PromptPreview preview = planner.preview("do something");
+
+		assertThat(full.segmentTokens()).hasSameSizeAs(full.systemMessages());
+		assertThat(preview.totalSystemTokens()).isLessThanOrEqualTo(budget);
+		assertThat(preview.systemMessages()).anySatisfy(msg -> assertThat(msg).contains("demoAction"));
+		assertThat(preview.systemMessages()).anySatisfy(msg -> assertThat(msg)
+				.startsWith("catalog line")
+				.endsWith(SegmentReducer.TRUNCATION_MARKER));
+		assertThat(preview.systemMessages().getLast()).isEqualTo(full.systemMessages().getLast());
+	}
+
+	@Test
+	@SuppressWarnings("NullAway")
+	void tierPromptBudgetReducesSystemPromptForThatTier() {
+		String catalogText = "catalog line\n".repeat(200);
+		PromptPreview full = Planner.builder()
+				.actions(new DemoActions())
+				.promptContributor(context -> Optional.of(catalogText))
+				.build()
+				.preview("do something");
+		int budget = full.totalSystemTokens() - 200;
+		ChatClient primary = Mockito.mock(ChatClient.class, Mockito.RETURNS_DEEP_STUBS);
+		Mockito.when(primary.prompt().call().content()).thenReturn("{{{");
+		ChatClient fallback = Mockito.mock(ChatClient.class, Mockito.RETURNS_DEEP_STUBS);
+		Mockito.when(fallback.prompt().call().content()).thenReturn("""
+				{ "message": "ok", "steps": [ { "actionId": "demoAction", "description": "Run the demo",
+				  "parameters": { "input": "x" } } ] }
+				""");
+
+		Planner planner = Planner.builder()
+				.defaultChatClient(primary, 1, "large")
+				.fallbackChatClient(fallback, 1, "small", PromptBudget.builder(budget).build())
+				.actions(new DemoActions())
+				.promptContributor(context -> Optional.of(catalogText))
+				.build();
+		PlanFormulationResult result = planner.formulatePlan("do something", PlannerOptions.defaults());
+
+		assertThat(result.plan().status()).isEqualTo(PlanStatus.READY);
+		ArgumentCaptor<String> primarySystem = ArgumentCaptor.forClass(String.class);
+		Mockito.verify(primary.prompt(), Mockito.atLeastOnce()).system(primarySystem.capture());
+		assertThat(primarySystem.getAllValues()).contains(catalogText);
+		ArgumentCaptor<String> fallbackSystem = ArgumentCaptor.forClass(String.class);
+		Mockito.verify(fallback.prompt(), Mockito.atLeastOnce()).system(fallbackSystem.capture());
+		assertThat(fallbackSystem.getAllValues())
+				.doesNotContain(catalogText)
+				.anySatisfy(msg -> assertThat(msg)
+						.startsWith("catalog line")
+						.endsWith(SegmentReducer.TRUNCATION_MARKER));
+	}
+
+	@Test
+	void staticSegmentsFormAStableHashedPrefix() {
+		AtomicInteger turn = new AtomicInteger();
+		PromptContributor perTurn = context -> Optional.of("turn " + turn.incrementAndGet());
+		Planner planner = Planner.builder()
+				.actions(new DemoActions())
+				.promptContributor(perTurn)
+				.promptContribution("system-extra")
+				.build();
+
+		PromptPreview first = planner.preview("first turn");
+		PromptPreview second = planner.preview("second turn");
+
+		// Static segments precede the per-turn contribution; the planning directive stays last
+		assertThat(first.systemSegments()).extracting(PromptSegment::kind).containsExactly(
+				PromptSegment.Kind.STATIC, PromptSegment.Kind.STATIC,
+				PromptSegment.Kind.DYNAMIC, PromptSegment.Kind.STATIC);
+		assertThat(first.systemMessages().get(1)).isEqualTo("system-extra");
+		assertThat(first.cacheBreakpoints()).containsExactly(1);
+		assertThat(second.staticPrefixHash()).isEqualTo(first.staticPrefixHash());
+		assertThat(second.segmentHashes().get(2)).isNotEqualTo(first.segmentHashes().get(2));
+		assertThat(first.segmentHashes().get(1)).isEqualTo(PromptSegment.hash("system-extra"));
+	}
+
+	@Test
+	@SuppressWarnings("NullAway")
+	void streamingDeliversStepsBeforeTheResponseCompletes() {
+		List<String> chunks = List.of(
+				"{\"message\": \"Two steps\", \"steps\": [",
+				"{\"actionId\": \"demoAction\", \"description\": \"first\", \"parameters\": {\"input\": \"a\"}}",
+				", {\"actionId\": \"demoAction\", \"description\": \"second\", ",
+				"\"parameters\": {\"input\": \"b\"}}",
+				"]}");
+		List<String> received = new CopyOnWriteArrayList<>();
+		ChatClient mockClient = Mockito.mock(ChatClient.class, Mockito.RETURNS_DEEP_STUBS);
+		Mockito.when(mockClient.prompt().stream().content())
+				.thenReturn(Flux.fromIterable(chunks).doOnNext(received::add));
+		List<Integer> chunksReceivedAtStep = new ArrayList<>();
+
+		Planner planner = Planner.builder()
+				.defaultChatClient(mockClient)
+				.actions(new DemoActions())
+				.streaming((index, step) -> chunksReceivedAtStep.add(received.size()))
+				.build();
+
+		PlanFormulationResult result = planner.formulatePlan("do something twice", PlannerOptions.defaults());
+
+		assertThat(result.plan().status()).isEqualTo(PlanStatus.READY);
+		assertThat(result.plan().planSteps()).hasSize(2);
+		assertThat(chunksReceivedAtStep).hasSize(2);
+		assertThat(chunksReceivedAtStep.getFirst()).isLessThan(chunks.size());
+	}
+
+	@Test
+	@SuppressWarnings("NullAway")
+	void streamingListenerFailurePropagatesWithoutTrippingCircuit() {
+		ChatClient mockClient = Mockito.mock(ChatClient.class, Mockito.RETURNS_DEEP_STUBS);
+		Mockito.when(mockClient.prompt().stream().content()).thenReturn(Flux.just(
+				"{\"message\": \"One step\", \"steps\": [",
+				"{\"actionId\": \"demoAction\", \"description\": \"only\", \"parameters\": {\"input\": \"a\"}}",
+				"]}"));
+		IllegalStateException listenerFailure = new IllegalStateException("listener failed");
+		AtomicInteger deliveries = new AtomicInteger();
+
+		Planner planner = Planner.builder()
+				.defaultChatClient(mockClient, 1, "primary")
+				.circuitBreaker(CircuitBreakerPolicy.defaults().withFailureRate(1.0, 1, 1))
+				.actions(new DemoActions())
+				.streaming((index, step) -> {
+					if (deliveries.incrementAndGet() == 1) {
+						throw listenerFailure;
+					}
+				})
+				.build();
+
+		assertThatThrownBy(() -> planner.formulatePlan("do something", PlannerOptions.defaults()))
+				.isSameAs(listenerFailure);
+		PlanFormulationResult result = planner.formulatePlan("do something", PlannerOptions.defaults());
+
+		assertThat(result.plan().status()).isEqualTo(PlanStatus.READY);
+		assertThat(result.planningMetrics().openCircuits()).isEmpty();
+	}
+
+	static class CountingContributor implements PromptContributor {
+		private final String text;
+		private final boolean isStatic;
+		private final AtomicInteger calls = new AtomicInteger();
+
+		CountingContributor(String text, boolean isStatic) {
+			this.text = text;
+			this.isStatic = isStatic;
+		}
+
+		@Override
+		public Optional<String> contribute(SystemPromptContext context) {
+			calls.incrementAndGet();
+			return Optional.of(text);
+		}
+
+		@Override
+		public boolean isStatic() {
+			return isStatic;
+		}
+	}
+
 	static class DemoActions {
 		@Action
 		public void demoAction(String input) {
@@ -0,0 +1,152 @@
+package org.javai.springai.actions;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import java.util.List;
+import org.javai.springai.actions.internal.plan.PromptSegment;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("PromptBudget")
+class PromptBudgetTest {
+
+	// One token per character keeps the arithmetic readable
+	private static final TokenEstimator CHARS = String::length;
+
+	private static PromptBudget.SegmentPolicy policy(String name) {
+		return switch (name) {
+			case "required" -> PromptBudget.SegmentPolicy.required();
+			case "low" -> new PromptBudget.SegmentPolicy(0, SegmentReducer.truncate());
+			case "high" -> new PromptBudget.SegmentPolicy(10, SegmentReducer.truncate());
+			default -> null;
+		};
+	}
+
+	@Nested
+	@DisplayName("allocate")
+	class Allocate {
+
+		@Test
+		@DisplayName("leaves segments untouched when they fit")
+		void leavesSegmentsThatFit() {
+			PromptBudget budget = PromptBudget.builder(100).withEstimator(CHARS).build();
+			List<PromptSegment> segments = List.of(
+					PromptSegment.staticSegment("required", "aaaa"),
+					PromptSegment.staticSegment("low", "bbbb"));
+
+			PromptBudget.Allocation allocation = budget.allocate(segments, PromptBudgetTest::policy);
+
+			assertThat(allocation.segments()).isEqualTo(segments);
+			assertThat(allocation.tokens()).containsExactly(4, 4);
+			assertThat(allocation.totalTokens()).isEqualTo(8);
+			assertThat(allocation.reduced()).isEmpty();
+			assertThat(allocation.withinBudget()).isTrue();
+		}
+
+		@Test
+		@DisplayName("reduces lower-priority segments first and never reduces required ones")
+		void reducesByPriority() {
+			String text = "xxxx\n".repeat(8);
+			PromptBudget budget = PromptBudget.builder(100).withEstimator(CHARS).build();
+			List<PromptSegment> segments = List.of(
+					PromptSegment.staticSegment("required", text),
+					PromptSegment.staticSegment("high", text),
+					PromptSegment.staticSegment("low", text));
+
+			PromptBudget.Allocation allocation = budget.allocate(segments, PromptBudgetTest::policy);
+
+			assertThat(allocation.reduced()).containsExactly("low");
+			assertThat(allocation.segments().get(0).text()).isEqualTo(text);
+			assertThat(allocation.segments().get(1).text()).isEqualTo(text);
+			assertThat(allocation.segments().get(2).text()).isEqualTo("xxxx\n" + SegmentReducer.TRUNCATION_MARKER);
+			assertThat(allocation.segments().get(2).isStatic()).isFalse();
+			assertThat(allocation.withinBudget()).isTrue();
+		}
+
+		@Test
+		@DisplayName("omits segments reduced to nothing")
+		void omitsDroppedSegments() {
+			PromptBudget budget = PromptBudget.builder(5)
+					.withEstimator(CHARS)
+					.withReducer("low", SegmentReducer.drop())
+					.build();
+
+			PromptBudget.Allocation allocation = budget.allocate(List.of(
+					PromptSegment.staticSegment("required", "aaaa"),
+					PromptSegment.staticSegment("low", "bbbbbbbb")), PromptBudgetTest::policy);
+
+			assertThat(allocation.segments()).extracting(PromptSegment::name).containsExactly("required");
+			assertThat(allocation.tokens()).containsExactly(4);
+			assertThat(allocation.reduced()).containsExactly("low");
+		}
+
+		@Test
+		@DisplayName("reports required segments that exceed the budget")
+		void reportsOverBudget() {
+			PromptBudget budget = PromptBudget.builder(2).withEstimator(CHARS).build();
+
+			PromptBudget.Allocation allocation = budget.allocate(
+					List.of(PromptSegment.staticSegment("required", "aaaa")), PromptBudgetTest::policy);
+
+			assertThat(allocation.segments()).hasSize(1);
+			assertThat(allocation.withinBudget()).isFalse();
+		}
+
+		@Test
+		@DisplayName("lets the budget override a segment's priority")
+		void overridesPriority() {
+			PromptBudget budget = PromptBudget.builder(5)
+					.withEstimator(CHARS)
+					.withPriority("low", PromptBudget.REQUIRED)
+					.build();
+
+			PromptBudget.Allocation allocation = budget.allocate(
+					List.of(PromptSegment.staticSegment("low", "bbbbbbbb")), PromptBudgetTest::policy);
+
+			assertThat(allocation.reduced()).isEmpty();
+			assertThat(allocation.withinBudget()).isFalse();
+		}
+	}
+
+	@Nested
+	@DisplayName("reducers")
+	class Reducers {
+
+		@Test
+		@DisplayName("truncate keeps whole leading lines and marks the cut")
+		void truncateKeepsLeadingLines() {
+			String text = "first line\nsecond line\nthird line";
+
+			String reduced = SegmentReducer.truncate().reduce(text, 30, CHARS);
+
+			assertThat(reduced).startsWith("first line\n").doesNotContain("third");
+			assertThat(reduced).endsWith(SegmentReducer.TRUNCATION_MARKER);
+			assertThat(CHARS.estimate(reduced)).isLessThanOrEqualTo(30);
+		}
+
+		@Test
+		@DisplayName("keep never changes the text")
+		void keepIsIdentity() {
+			assertThat(SegmentReducer.keep().reduce("abcdef", 1, CHARS)).isEqualTo("abcdef");
+		}
+	}
+
+	@Nested
+	@DisplayName("builder")
+	class BuilderValidation {
+
+		@Test
+		@DisplayName("rejects a non-positive budget")
+		void rejectsNonPositiveBudget() {
+			assertThatThrownBy(() -> PromptBudget.builder(0))
+					.isInstanceOf(IllegalArgumentException.class);
+		}
+
+		@Test
+		@DisplayName("estimates four characters per token by default")
+		void defaultEstimator() {
+			assertThat(PromptBudget.builder(10).build().estimator().estimate("abcdefgh")).isEqualTo(2);
+		}
+	}
+}
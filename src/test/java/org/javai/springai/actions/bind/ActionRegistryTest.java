@@ -2,12 +2,16 @@ package org.javai.springai.actions.bind;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import java.util.List;
 import org.javai.springai.actions.api.Action;
+import org.javai.springai.actions.api.ActionContext;
 import org.javai.springai.actions.api.ActionParam;
+import org.javai.springai.actions.api.FromContext;
 import org.javai.springai.actions.internal.bind.ActionBinding;
 import org.javai.springai.actions.internal.bind.ActionDescriptor;
 import org.javai.springai.actions.internal.bind.ActionParameterDescriptor;
 import org.javai.springai.actions.internal.bind.ActionRegistry;
+import org.javai.springai.actions.internal.plan.PlanArgument;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -81,12 +85,37 @@ class ActionRegistryTest {
 		assertThat(p1.description()).isEqualTo("short note");
 	}
 
+	@Test
+	void compilesInvokerOnceAtRegistration() throws Exception {
+		registry.registerActions(new ContextActions());
+
+		ActionBinding first = registry.getActionBinding("describe");
+		ActionBinding second = registry.getActionBinding("describe");
+
+		assertThat(first.invoker()).isNotNull().isSameAs(second.invoker());
+		assertThat(first.invoker().argumentCount()).isEqualTo(1);
+		assertThat(first.invoker().fromContextKeys()).containsExactly("customer");
+
+		ActionContext context = new ActionContext();
+		context.put("customer", "ACME");
+		Object result = first.invoker().invoke(context, List.of(new PlanArgument("format", "short", String.class)));
+
+		assertThat(result).isEqualTo("ACME (short)");
+	}
+
 	private static class SampleActions {
 		@Action(description = "Say hello")
 		public void greet(String name, @ActionParam(description = "short note") String note) {
 		}
 	}
 
+	private static class ContextActions {
+		@Action(description = "Describe the customer")
+		public String describe(@FromContext("customer") String customer, String format) {
+			return customer + " (" + format + ")";
+		}
+	}
+
 	private static class DuplicateActions {
 		@Action(description = "Say hello differently")
 		public void greet(String name) {
@@ -1,9 +1,11 @@
 package org.javai.springai.actions.exec;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import java.lang.reflect.Method;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import org.javai.springai.actions.DefaultPlanExecutor;
 import org.javai.springai.actions.Plan;
 import org.javai.springai.actions.PlanExecutionResult;
@@ -154,6 +156,83 @@ class DefaultPlanExecutorTest {
 		}
 	}
 
+	@Nested
+	@DisplayName("failing actions")
+	class FailingActions {
+
+		@Test
+		@DisplayName("should fail the step when the action throws an Error")
+		void shouldFailStepOnError() throws Exception {
+			Method method = FailingTestActions.class.getMethod("assertStock");
+			ActionBinding binding = new ActionBinding(
+					"assertStock", "Assert stock levels", new FailingTestActions(), method, List.of(), "");
+			Plan plan = new Plan("test", List.of(new PlanStep.ActionStep(binding, List.of())));
+
+			PlanExecutionResult result = executor.execute(plan, new ActionContext());
+
+			assertThat(result.success()).isFalse();
+			assertThat(result.steps().getFirst().error()).isInstanceOf(AssertionError.class);
+			assertThat(result.steps().getFirst().message()).contains("stock must not be negative");
+		}
+
+		@Test
+		@DisplayName("should keep the interrupt status when interrupted waiting for a permit")
+		void shouldRestoreInterruptStatus() throws Exception {
+			DefaultPlanExecutor limited = DefaultPlanExecutor.builder()
+					.withAffinityConcurrencyLimit("warehouse", 1)
+					.build();
+			Method method = FailingTestActions.class.getMethod("queryWarehouse");
+			ActionBinding binding = new ActionBinding(
+					"queryWarehouse", "Query the warehouse", new FailingTestActions(), method, List.of(), "");
+			Plan plan = new Plan("test", List.of(new PlanStep.ActionStep(binding, List.of())));
+
+			Thread.currentThread().interrupt();
+			PlanExecutionResult result = limited.execute(plan, new ActionContext());
+
+			assertThat(Thread.interrupted()).isTrue();
+			assertThat(result.success()).isFalse();
+			assertThat(result.steps().getFirst().error()).isInstanceOf(InterruptedException.class);
+		}
+
+		@Test
+		@DisplayName("should rethrow a VirtualMachineError")
+		void shouldRethrowVirtualMachineError() throws Exception {
+			Method method = FailingTestActions.class.getMethod("exhaustMemory");
+			ActionBinding binding = new ActionBinding(
+					"exhaustMemory", "Exhaust memory", new FailingTestActions(), method, List.of(), "");
+			Plan plan = new Plan("test", List.of(new PlanStep.ActionStep(binding, List.of())));
+
+			assertThatThrownBy(() -> executor.execute(plan, new ActionContext()))
+					.isInstanceOf(OutOfMemoryError.class);
+		}
+	}
+
+	@Nested
+	@DisplayName("executeAsync")
+	class ExecuteAsync {
+
+		@Test
+		@DisplayName("should run the plan on a virtual thread by default")
+		void shouldRunOnVirtualThread() throws Exception {
+			ActionContext context = new ActionContext();
+			context.put("sessionId", "SESSION-789");
+
+			TestActionsWithFromContext actions = new TestActionsWithFromContext();
+			Method method = TestActionsWithFromContext.class.getMethod(
+					"logSession", ActionContext.class, String.class);
+			ActionBinding binding = new ActionBinding(
+					"logSession", "Log session information",
+					actions, method, List.of(), "");
+			Plan plan = new Plan("test", List.of(new PlanStep.ActionStep(binding, List.of())));
+
+			PlanExecutionResult result = executor.executeAsync(plan, context).get(10, TimeUnit.SECONDS);
+
+			assertThat(result.success()).isTrue();
+			assertThat(actions.lastSessionId).isEqualTo("SESSION-789");
+			assertThat(actions.ranOnVirtualThread).isTrue();
+		}
+	}
+
 	/**
 	 * Test actions class with @FromContext parameters.
 	 */
@@ -165,6 +244,7 @@ class DefaultPlanExecutorTest {
 		int lastQuantity;
 		String lastSessionId;
 		ActionContext receivedContext;
+		volatile boolean ranOnVirtualThread;
 
 		@Action(description = "Get the number of items in the basket")
 		public int getBasketSize(@FromContext("basket") Map<String, Integer> basket) {
@@ -189,6 +269,28 @@ class DefaultPlanExecutorTest {
 				@FromContext("sessionId") String sessionId) {
 			receivedContext = context;
 			lastSessionId = sessionId;
+			ranOnVirtualThread = Thread.currentThread().isVirtual();
+		}
+	}
+
+	/**
+	 * Test actions that fail with errors rather than exceptions, or wait for a permit.
+	 */
+	public static class FailingTestActions {
+
+		@Action(description = "Query the warehouse", affinity = "warehouse")
+		public void queryWarehouse() {
+			// no-op
+		}
+
+		@Action(description = "Assert stock levels")
+		public void assertStock() {
+			throw new AssertionError("stock must not be negative");
+		}
+
+		@Action(description = "Exhaust memory")
+		public void exhaustMemory() {
+			throw new OutOfMemoryError("simulated");
 		}
 	}
 }
@@ -0,0 +1,295 @@
+package org.javai.springai.actions.exec;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.javai.springai.actions.ParallelPlanExecutor;
+import org.javai.springai.actions.Plan;
+import org.javai.springai.actions.PlanExecutionResult;
+import org.javai.springai.actions.PlanStep;
+import org.javai.springai.actions.api.Action;
+import org.javai.springai.actions.api.ActionContext;
+import org.javai.springai.actions.api.FromContext;
+import org.javai.springai.actions.api.Mutability;
+import org.javai.springai.actions.internal.bind.ActionBinding;
+import org.javai.springai.actions.internal.exec.StepDependencyGraph;
+import org.javai.springai.actions.internal.exec.StepExecutionResult;
+import org.javai.springai.actions.internal.plan.PlanArgument;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link ParallelPlanExecutor} and its {@link StepDependencyGraph}.
+ */
+@DisplayName("ParallelPlanExecutor")
+class ParallelPlanExecutorTest {
+
+	private ExecutorService pool;
+	private ParallelPlanExecutor executor;
+	private ReportingActions actions;
+
+	@BeforeEach
+	void setUp() {
+		pool = Executors.newFixedThreadPool(4);
+		executor = ParallelPlanExecutor.builder()
+				.withExecutor(pool)
+				.onPending((plan, ctx) -> PlanExecutionResult.notExecuted(plan, ctx, "pending"))
+				.onError((plan, ctx) -> PlanExecutionResult.notExecuted(plan, ctx, "error"))
+				.onNoAction(PlanExecutionResult::notExecuted)
+				.build();
+		actions = new ReportingActions();
+	}
+
+	@AfterEach
+	void tearDown() {
+		pool.shutdownNow();
+	}
+
+	@Nested
+	@DisplayName("scheduling")
+	class Scheduling {
+
+		@Test
+		@DisplayName("should run independent READ_ONLY steps concurrently")
+		void shouldRunReadOnlyStepsConcurrently() throws Exception {
+			Plan plan = new Plan("report", List.of(
+					step("salesReport", List.of()),
+					step("inventoryReport", List.of())));
+
+			PlanExecutionResult result = executor.execute(plan, new ActionContext());
+
+			// Both actions wait on the same barrier, so success proves they overlapped
+			assertThat(result.success()).isTrue();
+			assertThat(result.steps()).extracting(StepExecutionResult::actionId)
+					.containsExactly("salesReport", "inventoryReport");
+			assertThat(result.context().get("sales")).isEqualTo("sales");
+			assertThat(result.context().get("inventory")).isEqualTo("inventory");
+		}
+
+		@Test
+		@DisplayName("should run a consumer only after the step producing its context key")
+		void shouldHonourContextFlow() throws Exception {
+			Plan plan = new Plan("report", List.of(
+					step("loadCustomer", List.of()),
+					step("summariseCustomer", List.of())));
+
+			PlanExecutionResult result = executor.execute(plan, new ActionContext());
+
+			assertThat(result.success()).isTrue();
+			assertThat(result.steps().get(1).returnValue()).isEqualTo("Summary of ACME");
+		}
+
+		@Test
+		@DisplayName("should serialize MUTATE steps on the same affinity in plan order")
+		void shouldSerializeMutationsPerAffinity() throws Exception {
+			Plan plan = new Plan("update", List.of(
+					step("adjustBalance", List.of(
+							new PlanArgument("accountId", "42", String.class),
+							new PlanArgument("amount", 1, int.class))),
+					step("adjustBalance", List.of(
+							new PlanArgument("accountId", "42", String.class),
+							new PlanArgument("amount", 2, int.class)))));
+
+			PlanExecutionResult result = executor.execute(plan, new ActionContext());
+
+			assertThat(result.success()).isTrue();
+			assertThat(actions.maxConcurrentMutations.get()).isEqualTo(1);
+			assertThat(actions.mutationOrder).containsExactly(1, 2);
+		}
+
+		@Test
+		@DisplayName("should not start dependent steps after a failure")
+		void shouldFailFast() throws Exception {
+			Plan plan = new Plan("update", List.of(
+					step("failingLoad", List.of()),
+					step("summariseCustomer", List.of()),
+					step("salesReportAlone", List.of())));
+
+			PlanExecutionResult result = executor.execute(plan, new ActionContext());
+
+			assertThat(result.success()).isFalse();
+			assertThat(result.steps()).extracting(StepExecutionResult::actionId).doesNotContain("summariseCustomer");
+			assertThat(result.steps().getFirst().success()).isFalse();
+		}
+
+		@Test
+		@DisplayName("should delegate non-READY plans to the configured handlers")
+		void shouldDelegatePendingPlans() {
+			Plan plan = new Plan("need info", List.of(
+					new PlanStep.PendingActionStep("which account?", "adjustBalance",
+							new PlanStep.PendingParam[] { new PlanStep.PendingParam("accountId", "Which account?") },
+							Map.of())));
+
+			PlanExecutionResult result = executor.execute(plan, new ActionContext());
+
+			assertThat(result.wasExecuted()).isFalse();
+			assertThat(result.terminationReason()).isEqualTo("pending");
+		}
+	}
+
+	@Nested
+	@DisplayName("virtual threads")
+	class VirtualThreads {
+
+		@Test
+		@DisplayName("should run independent steps asynchronously on virtual threads")
+		void shouldExecuteAsyncOnVirtualThreads() throws Exception {
+			ParallelPlanExecutor virtualExecutor = ParallelPlanExecutor.builder()
+					.withVirtualThreads()
+					.build();
+			Plan plan = new Plan("report", List.of(
+					step("salesReport", List.of()),
+					step("inventoryReport", List.of())));
+
+			PlanExecutionResult result = virtualExecutor.executeAsync(plan, new ActionContext())
+					.get(10, TimeUnit.SECONDS);
+
+			assertThat(result.success()).isTrue();
+			assertThat(actions.ranOnVirtualThread).containsOnly(true);
+		}
+
+		@Test
+		@DisplayName("should cap concurrent steps under a limited affinity")
+		void shouldCapConcurrencyPerAffinity() throws Exception {
+			ParallelPlanExecutor limitedExecutor = ParallelPlanExecutor.builder()
+					.withVirtualThreads()
+					.withAffinityConcurrencyLimit("warehouse", 1)
+					.build();
+			Plan plan = new Plan("report", List.of(
+					step("warehouseQuery", List.of(new PlanArgument("region", "eu", String.class))),
+					step("warehouseQuery", List.of(new PlanArgument("region", "us", String.class))),
+					step("warehouseQuery", List.of(new PlanArgument("region", "apac", String.class)))));
+
+			PlanExecutionResult result = limitedExecutor.executeAsync(plan, new ActionContext())
+					.get(10, TimeUnit.SECONDS);
+
+			assertThat(result.success()).isTrue();
+			assertThat(result.steps()).hasSize(3);
+			assertThat(actions.maxConcurrentQueries.get()).isEqualTo(1);
+		}
+	}
+
+	@Nested
+	@DisplayName("StepDependencyGraph")
+	class Graph {
+
+		@Test
+		@DisplayName("should keep READ_ONLY steps independent and order overlapping affinities")
+		void shouldDeriveEdges() throws Exception {
+			StepDependencyGraph graph = StepDependencyGraph.of(List.of(
+					step("globexReport", List.of()),
+					step("adjustBalance", List.of(
+							new PlanArgument("accountId", "42", String.class),
+							new PlanArgument("amount", 1, int.class))),
+					step("adjustBalance", List.of(
+							new PlanArgument("accountId", "7", String.class),
+							new PlanArgument("amount", 1, int.class))),
+					step("closeTenant", List.of())));
+
+			assertThat(graph.affinitiesOf(1)).containsExactly("tenant:acme:account:42");
+			assertThat(graph.dependenciesOf(1)).isEmpty();
+			assertThat(graph.dependenciesOf(2)).isEmpty();
+			// tenant:acme overlaps every account beneath it
+			assertThat(graph.dependenciesOf(3)).containsExactly(1, 2);
+			assertThat(graph.hasConcurrency()).isTrue();
+		}
+	}
+
+	private PlanStep.ActionStep step(String actionId, List<PlanArgument> arguments) throws Exception {
+		Method method = null;
+		for (Method candidate : ReportingActions.class.getMethods()) {
+			if (candidate.getName().equals(actionId)) {
+				method = candidate;
+			}
+		}
+		Action action = method.getAnnotation(Action.class);
+		ActionBinding binding = new ActionBinding(actionId, action.description(), actions, method, List.of(),
+				action.contextKey());
+		return new PlanStep.ActionStep(binding, arguments);
+	}
+
+	public static class ReportingActions {
+
+		final CyclicBarrier reportBarrier = new CyclicBarrier(2);
+		final AtomicInteger concurrentMutations = new AtomicInteger();
+		final AtomicInteger maxConcurrentMutations = new AtomicInteger();
+		final List<Integer> mutationOrder = new CopyOnWriteArrayList<>();
+		final List<Boolean> ranOnVirtualThread = new CopyOnWriteArrayList<>();
+		final AtomicInteger concurrentQueries = new AtomicInteger();
+		final AtomicInteger maxConcurrentQueries = new AtomicInteger();
+
+		@Action(description = "Sales report", mutability = Mutability.READ_ONLY, contextKey = "sales")
+		public String salesReport() throws Exception {
+			ranOnVirtualThread.add(Thread.currentThread().isVirtual());
+			reportBarrier.await(5, TimeUnit.SECONDS);
+			return "sales";
+		}
+
+		@Action(description = "Inventory report", mutability = Mutability.READ_ONLY, contextKey = "inventory")
+		public String inventoryReport() throws Exception {
+			ranOnVirtualThread.add(Thread.currentThread().isVirtual());
+			reportBarrier.await(5, TimeUnit.SECONDS);
+			return "inventory";
+		}
+
+		@Action(description = "Sales report without waiting", mutability = Mutability.READ_ONLY)
+		public String salesReportAlone() {
+			return "sales";
+		}
+
+		@Action(description = "Globex report", mutability = Mutability.READ_ONLY, affinity = "tenant:globex")
+		public String globexReport() {
+			return "globex";
+		}
+
+		@Action(description = "Query a regional warehouse", mutability = Mutability.READ_ONLY,
+				affinity = "warehouse:{region}")
+		public String warehouseQuery(String region) throws Exception {
+			int running = concurrentQueries.incrementAndGet();
+			maxConcurrentQueries.accumulateAndGet(running, Math::max);
+			Thread.sleep(20);
+			concurrentQueries.decrementAndGet();
+			return region;
+		}
+
+		@Action(description = "Load customer", mutability = Mutability.READ_ONLY, contextKey = "customer")
+		public String loadCustomer() throws Exception {
+			Thread.sleep(50);
+			return "ACME";
+		}
+
+		@Action(description = "Load customer and fail", mutability = Mutability.READ_ONLY, contextKey = "customer")
+		public String failingLoad() {
+			throw new IllegalStateException("customer store unavailable");
+		}
+
+		@Action(description = "Summarise customer", mutability = Mutability.READ_ONLY)
+		public String summariseCustomer(@FromContext("customer") String customer) {
+			return "Summary of " + customer;
+		}
+
+		@Action(description = "Adjust balance", mutability = Mutability.MUTATE,
+				affinity = "tenant:acme:account:{accountId}")
+		public void adjustBalance(String accountId, int amount) throws Exception {
+			int running = concurrentMutations.incrementAndGet();
+			maxConcurrentMutations.accumulateAndGet(running, Math::max);
+			Thread.sleep(20);
+			mutationOrder.add(amount);
+			concurrentMutations.decrementAndGet();
+		}
+
+		@Action(description = "Close tenant", mutability = Mutability.MUTATE, affinity = "tenant:acme")
+		public void closeTenant() {
+		}
+	}
+}
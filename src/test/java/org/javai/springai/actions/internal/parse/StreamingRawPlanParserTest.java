@@ -0,0 +1,80 @@
+package org.javai.springai.actions.internal.parse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link StreamingRawPlanParser}.
+ */
+@DisplayName("StreamingRawPlanParser")
+class StreamingRawPlanParserTest {
+
+	private static final String PLAN = """
+			```json
+			{
+				"message": "Two reports",
+				"steps": [
+					{ "actionId": "salesReport", "description": "Sales", "parameters": { "region": "EU", "filters": { "year": 2024 } } },
+					{ "actionId": "inventoryReport", "description": "Inventory", "parameters": { "skus": ["A", "B"] } }
+				]
+			}
+			```
+			""";
+
+	private final List<RawPlanStep> emitted = new ArrayList<>();
+	private final StreamingRawPlanParser parser = new StreamingRawPlanParser(new ObjectMapper(), emitted::add);
+
+	@Test
+	@DisplayName("emits each step as soon as it is complete")
+	void emitsStepsIncrementally() throws IOException {
+		int secondStep = PLAN.indexOf("{ \"actionId\": \"inventoryReport\"");
+
+		// Feed in small chunks up to the start of the second step
+		for (int i = 0; i < secondStep; i += 7) {
+			parser.feed(PLAN.substring(i, Math.min(i + 7, secondStep)));
+		}
+		assertThat(emitted).extracting(RawPlanStep::actionId).containsExactly("salesReport");
+		assertThat(parser.isComplete()).isFalse();
+
+		parser.feed(PLAN.substring(secondStep));
+		RawPlan plan = parser.finish();
+
+		assertThat(emitted).extracting(RawPlanStep::actionId).containsExactly("salesReport", "inventoryReport");
+		assertThat(plan.message()).isEqualTo("Two reports");
+		assertThat(plan.steps()).isEqualTo(emitted);
+		assertThat(plan.steps().getFirst().parameters()).containsEntry("region", "EU");
+	}
+
+	@Test
+	@DisplayName("matches the result of parsing the complete JSON")
+	void matchesBlockingParse() throws IOException {
+		String json = PLAN.substring(PLAN.indexOf('{'), PLAN.lastIndexOf('}') + 1);
+
+		parser.feed(PLAN);
+
+		assertThat(parser.finish()).isEqualTo(RawPlan.fromJson(json));
+	}
+
+	@Test
+	@DisplayName("rejects a truncated plan")
+	void rejectsTruncatedPlan() throws IOException {
+		parser.feed(PLAN.substring(0, PLAN.indexOf("inventoryReport")));
+
+		assertThatThrownBy(parser::finish).isInstanceOf(IOException.class);
+		assertThat(emitted).hasSize(1);
+	}
+
+	@Test
+	@DisplayName("rejects a response without JSON")
+	void rejectsResponseWithoutJson() throws IOException {
+		parser.feed("I would be happy to help.");
+
+		assertThatThrownBy(parser::finish).isInstanceOf(IOException.class);
+	}
+}
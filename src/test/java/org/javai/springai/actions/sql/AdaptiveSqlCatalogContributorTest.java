@@ -238,6 +238,37 @@ class AdaptiveSqlCatalogContributorTest {
 		}
 	}
 
+	@Nested
+	@DisplayName("maxHotTables")
+	class MaxHotTables {
+
+		@Test
+		@DisplayName("includes the most accessed tables first, up to the limit")
+		void includesMostAccessedFirst() {
+			AdaptiveSqlCatalogContributor limited = new AdaptiveSqlCatalogContributor(catalog, tracker, 1, 2);
+			tracker.recordTableAccess("fct_orders");
+			tracker.recordTableAccess("dim_date");
+			tracker.recordTableAccess("dim_date");
+			tracker.recordTableAccess("dim_date");
+			tracker.recordTableAccess("dim_customer");
+			tracker.recordTableAccess("dim_customer");
+
+			String contribution = limited.contribute(null).orElse("");
+
+			assertThat(contribution).contains("- dim_date").contains("- dim_customer");
+			assertThat(contribution).doesNotContain("- fct_orders");
+			assertThat(contribution.indexOf("- dim_date")).isLessThan(contribution.indexOf("- dim_customer"));
+		}
+
+		@Test
+		@DisplayName("rejects a non-positive limit")
+		void rejectsNonPositiveLimit() {
+			assertThatThrownBy(() -> new AdaptiveSqlCatalogContributor(catalog, tracker, 2, 0))
+					.isInstanceOf(IllegalArgumentException.class)
+					.hasMessageContaining("maxHotTables");
+		}
+	}
+
 	@Nested
 	@DisplayName("integration scenario")
 	class IntegrationScenario {
@@ -0,0 +1,256 @@
+package org.javai.springai.actions.sql;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("DecayingSchemaAccessTracker")
+class DecayingSchemaAccessTrackerTest {
+
+	private MutableClock clock;
+	private DecayingSchemaAccessTracker tracker;
+
+	@BeforeEach
+	void setUp() {
+		clock = new MutableClock();
+		tracker = DecayingSchemaAccessTracker.builder()
+				.withWindow(Duration.ofHours(1), 12)
+				.withClock(clock)
+				.build();
+	}
+
+	private static void record(SchemaAccessTracker tracker, String table, int times) {
+		for (int i = 0; i < times; i++) {
+			tracker.recordTableAccess(table);
+		}
+	}
+
+	@Nested
+	@DisplayName("sliding window")
+	class SlidingWindow {
+
+		@Test
+		@DisplayName("counts accesses within the window")
+		void countsAccessesWithinWindow() {
+			record(tracker, "fct_orders", 3);
+			clock.advance(Duration.ofMinutes(30));
+			record(tracker, "fct_orders", 2);
+
+			assertThat(tracker.getAccessCount("fct_orders")).isEqualTo(5);
+			assertThat(tracker.getHotTables(5)).containsExactly("fct_orders");
+		}
+
+		@Test
+		@DisplayName("forgets accesses older than the window")
+		void forgetsOldAccesses() {
+			record(tracker, "fct_orders", 3);
+			clock.advance(Duration.ofMinutes(30));
+			record(tracker, "fct_orders", 2);
+			clock.advance(Duration.ofMinutes(35));
+
+			assertThat(tracker.getAccessCount("fct_orders")).isEqualTo(2);
+
+			clock.advance(Duration.ofMinutes(30));
+
+			assertThat(tracker.getAccessCount("fct_orders")).isZero();
+			assertThat(tracker.getHotTables(1)).isEmpty();
+			assertThat(tracker.getAllAccessCounts()).isEmpty();
+			assertThat(tracker.trackedTableCount()).isZero();
+		}
+
+		@Test
+		@DisplayName("ignores null table name")
+		void ignoresNullTableName() {
+			tracker.recordTableAccess(null);
+
+			assertThat(tracker.getAllAccessCounts()).isEmpty();
+		}
+	}
+
+	@Nested
+	@DisplayName("half-life")
+	class HalfLife {
+
+		@Test
+		@DisplayName("halves the weight of an access every half-life")
+		void halvesWeight() {
+			DecayingSchemaAccessTracker decaying = DecayingSchemaAccessTracker.builder()
+					.withWindow(Duration.ofHours(1), 12)
+					.withHalfLife(Duration.ofMinutes(5))
+					.withClock(clock)
+					.build();
+			record(decaying, "fct_orders", 4);
+
+			clock.advance(Duration.ofMinutes(5));
+			assertThat(decaying.getScore("fct_orders")).isEqualTo(2.0);
+
+			clock.advance(Duration.ofMinutes(5));
+			assertThat(decaying.getScore("fct_orders")).isEqualTo(1.0);
+			assertThat(decaying.getAccessCount("fct_orders")).isEqualTo(1);
+		}
+	}
+
+	@Nested
+	@DisplayName("getTopTables")
+	class GetTopTables {
+
+		@Test
+		@DisplayName("ranks tables by count and applies limit and threshold")
+		void ranksTables() {
+			record(tracker, "fct_orders", 3);
+			record(tracker, "dim_customer", 2);
+			record(tracker, "dim_date", 1);
+
+			assertThat(tracker.getTopTables(2, 1)).containsExactly("fct_orders", "dim_customer");
+			assertThat(tracker.getTopTables(5, 2)).containsExactly("fct_orders", "dim_customer");
+		}
+
+		@Test
+		@DisplayName("lets a busier table displace the weakest of the top K")
+		void displacesWeakestTable() {
+			DecayingSchemaAccessTracker small = DecayingSchemaAccessTracker.builder()
+					.withTopK(2)
+					.withClock(clock)
+					.build();
+			record(small, "fct_orders", 2);
+			record(small, "dim_customer", 1);
+			record(small, "dim_date", 3);
+
+			assertThat(small.getTopTables(2, 1)).containsExactly("dim_date", "fct_orders");
+		}
+
+		@Test
+		@DisplayName("admits a table that was turned away once it overtakes the top K")
+		void admitsTableAfterRejection() {
+			DecayingSchemaAccessTracker small = DecayingSchemaAccessTracker.builder()
+					.withTopK(2)
+					.withClock(clock)
+					.build();
+			record(small, "fct_orders", 3);
+			record(small, "dim_customer", 2);
+			record(small, "dim_date", 2);
+			assertThat(small.getTopTables(2, 1)).containsExactly("fct_orders", "dim_customer");
+
+			record(small, "dim_customer", 2);
+			record(small, "dim_date", 3);
+
+			assertThat(small.getTopTables(2, 1)).containsExactly("dim_date", "dim_customer");
+		}
+
+		@Test
+		@DisplayName("drops tables that were hot long ago")
+		void dropsStaleTables() {
+			record(tracker, "fct_orders", 10);
+			clock.advance(Duration.ofMinutes(30));
+			record(tracker, "dim_customer", 2);
+			clock.advance(Duration.ofMinutes(31));
+
+			assertThat(tracker.getTopTables(10, 1)).containsExactly("dim_customer");
+		}
+
+		@Test
+		@DisplayName("falls back to a full ranking beyond top K")
+		void fallsBackBeyondTopK() {
+			DecayingSchemaAccessTracker small = DecayingSchemaAccessTracker.builder()
+					.withTopK(1)
+					.withClock(clock)
+					.build();
+			record(small, "fct_orders", 2);
+			record(small, "dim_customer", 1);
+
+			assertThat(small.getTopTables(2, 1)).containsExactly("fct_orders", "dim_customer");
+		}
+	}
+
+	@Nested
+	@DisplayName("thread safety")
+	class ThreadSafety {
+
+		@Test
+		@DisplayName("counts concurrent accesses exactly")
+		void countsConcurrentAccesses() throws InterruptedException {
+			int threads = 8;
+			int accessesPerThread = 1000;
+			ExecutorService executor = Executors.newFixedThreadPool(threads);
+			CountDownLatch latch = new CountDownLatch(threads);
+
+			for (int t = 0; t < threads; t++) {
+				executor.submit(() -> {
+					try {
+						record(tracker, "fct_orders", accessesPerThread);
+					} finally {
+						latch.countDown();
+					}
+				});
+			}
+
+			assertThat(latch.await(10, TimeUnit.SECONDS)).isTrue();
+			executor.shutdown();
+			assertThat(tracker.getAccessCount("fct_orders")).isEqualTo(threads * accessesPerThread);
+		}
+	}
+
+	@Nested
+	@DisplayName("builder")
+	class BuilderValidation {
+
+		@Test
+		@DisplayName("rejects invalid settings")
+		void rejectsInvalidSettings() {
+			assertThatThrownBy(() -> DecayingSchemaAccessTracker.builder().withWindow(Duration.ZERO, 12))
+					.isInstanceOf(IllegalArgumentException.class);
+			assertThatThrownBy(() -> DecayingSchemaAccessTracker.builder().withWindow(Duration.ofHours(1), 0))
+					.isInstanceOf(IllegalArgumentException.class);
+			assertThatThrownBy(() -> DecayingSchemaAccessTracker.builder().withHalfLife(Duration.ofMinutes(-1)))
+					.isInstanceOf(IllegalArgumentException.class);
+			assertThatThrownBy(() -> DecayingSchemaAccessTracker.builder().withTopK(0))
+					.isInstanceOf(IllegalArgumentException.class);
+		}
+	}
+
+	@Test
+	@DisplayName("reset clears all tracking")
+	void resetClearsTracking() {
+		record(tracker, "fct_orders", 3);
+
+		tracker.reset();
+
+		assertThat(tracker.getAccessCount("fct_orders")).isZero();
+		assertThat(tracker.getTopTables(5, 1)).isEmpty();
+	}
+
+	static class MutableClock extends Clock {
+		private Instant now = Instant.parse("2025-01-01T00:00:00Z");
+
+		void advance(Duration duration) {
+			now = now.plus(duration);
+		}
+
+		@Override
+		public ZoneId getZone() {
+			return ZoneOffset.UTC;
+		}
+
+		@Override
+		public Clock withZone(ZoneId zone) {
+			return this;
+		}
+
+		@Override
+		public Instant instant() {
+			return now;
+		}
+	}
+}
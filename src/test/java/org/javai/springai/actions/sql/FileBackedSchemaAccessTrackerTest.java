@@ -0,0 +1,234 @@
+package org.javai.springai.actions.sql;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+@DisplayName("FileBackedSchemaAccessTracker")
+class FileBackedSchemaAccessTrackerTest {
+
+	@TempDir
+	Path directory;
+
+	private FileBackedSchemaAccessTracker open() {
+		return open(10_000);
+	}
+
+	private FileBackedSchemaAccessTracker open(int compactionThreshold) {
+		return FileBackedSchemaAccessTracker.builder(directory)
+				.withFlushInterval(Duration.ZERO)
+				.withCompactionThreshold(compactionThreshold)
+				.build();
+	}
+
+	private List<String> files() throws IOException {
+		try (Stream<Path> stream = Files.list(directory)) {
+			return stream.map(path -> path.getFileName().toString()).sorted().toList();
+		}
+	}
+
+	@Nested
+	@DisplayName("persistence")
+	class Persistence {
+
+		@Test
+		@DisplayName("restores counts after close and reopen")
+		void restoresCountsAfterRestart() {
+			try (FileBackedSchemaAccessTracker tracker = open()) {
+				tracker.recordTableAccess("fct_orders");
+				tracker.recordTableAccess("fct_orders");
+				tracker.recordTableAccess("dim_customer");
+			}
+
+			try (FileBackedSchemaAccessTracker reopened = open()) {
+				assertThat(reopened.getAccessCount("fct_orders")).isEqualTo(2);
+				assertThat(reopened.getAccessCount("dim_customer")).isEqualTo(1);
+				assertThat(reopened.getHotTables(2)).containsExactly("fct_orders");
+			}
+		}
+
+		@Test
+		@DisplayName("restores flushed counts without a clean shutdown")
+		void restoresFlushedCountsAfterCrash() {
+			FileBackedSchemaAccessTracker crashed = open();
+			crashed.recordTableAccess("fct_orders");
+			crashed.flush();
+			crashed.recordTableAccess("fct_orders");
+			crashed.flush();
+			crashed.recordTableAccess("dim_customer");  // never flushed
+
+			try (FileBackedSchemaAccessTracker reopened = open()) {
+				assertThat(reopened.getAccessCount("fct_orders")).isEqualTo(2);
+				assertThat(reopened.getAccessCount("dim_customer")).isZero();
+			}
+		}
+
+		@Test
+		@DisplayName("batches queued accesses into one log line per table")
+		void batchesAccesses() throws IOException {
+			FileBackedSchemaAccessTracker tracker = open();
+			for (int i = 0; i < 100; i++) {
+				tracker.recordTableAccess("fct_orders");
+			}
+			tracker.flush();
+
+			Path log = directory.resolve("access-1.log");
+			assertThat(Files.readAllLines(log, StandardCharsets.UTF_8)).containsExactly("100\tfct_orders");
+			tracker.close();
+		}
+
+		@Test
+		@DisplayName("compacts the log into the snapshot past the threshold")
+		void compactsLog() throws IOException {
+			FileBackedSchemaAccessTracker tracker = open(2);
+			tracker.recordTableAccess("fct_orders");
+			tracker.recordTableAccess("dim_customer");
+			tracker.flush();
+
+			assertThat(files()).containsExactly("snapshot.tsv");
+			assertThat(Files.readAllLines(directory.resolve(FileBackedSchemaAccessTracker.SNAPSHOT_FILE)))
+					.contains("1\tfct_orders", "1\tdim_customer");
+
+			tracker.recordTableAccess("fct_orders");
+			tracker.flush();
+			try (FileBackedSchemaAccessTracker reopened = open()) {
+				assertThat(reopened.getAccessCount("fct_orders")).isEqualTo(2);
+			}
+		}
+
+		@Test
+		@DisplayName("does not count logs already included in the snapshot")
+		void ignoresLogsCoveredBySnapshot() throws IOException {
+			try (FileBackedSchemaAccessTracker tracker = open()) {
+				tracker.recordTableAccess("fct_orders");
+			}
+			// A log left behind by a compaction interrupted before deleting it
+			Files.writeString(directory.resolve("access-0.log"), "5\tfct_orders\n");
+
+			try (FileBackedSchemaAccessTracker reopened = open()) {
+				assertThat(reopened.getAccessCount("fct_orders")).isEqualTo(1);
+			}
+		}
+
+		@Test
+		@DisplayName("skips a torn last line")
+		void skipsTornLine() throws IOException {
+			try (FileBackedSchemaAccessTracker tracker = open()) {
+				tracker.recordTableAccess("fct_orders");
+			}
+			Files.writeString(directory.resolve("access-9.log"), "3\tdim_customer\n2");
+
+			try (FileBackedSchemaAccessTracker reopened = open()) {
+				assertThat(reopened.getAllAccessCounts())
+						.containsEntry("fct_orders", 1)
+						.containsEntry("dim_customer", 3)
+						.hasSize(2);
+			}
+		}
+	}
+
+	@Nested
+	@DisplayName("decaying delegate")
+	class DecayingDelegate {
+
+		private final DecayingSchemaAccessTrackerTest.MutableClock clock =
+				new DecayingSchemaAccessTrackerTest.MutableClock();
+
+		private FileBackedSchemaAccessTracker openDecaying() {
+			DecayingSchemaAccessTracker delegate = DecayingSchemaAccessTracker.builder()
+					.withWindow(Duration.ofHours(1), 6)
+					.withClock(clock)
+					.build();
+			return FileBackedSchemaAccessTracker.builder(directory)
+					.withDelegate(delegate)
+					.withClock(clock)
+					.withFlushInterval(Duration.ZERO)
+					.build();
+		}
+
+		@Test
+		@DisplayName("does not restore accesses that decayed while the tracker was closed")
+		void expiredAccessesStayDecayed() {
+			try (FileBackedSchemaAccessTracker tracker = openDecaying()) {
+				for (int i = 0; i < 50; i++) {
+					tracker.recordTableAccess("fct_orders");
+				}
+				assertThat(tracker.getHotTables(10)).containsExactly("fct_orders");
+			}
+
+			clock.advance(Duration.ofHours(2));
+
+			try (FileBackedSchemaAccessTracker reopened = openDecaying()) {
+				assertThat(reopened.getHotTables(10)).isEmpty();
+				assertThat(reopened.getAccessCount("fct_orders")).isZero();
+			}
+		}
+
+		@Test
+		@DisplayName("restores accesses into the bucket they happened in")
+		void restoresIntoOriginalBucket() {
+			try (FileBackedSchemaAccessTracker tracker = openDecaying()) {
+				tracker.recordTableAccess("fct_orders", 20);
+			}
+
+			clock.advance(Duration.ofMinutes(30));
+			try (FileBackedSchemaAccessTracker reopened = openDecaying()) {
+				assertThat(reopened.getAccessCount("fct_orders")).isEqualTo(20);
+				reopened.recordTableAccess("dim_customer", 5);
+			}
+
+			// The first accesses fall out of the window before the later ones
+			clock.advance(Duration.ofMinutes(35));
+			try (FileBackedSchemaAccessTracker reopened = openDecaying()) {
+				assertThat(reopened.getAccessCount("fct_orders")).isZero();
+				assertThat(reopened.getAccessCount("dim_customer")).isEqualTo(5);
+			}
+		}
+	}
+
+	@Nested
+	@DisplayName("reset")
+	class Reset {
+
+		@Test
+		@DisplayName("deletes persisted counts")
+		void deletesPersistedCounts() {
+			try (FileBackedSchemaAccessTracker tracker = open()) {
+				tracker.recordTableAccess("fct_orders");
+				tracker.flush();
+				tracker.reset();
+			}
+
+			try (FileBackedSchemaAccessTracker reopened = open()) {
+				assertThat(reopened.getAllAccessCounts()).isEmpty();
+			}
+		}
+	}
+
+	@Nested
+	@DisplayName("builder")
+	class BuilderValidation {
+
+		@Test
+		@DisplayName("rejects invalid settings")
+		void rejectsInvalidSettings() {
+			assertThatThrownBy(() -> FileBackedSchemaAccessTracker.builder(null))
+					.isInstanceOf(NullPointerException.class);
+			assertThatThrownBy(() -> FileBackedSchemaAccessTracker.builder(directory).withCompactionThreshold(0))
+					.isInstanceOf(IllegalArgumentException.class);
+			assertThatThrownBy(() -> FileBackedSchemaAccessTracker.builder(directory)
+					.withFlushInterval(Duration.ofSeconds(-1)))
+					.isInstanceOf(IllegalArgumentException.class);
+		}
+	}
+}
@@ -120,12 +120,25 @@ class FrequencyAwareSqlCatalogToolTest {
 		}
 
 		@Test
-		@DisplayName("records access using lookup name")
-		void recordsAccessUsingLookupName() {
-			// When looking up by synonym, we record the synonym used
+		@DisplayName("records access under the canonical name")
+		void recordsAccessUnderCanonicalName() {
+			// Looking up by synonym counts towards the canonical table
 			tool.getTableDetails("orders");
+			tool.getTableDetails("fct_orders");
+
+			assertThat(tracker.getAccessCount("fct_orders")).isEqualTo(2);
+			assertThat(tracker.getAccessCount("orders")).isZero();
+		}
+
+		@Test
+		@DisplayName("records access under the canonical name for model names")
+		void recordsModelNameAccessUnderCanonicalName() {
+			catalog.withModelNames(true);
+			String modelName = catalog.getTableModelName("dim_customer").orElseThrow();
+
+			tool.getTableDetails(modelName);
 
-			assertThat(tracker.getAccessCount("orders")).isEqualTo(1);
+			assertThat(tracker.getAllAccessCounts()).containsOnlyKeys("dim_customer");
 		}
 	}
 
@@ -0,0 +1,160 @@
+package org.javai.springai.actions.sql;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("HierarchicalSchemaAccessTracker")
+class HierarchicalSchemaAccessTrackerTest {
+
+	private final AtomicReference<SchemaAccessScope> scope = new AtomicReference<>(SchemaAccessScope.GLOBAL);
+	private HierarchicalSchemaAccessTracker tracker;
+
+	@BeforeEach
+	void setUp() {
+		tracker = HierarchicalSchemaAccessTracker.builder()
+				.withTrackerFactory(InMemorySchemaAccessTracker::new)
+				.withScope(scope::get)
+				.build();
+	}
+
+	private static void record(SchemaAccessTracker tracker, String table, int times) {
+		for (int i = 0; i < times; i++) {
+			tracker.recordTableAccess(table);
+		}
+	}
+
+	@Nested
+	@DisplayName("scopes")
+	class Scopes {
+
+		@Test
+		@DisplayName("each tenant sees its own tables ahead of other tenants' tables")
+		void tenantsSeeTheirOwnTables() {
+			SchemaAccessTracker acme = tracker.forScope(SchemaAccessScope.ofTenant("acme"));
+			SchemaAccessTracker globex = tracker.forScope(SchemaAccessScope.ofTenant("globex"));
+			record(acme, "fct_orders", 8);
+			record(globex, "fct_shipments", 2);
+
+			// acme: (8 own + 0.25 * 8 global) / 1.25; globex sees acme's table at 0.25 * 8 / 1.25
+			assertThat(acme.getAccessCount("fct_orders")).isEqualTo(8);
+			assertThat(acme.getHotTables(1)).containsExactly("fct_orders");
+			assertThat(globex.getTopTables(5, 1)).containsExactly("fct_shipments", "fct_orders");
+			assertThat(globex.getAccessCount("fct_orders")).isEqualTo(1);
+		}
+
+		@Test
+		@DisplayName("records every access at the global level")
+		void recordsGlobally() {
+			record(tracker.forScope(SchemaAccessScope.ofSession("acme", "s1")), "fct_orders", 2);
+			record(tracker.forScope(SchemaAccessScope.ofTenant("globex")), "fct_orders", 1);
+
+			assertThat(tracker.blended(HierarchicalSchemaAccessTracker.Blend.GLOBAL).getAccessCount("fct_orders"))
+					.isEqualTo(3);
+		}
+
+		@Test
+		@DisplayName("reads the scope of the current call from the supplier")
+		void usesScopeSupplier() {
+			scope.set(SchemaAccessScope.ofSession("acme", "s1"));
+			record(tracker, "fct_orders", 2);
+			scope.set(SchemaAccessScope.ofSession("acme", "s2"));
+			record(tracker, "dim_customer", 1);
+
+			SchemaAccessTracker sessionOnly = tracker.blended(HierarchicalSchemaAccessTracker.Blend.SESSION);
+			assertThat(sessionOnly.getAllAccessCounts()).containsOnlyKeys("dim_customer");
+			scope.set(SchemaAccessScope.ofSession("acme", "s1"));
+			assertThat(sessionOnly.getAllAccessCounts()).containsOnlyKeys("fct_orders");
+		}
+
+		@Test
+		@DisplayName("discards the least recently used sessions beyond the limit")
+		void boundsSessions() {
+			HierarchicalSchemaAccessTracker bounded = HierarchicalSchemaAccessTracker.builder()
+					.withTrackerFactory(InMemorySchemaAccessTracker::new)
+					.withMaxSessions(1)
+					.withBlend(HierarchicalSchemaAccessTracker.Blend.SESSION)
+					.build();
+			SchemaAccessTracker first = bounded.forScope(SchemaAccessScope.ofSession(null, "s1"));
+			first.recordTableAccess("fct_orders");
+			bounded.forScope(SchemaAccessScope.ofSession(null, "s2")).recordTableAccess("dim_customer");
+
+			assertThat(first.getAccessCount("fct_orders")).isZero();
+		}
+
+		@Test
+		@DisplayName("resets only the session of a session view")
+		void resetsSessionView() {
+			SchemaAccessTracker session = tracker.forScope(SchemaAccessScope.ofSession("acme", "s1"));
+			record(session, "fct_orders", 2);
+
+			session.reset();
+
+			assertThat(tracker.forScope(SchemaAccessScope.ofTenant("acme")).getAccessCount("fct_orders"))
+					.isEqualTo(2);
+		}
+	}
+
+	@Nested
+	@DisplayName("blend")
+	class BlendTest {
+
+		@Test
+		@DisplayName("rejects negative or all-zero weights")
+		void rejectsInvalidWeights() {
+			assertThatThrownBy(() -> new HierarchicalSchemaAccessTracker.Blend(-1, 1, 1))
+					.isInstanceOf(IllegalArgumentException.class);
+			assertThatThrownBy(() -> new HierarchicalSchemaAccessTracker.Blend(0, 0, 0))
+					.isInstanceOf(IllegalArgumentException.class);
+		}
+
+		@Test
+		@DisplayName("reads plain counts in the global scope")
+		void globalScopeMatchesUnscopedTracker() {
+			SchemaAccessTracker unscoped = new InMemorySchemaAccessTracker();
+			for (SchemaAccessTracker target : List.of(tracker, unscoped)) {
+				record(target, "fct_orders", 7);
+				record(target, "dim_customer", 3);
+				record(target, "dim_product", 1);
+			}
+
+			assertThat(tracker.getAllAccessCounts()).isEqualTo(unscoped.getAllAccessCounts());
+			assertThat(tracker.getTopTables(2, 1)).isEqualTo(unscoped.getTopTables(2, 1));
+			assertThat(tracker.getHotTables(3)).isEqualTo(unscoped.getHotTables(3));
+		}
+
+		@Test
+		@DisplayName("counts one access once in every scope")
+		void countsAccessOnceInEveryScope() {
+			SchemaAccessTracker session = tracker.forScope(SchemaAccessScope.ofSession("acme", "s1"));
+			session.recordTableAccess("fct_orders");
+
+			assertThat(session.getAccessCount("fct_orders")).isEqualTo(1);
+			assertThat(tracker.forScope(SchemaAccessScope.ofTenant("acme")).getAccessCount("fct_orders"))
+					.isEqualTo(1);
+			assertThat(tracker.getAccessCount("fct_orders")).isEqualTo(1);
+		}
+
+		@Test
+		@DisplayName("drives the adaptive contributor")
+		void drivesAdaptiveContributor() {
+			InMemorySqlCatalog catalog = new InMemorySqlCatalog()
+					.addTable("fct_orders", "Orders", "fact")
+					.addTable("fct_shipments", "Shipments", "fact");
+			AdaptiveSqlCatalogContributor contributor = new AdaptiveSqlCatalogContributor(
+					catalog, tracker, HierarchicalSchemaAccessTracker.Blend.TENANT, 2);
+			record(tracker.forScope(SchemaAccessScope.ofTenant("acme")), "fct_orders", 3);
+			record(tracker.forScope(SchemaAccessScope.ofTenant("globex")), "fct_shipments", 3);
+
+			scope.set(SchemaAccessScope.ofTenant("acme"));
+			String prompt = contributor.contribute(null).orElseThrow();
+
+			assertThat(prompt).contains("- fct_orders").doesNotContain("fct_shipments");
+		}
+	}
+}
@@ -1,6 +1,10 @@
 package org.javai.springai.actions.sql;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -279,5 +283,156 @@ class InMemorySqlCatalogTest {
 			assertThat(catalog.getTableModelName("dim_customer")).isPresent().get().asString().startsWith("dt_");
 		}
 	}
-}
 
+	@Nested
+	@DisplayName("Indexed lookups")
+	class IndexedLookups {
+
+		private InMemorySqlCatalog catalog() {
+			return new InMemorySqlCatalog()
+					.addTable("fct_orders", "Orders", "fact")
+					.withSynonyms("fct_orders", "orders", "sales")
+					.addColumn("fct_orders", "order_value", "Value", "decimal", null, null)
+					.withColumnSynonyms("fct_orders", "order_value", "value", "amount")
+					.addTable("dim_customer", "Customers", "dimension")
+					.withSynonyms("dim_customer", "customers");
+		}
+
+		@Test
+		@DisplayName("resolves table names and synonyms ignoring case")
+		void resolvesTableNamesIgnoringCase() {
+			InMemorySqlCatalog catalog = catalog();
+
+			assertThat(catalog.resolveTableName("fct_orders")).contains("fct_orders");
+			assertThat(catalog.resolveTableName("FCT_ORDERS")).contains("fct_orders");
+			assertThat(catalog.resolveTableName("Sales")).contains("fct_orders");
+			assertThat(catalog.resolveTableName("unknown")).isEmpty();
+			assertThat(catalog.index().resolveTableSynonym("fct_orders")).isEmpty();
+		}
+
+		@Test
+		@DisplayName("finds columns by name or synonym ignoring case")
+		void findsColumnsIgnoringCase() {
+			SqlCatalogIndex index = catalog().index();
+
+			assertThat(index.findColumn("fct_orders", "ORDER_VALUE")).map(SqlCatalog.SqlColumn::name)
+					.contains("order_value");
+			assertThat(index.findColumn("fct_orders", "Amount")).map(SqlCatalog.SqlColumn::name)
+					.contains("order_value");
+			assertThat(index.resolveColumnSynonym("fct_orders", "value")).contains("order_value");
+			assertThat(index.findColumn("dim_customer", "amount")).isEmpty();
+		}
+
+		@Test
+		@DisplayName("rebuilds the index after mutation")
+		void rebuildsIndexAfterMutation() {
+			InMemorySqlCatalog catalog = catalog();
+			SqlCatalogIndex before = catalog.index();
+
+			assertThat(catalog.index()).isSameAs(before);
+
+			catalog.withSynonyms("dim_customer", "clients");
+
+			assertThat(catalog.index()).isNotSameAs(before);
+			assertThat(catalog.resolveTableName("clients")).contains("dim_customer");
+		}
+
+		@Test
+		@DisplayName("default index of a custom catalog sees tables added later")
+		void defaultIndexSeesLaterTables() {
+			MutableCatalog catalog = new MutableCatalog();
+			catalog.put("fct_orders");
+			assertThat(catalog.resolveTableName("fct_orders")).contains("fct_orders");
+
+			catalog.put("dim_customer");
+
+			assertThat(catalog.resolveTableName("dim_customer")).contains("dim_customer");
+		}
+
+		@Test
+		@DisplayName("resolves model names ignoring case")
+		void resolvesModelNamesIgnoringCase() {
+			InMemorySqlCatalog catalog = catalog().withModelNames(true);
+
+			assertThat(catalog.resolveTableFromModelName("ORDERS")).contains("fct_orders");
+			assertThat(catalog.resolveColumnFromModelName("orders", "Value")).contains("order_value");
+		}
+	}
+
+	@Nested
+	@DisplayName("Snapshots")
+	class Snapshots {
+
+		@Test
+		@DisplayName("returns the same frozen tables until the catalog is mutated")
+		void returnsSameTablesUntilMutated() {
+			InMemorySqlCatalog catalog = new InMemorySqlCatalog()
+					.addTable("orders", "Orders", "fact")
+					.addColumn("orders", "id", "PK", "integer", null, null);
+			long version = catalog.version();
+			Map<String, SqlCatalog.SqlTable> tables = catalog.tables();
+
+			assertThat(catalog.tables()).isSameAs(tables);
+			assertThatThrownBy(() -> tables.put("other", tables.get("orders")))
+					.isInstanceOf(UnsupportedOperationException.class);
+
+			catalog.addTable("customers", "Customers", "dimension");
+
+			assertThat(catalog.version()).isGreaterThan(version);
+			assertThat(catalog.tables()).isNotSameAs(tables).containsKeys("orders", "customers");
+			assertThat(tables).containsOnlyKeys("orders");
+		}
+
+		@Test
+		@DisplayName("reuses tables whose definitions did not change")
+		void reusesUnchangedTables() {
+			InMemorySqlCatalog catalog = new InMemorySqlCatalog()
+					.addTable("orders", "Orders", "fact")
+					.addTable("customers", "Customers", "dimension");
+			Map<String, SqlCatalog.SqlTable> before = catalog.tables();
+
+			catalog.addColumn("customers", "name", "Name", "varchar", null, null);
+			Map<String, SqlCatalog.SqlTable> after = catalog.tables();
+
+			assertThat(after.get("orders")).isSameAs(before.get("orders"));
+			assertThat(after.get("customers")).isNotSameAs(before.get("customers"));
+			assertThat(after.get("customers").columnCount()).isEqualTo(1);
+		}
+
+		@Test
+		@DisplayName("snapshot is unaffected by later mutations")
+		void snapshotIsImmutable() {
+			InMemorySqlCatalog catalog = new InMemorySqlCatalog()
+					.withModelNames(true)
+					.addTable("orders", "Orders", "fact")
+					.withSynonyms("orders", "sales");
+			SqlCatalogSnapshot snapshot = catalog.snapshot();
+
+			catalog.addTable("customers", "Customers", "dimension")
+					.withDialect(Query.Dialect.POSTGRES);
+
+			assertThat(snapshot.snapshot()).isSameAs(snapshot);
+			assertThat(snapshot.version()).isLessThan(catalog.version());
+			assertThat(snapshot.tables()).containsOnlyKeys("orders");
+			assertThat(snapshot.dialect()).isEqualTo(Query.Dialect.ANSI);
+			assertThat(snapshot.getTableModelName("orders")).contains("sales");
+			assertThat(catalog.snapshot().tables()).containsKeys("orders", "customers");
+		}
+	}
+
+	/**
+	 * Minimal catalog that relies on the default index and does not report a version.
+	 */
+	static class MutableCatalog implements SqlCatalog {
+		private final Map<String, SqlTable> tables = new LinkedHashMap<>();
+
+		void put(String name) {
+			tables.put(name, new SqlTable(name, name, List.of(), List.of(), List.of(), List.of()));
+		}
+
+		@Override
+		public Map<String, SqlTable> tables() {
+			return tables;
+		}
+	}
+}
@@ -0,0 +1,268 @@
+package org.javai.springai.actions.sql;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.sql.DataSource;
+import org.h2.jdbcx.JdbcDataSource;
+import org.javai.springai.actions.sql.SqlCatalog.SqlColumn;
+import org.javai.springai.actions.sql.SqlCatalog.SqlTable;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("JdbcSqlCatalogLoader")
+class JdbcSqlCatalogLoaderTest {
+
+	private JdbcDataSource dataSource;
+
+	@BeforeEach
+	void setUp() throws SQLException {
+		dataSource = new JdbcDataSource();
+		dataSource.setURL("jdbc:h2:mem:catalog_" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+		execute(
+				"CREATE SCHEMA SALES",
+				"CREATE SCHEMA FINANCE",
+				"CREATE TABLE SALES.CUSTOMERS (ID INTEGER PRIMARY KEY, NAME VARCHAR(100))",
+				"COMMENT ON TABLE SALES.CUSTOMERS IS 'Customer dimension'",
+				"COMMENT ON COLUMN SALES.CUSTOMERS.NAME IS 'Customer name'",
+				"CREATE TABLE SALES.ORDERS (ID INTEGER PRIMARY KEY, CUSTOMER_ID INTEGER, "
+						+ "ORDER_VALUE DECIMAL(10, 2), FOREIGN KEY (CUSTOMER_ID) REFERENCES SALES.CUSTOMERS(ID))",
+				"CREATE TABLE FINANCE.INVOICES (ID INTEGER PRIMARY KEY, AMOUNT DECIMAL(10, 2))");
+	}
+
+	private void execute(String... statements) throws SQLException {
+		try (Connection connection = dataSource.getConnection();
+				Statement statement = connection.createStatement()) {
+			for (String sql : statements) {
+				statement.execute(sql);
+			}
+		}
+	}
+
+	private JdbcSqlCatalogLoader.Builder loader() {
+		return JdbcSqlCatalogLoader.builder(dataSource).withSchemas("SALES", "FINANCE");
+	}
+
+	private static SqlColumn column(SqlTable table, String name) {
+		return table.findColumn(name).orElseThrow();
+	}
+
+	@Nested
+	@DisplayName("Introspection")
+	class Introspection {
+
+		@Test
+		@DisplayName("loads tables, columns and remarks from every schema")
+		void loadsTablesAndColumns() {
+			SqlCatalog catalog = loader().build().get();
+
+			assertThat(catalog.tables()).containsOnlyKeys("CUSTOMERS", "ORDERS", "INVOICES");
+			SqlTable customers = catalog.tables().get("CUSTOMERS");
+			assertThat(customers.description()).isEqualTo("Customer dimension");
+			assertThat(customers.columns()).extracting(SqlColumn::name).containsExactly("ID", "NAME");
+			assertThat(column(customers, "NAME").description()).isEqualTo("Customer name");
+			assertThat(column(customers, "NAME").dataType()).isEqualTo("character varying");
+		}
+
+		@Test
+		@DisplayName("tags primary and foreign key columns")
+		void tagsKeys() {
+			SqlCatalog catalog = loader().build().get();
+
+			SqlTable orders = catalog.tables().get("ORDERS");
+			assertThat(column(orders, "ID").tags()).containsExactly("pk");
+			assertThat(column(orders, "CUSTOMER_ID").tags()).containsExactly("fk:CUSTOMERS.ID");
+			assertThat(column(orders, "ORDER_VALUE").tags()).isEmpty();
+		}
+
+		@Test
+		@DisplayName("qualifies names with their schema when enabled")
+		void qualifiesNames() {
+			SqlCatalog catalog = loader().withQualifiedNames(true).build().get();
+
+			assertThat(catalog.tables()).containsOnlyKeys("SALES.CUSTOMERS", "SALES.ORDERS", "FINANCE.INVOICES");
+			assertThat(column(catalog.tables().get("SALES.ORDERS"), "CUSTOMER_ID").tags())
+					.containsExactly("fk:SALES.CUSTOMERS.ID");
+		}
+
+		@Test
+		@DisplayName("discovers non-system schemas when none are configured")
+		void discoversSchemas() {
+			SqlCatalog catalog = JdbcSqlCatalogLoader.builder(dataSource).build().get();
+
+			assertThat(catalog.tables()).containsKeys("CUSTOMERS", "ORDERS", "INVOICES");
+			assertThat(catalog.tables().keySet()).noneMatch(name -> name.startsWith("INFORMATION_SCHEMA"));
+		}
+
+		@Test
+		@DisplayName("applies catalog settings and supports query validation")
+		void appliesSettings() {
+			SqlCatalog catalog = loader()
+					.withDialect(Query.Dialect.POSTGRES)
+					.withValidateColumns(true)
+					.build()
+					.get();
+
+			assertThat(catalog.dialect()).isEqualTo(Query.Dialect.POSTGRES);
+			assertThat(Query.fromSql("SELECT ID, ORDER_VALUE FROM ORDERS", catalog).sqlString())
+					.contains("ORDERS");
+			assertThatThrownBy(() -> Query.fromSql("SELECT ID FROM PAYMENTS", catalog))
+					.isInstanceOf(QueryValidationException.class);
+		}
+
+		@Test
+		@DisplayName("wraps metadata failures")
+		void wrapsFailures() {
+			JdbcDataSource broken = new JdbcDataSource();
+			broken.setURL("jdbc:h2:mem:missing;IFEXISTS=TRUE");
+
+			assertThatThrownBy(() -> JdbcSqlCatalogLoader.builder(broken).withSchemas("SALES").build().get())
+					.isInstanceOf(SqlCatalogLoadException.class);
+		}
+	}
+
+	@Nested
+	@DisplayName("Metadata access")
+	class MetadataAccess {
+
+		@Test
+		@DisplayName("introspects on its own virtual threads and stops them after loading")
+		void usesOwnVirtualThreads() throws SQLException {
+			List<Thread> threads = new CopyOnWriteArrayList<>();
+			DataSource recording = mock(DataSource.class);
+			when(recording.getConnection()).thenAnswer(invocation -> {
+				threads.add(Thread.currentThread());
+				return dataSource.getConnection();
+			});
+
+			JdbcSqlCatalogLoader.builder(recording).withSchemas("SALES", "FINANCE").build().get();
+
+			assertThat(threads).hasSize(2).allMatch(Thread::isVirtual).noneMatch(Thread::isAlive);
+		}
+
+		@Test
+		@DisplayName("reads keys per table once the driver rejects them for a whole schema")
+		void fallsBackToKeysPerTable() throws SQLException {
+			AtomicInteger schemaKeyQueries = new AtomicInteger();
+			DataSource perTableKeys = mock(DataSource.class);
+			when(perTableKeys.getConnection()).thenAnswer(invocation ->
+					rejectingSchemaKeys(dataSource.getConnection(), schemaKeyQueries));
+			JdbcSqlCatalogLoader loader = JdbcSqlCatalogLoader.builder(perTableKeys)
+					.withSchemas("SALES", "FINANCE")
+					.withParallelism(1)
+					.build();
+
+			SqlTable orders = loader.get().tables().get("ORDERS");
+			loader.refresh();
+
+			assertThat(column(orders, "ID").tags()).containsExactly("pk");
+			assertThat(column(orders, "CUSTOMER_ID").tags()).containsExactly("fk:CUSTOMERS.ID");
+			assertThat(schemaKeyQueries).hasValue(1);
+		}
+
+		@Test
+		@DisplayName("rejects a parallelism below one")
+		void rejectsParallelismBelowOne() {
+			assertThatThrownBy(() -> loader().withParallelism(0))
+					.isInstanceOf(IllegalArgumentException.class);
+		}
+
+		private static Connection rejectingSchemaKeys(Connection connection, AtomicInteger schemaKeyQueries)
+				throws SQLException {
+			DatabaseMetaData metaData = connection.getMetaData();
+			DatabaseMetaData rejecting = proxy(DatabaseMetaData.class, (target, method, args) -> {
+				boolean keys = method.getName().equals("getPrimaryKeys") || method.getName().equals("getImportedKeys");
+				if (keys && args[2] == null) {
+					schemaKeyQueries.incrementAndGet();
+					throw new SQLFeatureNotSupportedException("table name required");
+				}
+				return invoke(metaData, method, args);
+			});
+			return proxy(Connection.class, (target, method, args) -> method.getName().equals("getMetaData")
+					? rejecting
+					: invoke(connection, method, args));
+		}
+
+		private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+			return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, handler));
+		}
+
+		private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+			try {
+				return method.invoke(target, args);
+			} catch (InvocationTargetException e) {
+				throw e.getCause();
+			}
+		}
+	}
+
+	@Nested
+	@DisplayName("Incremental refresh")
+	class IncrementalRefresh {
+
+		@Test
+		@DisplayName("returns the previous catalog when nothing changed")
+		void unchangedSchemaReturnsPreviousCatalog() {
+			JdbcSqlCatalogLoader loader = loader().build();
+			JdbcSqlCatalogLoader.Refresh first = loader.refresh();
+
+			JdbcSqlCatalogLoader.Refresh second = loader.refresh();
+
+			assertThat(second.hasChanges()).isFalse();
+			assertThat(second.catalog()).isSameAs(first.catalog());
+		}
+
+		@Test
+		@DisplayName("rebuilds only changed tables and reports the differences")
+		void rebuildsChangedTables() throws SQLException {
+			JdbcSqlCatalogLoader loader = loader().build();
+			SqlCatalogSnapshot before = loader.refresh().catalog();
+
+			execute(
+					"ALTER TABLE SALES.ORDERS ADD COLUMN STATUS VARCHAR(20)",
+					"CREATE TABLE FINANCE.PAYMENTS (ID INTEGER PRIMARY KEY)",
+					"DROP TABLE FINANCE.INVOICES");
+			JdbcSqlCatalogLoader.Refresh refresh = loader.refresh();
+			SqlCatalogSnapshot after = refresh.catalog();
+
+			assertThat(refresh.added()).containsExactly("PAYMENTS");
+			assertThat(refresh.changed()).containsExactly("ORDERS");
+			assertThat(refresh.removed()).containsExactly("INVOICES");
+			assertThat(after.version()).isGreaterThan(before.version());
+			assertThat(after.tables().get("CUSTOMERS")).isSameAs(before.tables().get("CUSTOMERS"));
+			assertThat(after.tables().get("ORDERS").columns()).extracting(SqlColumn::name).contains("STATUS");
+		}
+
+		@Test
+		@DisplayName("keeps the reloadable catalog's version when nothing changed")
+		void reloadableCatalogKeepsVersion() throws SQLException {
+			ReloadableSqlCatalog catalog = new ReloadableSqlCatalog(loader().build());
+			long version = catalog.version();
+
+			assertThat(catalog.reload()).isFalse();
+			assertThat(catalog.version()).isEqualTo(version);
+
+			execute("ALTER TABLE SALES.CUSTOMERS ADD COLUMN EMAIL VARCHAR(100)");
+
+			assertThat(catalog.reload()).isTrue();
+			assertThat(catalog.version()).isGreaterThan(version);
+			assertThat(catalog.tables().get("CUSTOMERS").findColumn("EMAIL")).isPresent();
+		}
+	}
+}
@@ -0,0 +1,158 @@
+package org.javai.springai.actions.sql;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import java.util.concurrent.atomic.AtomicInteger;
+import net.sf.jsqlparser.statement.select.Select;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("QueryCache")
+class QueryCacheTest {
+
+	@Nested
+	@DisplayName("normalize")
+	class Normalize {
+
+		@Test
+		@DisplayName("collapses whitespace and drops trailing semicolons")
+		void collapsesWhitespace() {
+			assertThat(QueryCache.normalize("  SELECT  id\tFROM orders ; "))
+					.isEqualTo("SELECT id FROM orders");
+		}
+
+		@Test
+		@DisplayName("keeps whitespace inside quoted literals")
+		void keepsQuotedWhitespace() {
+			assertThat(QueryCache.normalize("SELECT id FROM orders WHERE status = 'on   hold'"))
+					.isEqualTo("SELECT id FROM orders WHERE status = 'on   hold'");
+		}
+
+		@Test
+		@DisplayName("keeps line breaks, which end comments")
+		void keepsLineBreaks() {
+			assertThat(QueryCache.normalize("SELECT id -- all\n  FROM orders"))
+					.isNotEqualTo(QueryCache.normalize("SELECT id -- all FROM orders"));
+		}
+	}
+
+	@Test
+	@DisplayName("validates each SQL text once per catalog version")
+	void validatesOncePerVersion() {
+		InMemorySqlCatalog catalog = new InMemorySqlCatalog()
+				.addTable("orders", "Order table", "fact")
+				.addColumn("orders", "id", "Primary key", "integer", new String[]{"pk"}, null);
+		AtomicInteger validations = new AtomicInteger();
+
+		for (int i = 0; i < 3; i++) {
+			SqlCatalogSnapshot pinned = catalog.snapshot();
+			pinned.queryCache().get("SELECT id FROM orders", pinned, () -> {
+				validations.incrementAndGet();
+				return Query.fromSql("SELECT id FROM orders", pinned);
+			});
+		}
+		assertThat(validations).hasValue(1);
+
+		catalog.addTable("customers", "Customer table", "dimension");
+		SqlCatalogSnapshot pinned = catalog.snapshot();
+		pinned.queryCache().get("SELECT id FROM orders", pinned, () -> {
+			validations.incrementAndGet();
+			return Query.fromSql("SELECT id FROM orders", pinned);
+		});
+		assertThat(validations).hasValue(2);
+	}
+
+	@Test
+	@DisplayName("evicts the least recently used query when full")
+	void evictsLeastRecentlyUsed() {
+		QueryCache cache = new QueryCache(2);
+		AtomicInteger validations = new AtomicInteger();
+
+		for (String sql : new String[]{"SELECT 1", "SELECT 2", "SELECT 1", "SELECT 3", "SELECT 1", "SELECT 2"}) {
+			cache.get(sql, null, () -> {
+				validations.incrementAndGet();
+				return Query.fromSql(sql);
+			});
+		}
+
+		assertThat(cache.size()).isEqualTo(2);
+		// "SELECT 2" was evicted by "SELECT 3" and validated again
+		assertThat(validations).hasValue(4);
+	}
+
+	@Test
+	@DisplayName("a catalog with a cache size of zero validates every query")
+	void cacheCanBeDisabled() {
+		InMemorySqlCatalog catalog = new InMemorySqlCatalog()
+				.withQueryCacheSize(0)
+				.addTable("orders", "Order table", "fact")
+				.addColumn("orders", "id", "Primary key", "integer", new String[]{"pk"}, null);
+
+		assertThat(catalog.snapshot().queryCache()).isNull();
+		assertThat(Query.fromSql("SELECT id FROM orders", catalog).sqlString())
+				.isEqualTo("SELECT id FROM orders");
+	}
+
+	@Test
+	@DisplayName("copies statements with CTEs, set operations and subqueries by parsing their SQL")
+	void copiesComplexStatements() {
+		Select select = Query.fromSql("""
+				WITH recent AS (
+				  SELECT customer_id, SUM(amount) AS total FROM orders
+				  WHERE order_date > DATE '2024-01-01' GROUP BY customer_id HAVING COUNT(*) > 2)
+				SELECT c.name, r.total, CASE WHEN r.total > 100 THEN 'high' ELSE 'low' END AS band
+				FROM customers c JOIN recent r ON r.customer_id = c.id
+				LEFT JOIN (SELECT customer_id, MAX(order_date) AS last_order FROM orders GROUP BY customer_id) l
+				  ON l.customer_id = c.id
+				WHERE c.id IN (SELECT customer_id FROM orders WHERE status = 'OPEN')
+				  AND EXISTS (SELECT 1 FROM orders o WHERE o.customer_id = c.id AND o.amount BETWEEN 1 AND 10)
+				  AND c.name ILIKE '%smith%' AND CAST(r.total AS INTEGER) IS NOT NULL
+				UNION ALL
+				SELECT name, COALESCE(NULL, 0), 'none' FROM customers WHERE NOT id > 10
+				ORDER BY 2 DESC LIMIT 10""").select();
+
+		assertThat(QueryCache.reparse(select.toString(), select)).isNotNull();
+		Select copy = QueryCache.copy(select);
+		assertThat(copy).isNotSameAs(select);
+		assertThat(copy.toString()).isEqualTo(select.toString());
+	}
+
+	@Nested
+	@DisplayName("canonical names that are not plain identifiers")
+	class UnquotedNames {
+
+		private final InMemorySqlCatalog catalog = new InMemorySqlCatalog()
+				.addTable("order lines", "Order lines", "fact")
+				.withSynonyms("order lines", "order_lines")
+				.addColumn("order lines", "id", "Primary key", "integer", new String[]{"pk"}, null);
+
+		@Test
+		@DisplayName("are not cached, since their SQL does not parse back to the same names")
+		void notCached() {
+			SqlCatalogSnapshot pinned = catalog.snapshot();
+			AtomicInteger validations = new AtomicInteger();
+
+			for (int i = 0; i < 2; i++) {
+				Query query = pinned.queryCache().get("SELECT id FROM order_lines", pinned, () -> {
+					validations.incrementAndGet();
+					return Query.fromSql("SELECT id FROM order_lines", pinned);
+				});
+				assertThat(query.referencedTables()).containsExactly("order lines");
+			}
+
+			assertThat(pinned.queryCache().size()).isZero();
+			assertThat(validations).hasValue(2);
+		}
+
+		@Test
+		@DisplayName("are kept when the statement is copied")
+		void keptByCopy() {
+			Select select = Query.fromSql("SELECT id FROM order_lines", catalog).select();
+
+			Select copy = QueryCache.copy(select);
+
+			assertThat(copy).isNotSameAs(select);
+			assertThat(copy.getPlainSelect().getFromItem().toString()).isEqualTo("order lines");
+		}
+	}
+}
@@ -0,0 +1,44 @@
+package org.javai.springai.actions.sql;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import java.sql.Statement;
+import java.time.Duration;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("QueryLimits")
+class QueryLimitsTest {
+
+	@Test
+	@DisplayName("applies the timeout in whole seconds, rounded up, and the row limit")
+	void appliesToStatement() throws Exception {
+		Statement statement = mock(Statement.class);
+
+		QueryLimits.of(100, Duration.ofMillis(1500)).applyTo(statement);
+
+		verify(statement).setQueryTimeout(2);
+		verify(statement).setMaxRows(100);
+	}
+
+	@Test
+	@DisplayName("leaves the statement alone without limits")
+	void noLimits() throws Exception {
+		Statement statement = mock(Statement.class);
+
+		QueryLimits.NONE.applyTo(statement);
+
+		verifyNoInteractions(statement);
+	}
+
+	@Test
+	@DisplayName("rejects negative limits")
+	void rejectsNegativeLimits() {
+		assertThatThrownBy(() -> QueryLimits.of(-1, Duration.ZERO))
+				.isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> QueryLimits.of(10, Duration.ofSeconds(-1)))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+}
@@ -2,6 +2,8 @@ package org.javai.springai.actions.sql;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import java.time.Duration;
+import net.sf.jsqlparser.schema.Table;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -1304,6 +1306,77 @@ class QueryTest {
 		}
 	}
 
+	@Nested
+	@DisplayName("Catalog query limits and renderer")
+	class CatalogQueryLimits {
+
+		private final InMemorySqlCatalog limitedCatalog = new InMemorySqlCatalog()
+				.addTable("orders", "Order table")
+				.addColumn("orders", "id", "Primary key", "integer", null, null);
+
+		@Test
+		@DisplayName("sqlString() bounds queries to the catalog's row limit")
+		void enforcesRowLimit() {
+			limitedCatalog.withDialect(Query.Dialect.POSTGRES)
+					.withQueryLimits(QueryLimits.of(100, Duration.ofSeconds(30)));
+
+			Query query = Query.fromSql("SELECT id FROM orders", limitedCatalog);
+
+			assertThat(query.sqlString()).endsWith("LIMIT 100");
+			assertThat(query.sqlString(Query.Dialect.ANSI))
+					.endsWith("FETCH FIRST 100 ROWS ONLY");
+			assertThat(query.limits().statementTimeout()).isEqualTo(Duration.ofSeconds(30));
+			assertThat(query.statementTimeoutSql()).contains("SET LOCAL statement_timeout = 30000");
+		}
+
+		@Test
+		@DisplayName("queries are unbounded without limits")
+		void noLimitsByDefault() {
+			Query query = Query.fromSql("SELECT id FROM orders", limitedCatalog);
+
+			assertThat(query.sqlString()).isEqualTo("SELECT id FROM orders");
+			assertThat(query.limits()).isEqualTo(QueryLimits.NONE);
+			assertThat(query.statementTimeoutSql()).isEmpty();
+		}
+
+		@Test
+		@DisplayName("sqlString() uses the catalog's custom renderer")
+		void usesCustomRenderer() {
+			limitedCatalog.withDialectRenderer((select, limits) -> "/* custom */ " + select);
+
+			Query query = Query.fromSql("SELECT id FROM orders", limitedCatalog);
+
+			assertThat(query.sqlString()).isEqualTo("/* custom */ SELECT id FROM orders");
+		}
+
+		@Test
+		@DisplayName("modelSql() is not bounded or rewritten for the dialect")
+		void modelSqlIgnoresLimitsAndDialect() {
+			limitedCatalog.withDialect(Query.Dialect.POSTGRES)
+					.withQueryLimits(QueryLimits.of(100, Duration.ZERO));
+
+			Query plain = Query.fromSql("SELECT id FROM orders", limitedCatalog);
+			limitedCatalog.withModelNames(true);
+			Query modelNamed = Query.fromSql("SELECT id FROM orders", limitedCatalog);
+
+			assertThat(plain.sqlString()).endsWith("LIMIT 100");
+			assertThat(plain.modelSql()).isEqualTo("SELECT id FROM orders");
+			assertThat(modelNamed.sqlString()).endsWith("LIMIT 100");
+			assertThat(modelNamed.modelSql()).startsWith("SELECT ").doesNotContain("LIMIT");
+		}
+
+		@Test
+		@DisplayName("canonical names that are not plain identifiers are quoted")
+		void quotesCanonicalNames() {
+			limitedCatalog.addTable("order lines", "Order line table")
+					.withSynonyms("order lines", "order_lines");
+
+			Query query = Query.fromSql("SELECT * FROM order_lines", limitedCatalog);
+
+			assertThat(query.sqlString()).isEqualTo("SELECT * FROM \"order lines\"");
+		}
+	}
+
 	@Nested
 	@DisplayName("QueryFactory")
 	class QueryFactoryTest {
@@ -2125,6 +2198,28 @@ class QueryTest {
 			assertThat(tokenized).contains(customerNameColumnName);
 		}
 
+		@Test
+		@DisplayName("modelSql() leaves string literals and the query itself unchanged")
+		void modelSqlLeavesLiteralsAndQueryUnchanged() {
+			Query query = Query.fromSql(
+					"SELECT order_value FROM fct_orders WHERE customer_id = 'order_value'", modelNameCatalog);
+
+			String tokenized = query.modelSql();
+
+			assertThat(tokenized).contains("'order_value'");
+			assertThat(tokenized).startsWith("SELECT " + orderValueColumnName + " FROM " + ordersTableName);
+			assertThat(query.sqlString()).containsIgnoringCase("SELECT order_value FROM fct_orders");
+		}
+
+		@Test
+		@DisplayName("modelSql() renames table-name qualifiers with their table")
+		void modelSqlRenamesQualifiers() {
+			Query query = Query.fromSql("SELECT fct_orders.order_value FROM fct_orders", modelNameCatalog);
+
+			assertThat(query.modelSql())
+					.isEqualTo("SELECT " + ordersTableName + "." + orderValueColumnName + " FROM " + ordersTableName);
+		}
+
 		@Test
 		@DisplayName("modelSql() returns normal SQL when catalog not tokenized")
 		void modelSqlReturnsNormalWhenNotTokenized() {
@@ -2149,5 +2244,276 @@ class QueryTest {
 			assertThat(result).isEqualToIgnoringCase("SELECT id FROM orders");
 		}
 	}
-}
 
+	@Nested
+	@DisplayName("Parsed query cache")
+	class ParsedQueryCache {
+
+		@Test
+		@DisplayName("returns an independent statement for repeated SQL")
+		void returnsIndependentCopies() {
+			Query first = Query.fromSql("SELECT id FROM orders", catalog);
+			((Table) first.select().getPlainSelect().getFromItem()).setName("customers");
+
+			Query second = Query.fromSql("SELECT id FROM orders", catalog);
+
+			assertThat(second.select()).isNotSameAs(first.select());
+			assertThat(second.sqlString()).isEqualToIgnoringCase("SELECT id FROM orders");
+		}
+
+		@Test
+		@DisplayName("reuses validation for SQL differing only in whitespace")
+		void reusesValidationAcrossWhitespace() {
+			Query first = Query.fromSql("SELECT id FROM orders", catalog);
+			Query second = Query.fromSql("  SELECT id\n   FROM orders ;", catalog);
+
+			assertThat(second.sqlString()).isEqualTo(first.sqlString());
+			assertThat(second.catalog()).isSameAs(first.catalog());
+		}
+
+		@Test
+		@DisplayName("revalidates after the catalog changes")
+		void revalidatesAfterCatalogChange() {
+			InMemorySqlCatalog mutable = new InMemorySqlCatalog()
+					.addTable("fct_orders", "Order table", "fact")
+					.addColumn("fct_orders", "id", "Primary key", "integer", new String[]{"pk"}, null);
+			assertThatThrownBy(() -> Query.fromSql("SELECT id FROM sales", mutable))
+					.isInstanceOf(QueryValidationException.class);
+
+			mutable.withSynonyms("fct_orders", "sales");
+
+			assertThat(Query.fromSql("SELECT id FROM sales", mutable).sqlString())
+					.isEqualToIgnoringCase("SELECT id FROM fct_orders");
+		}
+
+		@Test
+		@DisplayName("does not share results between catalogs")
+		void keysOnCatalog() {
+			SqlCatalog other = new InMemorySqlCatalog()
+					.addTable("fct_orders", "Order table", "fact")
+					.withSynonyms("fct_orders", "orders")
+					.addColumn("fct_orders", "id", "Primary key", "integer", new String[]{"pk"}, null);
+
+			assertThat(Query.fromSql("SELECT id FROM orders", catalog).sqlString())
+					.isEqualToIgnoringCase("SELECT id FROM orders");
+			assertThat(Query.fromSql("SELECT id FROM orders", other).sqlString())
+					.isEqualToIgnoringCase("SELECT id FROM fct_orders");
+		}
+	}
+
+	@Nested
+	@DisplayName("Name resolution in nested expressions")
+	class NestedExpressionResolution {
+
+		private InMemorySqlCatalog synonymCatalog;
+
+		@BeforeEach
+		void setUp() {
+			synonymCatalog = new InMemorySqlCatalog()
+					.withValidateColumns(true)
+					.addTable("fct_orders", "Order transactions", "fact")
+					.withSynonyms("fct_orders", "orders")
+					.addColumn("fct_orders", "id", "Primary key", "integer", new String[]{"pk"}, null)
+					.addColumn("fct_orders", "customer_id", "FK to customer", "integer", new String[]{"fk"}, null)
+					.addColumn("fct_orders", "order_value", "Order value", "decimal", null, null)
+					.withColumnSynonyms("fct_orders", "order_value", "value")
+					.addTable("dim_customer", "Customers", "dimension")
+					.withSynonyms("dim_customer", "customers")
+					.addColumn("dim_customer", "id", "Primary key", "integer", new String[]{"pk"}, null)
+					.addColumn("dim_customer", "customer_name", "Customer name", "varchar", null, null)
+					.withColumnSynonyms("dim_customer", "customer_name", "name");
+		}
+
+		@Test
+		@DisplayName("substitutes synonyms inside function calls")
+		void substitutesInsideFunctions() {
+			Query query = Query.fromSql("SELECT SUM(value) FROM orders", synonymCatalog);
+
+			assertThat(query.sqlString()).isEqualToIgnoringCase("SELECT SUM(order_value) FROM fct_orders");
+		}
+
+		@Test
+		@DisplayName("substitutes synonyms inside subqueries")
+		void substitutesInsideSubqueries() {
+			Query query = Query.fromSql(
+					"SELECT id FROM orders WHERE customer_id IN (SELECT id FROM customers WHERE name = 'Acme')",
+					synonymCatalog);
+
+			assertThat(query.sqlString()).containsIgnoringCase("SELECT id FROM dim_customer WHERE customer_name = 'Acme'");
+		}
+
+		@Test
+		@DisplayName("resolves correlated columns against the enclosing query")
+		void resolvesCorrelatedColumns() {
+			Query query = Query.fromSql(
+					"SELECT c.id FROM customers c WHERE EXISTS (SELECT 1 FROM orders o WHERE o.customer_id = c.id AND value > 100)",
+					synonymCatalog);
+
+			assertThat(query.sqlString()).containsIgnoringCase("order_value > 100");
+		}
+
+		@Test
+		@DisplayName("rejects unknown columns inside CASE expressions")
+		void rejectsUnknownColumnsInCase() {
+			assertThatThrownBy(() -> Query.fromSql(
+					"SELECT CASE WHEN bad_column > 0 THEN 1 ELSE 0 END FROM orders", synonymCatalog))
+					.isInstanceOf(QueryValidationException.class)
+					.hasMessageContaining("Unknown column 'bad_column'");
+		}
+
+		@Test
+		@DisplayName("rejects unknown tables in ANY subqueries")
+		void rejectsUnknownTableInAnySubquery() {
+			assertThatThrownBy(() -> Query.fromSql(
+					"SELECT id FROM orders WHERE value > ANY (SELECT amount FROM unknown_table)", synonymCatalog))
+					.isInstanceOf(QueryValidationException.class)
+					.hasMessageContaining("Unknown table: unknown_table");
+		}
+
+		@Test
+		@DisplayName("resolves subqueries in ANY comparisons")
+		void resolvesAnySubquery() {
+			Query query = Query.fromSql(
+					"SELECT id FROM orders WHERE customer_id = ANY (SELECT id FROM customers WHERE name = 'Acme')",
+					synonymCatalog);
+
+			assertThat(query.sqlString()).containsIgnoringCase("SELECT id FROM dim_customer WHERE customer_name = 'Acme'");
+		}
+
+		@Test
+		@DisplayName("rejects unknown tables in window definitions")
+		void rejectsUnknownTableInWindow() {
+			assertThatThrownBy(() -> Query.fromSql(
+					"SELECT ROW_NUMBER() OVER (ORDER BY (SELECT MAX(id) FROM unknown_table)) FROM orders",
+					synonymCatalog))
+					.isInstanceOf(QueryValidationException.class)
+					.hasMessageContaining("Unknown table: unknown_table");
+		}
+
+		@Test
+		@DisplayName("substitutes synonyms in window definitions")
+		void substitutesInWindow() {
+			Query query = Query.fromSql(
+					"SELECT SUM(value) OVER (PARTITION BY customer_id ORDER BY value) FROM orders", synonymCatalog);
+
+			assertThat(query.sqlString()).containsIgnoringCase("SUM(order_value)")
+					.containsIgnoringCase("ORDER BY order_value");
+		}
+
+		@Test
+		@DisplayName("rejects unknown tables in parenthesised joins")
+		void rejectsUnknownTableInParenthesisedJoin() {
+			assertThatThrownBy(() -> Query.fromSql(
+					"SELECT o.id FROM (orders o JOIN unknown_table u ON o.customer_id = u.id)", synonymCatalog))
+					.isInstanceOf(QueryValidationException.class)
+					.hasMessageContaining("Unknown table: unknown_table");
+		}
+
+		@Test
+		@DisplayName("resolves tables and conditions of parenthesised joins")
+		void resolvesParenthesisedJoin() {
+			Query query = Query.fromSql(
+					"SELECT c.name FROM (orders o JOIN customers c ON o.customer_id = c.id) WHERE o.value > 10",
+					synonymCatalog);
+
+			assertThat(query.sqlString()).containsIgnoringCase("fct_orders o")
+					.containsIgnoringCase("dim_customer c")
+					.containsIgnoringCase("c.customer_name")
+					.containsIgnoringCase("o.order_value > 10");
+		}
+	}
+
+	@Nested
+	@DisplayName("Set operations, CTEs and derived tables")
+	class SetOperationsAndCommonTableExpressions {
+
+		private InMemorySqlCatalog synonymCatalog;
+
+		@BeforeEach
+		void setUp() {
+			synonymCatalog = new InMemorySqlCatalog()
+					.withValidateColumns(true)
+					.addTable("fct_orders", "Order transactions", "fact")
+					.withSynonyms("fct_orders", "orders")
+					.addColumn("fct_orders", "id", "Primary key", "integer", new String[]{"pk"}, null)
+					.addColumn("fct_orders", "customer_id", "FK to customer", "integer", new String[]{"fk"}, null)
+					.addColumn("fct_orders", "order_value", "Order value", "decimal", null, null)
+					.withColumnSynonyms("fct_orders", "order_value", "value")
+					.addTable("fct_returns", "Returned orders", "fact")
+					.withSynonyms("fct_returns", "returns")
+					.addColumn("fct_returns", "id", "Primary key", "integer", new String[]{"pk"}, null)
+					.addColumn("fct_returns", "refund_value", "Refund value", "decimal", null, null)
+					.withColumnSynonyms("fct_returns", "refund_value", "refund");
+		}
+
+		@Test
+		@DisplayName("substitutes synonyms in every UNION branch")
+		void substitutesInUnionBranches() {
+			Query query = Query.fromSql(
+					"SELECT id, value FROM orders UNION ALL SELECT id, refund FROM returns", synonymCatalog);
+
+			assertThat(query.sqlString())
+					.containsIgnoringCase("SELECT id, order_value FROM fct_orders")
+					.containsIgnoringCase("SELECT id, refund_value FROM fct_returns");
+		}
+
+		@Test
+		@DisplayName("validates columns in every UNION branch")
+		void validatesUnionBranches() {
+			assertThatThrownBy(() -> Query.fromSql(
+					"SELECT id FROM orders UNION SELECT bad_column FROM returns", synonymCatalog))
+					.isInstanceOf(QueryValidationException.class)
+					.hasMessageContaining("Unknown column 'bad_column'");
+		}
+
+		@Test
+		@DisplayName("resolves names inside a CTE and keeps the model's column name for the outer query")
+		void resolvesInsideCommonTableExpression() {
+			Query query = Query.fromSql(
+					"WITH big AS (SELECT id, value FROM orders WHERE value > 100) SELECT value FROM big",
+					synonymCatalog);
+
+			assertThat(query.sqlString())
+					.containsIgnoringCase("SELECT id, order_value AS value FROM fct_orders WHERE order_value > 100")
+					.endsWithIgnoringCase("SELECT value FROM big");
+		}
+
+		@Test
+		@DisplayName("rejects unknown tables inside a CTE")
+		void rejectsUnknownTableInCommonTableExpression() {
+			assertThatThrownBy(() -> Query.fromSql(
+					"WITH x AS (SELECT id FROM bad_table) SELECT id FROM x", synonymCatalog))
+					.isInstanceOf(QueryValidationException.class)
+					.hasMessageContaining("Unknown table: bad_table");
+		}
+
+		@Test
+		@DisplayName("rejects columns a CTE does not produce")
+		void rejectsColumnsMissingFromCommonTableExpression() {
+			assertThatThrownBy(() -> Query.fromSql(
+					"WITH x AS (SELECT id FROM orders) SELECT x.customer_id FROM x", synonymCatalog))
+					.isInstanceOf(QueryValidationException.class)
+					.hasMessageContaining("Unknown column 'customer_id' in 'x'");
+		}
+
+		@Test
+		@DisplayName("scopes derived table aliases")
+		void scopesDerivedTables() {
+			Query query = Query.fromSql(
+					"SELECT t.total FROM (SELECT customer_id, SUM(value) AS total FROM orders GROUP BY customer_id) t",
+					synonymCatalog);
+
+			assertThat(query.sqlString()).containsIgnoringCase("SUM(order_value) AS total FROM fct_orders");
+		}
+
+		@Test
+		@DisplayName("allows ORDER BY to refer to select list aliases")
+		void allowsOrderByAlias() {
+			Query query = Query.fromSql(
+					"SELECT customer_id, SUM(value) AS total FROM orders GROUP BY customer_id ORDER BY total DESC",
+					synonymCatalog);
+
+			assertThat(query.sqlString()).containsIgnoringCase("ORDER BY total DESC");
+		}
+	}
+}
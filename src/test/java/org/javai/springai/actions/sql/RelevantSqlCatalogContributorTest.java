@@ -0,0 +1,183 @@
+package org.javai.springai.actions.sql;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import java.util.HashMap;
+import java.util.Map;
+import org.javai.springai.actions.conversation.ConversationState;
+import org.javai.springai.actions.internal.prompt.SystemPromptContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("RelevantSqlCatalogContributor")
+class RelevantSqlCatalogContributorTest {
+
+	private InMemorySqlCatalog catalog;
+
+	@BeforeEach
+	void setUp() {
+		catalog = new InMemorySqlCatalog()
+				.addTable("fct_orders", "Fact table for orders", "fact")
+				.withSynonyms("fct_orders", "sales")
+				.addColumn("fct_orders", "order_id", "Order PK", "string", new String[]{"pk"}, null)
+				.addColumn("fct_orders", "customer_id", "FK to customer", "string",
+						new String[]{"fk:dim_customer.id"}, null)
+				.addColumn("fct_orders", "order_value", "Order amount", "double",
+						new String[]{"measure"}, null)
+				.addTable("dim_customer", "Customer dimension", "dimension")
+				.addColumn("dim_customer", "id", "Customer PK", "string", new String[]{"pk"}, null)
+				.addColumn("dim_customer", "customer_name", "Customer name", "string",
+						new String[]{"attribute"}, null)
+				.addTable("dim_date", "Date dimension", "dimension")
+				.addColumn("dim_date", "id", "Date PK", "string", new String[]{"pk"}, null)
+				.addTable("fct_shipments", "Shipment events", "fact")
+				.addColumn("fct_shipments", "shipment_id", "Shipment PK", "string", new String[]{"pk"}, null)
+				.addColumn("fct_shipments", "carrier", "Carrier name", "string", null, null);
+	}
+
+	private static SystemPromptContext contextFor(String message) {
+		Map<String, Object> values = new HashMap<>();
+		values.put("userMessage", message);
+		return new SystemPromptContext(null, null, null, values);
+	}
+
+	private String contribute(RelevantSqlCatalogContributor contributor, String message) {
+		return contributor.contribute(contextFor(message)).orElseThrow();
+	}
+
+	@Nested
+	@DisplayName("constructor")
+	class Constructor {
+
+		@Test
+		@DisplayName("rejects null catalog")
+		void rejectsNullCatalog() {
+			assertThatThrownBy(() -> new RelevantSqlCatalogContributor(null))
+					.isInstanceOf(NullPointerException.class)
+					.hasMessageContaining("catalog");
+		}
+
+		@Test
+		@DisplayName("rejects non-positive limits")
+		void rejectsNonPositiveLimits() {
+			assertThatThrownBy(() -> new RelevantSqlCatalogContributor(catalog, 0, 100))
+					.isInstanceOf(IllegalArgumentException.class);
+			assertThatThrownBy(() -> new RelevantSqlCatalogContributor(catalog, 5, 0))
+					.isInstanceOf(IllegalArgumentException.class);
+		}
+
+		@Test
+		@DisplayName("is not static")
+		void isNotStatic() {
+			assertThat(new RelevantSqlCatalogContributor(catalog).isStatic()).isFalse();
+		}
+	}
+
+	@Nested
+	@DisplayName("ranking")
+	class Ranking {
+
+		@Test
+		@DisplayName("includes only tables matching the request and their join partners")
+		void includesMatchingTablesAndJoinPartners() {
+			String prompt = contribute(new RelevantSqlCatalogContributor(catalog), "total order value last month");
+
+			assertThat(prompt).contains("- fct_orders").contains("- dim_customer");
+			assertThat(prompt).doesNotContain("fct_shipments").doesNotContain("- dim_date");
+			assertThat(prompt).contains("(2 more tables not shown)");
+		}
+
+		@Test
+		@DisplayName("ranks direct matches before join partners")
+		void ranksDirectMatchesFirst() {
+			String prompt = contribute(new RelevantSqlCatalogContributor(catalog), "orders");
+
+			assertThat(prompt.indexOf("- fct_orders")).isLessThan(prompt.indexOf("- dim_customer"));
+		}
+
+		@Test
+		@DisplayName("matches synonyms, plurals and descriptions")
+		void matchesSynonymsPluralsAndDescriptions() {
+			assertThat(contribute(new RelevantSqlCatalogContributor(catalog), "sales by month"))
+					.contains("- fct_orders");
+			assertThat(contribute(new RelevantSqlCatalogContributor(catalog), "which carriers had shipments"))
+					.contains("- fct_shipments")
+					.doesNotContain("- fct_orders");
+		}
+
+		@Test
+		@DisplayName("keeps tables of the original instruction on follow-up turns")
+		void usesOriginalInstruction() {
+			Map<String, Object> values = new HashMap<>();
+			values.put("userMessage", "only last week please");
+			values.put("conversationState", ConversationState.initial("list shipments by carrier"));
+
+			String prompt = new RelevantSqlCatalogContributor(catalog)
+					.contribute(new SystemPromptContext(null, null, null, values))
+					.orElseThrow();
+
+			assertThat(prompt).contains("- fct_shipments");
+		}
+
+		@Test
+		@DisplayName("lists tables in catalog order when nothing matches")
+		void fallsBackToCatalogOrder() {
+			String prompt = contribute(new RelevantSqlCatalogContributor(catalog, 2, 2000), "hello there");
+
+			assertThat(prompt).startsWith("SQL CATALOG:");
+			assertThat(prompt).contains("- fct_orders").contains("- dim_customer");
+			assertThat(prompt).doesNotContain("- dim_date");
+		}
+	}
+
+	@Nested
+	@DisplayName("limits")
+	class Limits {
+
+		@Test
+		@DisplayName("renders at most maxTables tables")
+		void respectsMaxTables() {
+			String prompt = contribute(new RelevantSqlCatalogContributor(catalog, 1, 2000), "order value");
+
+			assertThat(prompt).contains("- fct_orders").doesNotContain("- dim_customer");
+		}
+
+		@Test
+		@DisplayName("stays within the token budget but always renders the top table")
+		void respectsTokenBudget() {
+			String prompt = contribute(new RelevantSqlCatalogContributor(catalog, 10, 1), "order value");
+
+			assertThat(prompt).contains("- fct_orders").doesNotContain("- dim_customer");
+		}
+	}
+
+	@Nested
+	@DisplayName("catalog changes")
+	class CatalogChanges {
+
+		@Test
+		@DisplayName("re-indexes after the catalog is mutated")
+		void reindexesAfterMutation() {
+			RelevantSqlCatalogContributor contributor = new RelevantSqlCatalogContributor(catalog);
+			assertThat(contribute(contributor, "invoices")).doesNotContain("fct_invoices");
+
+			catalog.addTable("fct_invoices", "Invoices", "fact");
+
+			assertThat(contribute(contributor, "invoices")).contains("- fct_invoices");
+		}
+	}
+
+	@Nested
+	@DisplayName("terms")
+	class Terms {
+
+		@Test
+		@DisplayName("splits identifiers and reduces plurals")
+		void splitsIdentifiers() {
+			assertThat(SqlCatalogRelevanceIndex.terms("fct_orders orderValue Categories, the CUSTOMER"))
+					.containsExactly("fct", "order", "order", "value", "category", "customer");
+		}
+	}
+}
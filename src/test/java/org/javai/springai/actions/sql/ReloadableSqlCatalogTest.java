@@ -0,0 +1,140 @@
+package org.javai.springai.actions.sql;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("ReloadableSqlCatalog")
+class ReloadableSqlCatalogTest {
+
+	private static InMemorySqlCatalog ordersCatalog() {
+		return new InMemorySqlCatalog()
+				.withDialect(Query.Dialect.POSTGRES)
+				.withValidateColumns(true)
+				.addTable("fct_orders", "Orders", "fact")
+				.withSynonyms("fct_orders", "orders")
+				.addColumn("fct_orders", "id", "PK", "integer", null, null)
+				.addColumn("fct_orders", "order_value", "Value", "decimal", null, null);
+	}
+
+	private static InMemorySqlCatalog invoicesCatalog() {
+		return new InMemorySqlCatalog()
+				.addTable("fct_invoices", "Invoices", "fact")
+				.addColumn("fct_invoices", "id", "PK", "integer", null, null);
+	}
+
+	@Nested
+	@DisplayName("Swapping")
+	class Swapping {
+
+		@Test
+		@DisplayName("serves the initial schema and its settings")
+		void servesInitialSchema() {
+			ReloadableSqlCatalog catalog = new ReloadableSqlCatalog(ordersCatalog());
+
+			assertThat(catalog.tables()).containsOnlyKeys("fct_orders");
+			assertThat(catalog.dialect()).isEqualTo(Query.Dialect.POSTGRES);
+			assertThat(catalog.validateColumns()).isTrue();
+			assertThat(catalog.resolveTableName("orders")).contains("fct_orders");
+		}
+
+		@Test
+		@DisplayName("replaces the whole schema and advances the version")
+		void swapReplacesSchema() {
+			ReloadableSqlCatalog catalog = new ReloadableSqlCatalog(ordersCatalog());
+			long before = catalog.version();
+
+			long after = catalog.swap(invoicesCatalog());
+
+			assertThat(after).isGreaterThan(before).isEqualTo(catalog.version());
+			assertThat(catalog.tables()).containsOnlyKeys("fct_invoices");
+			assertThat(catalog.resolveTableName("orders")).isEmpty();
+			assertThat(catalog.dialect()).isEqualTo(Query.Dialect.ANSI);
+		}
+
+		@Test
+		@DisplayName("copies the swapped catalog so later mutations of the source are not visible")
+		void swapCopiesSource() {
+			InMemorySqlCatalog source = invoicesCatalog();
+			ReloadableSqlCatalog catalog = new ReloadableSqlCatalog(source);
+
+			source.addTable("fct_payments", "Payments", "fact");
+
+			assertThat(catalog.tables()).containsOnlyKeys("fct_invoices");
+		}
+
+		@Test
+		@DisplayName("queries keep the snapshot they were validated against")
+		void queriesKeepTheirSnapshot() {
+			ReloadableSqlCatalog catalog = new ReloadableSqlCatalog(ordersCatalog());
+			Query query = Query.fromSql("SELECT id, order_value FROM orders", catalog);
+
+			catalog.swap(invoicesCatalog());
+
+			assertThat(query.sqlString()).contains("fct_orders");
+			assertThat(query.catalog().tables()).containsOnlyKeys("fct_orders");
+			assertThatThrownBy(() -> Query.fromSql("SELECT id FROM fct_orders", catalog))
+					.isInstanceOf(QueryValidationException.class);
+		}
+	}
+
+	@Nested
+	@DisplayName("Reloading")
+	class Reloading {
+
+		@Test
+		@DisplayName("loads from the loader on construction and on reload")
+		void reloadsFromLoader() {
+			AtomicInteger loads = new AtomicInteger();
+			ReloadableSqlCatalog catalog = new ReloadableSqlCatalog(
+					() -> loads.incrementAndGet() == 1 ? ordersCatalog() : invoicesCatalog());
+
+			assertThat(catalog.tables()).containsOnlyKeys("fct_orders");
+
+			assertThat(catalog.reload()).isTrue();
+
+			assertThat(loads.get()).isEqualTo(2);
+			assertThat(catalog.tables()).containsOnlyKeys("fct_invoices");
+		}
+
+		@Test
+		@DisplayName("keeps the current schema when loading fails")
+		void keepsSchemaWhenLoadFails() {
+			AtomicInteger loads = new AtomicInteger();
+			ReloadableSqlCatalog catalog = new ReloadableSqlCatalog(() -> {
+				if (loads.incrementAndGet() > 1) {
+					throw new IllegalStateException("database unavailable");
+				}
+				return ordersCatalog();
+			});
+			long version = catalog.version();
+
+			assertThat(catalog.reload()).isFalse();
+
+			assertThat(catalog.version()).isEqualTo(version);
+			assertThat(catalog.tables()).containsOnlyKeys("fct_orders");
+		}
+
+		@Test
+		@DisplayName("reload requires a loader")
+		void reloadRequiresLoader() {
+			ReloadableSqlCatalog catalog = new ReloadableSqlCatalog(ordersCatalog());
+
+			assertThatThrownBy(catalog::reload).isInstanceOf(IllegalStateException.class);
+		}
+
+		@Test
+		@DisplayName("reloads asynchronously on an executor")
+		void reloadsAsynchronously() {
+			AtomicInteger loads = new AtomicInteger();
+			ReloadableSqlCatalog catalog = new ReloadableSqlCatalog(
+					() -> loads.incrementAndGet() == 1 ? ordersCatalog() : invoicesCatalog());
+
+			assertThat(catalog.reloadAsync(Runnable::run).join()).isTrue();
+			assertThat(catalog.tables()).containsOnlyKeys("fct_invoices");
+		}
+	}
+}
@@ -4,6 +4,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import java.util.Map;
 import java.util.Optional;
 import org.javai.springai.actions.api.Action;
+import org.javai.springai.actions.TokenEstimator;
 import org.javai.springai.actions.api.ActionParam;
 import org.javai.springai.actions.internal.prompt.SystemPromptContext;
 import org.junit.jupiter.api.BeforeEach;
@@ -86,6 +87,38 @@ class SqlCatalogContextContributorTest {
 		assertThat(contribution.get()).contains("orders: Orders placed by customers");
 	}
 
+	@Test
+	void isStaticForVersionedCatalogAndFollowsItsVersion() {
+		long before = contributor.staticVersion();
+
+		catalog.addTable("customers", "Customers", "dimension");
+
+		assertThat(contributor.isStatic()).isTrue();
+		assertThat(contributor.staticVersion()).isNotEqualTo(before);
+	}
+
+	@Test
+	void isNotStaticForCatalogWithoutVersions() {
+		SqlCatalog custom = () -> catalog.tables();
+
+		assertThat(new SqlCatalogContextContributor(custom).isStatic()).isFalse();
+	}
+
+	@Test
+	void contextCatalogIsRenderedEveryTurnAndReportsItsVersion() {
+		ReloadableSqlCatalog reloadable = new ReloadableSqlCatalog(catalog);
+		SqlCatalogContextContributor nullContributor = new SqlCatalogContextContributor(null);
+		SystemPromptContext context = new SystemPromptContext(null, null, null, Map.of("sql", reloadable));
+		nullContributor.contribute(context);
+		long before = nullContributor.staticVersion();
+
+		reloadable.swap(new InMemorySqlCatalog().addTable("invoices", "Invoices", "fact"));
+
+		assertThat(nullContributor.isStatic()).isFalse();
+		assertThat(nullContributor.staticVersion()).isNotEqualTo(before);
+		assertThat(nullContributor.contribute(context).orElseThrow()).contains("invoices");
+	}
+
 	@Test
 	void fallsBackToSxlSqlKeyForBackwardCompatibility() {
 		SqlCatalogContextContributor nullContributor = new SqlCatalogContextContributor(null);
@@ -265,6 +298,33 @@ class SqlCatalogContextContributorTest {
 		assertThat(content).contains("• customer_id");
 	}
 
+	@Test
+	void reducerDropsColumnDescriptionsBeforeTables() {
+		String content = contributor.contribute(null).orElseThrow();
+		TokenEstimator chars = String::length;
+
+		String reduced = contributor.reducer().reduce(content, content.length() - 10, chars);
+
+		// Only the last table loses its descriptions; type and tags are kept
+		assertThat(reduced.length()).isLessThanOrEqualTo(content.length() - 10);
+		assertThat(reduced).contains("• bundle_id (type=string; tags=fk:orders.id)");
+		assertThat(reduced).contains("• value (type=number; tags=measure)");
+		assertThat(reduced).contains("• status (type=string; Order status; tags=dim; constraints=enum:SHIPPED,OPEN)");
+		assertThat(reduced).contains("CRITICAL: SQL table/column names MUST be taken from this catalog");
+	}
+
+	@Test
+	void reducerDropsTablesLastAndNotesTheOmission() {
+		String content = contributor.contribute(null).orElseThrow();
+
+		String reduced = contributor.reducer().reduce(content, 1, String::length);
+
+		assertThat(reduced).startsWith("SQL CATALOG:");
+		assertThat(reduced).doesNotContain("- orders").doesNotContain("- facts_sales");
+		assertThat(reduced).contains("(2 more tables omitted to fit the prompt budget)");
+		assertThat(reduced).contains("CRITICAL: SQL table/column names MUST be taken from this catalog");
+	}
+
 	private static class SqlActions {
 		@Action(description = "Display SQL query")
 		public void displaySqlQuery(@ActionParam(description = "SQL query to display") Query query) {
@@ -0,0 +1,49 @@
+package org.javai.springai.actions.sql;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.tool.execution.DefaultToolCallResultConverter;
+
+@DisplayName("SqlCatalogToolResultConverter")
+class SqlCatalogToolResultConverterTest {
+
+	private final SqlCatalogToolResultConverter converter = new SqlCatalogToolResultConverter();
+
+	@Test
+	@DisplayName("produces the same JSON as the default converter")
+	void matchesDefaultConverter() {
+		TableSummary summary = new TableSummary("fct_orders", "Orders", "fact", 3, List.of("orders"));
+
+		assertThat(converter.convert(summary, TableSummary.class))
+				.isEqualTo(new DefaultToolCallResultConverter().convert(summary, TableSummary.class));
+	}
+
+	@Test
+	@DisplayName("serializes a returned instance only once")
+	void reusesJsonForSameInstance() {
+		TableSummary summary = new TableSummary("fct_orders", "Orders", "fact", 3, List.of("orders"));
+
+		assertThat(converter.convert(summary, TableSummary.class))
+				.isSameAs(converter.convert(summary, TableSummary.class));
+	}
+
+	@Test
+	@DisplayName("serializes equal but distinct instances separately")
+	void keysByIdentity() {
+		TableSummary first = new TableSummary("fct_orders", "Orders", "fact", 3, List.of());
+		TableSummary second = new TableSummary("fct_orders", "Orders", "fact", 3, List.of());
+
+		String json = converter.convert(first, TableSummary.class);
+
+		assertThat(converter.convert(second, TableSummary.class)).isEqualTo(json).isNotSameAs(json);
+	}
+
+	@Test
+	@DisplayName("converts null results")
+	void convertsNull() {
+		assertThat(converter.convert(null, TableDetail.class))
+				.isEqualTo(new DefaultToolCallResultConverter().convert(null, TableDetail.class));
+	}
+}
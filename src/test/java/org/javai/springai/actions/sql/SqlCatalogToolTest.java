@@ -1,6 +1,7 @@
 package org.javai.springai.actions.sql;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -257,6 +258,53 @@ class SqlCatalogToolTest {
 		}
 	}
 
+	@Nested
+	@DisplayName("caching")
+	class Caching {
+
+		@Test
+		@DisplayName("returns the same responses while the catalog is unchanged")
+		void returnsSameResponses() {
+			assertThat(tool.listTables()).isSameAs(tool.listTables());
+			assertThat(tool.getTableDetails("fct_orders")).isSameAs(tool.getTableDetails("orders"));
+		}
+
+		@Test
+		@DisplayName("still counts every invocation")
+		void countsCachedInvocations() {
+			tool.getTableDetails("fct_orders");
+			tool.getTableDetails("fct_orders");
+
+			assertThat(tool.getTableDetailsInvokedCount()).isEqualTo(2);
+		}
+
+		@Test
+		@DisplayName("rebuilds responses after the catalog changes")
+		void rebuildsAfterCatalogChange() {
+			List<TableSummary> before = tool.listTables();
+			TableDetail ordersBefore = tool.getTableDetails("fct_orders");
+			assertThat(tool.getTableDetails("dim_product")).isNull();
+
+			catalog.addTable("dim_product", "Product dimension", "dimension")
+					.addColumn("fct_orders", "product_id", "FK to product", "string",
+							new String[]{"fk:dim_product.id"}, null);
+
+			assertThat(tool.listTables()).isNotSameAs(before).hasSize(4);
+			assertThat(tool.getTableDetails("dim_product")).isNotNull();
+			assertThat(tool.getTableDetails("fct_orders").columns())
+					.hasSize(ordersBefore.columns().size() + 1);
+		}
+
+		@Test
+		@DisplayName("returns unmodifiable responses")
+		void returnsUnmodifiableResponses() {
+			assertThatThrownBy(() -> tool.listTables().clear())
+					.isInstanceOf(UnsupportedOperationException.class);
+			assertThatThrownBy(() -> tool.getTableDetails("fct_orders").columns().clear())
+					.isInstanceOf(UnsupportedOperationException.class);
+		}
+	}
+
 	@Test
 	@DisplayName("resetCounters clears all tracking")
 	void resetCountersClearsAll() {
@@ -0,0 +1,174 @@
+package org.javai.springai.actions.sql;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import java.time.Duration;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("SqlDialectRenderer")
+class SqlDialectRendererTest {
+
+	private static String render(SqlDialectRenderer renderer, String sql, long maxRows) {
+		return Query.fromSql(sql).sqlString(renderer, QueryLimits.of(maxRows, Duration.ZERO));
+	}
+
+	@Nested
+	@DisplayName("Generic JDBC renderer")
+	class Generic {
+
+		private final GenericSqlDialectRenderer renderer = new GenericSqlDialectRenderer();
+
+		@Test
+		@DisplayName("renders a query that needs no rewrite as parsed")
+		void rendersUnchangedQuery() {
+			Query query = Query.fromSql("SELECT id FROM orders WHERE status = 'ACTIVE'");
+
+			assertThat(query.sqlString(renderer, QueryLimits.NONE)).isEqualTo(query.select().toString());
+		}
+
+		@Test
+		@DisplayName("bounds a query without a limit with FETCH FIRST")
+		void addsFetchFirst() {
+			assertThat(render(renderer, "SELECT id FROM orders ORDER BY id", 100))
+					.endsWith("ORDER BY id FETCH FIRST 100 ROWS ONLY");
+		}
+
+		@Test
+		@DisplayName("lowers a literal limit above the row limit")
+		void lowersLargerLimit() {
+			String sql = render(renderer, "SELECT id FROM orders LIMIT 5000", 100);
+
+			assertThat(sql).contains("LIMIT 100").doesNotContain("5000").doesNotContain("FETCH");
+		}
+
+		@Test
+		@DisplayName("keeps a literal limit within the row limit")
+		void keepsSmallerLimit() {
+			String sql = render(renderer, "SELECT id FROM orders LIMIT 10", 100);
+
+			assertThat(sql).contains("LIMIT 10").doesNotContain("FETCH");
+		}
+
+		@Test
+		@DisplayName("bounds a query with a FETCH clause from outside")
+		void wrapsFetchQuery() {
+			String sql = render(renderer, "SELECT id FROM orders FETCH FIRST 5000 ROWS ONLY", 100);
+
+			assertThat(sql).startsWith("SELECT * FROM (").endsWith("FETCH FIRST 100 ROWS ONLY");
+		}
+
+		@Test
+		@DisplayName("does not modify the query it renders")
+		void leavesQueryUnchanged() {
+			Query query = Query.fromSql("SELECT IFNULL(amount, 0) FROM orders");
+			String before = query.select().toString();
+
+			query.sqlString(renderer, QueryLimits.of(100, Duration.ZERO));
+
+			assertThat(query.select().toString()).isEqualTo(before);
+		}
+
+		@Test
+		@DisplayName("rewrites ILIKE as a comparison of lower-cased values")
+		void rewritesIlike() {
+			String sql = render(renderer, "SELECT id FROM customers WHERE name ILIKE '%smith%'", 0);
+
+			assertThat(sql).contains("LOWER(name) LIKE LOWER('%smith%')").doesNotContain("ILIKE");
+		}
+
+		@Test
+		@DisplayName("renames functions to their standard equivalent")
+		void renamesFunctions() {
+			assertThat(render(renderer, "SELECT NVL(amount, 0) FROM orders", 0))
+					.contains("COALESCE(amount, 0)");
+		}
+
+		@Test
+		@DisplayName("quotes identifiers that are not plain names")
+		void quotesIdentifiers() {
+			assertThat(renderer.quoteIfNeeded("order_lines")).isEqualTo("order_lines");
+			assertThat(renderer.quoteIfNeeded("order lines")).isEqualTo("\"order lines\"");
+			assertThat(renderer.quoteIfNeeded("user")).isEqualTo("\"user\"");
+			assertThat(renderer.quoteIfNeeded("\"user\"")).isEqualTo("\"user\"");
+		}
+	}
+
+	@Nested
+	@DisplayName("PostgreSQL renderer")
+	class Postgres {
+
+		private final PostgresSqlDialectRenderer renderer = new PostgresSqlDialectRenderer();
+
+		@Test
+		@DisplayName("bounds a query without a limit with LIMIT")
+		void addsLimit() {
+			assertThat(render(renderer, "SELECT id FROM orders", 50)).endsWith("LIMIT 50");
+		}
+
+		@Test
+		@DisplayName("keeps the offset of a query without a limit")
+		void keepsOffset() {
+			String sql = render(renderer, "SELECT id FROM orders ORDER BY id OFFSET 20", 50);
+
+			assertThat(sql).contains("LIMIT 50").contains("OFFSET 20");
+		}
+
+		@Test
+		@DisplayName("keeps ILIKE")
+		void keepsIlike() {
+			assertThat(render(renderer, "SELECT id FROM customers WHERE name ILIKE '%smith%'", 0))
+					.contains("ILIKE");
+		}
+
+		@Test
+		@DisplayName("renames date and null-handling functions")
+		void renamesFunctions() {
+			String sql = render(renderer, "SELECT IFNULL(amount, 0), GETDATE() FROM orders", 0);
+
+			assertThat(sql).contains("COALESCE(amount, 0)").contains("NOW()").doesNotContain("GETDATE");
+		}
+
+		@Test
+		@DisplayName("quotes reserved words in lower case and qualified names part by part")
+		void quotesReservedWords() {
+			assertThat(renderer.quoteIfNeeded("Order")).isEqualTo("\"order\"");
+			assertThat(renderer.quoteIfNeeded("sales.order")).isEqualTo("sales.\"order\"");
+			assertThat(renderer.quoteIfNeeded("value")).isEqualTo("value");
+		}
+
+		@Test
+		@DisplayName("sets the statement timeout for the transaction")
+		void statementTimeout() {
+			assertThat(renderer.statementTimeoutSql(Duration.ofSeconds(30)))
+					.contains("SET LOCAL statement_timeout = 30000");
+			assertThat(renderer.statementTimeoutSql(Duration.ZERO)).isEmpty();
+		}
+	}
+
+	@Nested
+	@DisplayName("H2 renderer")
+	class H2 {
+
+		private final H2SqlDialectRenderer renderer = new H2SqlDialectRenderer();
+
+		@Test
+		@DisplayName("bounds a query without a limit with LIMIT")
+		void addsLimit() {
+			assertThat(render(renderer, "SELECT id FROM orders", 50)).endsWith("LIMIT 50");
+		}
+
+		@Test
+		@DisplayName("quotes reserved words in upper case")
+		void quotesReservedWords() {
+			assertThat(renderer.quoteIfNeeded("value")).isEqualTo("\"VALUE\"");
+			assertThat(renderer.quoteIfNeeded("order_value")).isEqualTo("order_value");
+		}
+
+		@Test
+		@DisplayName("leaves the timeout to JDBC rather than set it for the session")
+		void statementTimeout() {
+			assertThat(renderer.statementTimeoutSql(Duration.ofMillis(1500))).isEmpty();
+		}
+	}
+}